@@ -4,13 +4,23 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.spi.AppenderAttachableImpl;
 import com.wind.logging.logback.kafka.delivery.FailedDeliveryCallback;
+import com.wind.logging.logback.kafka.delivery.RingBufferDeliveryStrategy;
+import com.wind.logging.logback.kafka.encoding.BufferEncoder;
+import com.wind.logging.logback.kafka.encoding.BufferEncoderPool;
+import com.wind.logging.logback.kafka.spill.SpillFileBuffer;
+import com.wind.logging.logback.kafka.spill.SpillRecord;
+import com.wind.logging.logback.kafka.spill.SpillReplayer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -24,6 +34,11 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
 
     private static final String KAFKA_APPENDER_ENABLED_KEY = "spring.logging.logback.kafka-appender.enabled";
 
+    /**
+     * 重放溢写消息时单条消息的发送超时时间
+     */
+    private static final long SPILL_REPLAY_TIMEOUT_MILLIS = 10000;
+
     /**
      * Kafka clients uses this prefix for its slf4j logging.
      * This appender defers appends of any Kafka logs since it could cause harmful infinite recursion/self feeding effects.
@@ -35,7 +50,26 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
     private LazyProducer lazyProducer = null;
     private final AppenderAttachableImpl<E> aai = new AppenderAttachableImpl<>();
     private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
-    private final FailedDeliveryCallback<E> failedDeliveryCallback = (evt, throwable) -> aai.appendLoopOnAppenders(evt);
+    private final FailedDeliveryCallback<E> failedDeliveryCallback = new FailedDeliveryCallback<>() {
+
+        @Override
+        public void onFailedDelivery(E evt, Throwable throwable) {
+            onFailedDelivery(evt, null, throwable);
+        }
+
+        @Override
+        public void onFailedDelivery(E evt, ProducerRecord<?, ?> record, Throwable throwable) {
+            if (!spill(evt, record, throwable)) {
+                aai.appendLoopOnAppenders(evt);
+            }
+        }
+    };
+
+    private final BufferEncoderPool bufferEncoderPool = new BufferEncoderPool();
+
+    private SpillFileBuffer spillBuffer = null;
+
+    private SpillReplayer spillReplayer = null;
 
     public KafkaAppender() {
         // setting these as config values sidesteps an unnecessary warning (minor bug in KafkaProducer)
@@ -71,6 +105,17 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
         }
 
         lazyProducer = new LazyProducer();
+        LazyProducer producer = lazyProducer;
+        startSpill(producer);
+        if (deliveryStrategy instanceof RingBufferDeliveryStrategy ringBufferDeliveryStrategy) {
+            if (ringBufferDeliveryStrategy.getContext() == null) {
+                ringBufferDeliveryStrategy.setContext(getContext());
+            }
+            if (spillBuffer != null) {
+                ringBufferDeliveryStrategy.setOverflowCallback(failedDeliveryCallback);
+            }
+            ringBufferDeliveryStrategy.start(getName(), this::createProducerRecord, producer::get, failedDeliveryCallback);
+        }
         super.start();
     }
 
@@ -80,6 +125,14 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
             return;
         }
         super.stop();
+        if (deliveryStrategy instanceof RingBufferDeliveryStrategy ringBufferDeliveryStrategy) {
+            // 先投递缓冲区中的事件再关闭 producer
+            ringBufferDeliveryStrategy.stop();
+        }
+        if (spillReplayer != null) {
+            spillReplayer.stop();
+            spillReplayer = null;
+        }
         if (lazyProducer != null && lazyProducer.isInitialized()) {
             try {
                 lazyProducer.get().close();
@@ -88,6 +141,14 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
             }
             lazyProducer = null;
         }
+        if (spillBuffer != null) {
+            try {
+                spillBuffer.close();
+            } catch (IOException e) {
+                this.addWarn("Failed to close spill buffer: " + e.getMessage(), e);
+            }
+            spillBuffer = null;
+        }
     }
 
     @Override
@@ -133,12 +194,12 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
         if (!enabled) {
             return;
         }
-        final byte[] payload = encoder.encode(e);
-        final byte[] key = keyingStrategy.createKey(e);
-
-        final Long timestamp = isAppendTimestamp() ? getTimestamp(e) : null;
-
-        final ProducerRecord<byte[], byte[]> producerRecord = new ProducerRecord<>(topic, partition, timestamp, key, payload);
+        if (deliveryStrategy instanceof RingBufferDeliveryStrategy ringBufferDeliveryStrategy && ringBufferDeliveryStrategy.isStarted()) {
+            // 由投递线程编码并发送
+            ringBufferDeliveryStrategy.publish(e);
+            return;
+        }
+        final ProducerRecord<byte[], byte[]> producerRecord = createProducerRecord(e);
 
         final Producer<byte[], byte[]> producer = lazyProducer.get();
         if (producer != null) {
@@ -148,6 +209,66 @@ public class KafkaAppender<E> extends KafkaAppenderConfig<E> {
         }
     }
 
+    protected ProducerRecord<byte[], byte[]> createProducerRecord(E e) {
+        final byte[] payload = encode(e);
+        final byte[] key = keyingStrategy.createKey(e);
+
+        final Long timestamp = isAppendTimestamp() ? getTimestamp(e) : null;
+
+        return new ProducerRecord<>(topic, partition, timestamp, key, payload);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] encode(E e) {
+        if (encoder instanceof BufferEncoder<?> bufferEncoder) {
+            // 编码到池化的缓冲区，只生成一个与消息等长的字节数组
+            try {
+                return bufferEncoderPool.encode((BufferEncoder<? super E>) bufferEncoder, e);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+        return encoder.encode(e);
+    }
+
+    private void startSpill(LazyProducer producer) {
+        if (spillDirectory == null || spillDirectory.isBlank()) {
+            return;
+        }
+        try {
+            spillBuffer = SpillFileBuffer.open(Paths.get(spillDirectory), spillSegmentSize, spillMaxSize);
+        } catch (IOException | RuntimeException e) {
+            addError("error opening spill buffer, directory = " + spillDirectory, e);
+            return;
+        }
+        if (!spillBuffer.isEmpty()) {
+            addInfo(String.format("recovered %d spilled logging events, directory = %s", spillBuffer.getPendingCount(), spillDirectory));
+        }
+        spillReplayer = new SpillReplayer(spillBuffer, producer::get, SPILL_REPLAY_TIMEOUT_MILLIS);
+        spillReplayer.setContext(getContext());
+        spillReplayer.start(getName());
+    }
+
+    /**
+     * producer 不可用、可重试的发送失败或投递缓冲区已满时，把消息溢写到磁盘
+     *
+     * @return 是否已溢写
+     */
+    @SuppressWarnings("unchecked")
+    private boolean spill(E event, ProducerRecord<?, ?> record, Throwable throwable) {
+        SpillFileBuffer buffer = spillBuffer;
+        if (buffer == null || !(throwable == null || throwable instanceof RetriableException)) {
+            return false;
+        }
+        try {
+            ProducerRecord<byte[], byte[]> spilled = record == null ? createProducerRecord(event) : (ProducerRecord<byte[], byte[]>) record;
+            return buffer.append(SpillRecord.of(spilled));
+        } catch (Exception e) {
+            addWarn("Failed to spill logging event: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
     protected Long getTimestamp(E e) {
         if (e instanceof ILoggingEvent ev) {
             return ev.getTimeStamp();
@@ -35,6 +35,21 @@ public abstract class KafkaAppenderConfig<E> extends UnsynchronizedAppenderBase<
 
     protected Map<String, Object> producerConfig = new HashMap<String, Object>();
 
+    /**
+     * 溢写文件目录，kafka 不可用或投递缓冲区已满时日志消息写入该目录，恢复后按顺序重放；为空表示不启用
+     */
+    protected String spillDirectory = null;
+
+    /**
+     * 溢写分段文件大小，默认 16MB
+     */
+    protected long spillSegmentSize = 16L * 1024 * 1024;
+
+    /**
+     * 溢写文件最大总大小，默认 256MB
+     */
+    protected long spillMaxSize = 256L * 1024 * 1024;
+
     protected boolean checkPrerequisites() {
         boolean errorFree = true;
 
@@ -112,6 +127,18 @@ public abstract class KafkaAppenderConfig<E> extends UnsynchronizedAppenderBase<
         this.appendTimestamp = appendTimestamp;
     }
 
+    public void setSpillDirectory(String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    public void setSpillSegmentSize(long spillSegmentSize) {
+        this.spillSegmentSize = spillSegmentSize;
+    }
+
+    public void setSpillMaxSize(long spillMaxSize) {
+        this.spillMaxSize = spillMaxSize;
+    }
+
     private String getSystemConfig(String name) {
         String property = System.getProperty(name);
         if (property == null) {
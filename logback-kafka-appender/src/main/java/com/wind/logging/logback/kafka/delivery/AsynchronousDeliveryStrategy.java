@@ -14,12 +14,12 @@ public class AsynchronousDeliveryStrategy implements DeliveryStrategy {
         try {
             producer.send(producerRecord, (metadata, exception) -> {
                 if (exception != null) {
-                    failedDeliveryCallback.onFailedDelivery(event, exception);
+                    failedDeliveryCallback.onFailedDelivery(event, producerRecord, exception);
                 }
             });
             return true;
         } catch (Exception e) {
-            failedDeliveryCallback.onFailedDelivery(event, e);
+            failedDeliveryCallback.onFailedDelivery(event, producerRecord, e);
             return false;
         }
     }
@@ -0,0 +1,149 @@
+package com.wind.logging.logback.kafka.delivery;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 预分配的多生产者、单消费者无锁环形缓冲区
+ * 每个槽位有一个序号：序号等于写入位置时可写，等于写入位置 + 1 时可读，消费后设置为 写入位置 + 容量 供下一轮写入
+ *
+ * @author wuxp
+ * @date 2026-10-17 22:10
+ **/
+final class DeliveryRingBuffer {
+
+    private final DeliveryEntry[] entries;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    /**
+     * 下一个写入位置（多个生产者竞争）
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 下一个读取位置（只有消费线程修改）
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    DeliveryRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.entries = new DeliveryEntry[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            entries[i] = new DeliveryEntry();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入一个待投递的事件
+     *
+     * @return 缓冲区已满时返回 false
+     */
+    boolean offer(Object event, ProducerRecord<?, ?> record, Producer<?, ?> producer, FailedDeliveryCallback<?> callback) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    DeliveryEntry entry = entries[index];
+                    entry.event = event;
+                    entry.record = record;
+                    entry.producer = producer;
+                    entry.callback = callback;
+                    entry.publishNanos = System.nanoTime();
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // 槽位还未被消费，缓冲区已满
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 消费可读的事件，只能在消费线程中调用
+     *
+     * @param handler 处理器，处理完成后槽位会被清空，不能持有槽位的引用
+     * @param limit   最多消费的数量
+     * @return 消费的数量
+     */
+    int drain(Consumer<DeliveryEntry> handler, int limit) {
+        long position = head;
+        int result = 0;
+        while (result < limit) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            DeliveryEntry entry = entries[index];
+            try {
+                handler.accept(entry);
+            } finally {
+                entry.clear();
+                sequences.lazySet(index, position + entries.length);
+                position++;
+                head = position;
+            }
+            result++;
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return 近似的待消费数量
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * 缓冲区槽位，预先分配并循环使用
+     */
+    static final class DeliveryEntry {
+
+        Object event;
+
+        /**
+         * 已创建好的消息，为空时由投递线程编码事件
+         */
+        ProducerRecord<?, ?> record;
+
+        Producer<?, ?> producer;
+
+        FailedDeliveryCallback<?> callback;
+
+        long publishNanos;
+
+        private void clear() {
+            event = null;
+            record = null;
+            producer = null;
+            callback = null;
+        }
+    }
+}
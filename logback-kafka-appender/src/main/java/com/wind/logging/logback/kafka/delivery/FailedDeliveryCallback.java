@@ -1,8 +1,21 @@
 package com.wind.logging.logback.kafka.delivery;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+
 /**
  * @since 0.0.1
  */
 public interface FailedDeliveryCallback<E> {
     void onFailedDelivery(E evt, Throwable throwable);
+
+    /**
+     * 投递失败回调，携带已编码的消息
+     *
+     * @param evt       日志事件
+     * @param record    已编码的消息，未编码时为空
+     * @param throwable 失败原因，producer 不可用或缓冲区已满时为空
+     */
+    default void onFailedDelivery(E evt, ProducerRecord<?, ?> record, Throwable throwable) {
+        onFailedDelivery(evt, throwable);
+    }
 }
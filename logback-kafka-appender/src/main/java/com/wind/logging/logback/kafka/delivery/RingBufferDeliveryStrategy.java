@@ -0,0 +1,482 @@
+package com.wind.logging.logback.kafka.delivery;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于预分配无锁环形缓冲区的投递策略，日志线程只把事件写入缓冲区，由专门的投递线程批量编码并发送到 kafka
+ * 避免 kafka producer 阻塞（获取元数据、缓冲区已满）时阻塞日志线程
+ * <p>
+ * 缓冲区已满时：
+ * {@link OverflowPolicy#DROP} 丢弃级别小于等于 {@link #discardingThreshold} 的事件，更高级别的事件等待 {@link #blockTimeoutMillis} 后丢弃
+ * {@link OverflowPolicy#BLOCK} 所有事件等待 {@link #blockTimeoutMillis} 后丢弃
+ *
+ * @author wuxp
+ * @date 2026-10-17 22:20
+ **/
+public class RingBufferDeliveryStrategy extends ContextAwareBase implements DeliveryStrategy {
+
+    /**
+     * 丢弃事件的告警间隔
+     */
+    private static final long DROPPED_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final long SLEEPING_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long BLOCKING_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * 缓冲区大小，向上取整为 2 的幂
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 投递线程单次最多处理的事件数量
+     */
+    private int batchSize = 256;
+
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * {@link OverflowPolicy#DROP} 时直接丢弃的最高日志级别
+     */
+    private Level discardingThreshold = Level.INFO;
+
+    /**
+     * 缓冲区已满时的最长等待时间
+     */
+    private long blockTimeoutMillis = 100;
+
+    /**
+     * 停止时等待缓冲区投递完成的最长时间
+     */
+    private long shutdownTimeoutMillis = 3000;
+
+    /**
+     * 是否在日志线程中提取调用者信息，编码器需要 %caller 等信息时开启
+     */
+    private boolean includeCallerData = false;
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    private final List<Meter> meters = new ArrayList<>();
+
+    private DeliveryRingBuffer ringBuffer;
+
+    private Function<Object, ProducerRecord<?, ?>> recordFactory;
+
+    private Supplier<? extends Producer<?, ?>> producerSupplier;
+
+    private FailedDeliveryCallback<Object> failedDeliveryCallback;
+
+    private Timer latencyTimer;
+
+    /**
+     * 缓冲区已满丢弃事件时的回调，可以为空
+     */
+    private FailedDeliveryCallback<Object> overflowCallback;
+
+    private volatile Thread drainThread;
+
+    private volatile boolean running;
+
+    /**
+     * 投递线程是否正在等待（{@link WaitStrategy#BLOCKING} 时由生产者唤醒）
+     */
+    private volatile boolean drainWaiting;
+
+    private long lastWarnDropped;
+
+    private long lastWarnNanos;
+
+    /**
+     * 启动投递线程
+     *
+     * @param name                   名称，用于线程名称和监控标签
+     * @param recordFactory          在投递线程中把事件编码为 kafka 消息
+     * @param producerSupplier       kafka producer 提供者，在投递线程中获取
+     * @param failedDeliveryCallback 投递失败回调
+     * @param <E>                    日志事件类型
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public synchronized <E> void start(String name, Function<E, ProducerRecord<byte[], byte[]>> recordFactory,
+                                       Supplier<Producer<byte[], byte[]>> producerSupplier, FailedDeliveryCallback<E> failedDeliveryCallback) {
+        if (running) {
+            return;
+        }
+        this.recordFactory = (Function) recordFactory;
+        this.producerSupplier = producerSupplier;
+        this.failedDeliveryCallback = (FailedDeliveryCallback<Object>) failedDeliveryCallback;
+        this.ringBuffer = new DeliveryRingBuffer(bufferSize);
+        this.lastWarnNanos = System.nanoTime();
+        registerMeters(name);
+        this.running = true;
+        Thread thread = new Thread(this::drainLoop, "kafka-appender-delivery-" + name);
+        thread.setDaemon(true);
+        this.drainThread = thread;
+        thread.start();
+        addInfo(String.format("ring buffer delivery started, name = %s, bufferSize = %d, waitStrategy = %s, overflowPolicy = %s", name,
+                ringBuffer.capacity(), waitStrategy, overflowPolicy));
+    }
+
+    /**
+     * 停止投递线程，等待缓冲区中的事件投递完成（最多等待 {@link #shutdownTimeoutMillis}）
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = drainThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            addWarn(String.format("ring buffer delivery stop timeout, remaining = %d", ringBuffer.size()));
+        }
+        meters.forEach(Metrics.globalRegistry::remove);
+        meters.clear();
+        addInfo(String.format("ring buffer delivery stopped, published = %d, delivered = %d, dropped = %d", published.get(), delivered.get(),
+                dropped.get()));
+    }
+
+    public boolean isStarted() {
+        return running;
+    }
+
+    /**
+     * 发布日志事件，由投递线程编码并发送
+     *
+     * @param event 日志事件
+     * @return 缓冲区已满且被丢弃时返回 false
+     */
+    public boolean publish(Object event) {
+        if (event instanceof ILoggingEvent loggingEvent) {
+            // 延迟处理前固定 mdc、格式化消息等线程相关的数据
+            loggingEvent.prepareForDeferredProcessing();
+            if (includeCallerData) {
+                loggingEvent.getCallerData();
+            }
+        }
+        return offer(event, null, null, null);
+    }
+
+    @Override
+    public <K, V, E> boolean send(Producer<K, V> producer, ProducerRecord<K, V> producerRecord, E event, FailedDeliveryCallback<E> failedDeliveryCallback) {
+        if (!running) {
+            // 未启动时直接异步发送
+            return sendRecord(producer, producerRecord, event, failedDeliveryCallback);
+        }
+        return offer(event, producerRecord, producer, failedDeliveryCallback);
+    }
+
+    private boolean offer(Object event, ProducerRecord<?, ?> record, Producer<?, ?> producer, FailedDeliveryCallback<?> callback) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (ringBuffer.offer(event, record, producer, callback) || offerOnOverflow(event, record, producer, callback)) {
+            published.incrementAndGet();
+            if (drainWaiting) {
+                LockSupport.unpark(drainThread);
+            }
+            return true;
+        }
+        dropped.incrementAndGet();
+        if (overflowCallback != null) {
+            notifyFailedDelivery(overflowCallback, event, record, null);
+        }
+        return false;
+    }
+
+    private boolean offerOnOverflow(Object event, ProducerRecord<?, ?> record, Producer<?, ?> producer, FailedDeliveryCallback<?> callback) {
+        if (overflowPolicy == OverflowPolicy.DROP && isDiscardable(event)) {
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        while (running && System.nanoTime() < deadline) {
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(this, SLEEPING_WAIT_NANOS);
+            if (ringBuffer.offer(event, record, producer, callback)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDiscardable(Object event) {
+        if (event instanceof ILoggingEvent loggingEvent) {
+            return loggingEvent.getLevel().toInt() <= discardingThreshold.toInt();
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        int idle = 0;
+        while (running || !ringBuffer.isEmpty()) {
+            int count;
+            try {
+                count = ringBuffer.drain(this::deliver, batchSize);
+            } catch (Throwable throwable) {
+                // 消费线程只有一个，任何异常都不能让它退出
+                addError("ring buffer drain error", throwable);
+                continue;
+            }
+            if (count > 0) {
+                idle = 0;
+                delivered.addAndGet(count);
+            } else if (running) {
+                idle = waitFor(idle);
+            } else {
+                break;
+            }
+            warnDroppedIfNecessary();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void deliver(DeliveryRingBuffer.DeliveryEntry entry) {
+        Object event = entry.event;
+        FailedDeliveryCallback callback = entry.callback == null ? failedDeliveryCallback : entry.callback;
+        ProducerRecord record = entry.record;
+        try {
+            if (record == null) {
+                record = recordFactory.apply(event);
+            }
+            Producer producer = entry.producer == null ? producerSupplier.get() : entry.producer;
+            if (producer == null) {
+                notifyFailedDelivery(callback, event, record, null);
+            } else {
+                sendRecord(producer, record, event, callback);
+            }
+        } catch (Exception e) {
+            notifyFailedDelivery(callback, event, record, e);
+        } finally {
+            latencyTimer.record(System.nanoTime() - entry.publishNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <K, V, E> boolean sendRecord(Producer<K, V> producer, ProducerRecord<K, V> record, E event, FailedDeliveryCallback<E> callback) {
+        try {
+            producer.send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    notifyFailedDelivery(callback, event, record, exception);
+                }
+            });
+            return true;
+        } catch (Exception e) {
+            notifyFailedDelivery(callback, event, record, e);
+            return false;
+        }
+    }
+
+    /**
+     * 通知投递失败，回调抛出的异常只记录到 logback 状态管理器，不影响消费线程
+     */
+    private <K, V, E> void notifyFailedDelivery(FailedDeliveryCallback<E> callback, E event, ProducerRecord<K, V> record, Throwable throwable) {
+        try {
+            callback.onFailedDelivery(event, record, throwable);
+        } catch (Throwable callbackError) {
+            addError("failed delivery callback error", callbackError);
+        }
+    }
+
+    private int waitFor(int idle) {
+        switch (waitStrategy) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (idle < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (idle < SPIN_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, SLEEPING_WAIT_NANOS);
+                }
+            }
+            default -> {
+                drainWaiting = true;
+                try {
+                    if (running && ringBuffer.isEmpty()) {
+                        LockSupport.parkNanos(this, BLOCKING_WAIT_NANOS);
+                    }
+                } finally {
+                    drainWaiting = false;
+                }
+            }
+        }
+        return idle + 1;
+    }
+
+    private void warnDroppedIfNecessary() {
+        long current = dropped.get();
+        if (current == lastWarnDropped) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastWarnNanos >= DROPPED_WARN_INTERVAL_NANOS) {
+            addWarn(String.format("ring buffer is full, dropped %d logging events in last %d seconds, total dropped = %d", current - lastWarnDropped,
+                    TimeUnit.NANOSECONDS.toSeconds(now - lastWarnNanos), current));
+            lastWarnDropped = current;
+            lastWarnNanos = now;
+        }
+    }
+
+    private void registerMeters(String name) {
+        Tags tags = Tags.of("appender", name == null ? "kafka" : name);
+        meters.add(Gauge.builder("wind.logging.kafka.delivery.queued", this, strategy -> strategy.ringBuffer.size())
+                .description("kafka appender ring buffer queued events")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        meters.add(Gauge.builder("wind.logging.kafka.delivery.capacity", this, strategy -> strategy.ringBuffer.capacity())
+                .description("kafka appender ring buffer capacity")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        meters.add(FunctionCounter.builder("wind.logging.kafka.delivery.dropped", dropped, AtomicLong::get)
+                .description("kafka appender dropped events")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        meters.add(FunctionCounter.builder("wind.logging.kafka.delivery.published", published, AtomicLong::get)
+                .description("kafka appender published events")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        latencyTimer = Timer.builder("wind.logging.kafka.delivery.latency")
+                .description("kafka appender latency from publish to send")
+                .tags(tags)
+                .register(Metrics.globalRegistry);
+        meters.add(latencyTimer);
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public int getQueuedCount() {
+        DeliveryRingBuffer buffer = ringBuffer;
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * 设置缓冲区已满丢弃事件时的回调（例如溢写到磁盘），回调在日志线程中执行
+     *
+     * @param overflowCallback 回调
+     */
+    @SuppressWarnings("unchecked")
+    public <E> void setOverflowCallback(FailedDeliveryCallback<E> overflowCallback) {
+        this.overflowCallback = (FailedDeliveryCallback<Object>) overflowCallback;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setDiscardingThreshold(String discardingThreshold) {
+        this.discardingThreshold = Level.toLevel(discardingThreshold, Level.INFO);
+    }
+
+    public void setBlockTimeoutMillis(long blockTimeoutMillis) {
+        this.blockTimeoutMillis = Math.max(0, blockTimeoutMillis);
+    }
+
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = Math.max(0, shutdownTimeoutMillis);
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    /**
+     * 投递线程没有事件时的等待策略
+     */
+    public enum WaitStrategy {
+
+        /**
+         * 自旋，延迟最低，占用一个 CPU
+         */
+        BUSY_SPIN,
+
+        /**
+         * 自旋后让出 CPU
+         */
+        YIELDING,
+
+        /**
+         * 让出 CPU 后短暂休眠
+         */
+        SLEEPING,
+
+        /**
+         * 休眠直到生产者唤醒，CPU 占用最低
+         */
+        BLOCKING
+    }
+
+    /**
+     * 缓冲区已满时的处理策略
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 按日志级别丢弃
+         */
+        DROP,
+
+        /**
+         * 等待超时后丢弃
+         */
+        BLOCK
+    }
+}
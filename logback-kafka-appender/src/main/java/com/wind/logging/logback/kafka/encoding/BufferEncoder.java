@@ -0,0 +1,22 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 直接写入输出流的日志事件编码器，appender 的 encoder 实现该接口时，事件会被编码到池化复用的缓冲区中，
+ * 避免编码过程中的中间字节数组和扩容拷贝，最终只生成一个与消息等长的 byte[] 交给 kafka
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:50
+ **/
+public interface BufferEncoder<E> {
+
+    /**
+     * 把日志事件编码写入输出流，实现不能持有 output 的引用
+     *
+     * @param event  日志事件
+     * @param output 输出流，由调用方复用
+     */
+    void encode(E event, OutputStream output) throws IOException;
+}
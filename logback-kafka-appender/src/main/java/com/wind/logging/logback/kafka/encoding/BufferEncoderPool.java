@@ -0,0 +1,78 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link ByteBufferOutputStream} 对象池，池中的缓冲区在编码线程之间复用；
+ * 不使用 ThreadLocal，避免虚拟线程场景下每个线程都持有一个缓冲区
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:50
+ **/
+public final class BufferEncoderPool {
+
+    /**
+     * 默认的缓冲区初始大小
+     */
+    public static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    /**
+     * 默认的可复用缓冲区最大大小，超过该大小的缓冲区使用后直接丢弃，避免偶发的大消息长期占用内存
+     */
+    public static final int DEFAULT_MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final BlockingQueue<ByteBufferOutputStream> outputs;
+
+    private final int initialCapacity;
+
+    private final int maxRetainedCapacity;
+
+    public BufferEncoderPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_RETAINED_CAPACITY);
+    }
+
+    public BufferEncoderPool(int poolSize, int initialCapacity, int maxRetainedCapacity) {
+        this.outputs = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * 使用池化的缓冲区编码日志事件
+     *
+     * @param encoder 编码器
+     * @param event   日志事件
+     * @return 与编码结果等长的字节数组
+     */
+    public <E> byte[] encode(BufferEncoder<? super E> encoder, E event) throws IOException {
+        ByteBufferOutputStream output = acquire();
+        try {
+            encoder.encode(event, output);
+            return output.toByteArray();
+        } finally {
+            release(output);
+        }
+    }
+
+    /**
+     * @return 池中空闲的缓冲区数量
+     */
+    public int getIdleCount() {
+        return outputs.size();
+    }
+
+    private ByteBufferOutputStream acquire() {
+        ByteBufferOutputStream result = outputs.poll();
+        return result == null ? new ByteBufferOutputStream(initialCapacity) : result;
+    }
+
+    private void release(ByteBufferOutputStream output) {
+        if (output.capacity() > maxRetainedCapacity) {
+            return;
+        }
+        output.reset();
+        outputs.offer(output);
+    }
+}
@@ -0,0 +1,111 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 基于堆内 {@link ByteBuffer} 的可复用输出流，非线程安全
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:50
+ **/
+public final class ByteBufferOutputStream extends OutputStream {
+
+    private ByteBuffer buffer;
+
+    /**
+     * 最近一次使用的字符编码器，缓冲区只会被一个线程使用，可以复用
+     */
+    private CharsetEncoder charsetEncoder;
+
+    public ByteBufferOutputStream(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ensureRemaining(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * 把字符直接编码写入缓冲区，不生成中间字节数组；无法编码的字符使用替换字符，与 {@link String#getBytes(Charset)} 一致
+     *
+     * @param text    文本
+     * @param charset 字符集
+     */
+    public void write(CharSequence text, Charset charset) {
+        CharsetEncoder encoder = getCharsetEncoder(charset);
+        CharBuffer chars = CharBuffer.wrap(text);
+        ensureRemaining((int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(chars.remaining() * (double) encoder.averageBytesPerChar())));
+        while (true) {
+            CoderResult result = chars.hasRemaining() ? encoder.encode(chars, buffer, true) : CoderResult.UNDERFLOW;
+            if (result.isUnderflow()) {
+                result = encoder.flush(buffer);
+                if (result.isUnderflow()) {
+                    return;
+                }
+            }
+            // 缓冲区不足时扩容后继续编码
+            ensureRemaining(buffer.remaining() + Math.max(16, chars.remaining()));
+        }
+    }
+
+    /**
+     * @return 已写入内容的拷贝
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public void reset() {
+        buffer.clear();
+    }
+
+    private CharsetEncoder getCharsetEncoder(Charset charset) {
+        CharsetEncoder result = charsetEncoder;
+        if (result == null || !result.charset().equals(charset)) {
+            result = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            charsetEncoder = result;
+        }
+        return result.reset();
+    }
+
+    private void ensureRemaining(int length) {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        int required = buffer.position() + length;
+        if (required < 0) {
+            throw new OutOfMemoryError("required buffer size is too large");
+        }
+        int capacity = Math.max(required, buffer.capacity() << 1);
+        ByteBuffer result = ByteBuffer.allocate(capacity < 0 ? Integer.MAX_VALUE - 8 : capacity);
+        result.put(buffer.flip());
+        buffer = result;
+    }
+}
@@ -0,0 +1,15 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder;
+
+/**
+ * 支持池化缓冲区编码的 {@link LoggingEventCompositeJsonEncoder}，配置方式与 {@link LoggingEventCompositeJsonEncoder} 相同
+ * {@link BufferEncoder#encode(Object, java.io.OutputStream)} 由父类的流式编码方法实现，JSON 直接写入缓冲区
+ *
+ * @author wuxp
+ * @date 2026-10-18 15:50
+ **/
+public class LoggingEventCompositeJsonBufferEncoder extends LoggingEventCompositeJsonEncoder implements BufferEncoder<ILoggingEvent> {
+
+}
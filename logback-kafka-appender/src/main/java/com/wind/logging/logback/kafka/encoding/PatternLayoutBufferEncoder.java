@@ -0,0 +1,28 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * 支持池化缓冲区编码的 {@link PatternLayoutEncoder}，格式化后的文本直接编码写入缓冲区，配置方式与 {@link PatternLayoutEncoder} 相同
+ *
+ * @author wuxp
+ * @date 2026-10-18 15:50
+ **/
+public class PatternLayoutBufferEncoder extends PatternLayoutEncoder implements BufferEncoder<ILoggingEvent> {
+
+    @Override
+    public void encode(ILoggingEvent event, OutputStream output) throws IOException {
+        String text = getLayout().doLayout(event);
+        Charset charset = getCharset() == null ? Charset.defaultCharset() : getCharset();
+        if (output instanceof ByteBufferOutputStream bufferOutput) {
+            bufferOutput.write(text, charset);
+        } else {
+            output.write(text.getBytes(charset));
+        }
+    }
+}
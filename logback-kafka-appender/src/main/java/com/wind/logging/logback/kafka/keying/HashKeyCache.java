@@ -0,0 +1,41 @@
+package com.wind.logging.logback.kafka.keying;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 名称 hash key 缓存，避免每个日志事件重新计算 key 字节；缓存数量达到上限后不再缓存新的名称
+ * 返回的字节数组被多个消息共享，kafka 不会修改消息 key
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:55
+ **/
+final class HashKeyCache {
+
+    private static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final Map<String, byte[]> keys = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    HashKeyCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    HashKeyCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    byte[] get(String name) {
+        byte[] result = keys.get(name);
+        if (result != null) {
+            return result;
+        }
+        result = ByteBuffer.allocate(4).putInt(name.hashCode()).array();
+        if (keys.size() < maxSize) {
+            keys.putIfAbsent(name, result);
+        }
+        return result;
+    }
+}
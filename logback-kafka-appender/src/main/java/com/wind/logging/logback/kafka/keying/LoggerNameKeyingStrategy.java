@@ -2,8 +2,6 @@ package com.wind.logging.logback.kafka.keying;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
 
-import java.nio.ByteBuffer;
-
 /**
  * This strategy uses the logger name as partitioning key. This ensures that all messages logged by the
  * same logger will remain in the correct order for any consumer.
@@ -13,6 +11,8 @@ import java.nio.ByteBuffer;
  */
 public class LoggerNameKeyingStrategy implements KeyingStrategy<ILoggingEvent> {
 
+    private final HashKeyCache keyCache = new HashKeyCache();
+
     @Override
     public byte[] createKey(ILoggingEvent e) {
         final String loggerName;
@@ -21,7 +21,7 @@ public class LoggerNameKeyingStrategy implements KeyingStrategy<ILoggingEvent> {
         } else {
             loggerName = e.getLoggerName();
         }
-        return ByteBuffer.allocate(4).putInt(loggerName.hashCode()).array();
+        return keyCache.get(loggerName);
     }
 
 }
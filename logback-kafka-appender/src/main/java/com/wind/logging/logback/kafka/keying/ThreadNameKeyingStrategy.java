@@ -2,8 +2,6 @@ package com.wind.logging.logback.kafka.keying;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
 
-import java.nio.ByteBuffer;
-
 /**
  * This strategy uses the calling threads name as partitioning key. This ensures that all messages logged by the
  * same thread will remain in the correct order for any consumer.
@@ -13,8 +11,10 @@ import java.nio.ByteBuffer;
  */
 public class ThreadNameKeyingStrategy implements KeyingStrategy<ILoggingEvent> {
 
+    private final HashKeyCache keyCache = new HashKeyCache();
+
     @Override
     public byte[] createKey(ILoggingEvent e) {
-        return ByteBuffer.allocate(4).putInt(e.getThreadName().hashCode()).array();
+        return keyCache.get(e.getThreadName());
     }
 }
@@ -0,0 +1,387 @@
+package com.wind.logging.logback.kafka.spill;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的分段追加写溢写缓冲区，用于 kafka 不可用时暂存日志消息
+ * <p>
+ * 每个分段文件大小固定，分段数量不超过 最大大小 / 分段大小，写满后拒绝写入
+ * 记录格式：[int 长度][int crc32][消息体]，长度为 0 表示分段结束，为负数表示已重放；
+ * 消息体：[long 时间戳][int 分区][short topic 长度][topic][int key 长度][key][int value 长度][value]，长度为 -1 表示空
+ * <p>
+ * 重放完成的记录在原位置标记为已重放，分段全部重放完成后删除分段文件；重启后从未重放的记录继续，crc 校验失败的记录视为分段结束
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:05
+ **/
+public final class SpillFileBuffer implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "spill-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * 记录头：长度 + crc
+     */
+    private static final int HEADER_SIZE = 8;
+
+    private static final int NULL_LENGTH = -1;
+
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final int maxSegments;
+
+    /**
+     * 分段按写入顺序排列，第一个为正在读取的分段，最后一个为正在写入的分段
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+
+    private long writePosition;
+
+    private long readPosition;
+
+    /**
+     * 已读取但还未确认的记录长度，没有时为 0
+     */
+    private int peekedLength;
+
+    private long pendingCount;
+
+    private boolean closed;
+
+    private SpillFileBuffer(Path directory, long segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * 打开溢写缓冲区，目录中已存在的分段会被恢复
+     *
+     * @param directory   分段文件目录
+     * @param segmentSize 分段大小
+     * @param maxSize     最大大小
+     * @return 溢写缓冲区
+     */
+    public static SpillFileBuffer open(Path directory, long segmentSize, long maxSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid segment size = " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        SpillFileBuffer result = new SpillFileBuffer(directory, segmentSize, (int) Math.max(2, maxSize / segmentSize));
+        result.recover();
+        return result;
+    }
+
+    /**
+     * 追加记录
+     *
+     * @param record 记录
+     * @return 缓冲区已满或记录超过分段大小时返回 false
+     */
+    public synchronized boolean append(SpillRecord record) throws IOException {
+        if (closed) {
+            return false;
+        }
+        byte[] body = encode(record);
+        long required = HEADER_SIZE + (long) body.length;
+        if (required > segmentSize) {
+            return false;
+        }
+        Segment segment = segments.peekLast();
+        if (segment == null || writePosition + required > segment.size()) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            if (segment != null) {
+                segment.memory().force();
+            }
+            segment = createSegment();
+            segments.addLast(segment);
+            writePosition = 0;
+        }
+        MemorySegment memory = segment.memory();
+        MemorySegment.copy(body, 0, memory, ValueLayout.JAVA_BYTE, writePosition + HEADER_SIZE, body.length);
+        memory.set(ValueLayout.JAVA_INT_UNALIGNED, writePosition + 4, crc(body));
+        // 最后写入长度，长度不为 0 的记录才是完整的
+        memory.set(ValueLayout.JAVA_INT_UNALIGNED, writePosition, body.length);
+        writePosition += required;
+        pendingCount++;
+        return true;
+    }
+
+    /**
+     * 读取下一条未重放的记录，重复调用返回同一条记录，直到调用 {@link #commit()}
+     *
+     * @return 没有未重放的记录时返回 null
+     */
+    public synchronized SpillRecord peek() throws IOException {
+        while (!closed) {
+            Segment segment = segments.peekFirst();
+            if (segment == null) {
+                return null;
+            }
+            SpillRecord result = readRecord(segment);
+            if (result != null) {
+                return result;
+            }
+            if (segment == segments.peekLast()) {
+                // 正在写入的分段没有更多记录
+                return null;
+            }
+            // 分段已重放完成
+            segments.removeFirst();
+            segment.delete();
+            readPosition = 0;
+        }
+        return null;
+    }
+
+    /**
+     * 确认 {@link #peek()} 返回的记录已重放
+     */
+    public synchronized void commit() {
+        if (peekedLength == 0 || closed) {
+            return;
+        }
+        Segment segment = segments.getFirst();
+        segment.memory().set(ValueLayout.JAVA_INT_UNALIGNED, readPosition, -peekedLength);
+        readPosition += HEADER_SIZE + peekedLength;
+        peekedLength = 0;
+        pendingCount--;
+    }
+
+    /**
+     * @return 未重放的记录数量
+     */
+    public synchronized long getPendingCount() {
+        return pendingCount;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pendingCount == 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments) {
+            segment.memory().force();
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private SpillRecord readRecord(Segment segment) {
+        MemorySegment memory = segment.memory();
+        while (readPosition + HEADER_SIZE <= segment.size()) {
+            int length = memory.get(ValueLayout.JAVA_INT_UNALIGNED, readPosition);
+            if (length < 0) {
+                // 已重放
+                readPosition += HEADER_SIZE - (long) length;
+                continue;
+            }
+            byte[] body = readBody(memory, segment.size(), readPosition, length);
+            if (body == null) {
+                return null;
+            }
+            peekedLength = length;
+            return decode(body);
+        }
+        return null;
+    }
+
+    /**
+     * @return 记录不完整或 crc 校验失败时返回 null
+     */
+    private static byte[] readBody(MemorySegment memory, long size, long position, int length) {
+        if (length == 0 || position + HEADER_SIZE + length > size) {
+            return null;
+        }
+        byte[] result = new byte[length];
+        MemorySegment.copy(memory, ValueLayout.JAVA_BYTE, position + HEADER_SIZE, result, 0, length);
+        return memory.get(ValueLayout.JAVA_INT_UNALIGNED, position + 4) == crc(result) ? result : null;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(SpillFileBuffer::isSegmentFile)
+                    .sorted(Comparator.comparingLong(SpillFileBuffer::parseSegmentId))
+                    .toList();
+        }
+        List<Segment> recovered = new ArrayList<>();
+        boolean writable = false;
+        for (Path file : files) {
+            nextSegmentId = parseSegmentId(file) + 1;
+            Segment segment = mapSegment(file, Files.size(file), false);
+            long position = 0;
+            long pending = 0;
+            boolean complete = true;
+            MemorySegment memory = segment.memory();
+            while (position + HEADER_SIZE <= segment.size()) {
+                int length = memory.get(ValueLayout.JAVA_INT_UNALIGNED, position);
+                if (length < 0) {
+                    position += HEADER_SIZE - (long) length;
+                    continue;
+                }
+                if (length == 0) {
+                    break;
+                }
+                if (readBody(memory, segment.size(), position, length) == null) {
+                    // 写入时中断，之后的内容不可信
+                    complete = false;
+                    break;
+                }
+                position += HEADER_SIZE + length;
+                pending++;
+            }
+            if (pending == 0) {
+                segment.delete();
+                continue;
+            }
+            pendingCount += pending;
+            recovered.add(segment);
+            writable = complete && segment.size() == segmentSize;
+            writePosition = position;
+        }
+        segments.addAll(recovered);
+        if (!writable) {
+            // 最后一个分段不完整时从新的分段开始写入
+            segments.addLast(createSegment());
+            writePosition = 0;
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        return mapSegment(file, segmentSize, true);
+    }
+
+    private static Segment mapSegment(Path file, long size, boolean create) throws IOException {
+        FileChannel channel = create ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+            return new Segment(file, channel, arena, memory);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return false;
+        }
+        String id = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+        return !id.isEmpty() && id.chars().allMatch(Character::isDigit);
+    }
+
+    private static long parseSegmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(SpillRecord record) {
+        byte[] topic = record.topic().getBytes(StandardCharsets.UTF_8);
+        byte[] key = record.key();
+        byte[] value = record.value();
+        int length = 8 + 4 + 2 + topic.length + 4 + (key == null ? 0 : key.length) + 4 + (value == null ? 0 : value.length);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putLong(record.timestamp() == null ? NULL_TIMESTAMP : record.timestamp());
+        buffer.putInt(record.partition() == null ? NULL_LENGTH : record.partition());
+        buffer.putShort((short) topic.length);
+        buffer.put(topic);
+        putBytes(buffer, key);
+        putBytes(buffer, value);
+        return buffer.array();
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static SpillRecord decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        long timestamp = buffer.getLong();
+        int partition = buffer.getInt();
+        byte[] topic = new byte[buffer.getShort()];
+        buffer.get(topic);
+        byte[] key = getBytes(buffer);
+        byte[] value = getBytes(buffer);
+        return new SpillRecord(new String(topic, StandardCharsets.UTF_8), partition == NULL_LENGTH ? null : partition,
+                timestamp == NULL_TIMESTAMP ? null : timestamp, key, value);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] result = new byte[length];
+        buffer.get(result);
+        return result;
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(body);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * 分段文件
+     */
+    private record Segment(Path path, FileChannel channel, Arena arena, MemorySegment memory) {
+
+        long size() {
+            return memory.byteSize();
+        }
+
+        void close() throws IOException {
+            // 显式解除映射，避免删除文件后仍占用磁盘空间
+            arena.close();
+            channel.close();
+        }
+
+        void delete() throws IOException {
+            close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.wind.logging.logback.kafka.spill;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * 溢写到磁盘的 kafka 消息
+ *
+ * @param topic     topic
+ * @param partition 分区，为空表示由 producer 选择
+ * @param timestamp 时间戳，为空表示由 producer 设置
+ * @param key       消息 key，可以为空
+ * @param value     消息内容
+ * @author wuxp
+ * @date 2026-10-17 23:00
+ **/
+public record SpillRecord(String topic, Integer partition, Long timestamp, byte[] key, byte[] value) {
+
+    public static SpillRecord of(ProducerRecord<byte[], byte[]> record) {
+        return new SpillRecord(record.topic(), record.partition(), record.timestamp(), record.key(), record.value());
+    }
+
+    public ProducerRecord<byte[], byte[]> toProducerRecord() {
+        return new ProducerRecord<>(topic, partition, timestamp, key, value);
+    }
+}
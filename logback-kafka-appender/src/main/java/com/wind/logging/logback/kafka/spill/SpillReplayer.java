@@ -0,0 +1,132 @@
+package com.wind.logging.logback.kafka.spill;
+
+import ch.qos.logback.core.spi.ContextAwareBase;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.errors.RetriableException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 溢写记录重放器，在后台线程中按写入顺序把溢写的记录同步发送到 kafka，发送成功后才确认下一条
+ * 发送失败时按指数退避重试；不可重试的错误（例如消息过大）跳过该记录
+ *
+ * @author wuxp
+ * @date 2026-10-17 23:20
+ **/
+public class SpillReplayer extends ContextAwareBase {
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+
+    private static final long MAX_BACKOFF_MILLIS = 60000;
+
+    private final SpillFileBuffer buffer;
+
+    private final Supplier<? extends Producer<byte[], byte[]>> producerSupplier;
+
+    private final long sendTimeoutMillis;
+
+    private final AtomicLong replayed = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private volatile boolean running;
+
+    private volatile Thread thread;
+
+    /**
+     * @param buffer            溢写缓冲区
+     * @param producerSupplier  kafka producer 提供者
+     * @param sendTimeoutMillis 单条记录发送超时时间
+     */
+    public SpillReplayer(SpillFileBuffer buffer, Supplier<? extends Producer<byte[], byte[]>> producerSupplier, long sendTimeoutMillis) {
+        this.buffer = buffer;
+        this.producerSupplier = producerSupplier;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    public synchronized void start(String name) {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread result = new Thread(this::replayLoop, "kafka-appender-spill-replayer-" + name);
+        result.setDaemon(true);
+        thread = result;
+        result.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread current = thread;
+        current.interrupt();
+        try {
+            current.join(sendTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getReplayedCount() {
+        return replayed.get();
+    }
+
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    private void replayLoop() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (running) {
+            try {
+                if (replayNext()) {
+                    backoff = MIN_BACKOFF_MILLIS;
+                } else {
+                    LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                addWarn(String.format("replay spilled record failed, pending = %d, retry after %d ms", buffer.getPendingCount(), backoff), e);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoff));
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            }
+        }
+    }
+
+    /**
+     * 重放下一条记录
+     *
+     * @return 没有待重放的记录或 producer 不可用时返回 false
+     */
+    boolean replayNext() throws Exception {
+        SpillRecord record = buffer.peek();
+        if (record == null) {
+            return false;
+        }
+        Producer<byte[], byte[]> producer = producerSupplier.get();
+        if (producer == null) {
+            return false;
+        }
+        try {
+            producer.send(record.toProducerRecord()).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            replayed.incrementAndGet();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RetriableException) {
+                throw e;
+            }
+            addError("skip spilled record that can not be delivered, topic = " + record.topic(), e.getCause());
+            skipped.incrementAndGet();
+        }
+        buffer.commit();
+        return true;
+    }
+}
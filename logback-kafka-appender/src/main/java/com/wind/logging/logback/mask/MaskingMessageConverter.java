@@ -5,14 +5,17 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import com.wind.mask.MaskRuleRegistry;
 import com.wind.mask.ObjectMaskPrinter;
 import org.slf4j.helpers.MessageFormatter;
-import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
-import java.util.Arrays;
+import java.time.temporal.Temporal;
 import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
 
 /**
  * 日志脱敏
+ * 参数都不需要脱敏时直接使用 {@link ILoggingEvent#getFormattedMessage()}，需要脱敏时按缓存的模板解析结果拼接消息
  *
  * @author wuxp
  * @date 2024-08-07 15:47
@@ -23,6 +26,18 @@ public class MaskingMessageConverter extends ClassicConverter {
 
     private static final ObjectMaskPrinter MASKER = new ObjectMaskPrinter(LOG_MASK_RULE_REGISTRY);
 
+    private static final String FAILED_TO_STRING = "[FAILED toString()]";
+
+    private static final String FAILED_MASK = "[FAILED mask()]";
+
+    /**
+     * 消息模板解析结果缓存，日志模板一般是常量字符串
+     *
+     * @key 消息模板
+     * @value 模板解析结果
+     */
+    private static final Map<String, MessageFormatPlan> FORMAT_PLANS = new ConcurrentReferenceHashMap<>(512);
+
     @Override
     public String convert(ILoggingEvent event) {
         Object[] argumentArray = event.getArgumentArray();
@@ -30,30 +45,82 @@ public class MaskingMessageConverter extends ClassicConverter {
             // TODO 字符串处理
             return event.getFormattedMessage();
         }
+        boolean[] masks = null;
         try {
-            Object[] args = Arrays.stream(argumentArray)
-                    .map(object -> {
-                        if (requireMask(object)) {
-                            return MASKER.mask(object);
-                        }
-                        return object;
-                    })
-                    .toArray(Object[]::new);
-            return MessageFormatter.arrayFormat(event.getMessage(), args).getMessage();
+            int argumentCount = getArgumentCount(argumentArray);
+            for (int i = 0; i < argumentCount; i++) {
+                if (requireMask(argumentArray[i])) {
+                    if (masks == null) {
+                        masks = new boolean[argumentCount];
+                    }
+                    masks[i] = true;
+                }
+            }
+            if (masks == null) {
+                // 没有需要脱敏的参数，格式化结果由 event 缓存
+                return event.getFormattedMessage();
+            }
+            boolean[] requireMasks = masks;
+            MessageFormatPlan plan = FORMAT_PLANS.computeIfAbsent(event.getMessage(), MessageFormatPlan::parse);
+            return plan.format(argumentCount, (builder, index) -> {
+                Object argument = argumentArray[index];
+                if (requireMasks[index]) {
+                    appendMaskedArgument(builder, argument);
+                } else {
+                    appendArgument(builder, argument);
+                }
+            });
         } catch (Throwable throwable) {
-            // TODO
-            return event.getFormattedMessage();
+            // 需要脱敏时不能退化为未脱敏的格式化消息，只输出消息模板
+            return masks == null ? event.getFormattedMessage() : event.getMessage();
         }
     }
 
+    /**
+     * 与 {@link MessageFormatter#arrayFormat(String, Object[])} 一致，最后一个参数为异常时不参与格式化
+     */
+    private static int getArgumentCount(Object[] argumentArray) {
+        int result = argumentArray.length;
+        return argumentArray[result - 1] instanceof Throwable ? result - 1 : result;
+    }
+
+    /**
+     * 与 slf4j 的 safeObjectAppend 一致，参数的 toString 抛出异常时输出 {@link #FAILED_TO_STRING}
+     */
+    private static void appendArgument(StringBuilder builder, Object argument) {
+        int length = builder.length();
+        try {
+            if (argument != null && argument.getClass().isArray()) {
+                builder.append(MessageFormatter.basicArrayFormat("{}", new Object[]{argument}));
+            } else {
+                builder.append(argument);
+            }
+        } catch (Throwable throwable) {
+            builder.setLength(length);
+            builder.append(FAILED_TO_STRING);
+        }
+    }
+
+    /**
+     * 脱敏失败时输出 {@link #FAILED_MASK}，不能输出原始参数
+     */
+    private static void appendMaskedArgument(StringBuilder builder, Object argument) {
+        String masked;
+        try {
+            masked = MASKER.mask(argument);
+        } catch (Throwable throwable) {
+            masked = FAILED_MASK;
+        }
+        builder.append(masked);
+    }
+
     private boolean requireMask(Object o) {
         Class<?> useMaskClass = getUseMaskClass(o);
         return useMaskClass != null && LOG_MASK_RULE_REGISTRY.requireMask(useMaskClass);
     }
 
-    @SuppressWarnings("unchecked")
     private Class<?> getUseMaskClass(Object o) {
-        if (o == null) {
+        if (o == null || isSimpleValue(o)) {
             return null;
         }
         if (o instanceof Throwable) {
@@ -62,14 +129,22 @@ public class MaskingMessageConverter extends ClassicConverter {
         Class<?> clazz = o.getClass();
         if (clazz.isArray()) {
             return clazz.getComponentType();
-        } else if (ClassUtils.isAssignable(Collection.class, clazz)) {
-            Collection<Object> objects = (Collection<Object>) o;
+        } else if (o instanceof Collection<?> objects) {
             if (objects.isEmpty()) {
                 return null;
             }
-            return objects.iterator().next().getClass();
+            Object first = objects.iterator().next();
+            return first == null ? null : first.getClass();
         }
         return clazz;
     }
 
-}
\ No newline at end of file
+    /**
+     * 简单类型直接输出，不需要查找脱敏规则
+     */
+    private static boolean isSimpleValue(Object o) {
+        return o instanceof CharSequence || o instanceof Number || o instanceof Boolean || o instanceof Character || o instanceof Enum<?> ||
+                o instanceof Temporal || o instanceof Date;
+    }
+
+}
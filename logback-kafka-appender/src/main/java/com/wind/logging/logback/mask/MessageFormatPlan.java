@@ -0,0 +1,116 @@
+package com.wind.logging.logback.mask;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志消息模板的占位符解析结果，格式化结果与 {@link MessageFormatter#arrayFormat(String, Object[])} 一致，
+ * 包括转义的 {@code \{}}、{@code \\{}} 以及参数数量与占位符数量不一致的情况
+ *
+ * @author wuxp
+ * @date 2026-10-18 00:10
+ **/
+final class MessageFormatPlan {
+
+    private static final String DELIMITER = "{}";
+
+    private static final char ESCAPE_CHAR = '\\';
+
+    private final String pattern;
+
+    /**
+     * 每个占位符之前的文本（已处理转义）
+     */
+    private final String[] prefixes;
+
+    /**
+     * 每个占位符在模板中的结束位置
+     */
+    private final int[] ends;
+
+    /**
+     * 最后一个占位符之后的文本（已处理转义），参数多于占位符时使用
+     */
+    private final String escapedTail;
+
+    private MessageFormatPlan(String pattern, String[] prefixes, int[] ends, String escapedTail) {
+        this.pattern = pattern;
+        this.prefixes = prefixes;
+        this.ends = ends;
+        this.escapedTail = escapedTail;
+    }
+
+    static MessageFormatPlan parse(String pattern) {
+        List<String> prefixes = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        int j;
+        while ((j = pattern.indexOf(DELIMITER, i)) >= 0) {
+            if (j > 0 && pattern.charAt(j - 1) == ESCAPE_CHAR) {
+                if (j > 1 && pattern.charAt(j - 2) == ESCAPE_CHAR) {
+                    // 转义的 '\'，后面是占位符
+                    literal.append(pattern, i, j - 1);
+                    i = addPlaceholder(literal, j + 2, prefixes, ends);
+                } else {
+                    // 转义的占位符
+                    literal.append(pattern, i, j - 1).append('{');
+                    i = j + 1;
+                }
+            } else {
+                literal.append(pattern, i, j);
+                i = addPlaceholder(literal, j + 2, prefixes, ends);
+            }
+        }
+        literal.append(pattern, i, pattern.length());
+        return new MessageFormatPlan(pattern, prefixes.toArray(String[]::new), ends.stream().mapToInt(Integer::intValue).toArray(), literal.toString());
+    }
+
+    private static int addPlaceholder(StringBuilder literal, int end, List<String> prefixes, List<Integer> ends) {
+        prefixes.add(literal.toString());
+        ends.add(end);
+        literal.setLength(0);
+        return end;
+    }
+
+    /**
+     * @return 占位符数量
+     */
+    int getPlaceholderCount() {
+        return prefixes.length;
+    }
+
+    /**
+     * 格式化消息
+     *
+     * @param argumentCount 参数数量
+     * @param appender      按参数位置追加参数值
+     * @return 格式化后的消息
+     */
+    String format(int argumentCount, ArgumentAppender appender) {
+        if (argumentCount == 0) {
+            return pattern;
+        }
+        int count = Math.min(argumentCount, prefixes.length);
+        StringBuilder result = new StringBuilder(pattern.length() + 16 * count);
+        for (int i = 0; i < count; i++) {
+            result.append(prefixes[i]);
+            appender.append(result, i);
+        }
+        if (argumentCount > prefixes.length) {
+            result.append(escapedTail);
+        } else {
+            // 参数用完后剩余的模板原样输出
+            result.append(pattern, ends[count - 1], pattern.length());
+        }
+        return result.toString();
+    }
+
+    @FunctionalInterface
+    interface ArgumentAppender {
+
+        void append(StringBuilder builder, int index);
+    }
+}
@@ -0,0 +1,81 @@
+package com.wind.logging.logback.kafka;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import com.wind.logging.logback.kafka.encoding.LoggingEventCompositeJsonBufferEncoder;
+import com.wind.logging.logback.kafka.encoding.PatternLayoutBufferEncoder;
+import com.wind.logging.logback.kafka.keying.NoKeyKeyingStrategy;
+import net.logstash.logback.composite.loggingevent.MessageJsonProvider;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 16:00
+ **/
+class KafkaAppenderTests {
+
+    private final LoggerContext context = new LoggerContext();
+
+    /**
+     * 非池化路径的调用次数
+     */
+    private final AtomicInteger byteArrayEncodes = new AtomicInteger();
+
+    @Test
+    void testPatternEncoderUseBufferPool() {
+        PatternLayoutBufferEncoder encoder = new PatternLayoutBufferEncoder() {
+            @Override
+            public byte[] encode(ILoggingEvent event) {
+                byteArrayEncodes.incrementAndGet();
+                return super.encode(event);
+            }
+        };
+        encoder.setContext(context);
+        encoder.setPattern("%level %msg");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        ProducerRecord<byte[], byte[]> record = newAppender(encoder).createProducerRecord(newEvent("消息 message"));
+        Assertions.assertEquals("INFO 消息 message", new String(record.value(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(0, byteArrayEncodes.get());
+    }
+
+    @Test
+    void testJsonEncoderUseBufferPool() {
+        LoggingEventCompositeJsonBufferEncoder encoder = new LoggingEventCompositeJsonBufferEncoder() {
+            @Override
+            public byte[] encode(ILoggingEvent event) {
+                byteArrayEncodes.incrementAndGet();
+                return super.encode(event);
+            }
+        };
+        encoder.setContext(context);
+        encoder.getProviders().addProvider(new MessageJsonProvider());
+        encoder.start();
+
+        ProducerRecord<byte[], byte[]> record = newAppender(encoder).createProducerRecord(newEvent("hello"));
+        Assertions.assertTrue(new String(record.value(), StandardCharsets.UTF_8).contains("\"message\":\"hello\""));
+        Assertions.assertEquals(0, byteArrayEncodes.get());
+    }
+
+    private KafkaAppender<ILoggingEvent> newAppender(Encoder<ILoggingEvent> encoder) {
+        KafkaAppender<ILoggingEvent> result = new KafkaAppender<>();
+        result.setContext(context);
+        result.setTopic("logs");
+        result.setEncoder(encoder);
+        result.setKeyingStrategy(new NoKeyKeyingStrategy());
+        return result;
+    }
+
+    private LoggingEvent newEvent(String message) {
+        return new LoggingEvent(KafkaAppenderTests.class.getName(), context.getLogger("test"), Level.INFO, message, null, null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.wind.logging.logback.kafka.delivery;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.status.Status;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 22:40
+ **/
+class RingBufferDeliveryStrategyTests {
+
+    private final MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+
+    @Test
+    void testConcurrentPublish() throws Exception {
+        RingBufferDeliveryStrategy strategy = new RingBufferDeliveryStrategy();
+        strategy.setBufferSize(64);
+        strategy.setOverflowPolicy(RingBufferDeliveryStrategy.OverflowPolicy.BLOCK);
+        strategy.setBlockTimeoutMillis(5000);
+        List<Object> failed = new CopyOnWriteArrayList<>();
+        strategy.start("test", RingBufferDeliveryStrategyTests::toRecord, () -> producer, (event, throwable) -> failed.add(event));
+        int threads = 4;
+        int events = 2000;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                executor.execute(() -> IntStream.range(0, events).forEach(index -> strategy.publish(thread + "-" + index)));
+            }
+        }
+        strategy.stop();
+        Assertions.assertEquals(threads * events, producer.history().size());
+        Assertions.assertEquals(threads * events, strategy.getDeliveredCount());
+        Assertions.assertEquals(0, strategy.getDroppedCount());
+        Assertions.assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    void testDropByLevelWhenFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger encoded = new AtomicInteger();
+        RingBufferDeliveryStrategy strategy = new RingBufferDeliveryStrategy();
+        strategy.setBufferSize(4);
+        strategy.setBatchSize(1);
+        strategy.setBlockTimeoutMillis(10);
+        strategy.start("drop", event -> {
+            if (encoded.getAndIncrement() == 0) {
+                blocked.countDown();
+                await(release);
+            }
+            return toRecord(event);
+        }, () -> producer, (event, throwable) -> {
+        });
+        strategy.publish(newEvent(Level.INFO));
+        Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        // 正在投递的槽位未释放，剩余 3 个槽位
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(strategy.publish(newEvent(Level.INFO)));
+        }
+        // 缓冲区已满，INFO 直接丢弃，ERROR 等待超时后丢弃
+        Assertions.assertFalse(strategy.publish(newEvent(Level.INFO)));
+        Assertions.assertFalse(strategy.publish(newEvent(Level.ERROR)));
+        Assertions.assertEquals(2, strategy.getDroppedCount());
+        release.countDown();
+        strategy.stop();
+        Assertions.assertEquals(4, producer.history().size());
+    }
+
+    @Test
+    void testDrainContinueWhenCallbackThrows() {
+        LoggerContext context = new LoggerContext();
+        RingBufferDeliveryStrategy strategy = new RingBufferDeliveryStrategy();
+        strategy.setContext(context);
+        strategy.setBufferSize(16);
+        strategy.setBatchSize(1);
+        strategy.start("callback", event -> {
+            if (String.valueOf(event).startsWith("bad")) {
+                throw new IllegalStateException("encode error");
+            }
+            return toRecord(event);
+        }, () -> producer, (event, throwable) -> {
+            throw new IllegalArgumentException("callback error");
+        });
+        strategy.publish("bad-1");
+        strategy.publish("good-1");
+        strategy.publish("bad-2");
+        strategy.publish("good-2");
+        strategy.stop();
+        Assertions.assertEquals(2, producer.history().size());
+        Assertions.assertEquals(4, strategy.getDeliveredCount());
+        long callbackErrors = context.getStatusManager().getCopyOfStatusList()
+                .stream()
+                .filter(status -> status.getLevel() == Status.ERROR && status.getThrowable() instanceof IllegalArgumentException)
+                .count();
+        Assertions.assertEquals(2, callbackErrors);
+    }
+
+    private static ProducerRecord<byte[], byte[]> toRecord(Object event) {
+        return new ProducerRecord<>("logs", String.valueOf(event).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LoggingEvent newEvent(Level level) {
+        LoggingEvent result = new LoggingEvent();
+        result.setLevel(level);
+        result.setLoggerName("test");
+        result.setMessage("message");
+        result.setThreadName(Thread.currentThread().getName());
+        result.setMDCPropertyMap(Map.of());
+        return result;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.wind.logging.logback.kafka.encoding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 23:58
+ **/
+class BufferEncoderPoolTests {
+
+    private final BufferEncoder<String> encoder = (event, output) -> output.write(event.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void testEncodeReuseBuffer() throws Exception {
+        BufferEncoderPool pool = new BufferEncoderPool(1, 8, 64);
+        Assertions.assertEquals("hello", new String(pool.encode(encoder, "hello"), StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, pool.getIdleCount());
+        // 超过初始大小时扩容
+        String message = "a long message exceeds initial capacity";
+        Assertions.assertArrayEquals(message.getBytes(StandardCharsets.UTF_8), pool.encode(encoder, message));
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertEquals("hi", new String(pool.encode(encoder, "hi"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testDiscardOversizedBuffer() throws Exception {
+        BufferEncoderPool pool = new BufferEncoderPool(1, 8, 64);
+        byte[] result = pool.encode(encoder, "x".repeat(100));
+        Assertions.assertEquals(100, result.length);
+        Assertions.assertEquals(0, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,141 @@
+package com.wind.logging.logback.kafka.spill;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 23:40
+ **/
+class SpillFileBufferTests {
+
+    private static final long SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndReplayInOrder() throws Exception {
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertTrue(buffer.append(newRecord("message-" + i)));
+            }
+            Assertions.assertEquals(10, buffer.getPendingCount());
+            Assertions.assertTrue(listSegments().size() > 1);
+            MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+            SpillReplayer replayer = new SpillReplayer(buffer, () -> producer, 1000);
+            while (replayer.replayNext()) {
+                // replay all
+            }
+            List<String> values = producer.history().stream().map(record -> new String(record.value(), StandardCharsets.UTF_8)).toList();
+            Assertions.assertEquals(10, values.size());
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertEquals("message-" + i, values.get(i));
+            }
+            Assertions.assertEquals("key", new String(producer.history().getFirst().key(), StandardCharsets.UTF_8));
+            Assertions.assertTrue(buffer.isEmpty());
+            // 已重放完成的分段被删除
+            Assertions.assertEquals(1, listSegments().size());
+        }
+    }
+
+    @Test
+    void testRejectWhenFull() throws Exception {
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 2)) {
+            int appended = 0;
+            while (buffer.append(newRecord("message-" + appended))) {
+                appended++;
+            }
+            Assertions.assertTrue(appended > 0);
+            Assertions.assertEquals(appended, buffer.getPendingCount());
+            Assertions.assertFalse(buffer.append(new SpillRecord("logs", null, null, null, new byte[(int) SEGMENT_SIZE])));
+        }
+    }
+
+    @Test
+    void testRecoverAfterReopen() throws Exception {
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            for (int i = 0; i < 3; i++) {
+                buffer.append(newRecord("message-" + i));
+            }
+            Assertions.assertEquals("message-0", new String(buffer.peek().value(), StandardCharsets.UTF_8));
+            buffer.commit();
+        }
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            Assertions.assertEquals(2, buffer.getPendingCount());
+            SpillRecord record = buffer.peek();
+            Assertions.assertEquals("message-1", new String(record.value(), StandardCharsets.UTF_8));
+            Assertions.assertEquals(1, record.partition());
+            Assertions.assertEquals(100L, record.timestamp());
+            buffer.append(newRecord("message-3"));
+            buffer.commit();
+            Assertions.assertEquals("message-2", new String(buffer.peek().value(), StandardCharsets.UTF_8));
+            buffer.commit();
+            Assertions.assertEquals("message-3", new String(buffer.peek().value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testSkipCorruptedRecord() throws Exception {
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            buffer.append(newRecord("message-0"));
+            buffer.append(newRecord("message-1"));
+        }
+        Path segment = listSegments().getFirst();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 破坏第二条记录的内容
+            long size = Files.size(segment);
+            ByteBuffer first = ByteBuffer.allocate(4);
+            channel.read(first, 0);
+            int secondOffset = 8 + first.flip().getInt();
+            Assertions.assertTrue(secondOffset + 20 < size);
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), secondOffset + 20);
+        }
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            Assertions.assertEquals(1, buffer.getPendingCount());
+            Assertions.assertEquals("message-0", new String(buffer.peek().value(), StandardCharsets.UTF_8));
+            buffer.commit();
+            Assertions.assertNull(buffer.peek());
+            buffer.append(newRecord("message-2"));
+            Assertions.assertEquals("message-2", new String(buffer.peek().value(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testRetryWhenBrokerUnavailable() throws Exception {
+        try (SpillFileBuffer buffer = SpillFileBuffer.open(directory, SEGMENT_SIZE, SEGMENT_SIZE * 8)) {
+            buffer.append(newRecord("message-0"));
+            MockProducer<byte[], byte[]> producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+            producer.sendException = new NetworkException("broker unavailable");
+            SpillReplayer replayer = new SpillReplayer(buffer, () -> producer, 1000);
+            Assertions.assertThrows(Exception.class, replayer::replayNext);
+            Assertions.assertEquals(1, buffer.getPendingCount());
+            producer.sendException = null;
+            Assertions.assertTrue(replayer.replayNext());
+            Assertions.assertTrue(buffer.isEmpty());
+        }
+    }
+
+    private List<Path> listSegments() throws Exception {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.sorted().toList();
+        }
+    }
+
+    private static SpillRecord newRecord(String value) {
+        return new SpillRecord("logs", 1, 100L, "key".getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+}
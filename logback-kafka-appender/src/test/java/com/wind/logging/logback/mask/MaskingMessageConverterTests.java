@@ -1,5 +1,8 @@
 package com.wind.logging.logback.mask;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONArray;
 import com.wind.common.exception.BaseException;
@@ -52,6 +55,33 @@ class MaskingMessageConverterTests {
         }
     }
 
+    @Test
+    void testThrowingToStringNotLeakMaskedArgument() {
+        MaskingMessageConverter.LOG_MASK_RULE_REGISTRY.registerRules(MaskRuleGroup.builder().form(LogbackMaskUser.class)
+                .of(LogbackMaskUser.Fields.mobilePhone, StringRangMasker.phone())
+                .build());
+        try {
+            LogbackMaskUser user = new LogbackMaskUser();
+            String mobilePhone = "18900234567";
+            user.setMobilePhone(mobilePhone);
+            Object broken = new Object() {
+                @Override
+                public String toString() {
+                    throw new IllegalStateException("broken toString");
+                }
+            };
+            LoggerContext context = new LoggerContext();
+            LoggingEvent event = new LoggingEvent(MaskingMessageConverterTests.class.getName(), context.getLogger("test"), Level.INFO,
+                    "user = {}, broken = {}", null, new Object[]{user, broken});
+            String result = new MaskingMessageConverter().convert(event);
+            Assertions.assertFalse(result.contains(mobilePhone), result);
+            Assertions.assertTrue(result.startsWith("user = "), result);
+            Assertions.assertTrue(result.endsWith("broken = [FAILED toString()]"), result);
+        } finally {
+            MaskingMessageConverter.LOG_MASK_RULE_REGISTRY.clearRules(LogbackMaskUser.class);
+        }
+    }
+
     @Data
     @FieldNameConstants
     static class LogbackMaskUser {
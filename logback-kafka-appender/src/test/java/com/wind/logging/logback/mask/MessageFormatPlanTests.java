@@ -0,0 +1,39 @@
+package com.wind.logging.logback.mask;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 00:20
+ **/
+class MessageFormatPlanTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "no placeholder",
+            "a = {}",
+            "a = {}, b = {}",
+            "{}{}{}",
+            "escaped \\{} a = {}",
+            "double escaped \\\\{} a = {}",
+            "a = {}, escaped tail \\{}",
+            "escaped only \\{}",
+            "unclosed { a = {} }",
+            ""
+    })
+    void testFormatSameAsSlf4j(String pattern) {
+        MessageFormatPlan plan = MessageFormatPlan.parse(pattern);
+        for (int count = 0; count <= 4; count++) {
+            Object[] arguments = new Object[count];
+            for (int i = 0; i < count; i++) {
+                arguments[i] = "arg" + i;
+            }
+            String expected = MessageFormatter.arrayFormat(pattern, arguments).getMessage();
+            String actual = plan.format(count, (builder, index) -> builder.append(arguments[index]));
+            Assertions.assertEquals(expected, actual, "pattern = " + pattern + ", argument count = " + count);
+        }
+    }
+}
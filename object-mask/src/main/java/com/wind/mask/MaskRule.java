@@ -88,14 +88,28 @@ public record MaskRule(@NotNull String name, @NotNull Set<String> keys, @Suppres
     }
 
 
-    private static Pattern convertPattern(String value) {
+    static Pattern convertPattern(String value) {
         if (isRegex(value)) {
             return Pattern.compile(value, Pattern.CASE_INSENSITIVE);
         }
         return Pattern.compile(String.format(".*%s$", value), Pattern.CASE_INSENSITIVE);
     }
 
+    /**
+     * @param value 规则名称
+     * @return 是否为只包含字母、数字、下划线、中划线的普通名称，普通名称等价于忽略大小写的后缀匹配
+     */
+    static boolean isLiteral(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean isRegex(String value) {
         return Arrays.stream(REGEX_PARTS).anyMatch(value::contains);
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import com.wind.mask.annotation.Sensitive;
 import com.wind.mask.masker.MaskerFactory;
 import jakarta.validation.constraints.NotNull;
 import org.jspecify.annotations.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -15,7 +16,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,15 +31,27 @@ import java.util.stream.Collectors;
 
 public record MaskRuleGroup(@NotNull Class<?> target, @NotNull Map<String, MaskRule> rules) {
 
-    static final MaskRuleGroup EMPTY = new MaskRuleGroup(Object.class, Collections.emptyMap());
+    static final MaskRuleGroup EMPTY = new MaskRuleGroup(Object.class, MaskRuleMap.immutableEmpty());
+
+    /**
+     * Map 类型字段规则转换后的规则组缓存
+     *
+     * @key Map 类型字段的规则
+     * @value 规则组
+     */
+    private static final Map<MaskRule, MaskRuleGroup> MAP_RULE_GROUPS = new ConcurrentReferenceHashMap<>();
 
     public MaskRuleGroup(@NotNull Class<?> target, @NotNull Collection<MaskRule> maskRules) {
-        this(target, new ConcurrentHashMap<>(maskRules.stream().collect(Collectors.toMap(MaskRule::name, Function.identity(), (v1, v2) -> v1))));
+        this(target, maskRules.stream().collect(Collectors.toMap(MaskRule::name, Function.identity(), (v1, v2) -> v1)));
     }
 
     public MaskRuleGroup {
         AssertUtils.notNull(target, "argument target must not null");
         AssertUtils.notNull(rules, "argument rules must not null");
+        if (!(rules instanceof MaskRuleMap)) {
+            // 使用可编译 key 匹配器的规则表
+            rules = new MaskRuleMap(rules);
+        }
     }
 
     @NotNull
@@ -71,33 +83,56 @@ public record MaskRuleGroup(@NotNull Class<?> target, @NotNull Map<String, MaskR
         return rules.get(fieldName);
     }
 
+    /**
+     * 查找和 key 匹配的规则，优先级：名称完全相等 > 名称为 key 的后缀（忽略大小写） > 正则表达式
+     *
+     * @param key Map key
+     * @return 匹配的规则
+     */
     @Nullable
     public MaskRule matchesWithKey(String key) {
-        if (key == null && rules.isEmpty()) {
+        if (key == null) {
             return null;
         }
-        return rules.values().stream()
-                .filter(rule -> rule.matches(key))
-                .findFirst()
-                .orElse(null);
+        return ((MaskRuleMap) rules).matches(key);
     }
 
+    /**
+     * 添加规则，已注册到 {@link MaskRuleRegistry} 的规则组会通知注册器使相关缓存失效
+     *
+     * @param rules 规则
+     */
     public void addRules(MaskRule... rules) {
         for (MaskRule rule : rules) {
             this.rules.put(rule.name(), rule);
         }
     }
 
+    /**
+     * 添加规则变化监听者
+     */
+    void addRulesChangedListener(Runnable listener) {
+        ((MaskRuleMap) rules).addListener(listener);
+    }
+
+    void removeRulesChangedListener(Runnable listener) {
+        ((MaskRuleMap) rules).removeListener(listener);
+    }
+
     /**
      * 将 {@link Map} 类型字段的 {@link MaskRule} 转为 {@link  MaskRuleGroup}
      *
+     * 转换结果会被缓存共享，不要修改返回的规则组
+     *
      * @param rule Map 类型字段的规则
      */
     public static MaskRuleGroup convertMapRules(MaskRule rule) {
-        List<MaskRule> rules = rule.keys().stream()
-                .map(key -> MaskRule.mark(key, rule.masker()))
-                .toList();
-        return new MaskRuleGroup(Map.class, rules);
+        return MAP_RULE_GROUPS.computeIfAbsent(rule, key -> {
+            List<MaskRule> rules = key.keys().stream()
+                    .map(name -> MaskRule.mark(name, key.masker()))
+                    .toList();
+            return new MaskRuleGroup(Map.class, rules);
+        });
     }
 
 
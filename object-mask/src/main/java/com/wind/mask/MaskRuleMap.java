@@ -0,0 +1,352 @@
+package com.wind.mask;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * {@link MaskRuleGroup} 的规则表，按需将规则编译为 key 匹配器，规则变化时匹配器失效并通知监听者（例如 {@link MaskRuleRegistry}）
+ * 匹配顺序：名称完全相等 > 名称为 key 的后缀（忽略大小写） > 正则表达式
+ *
+ * @author wuxp
+ * @date 2026-10-17 19:10
+ **/
+final class MaskRuleMap extends ConcurrentHashMap<String, MaskRule> {
+
+    @Serial
+    private static final long serialVersionUID = -2412702410351349045L;
+
+    /**
+     * 单个匹配器最多缓存的 key 数量
+     */
+    private static final int MAX_CACHED_KEYS = 2048;
+
+    /**
+     * 规则版本，规则变化时递增
+     */
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * 规则变化监听者
+     */
+    private final transient CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 是否不可修改
+     */
+    private final boolean immutable;
+
+    @Nullable
+    private transient volatile KeyMatcher matcher;
+
+    MaskRuleMap(Map<String, MaskRule> rules) {
+        this(rules, false);
+    }
+
+    private MaskRuleMap(Map<String, MaskRule> rules, boolean immutable) {
+        super(Math.max(rules.size(), 16));
+        super.putAll(rules);
+        this.immutable = immutable;
+    }
+
+    /**
+     * @return 不可修改的空规则表
+     */
+    static MaskRuleMap immutableEmpty() {
+        return new MaskRuleMap(Map.of(), true);
+    }
+
+    void addListener(Runnable listener) {
+        if (!immutable) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 查找和 key 匹配的规则
+     *
+     * @param key Map key 或字段名称
+     * @return 匹配的规则，没有则返回 null
+     */
+    @Nullable
+    MaskRule matches(String key) {
+        if (isEmpty()) {
+            return null;
+        }
+        KeyMatcher result = matcher;
+        int current = version.get();
+        if (result == null || result.version != current) {
+            result = new KeyMatcher(values(), current);
+            matcher = result;
+        }
+        return result.matches(key);
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        if (listeners != null) {
+            // 反序列化后 listeners 为空
+            listeners.forEach(Runnable::run);
+        }
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("immutable mask rules");
+        }
+    }
+
+    @Override
+    public MaskRule put(String key, MaskRule value) {
+        checkMutable();
+        MaskRule result = super.put(key, value);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public MaskRule putIfAbsent(String key, MaskRule value) {
+        checkMutable();
+        MaskRule result = super.putIfAbsent(key, value);
+        if (result == null) {
+            invalidate();
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends MaskRule> m) {
+        checkMutable();
+        super.putAll(m);
+        invalidate();
+    }
+
+    @Override
+    public MaskRule remove(Object key) {
+        checkMutable();
+        MaskRule result = super.remove(key);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        checkMutable();
+        boolean result = super.remove(key, value);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public MaskRule replace(String key, MaskRule value) {
+        checkMutable();
+        MaskRule result = super.replace(key, value);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public boolean replace(String key, MaskRule oldValue, MaskRule newValue) {
+        checkMutable();
+        boolean result = super.replace(key, oldValue, newValue);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super MaskRule, ? extends MaskRule> function) {
+        checkMutable();
+        super.replaceAll(function);
+        invalidate();
+    }
+
+    @Override
+    public MaskRule computeIfAbsent(String key, Function<? super String, ? extends MaskRule> mappingFunction) {
+        MaskRule existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (immutable) {
+            // 不可修改的规则表只计算不保存
+            return mappingFunction.apply(key);
+        }
+        MaskRule result = super.computeIfAbsent(key, mappingFunction);
+        if (result != null) {
+            invalidate();
+        }
+        return result;
+    }
+
+    @Override
+    public MaskRule computeIfPresent(String key, BiFunction<? super String, ? super MaskRule, ? extends MaskRule> remappingFunction) {
+        checkMutable();
+        MaskRule result = super.computeIfPresent(key, remappingFunction);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public MaskRule compute(String key, BiFunction<? super String, ? super MaskRule, ? extends MaskRule> remappingFunction) {
+        checkMutable();
+        MaskRule result = super.compute(key, remappingFunction);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public MaskRule merge(String key, MaskRule value, BiFunction<? super MaskRule, ? super MaskRule, ? extends MaskRule> remappingFunction) {
+        checkMutable();
+        MaskRule result = super.merge(key, value, remappingFunction);
+        invalidate();
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        super.clear();
+        invalidate();
+    }
+
+    /**
+     * 编译后的 key 匹配器
+     * 普通名称（只包含字母、数字、下划线、中划线）按后缀构建反向字典树，一次遍历 key 即可匹配所有后缀规则
+     * 其它名称预编译为正则表达式
+     */
+    private static final class KeyMatcher {
+
+        private final int version;
+
+        private final Map<String, MaskRule> exactRules = new HashMap<>();
+
+        private final SuffixNode suffixRoot = new SuffixNode();
+
+        private final List<PatternRule> patternRules = new ArrayList<>();
+
+        /**
+         * key 的匹配结果缓存
+         */
+        private final Map<String, Optional<MaskRule>> cachedResults = new ConcurrentHashMap<>();
+
+        private KeyMatcher(Iterable<MaskRule> rules, int version) {
+            this.version = version;
+            for (MaskRule rule : rules) {
+                exactRules.putIfAbsent(rule.name(), rule);
+                if (MaskRule.isLiteral(rule.name())) {
+                    suffixRoot.add(rule.name(), rule);
+                } else {
+                    patternRules.add(new PatternRule(MaskRule.convertPattern(rule.name()), rule));
+                }
+            }
+        }
+
+        @Nullable
+        private MaskRule matches(String key) {
+            if (key == null) {
+                return null;
+            }
+            Optional<MaskRule> cached = cachedResults.get(key);
+            if (cached != null) {
+                return cached.orElse(null);
+            }
+            MaskRule result = doMatches(key);
+            if (cachedResults.size() < MAX_CACHED_KEYS) {
+                cachedResults.put(key, Optional.ofNullable(result));
+            }
+            return result;
+        }
+
+        @Nullable
+        private MaskRule doMatches(String key) {
+            MaskRule result = exactRules.get(key);
+            if (result != null) {
+                return result;
+            }
+            result = suffixRoot.matches(key);
+            if (result != null) {
+                return result;
+            }
+            for (PatternRule rule : patternRules) {
+                if (rule.pattern().matcher(key).matches()) {
+                    return rule.rule();
+                }
+            }
+            return null;
+        }
+    }
+
+    private record PatternRule(Pattern pattern, MaskRule rule) {
+    }
+
+    /**
+     * 反向（从后往前）的 ASCII 字典树节点，字符统一转为小写
+     */
+    private static final class SuffixNode {
+
+        private static final int ASCII_SIZE = 128;
+
+        @Nullable
+        private SuffixNode[] children;
+
+        @Nullable
+        private MaskRule rule;
+
+        private void add(String name, MaskRule value) {
+            SuffixNode node = this;
+            for (int i = name.length() - 1; i >= 0; i--) {
+                if (node.children == null) {
+                    node.children = new SuffixNode[ASCII_SIZE];
+                }
+                int c = toLowerCase(name.charAt(i));
+                if (node.children[c] == null) {
+                    node.children[c] = new SuffixNode();
+                }
+                node = node.children[c];
+            }
+            if (node.rule == null) {
+                node.rule = value;
+            }
+        }
+
+        @Nullable
+        private MaskRule matches(String key) {
+            SuffixNode node = this;
+            int index = key.length() - 1;
+            while (true) {
+                if (node.rule != null) {
+                    return node.rule;
+                }
+                if (index < 0 || node.children == null) {
+                    return null;
+                }
+                char c = key.charAt(index--);
+                if (c >= ASCII_SIZE) {
+                    return null;
+                }
+                node = node.children[toLowerCase(c)];
+                if (node == null) {
+                    return null;
+                }
+            }
+        }
+
+        private static int toLowerCase(char c) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+    }
+}
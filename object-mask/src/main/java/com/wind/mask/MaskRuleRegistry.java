@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 脱敏规则注册器
@@ -22,6 +23,24 @@ public class MaskRuleRegistry {
 
     private final Map<Class<?>, MaskRuleGroup> groups;
 
+    /**
+     * 是否需要脱敏的判断结果缓存，注册或清除规则时失效
+     *
+     * @key 类类型
+     * @value 是否需要脱敏
+     */
+    private final Map<Class<?>, Boolean> requireMaskDecisions = new ConcurrentHashMap<>();
+
+    /**
+     * 规则版本，注册或清除规则时递增，用于使依赖规则的缓存失效
+     */
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * 注册到规则组的规则变化监听者，规则组添加规则时使缓存失效
+     */
+    private final Runnable rulesChangedListener = this::onRulesChanged;
+
     public MaskRuleRegistry() {
         this(Collections.emptyList());
     }
@@ -39,13 +58,20 @@ public class MaskRuleRegistry {
      * @return true 需要
      */
     public boolean requireMask(Class<?> clazz) {
-        return hasRule(clazz) || (clazz.isAnnotationPresent(Sensitive.class) && WindReflectUtils.findFields(clazz, Sensitive.class).length > 0);
+        return requireMaskDecisions.computeIfAbsent(clazz, key -> hasRule(key) ||
+                (key.isAnnotationPresent(Sensitive.class) && WindReflectUtils.findFields(key, Sensitive.class).length > 0));
     }
 
     @NotNull
     public MaskRuleGroup computeIfAbsent(Class<?> target) {
         AssertUtils.notNull(target, "argument target must not null");
-        return groups.computeIfAbsent(target, this::buildRuleGroup);
+        MaskRuleGroup result = groups.get(target);
+        if (result == null) {
+            result = groups.computeIfAbsent(target, this::buildRuleGroup);
+            // 新建的规则组可能包含类注解上的规则
+            requireMaskDecisions.remove(target);
+        }
+        return result;
     }
 
     @Nullable
@@ -59,7 +85,12 @@ public class MaskRuleRegistry {
     }
 
     public void registerRule(MaskRuleGroup group) {
-        this.groups.put(group.target(), group);
+        MaskRuleGroup previous = this.groups.put(group.target(), group);
+        if (previous != null && previous != group) {
+            previous.removeRulesChangedListener(rulesChangedListener);
+        }
+        group.addRulesChangedListener(rulesChangedListener);
+        onRulesChanged();
     }
 
     public void registerRules(@NotNull Collection<MaskRuleGroup> groups) {
@@ -67,15 +98,32 @@ public class MaskRuleRegistry {
     }
 
     public void clearRules(@NotNull Class<?> clazz) {
-        groups.remove(clazz);
+        MaskRuleGroup removed = groups.remove(clazz);
+        if (removed != null) {
+            removed.removeRulesChangedListener(rulesChangedListener);
+        }
+        onRulesChanged();
     }
 
     public void clearRules() {
+        groups.values().forEach(group -> group.removeRulesChangedListener(rulesChangedListener));
         groups.clear();
+        onRulesChanged();
+    }
+
+    int getVersion() {
+        return version.get();
+    }
+
+    private void onRulesChanged() {
+        requireMaskDecisions.clear();
+        version.incrementAndGet();
     }
 
     private MaskRuleGroup buildRuleGroup(Class<?> clazz) {
-        return MaskRuleGroup.builder().form(clazz).last();
+        MaskRuleGroup result = MaskRuleGroup.builder().form(clazz).last();
+        result.addRulesChangedListener(rulesChangedListener);
+        return result;
     }
 
 }
@@ -1,34 +1,96 @@
 package com.wind.mask;
 
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.common.util.WindDeepCopyUtils;
 import com.wind.common.util.WindReflectUtils;
 import com.wind.mask.annotation.Sensitive;
-import lombok.AllArgsConstructor;
+import org.springframework.core.CollectionFactory;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
 
 /**
  * 数据对象脱敏器，支持通过注解 {@link Sensitive} 或 手动注册 {@link MaskRuleRegistry#registerRule(MaskRuleGroup)}} 脱敏规则的方式
  * 如果希望脱敏时不影响原有对象，请使用 {@link #ofDeepCopy(MaskRuleRegistry)} 创建实例
+ * 数组、集合按元素的实际类型判断是否需要脱敏，只复制需要脱敏的元素，元素数量超过 {@link #parallelThreshold} 时使用 fork-join 并行脱敏
  *
  * @author wuxp
  * @date 2024-08-08 09:20
  **/
-@AllArgsConstructor
 public class ObjectDataMasker implements WindMasker<Object, Object> {
 
+    /**
+     * 默认超过该元素数量时并行脱敏
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    /**
+     * 并行脱敏时单个任务处理的元素数量
+     */
+    private static final int SEQUENTIAL_CHUNK_SIZE = 512;
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     private final MaskRuleRegistry registry;
 
-    private Function<Object, Object> objectCopyer;
+    private final Function<Object, Object> objectCopyer;
+
+    /**
+     * 是否为原地脱敏（不复制对象）
+     */
+    private final boolean inPlace;
+
+    /**
+     * 超过该元素数量时并行脱敏，小于等于 0 表示不并行
+     */
+    private final int parallelThreshold;
+
+    /**
+     * 类的脱敏计划缓存
+     *
+     * @key 类类型
+     * @value 脱敏计划
+     */
+    private final Map<Class<?>, ObjectMaskPlan> plans = new ConcurrentReferenceHashMap<>();
 
     public ObjectDataMasker(MaskRuleRegistry registry) {
-        this(registry, o -> o);
+        this(registry, null);
+    }
+
+    public ObjectDataMasker(MaskRuleRegistry registry, Function<Object, Object> objectCopyer) {
+        this(registry, objectCopyer, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param registry          脱敏规则注册器
+     * @param objectCopyer      对象复制器，为空表示原地脱敏
+     * @param parallelThreshold 超过该元素数量时并行脱敏，小于等于 0 表示不并行
+     */
+    public ObjectDataMasker(MaskRuleRegistry registry, Function<Object, Object> objectCopyer, int parallelThreshold) {
+        this.registry = registry;
+        this.inPlace = objectCopyer == null;
+        this.objectCopyer = objectCopyer == null ? o -> o : objectCopyer;
+        this.parallelThreshold = parallelThreshold;
     }
 
     public static ObjectDataMasker ofDeepCopy(MaskRuleRegistry registry) {
@@ -65,59 +127,116 @@ public class ObjectDataMasker implements WindMasker<Object, Object> {
     }
 
     private Object maskObject(Object object) {
-        Class<?> clazz = object.getClass();
-        if (registry.requireMask(clazz)) {
-            for (MaskRule rule : registry.computeIfAbsent(clazz).getRules()) {
-                maskObjectField(rule, object);
-            }
-        }
+        getMaskPlan(object.getClass()).mask(object);
         return object;
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private void maskObjectField(MaskRule rule, Object val) {
-        Field field = WindReflectUtils.findField(val.getClass(), rule.name());
-        Object o = WindReflectUtils.getFieldValue(field, val);
-        if (o == null) {
-            return;
+    /**
+     * 写时复制：只复制并脱敏需要脱敏的元素
+     *
+     * @param element 数组或集合的元素
+     * @return 脱敏后的元素，不需要脱敏时返回原元素
+     */
+    private Object maskElement(Object element) {
+        if (element == null || !registry.requireMask(element.getClass())) {
+            return element;
+        }
+        return maskObject(objectCopyer.apply(element));
+    }
+
+    private ObjectMaskPlan getMaskPlan(Class<?> clazz) {
+        int version = registry.getVersion();
+        ObjectMaskPlan result = plans.get(clazz);
+        if (result == null || result.version != version) {
+            result = new ObjectMaskPlan(registry.requireMask(clazz) ? buildFieldActions(clazz) : new FieldMaskAction[0], version);
+            plans.put(clazz, result);
         }
-        WindMasker masker = rule.masker();
-        if (masker instanceof ObjectMasker objectMasker) {
-            WindReflectUtils.setFieldValue(field, val, objectMasker.mask(o, rule.keys()));
-        } else {
-            WindReflectUtils.setFieldValue(field, val, masker.mask(o));
+        return result;
+    }
+
+    private FieldMaskAction[] buildFieldActions(Class<?> clazz) {
+        List<FieldMaskAction> result = new ArrayList<>();
+        for (MaskRule rule : registry.computeIfAbsent(clazz).getRules()) {
+            Field field = WindReflectUtils.findField(clazz, rule.name());
+            MethodHandle getter = WindReflectUtils.exchangeGetterHandle(field).asType(GETTER_TYPE);
+            MethodHandle setter = WindReflectUtils.exchangeSetterHandle(field).asType(SETTER_TYPE);
+            result.add(new FieldMaskAction(rule, getter, setter));
         }
+        return result.toArray(new FieldMaskAction[0]);
     }
 
     private Object[] maskArray(Object[] array) {
-        Class<?> componentType = array.getClass().getComponentType();
-        if (registry.requireMask(componentType)) {
-            Object[] result = (Object[]) objectCopyer.apply(array);
-            for (Object v : result) {
-                this.maskObject(v);
-            }
-            return result;
+        if (array.length == 0) {
+            return array;
         }
-        return array;
+        Object[] result = inPlace ? array : Arrays.copyOf(array, array.length);
+        return maskElements(array, result) ? result : array;
     }
 
-    @SuppressWarnings({"unchecked"})
     private Collection<Object> maskCollection(Collection<Object> objects) {
         if (objects.isEmpty()) {
             return objects;
         }
-        Object first = objects.iterator().next();
-        if (first == null) {
-            // TODO 待优化
+        // 先 copy 为数组，避免 ConcurrentModificationException
+        Object[] elements = objects.toArray();
+        if (inPlace) {
+            maskElements(elements, elements);
+            return objects;
+        }
+        Object[] masked = new Object[elements.length];
+        if (!maskElements(elements, masked)) {
             return objects;
         }
-        Class<?> elementType = first.getClass();
-        if (registry.requireMask(elementType)) {
-            Collection<Object> result = (Collection<Object>) objectCopyer.apply(objects);
-            result.forEach(this::maskObject);
-            return result;
+        Collection<Object> result = newCollection(objects);
+        result.addAll(Arrays.asList(masked));
+        return result;
+    }
+
+    /**
+     * @param elements 元素
+     * @param result   脱敏结果
+     * @return 是否有元素被脱敏
+     */
+    private boolean maskElements(Object[] elements, Object[] result) {
+        if (parallelThreshold > 0 && elements.length > parallelThreshold) {
+            MaskElementsTask task = new MaskElementsTask(elements, result, 0, elements.length);
+            ForkJoinPool.commonPool().invoke(task);
+            return task.changed;
+        }
+        return maskElements(elements, result, 0, elements.length);
+    }
+
+    private boolean maskElements(Object[] elements, Object[] result, int from, int to) {
+        boolean changed = false;
+        for (int i = from; i < to; i++) {
+            Object element = elements[i];
+            Object masked = maskElement(element);
+            result[i] = masked;
+            changed |= masked != element;
+        }
+        return changed;
+    }
+
+    /**
+     * 创建与源集合类型相同的空集合，类型无法实例化（例如不可变集合、没有无参构造的集合）时退化为 ArrayList、LinkedHashSet 或 TreeSet
+     */
+    private static Collection<Object> newCollection(Collection<Object> source) {
+        if (source instanceof SortedSet<Object> sortedSet && sortedSet.comparator() != null) {
+            // CollectionFactory 无法保留比较器
+            return new TreeSet<>(sortedSet.comparator());
+        }
+        try {
+            return CollectionFactory.createCollection(source.getClass(), source.size());
+        } catch (RuntimeException ignore) {
+            // 退化为通用集合
+        }
+        if (source instanceof SortedSet) {
+            return new TreeSet<>();
         }
-        return objects;
+        if (source instanceof Set) {
+            return new LinkedHashSet<>(source.size());
+        }
+        return new ArrayList<>(source.size());
     }
 
     @SuppressWarnings({"unchecked"})
@@ -136,4 +255,79 @@ public class ObjectDataMasker implements WindMasker<Object, Object> {
         }
         return map;
     }
+
+    private final class MaskElementsTask extends RecursiveAction {
+
+        private final Object[] elements;
+
+        private final Object[] result;
+
+        private final int from;
+
+        private final int to;
+
+        private boolean changed;
+
+        private MaskElementsTask(Object[] elements, Object[] result, int from, int to) {
+            this.elements = elements;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_CHUNK_SIZE) {
+                changed = maskElements(elements, result, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            MaskElementsTask left = new MaskElementsTask(elements, result, from, middle);
+            MaskElementsTask right = new MaskElementsTask(elements, result, middle, to);
+            invokeAll(left, right);
+            changed = left.changed || right.changed;
+        }
+    }
+
+    /**
+     * 类的脱敏计划
+     *
+     * @param actions 字段脱敏动作
+     * @param version 创建计划时的规则版本
+     */
+    private record ObjectMaskPlan(FieldMaskAction[] actions, int version) {
+
+        void mask(Object target) {
+            for (FieldMaskAction action : actions) {
+                action.mask(target);
+            }
+        }
+    }
+
+    /**
+     * 字段脱敏动作，字段的读写句柄只在创建计划时获取一次
+     *
+     * @param rule   脱敏规则
+     * @param getter 字段读取句柄
+     * @param setter 字段写入句柄
+     */
+    private record FieldMaskAction(MaskRule rule, MethodHandle getter, MethodHandle setter) {
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        void mask(Object target) {
+            try {
+                Object value = (Object) getter.invokeExact(target);
+                if (value == null) {
+                    return;
+                }
+                WindMasker masker = rule.masker();
+                Object masked = masker instanceof ObjectMasker objectMasker ? objectMasker.mask(value, rule.keys()) : masker.mask(value);
+                setter.invokeExact(target, masked);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "mask field error, name = " + rule.name(), throwable);
+            }
+        }
+    }
 }
@@ -6,19 +6,23 @@ import com.wind.common.util.WindReflectUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.wind.mask.MaskRuleGroup.convertMapRules;
 
@@ -85,6 +89,14 @@ public record ObjectMaskPrinter(MaskRuleRegistry rueRegistry) implements ObjectM
         IGNORE_PACKAGES.add("ch.qos.");
     }
 
+    /**
+     * 类打印计划缓存，忽略规则变化时清空
+     *
+     * @key 类类型
+     * @value 打印计划
+     */
+    private static final Map<Class<?>, ClassPrintPlan> CLASS_PRINT_PLANS = new ConcurrentReferenceHashMap<>(512);
+
     /**
      * 对象 toString 时，连接字段的字符
      */
@@ -95,11 +107,6 @@ public record ObjectMaskPrinter(MaskRuleRegistry rueRegistry) implements ObjectM
      */
     private static final int REMOVE_LENGTH = FIELD_CONNECTOR.length();
 
-    /**
-     * 对象不为空（null） toSting 后的最小长度
-     */
-    private static final int MIN_LENGTH = REMOVE_LENGTH + 1;
-
     @Override
     public String mask(Object obj, Collection<String> keys) {
         try {
@@ -118,13 +125,38 @@ public record ObjectMaskPrinter(MaskRuleRegistry rueRegistry) implements ObjectM
      */
     public static void addIgnoreCycleRefClasses(Class<?>... classes) {
         IGNORE_CYCLE_REF_CLASSES.addAll(Arrays.asList(classes));
+        CLASS_PRINT_PLANS.clear();
     }
 
+    private static ClassPrintPlan getPrintPlan(Class<?> clazz) {
+        return CLASS_PRINT_PLANS.computeIfAbsent(clazz, ClassPrintPlan::new);
+    }
+
+    private static void addIgnoreClass(Class<?> clazz) {
+        IGNORE_CLASSES.add(clazz);
+        CLASS_PRINT_PLANS.clear();
+    }
+
+    private static boolean isIgnoreMask(Class<?> clazz) {
+        for (Class<?> ignoreClass : IGNORE_CLASSES) {
+            if (ignoreClass.isAssignableFrom(clazz)) {
+                return true;
+            }
+        }
+        String className = clazz.getName();
+        for (String ignorePackage : IGNORE_PACKAGES) {
+            if (className.startsWith(ignorePackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * 打印时通过 {@link #references} 检查对象是否存在循环引用的 ObjectSanitizer 实现
      * 通过 {@link #isOverPrintSize(int)} 限制打印数组的长度
-     * 通过 {@link #maxPrintDepth} {@link #depthCounter} 限制递归打印对象的深度，避免超大对于 toString 占用过多的内存
+     * 通过 {@link #maxPrintDepth} {@link #depth} 限制递归打印对象的深度，避免超大对于 toString 占用过多的内存
+     * 整个对象图只写入同一个 {@link StringBuilder}，不为嵌套的值创建中间字符串
      */
     @VisibleForTesting
     class IdentityLimitPrinter implements ObjectMasker<Object, String> {
@@ -138,16 +170,16 @@ public record ObjectMaskPrinter(MaskRuleRegistry rueRegistry) implements ObjectM
         static final int MAX_COLLECTION_SIZE = 128;
 
         /**
-         * 打印对象的引用缓存
+         * 打印对象的引用缓存（通过对象地址比较）
          */
-        private final List<Object> references = new ArrayList<>();
+        private final Set<Object> references = Collections.newSetFromMap(new IdentityHashMap<>());
 
         /**
          * 最大打印深度
          */
         private final int maxPrintDepth;
 
-        private final AtomicInteger depthCounter = new AtomicInteger();
+        private int depth;
 
         public IdentityLimitPrinter() {
             this(3);
@@ -159,258 +191,325 @@ public record ObjectMaskPrinter(MaskRuleRegistry rueRegistry) implements ObjectM
 
         @Override
         public String mask(Object obj, Collection<String> keys) {
-            return checkCycleRefAndSanitize(obj, null, true);
+            StringBuilder result = new StringBuilder(128);
+            checkCycleRefAndSanitize(obj, null, true, result);
+            return result.toString();
         }
 
-        private String checkCycleRefAndSanitize(Object value, @Nullable MaskRule maskRule, boolean countDeep) {
+        private void checkCycleRefAndSanitize(@Nullable Object value, @Nullable MaskRule maskRule, boolean countDeep, StringBuilder out) {
             if (value == null) {
-                return WindConstants.NULL;
-            }
-            if (isCycleRef(value)) {
-                return printCycleRefClassHashCode(value);
-            }
-            if (value instanceof CharSequence) {
-                // TODO 单纯的字符串先不支持脱敏
-                return value.toString();
-            }
-            if (value instanceof Throwable) {
-                return value.toString();
-            }
-            if (value instanceof Class<?>) {
-                return value.toString();
-            }
-            Class<?> clazz = value.getClass();
-            if (isLambdaExpression(clazz)) {
-                return value.toString();
-            }
-            if (ClassUtils.isPrimitiveOrWrapper(clazz)) {
-                return value.toString();
-            }
-            if (ClassUtils.isPrimitiveArray(clazz)) {
-                // TODO 原始类型数组先不限制打印的长度
-                return printPrimitiveArray(value);
-            }
-            if (noneSensitive(clazz)) {
-                // 不需要脱敏的类型
-                return String.valueOf(value);
-            }
-            if (countDeep && depthCounter.incrementAndGet() > maxPrintDepth) {
-                return String.format("%s 对象打印深度超过了：%d", value.getClass().getName(), maxPrintDepth);
-            }
-            try {
-                return sanitizeByRule(value, maskRule);
-            } finally {
-                depthCounter.decrementAndGet();
+                out.append(WindConstants.NULL);
+                return;
+            }
+            ClassPrintPlan plan = getPrintPlan(value.getClass());
+            if (isCycleRef(value, plan)) {
+                printCycleRefClassHashCode(value, out);
+                return;
+            }
+            switch (plan.kind) {
+                case TO_STRING -> out.append(value);
+                case PRIMITIVE_ARRAY -> printPrimitiveArray(value, out);
+                default -> {
+                    if (countDeep && depth >= maxPrintDepth) {
+                        out.append(value.getClass().getName()).append(" 对象打印深度超过了：").append(maxPrintDepth);
+                        return;
+                    }
+                    if (countDeep) {
+                        depth++;
+                    }
+                    try {
+                        sanitizeByRule(value, plan, maskRule, out);
+                    } finally {
+                        if (countDeep) {
+                            depth--;
+                        }
+                    }
+                }
             }
         }
 
         @SuppressWarnings({"unchecked", "rawtypes"})
-        private String printWithMaskRule(Object value, MaskRule fieldRule) {
+        private void printWithMaskRule(@Nullable Object value, @Nullable MaskRule fieldRule, StringBuilder out) {
             if (value == null) {
-                return WindConstants.NULL;
+                out.append(WindConstants.NULL);
+                return;
             }
-            WindMasker<Object, Object> masker = getMasker(fieldRule);
+            WindMasker<Object, Object> masker = fieldRule == null ? null : fieldRule.masker();
             if (masker == null) {
-                return checkCycleRefAndSanitize(value, null, false);
+                checkCycleRefAndSanitize(value, null, false, out);
+                return;
             }
-            if (isCycleRef(value)) {
-                return printCycleRefClassHashCode(value);
+            if (isCycleRef(value, getPrintPlan(value.getClass()))) {
+                printCycleRefClassHashCode(value, out);
+                return;
             }
             Object result = (masker instanceof ObjectMasker om) ? om.mask(value, fieldRule.keys()) : masker.mask(value);
-            return String.valueOf(result);
+            out.append(result);
         }
 
-        private boolean isCycleRef(Object value) {
-            Class<?> clazz = value.getClass();
-            if (ClassUtils.isPrimitiveOrWrapper(clazz) || ClassUtils.isPrimitiveWrapperArray(clazz) || clazz.isEnum() ||
-                    IGNORE_CYCLE_REF_CLASSES.stream().anyMatch(c -> ClassUtils.isAssignable(c, clazz))) {
-                return false;
-            }
-            // 是否为循序引用（通过对象地址比较）
-            boolean result = references.stream().anyMatch(o -> o == value);
-            if (!result) {
-                // 非循环引用，加入引用队列
-                references.add(value);
-            }
-            return result;
+        private boolean isCycleRef(Object value, ClassPrintPlan plan) {
+            // 非循环引用会加入引用集合
+            return !plan.ignoreCycleRef && !references.add(value);
         }
 
-        private String printCycleRefClassHashCode(Object value) {
+        private void printCycleRefClassHashCode(Object value, StringBuilder out) {
             // 由于实例中存在循环引用，这里只打印对象的类的 hashCode
-            return String.format("%s[%s]", CYCLE_REF_FLAG, Integer.toHexString(value.getClass().hashCode()));
+            out.append(CYCLE_REF_FLAG).append('[').append(Integer.toHexString(value.getClass().hashCode())).append(']');
         }
 
         /**
          * @param value     脱敏的对象
          * @param fieldRule 在 {@param value} 为字段时，改字段的配置规则组
          */
-        private String sanitizeByRule(Object value, @Nullable MaskRule fieldRule) {
-            Class<?> clazz = value.getClass();
-            if (clazz.isArray()) {
-                return printArray((Object[]) value, fieldRule);
-            }
-            if (ClassUtils.isAssignable(Collection.class, clazz)) {
+        private void sanitizeByRule(Object value, ClassPrintPlan plan, @Nullable MaskRule fieldRule, StringBuilder out) {
+            switch (plan.kind) {
+                case OBJECT_ARRAY -> printArray((Object[]) value, fieldRule, out);
                 // 先 copy 后转化为数组打印，避免 ConcurrentModificationException、UnsupportedOperationException 等异常
-                Collection<?> objects = new ArrayList<>((Collection<?>) value);
-                return printArray(objects.toArray(new Object[0]), fieldRule);
-            }
-            if (ClassUtils.isAssignable(Map.class, clazz)) {
+                case COLLECTION -> printArray(new ArrayList<>((Collection<?>) value).toArray(), fieldRule, out);
                 // TODO ConcurrentModificationException 异常处理（暂时没有发现，先不加复制处理）
-                return printMap((Map<?, ?>) value, fieldRule);
+                case MAP -> printMap((Map<?, ?>) value, fieldRule, out);
+                default -> printObject(value, plan, out);
             }
-            return printObject(value);
-        }
-
-        private boolean noneSensitive(Class<?> clazz) {
-            if (ClassUtils.isPrimitiveOrWrapper(clazz) || clazz.isEnum()) {
-                return true;
-            }
-            return ClassUtils.isAssignable(Date.class, clazz) || ClassUtils.isAssignable(Temporal.class, clazz);
         }
 
         /**
          * copy form {@link Arrays#toString}
          */
-        private String printArray(Object[] objects, MaskRule fieldRule) {
+        private void printArray(Object[] objects, @Nullable MaskRule fieldRule, StringBuilder out) {
             int iMax = objects.length - 1;
             if (iMax == -1) {
-                return "[]";
+                out.append("[]");
+                return;
             }
             if (isOverPrintSize(objects.length)) {
-                return toOverMaxSizeString(objects.getClass());
+                toOverMaxSizeString(objects.getClass(), out);
+                return;
             }
-            StringBuilder result = new StringBuilder();
-            result.append('[');
+            out.append('[');
             for (int i = 0; ; i++) {
-                result.append(checkCycleRefAndSanitize(objects[i], fieldRule, false));
+                checkCycleRefAndSanitize(objects[i], fieldRule, false, out);
                 if (i == iMax) {
-                    return result.append(']').toString();
+                    out.append(']');
+                    return;
                 }
-                result.append(", ");
+                out.append(FIELD_CONNECTOR);
             }
         }
 
-        private String printMap(Map<?, ?> map, MaskRule maskRule) {
+        private void printMap(Map<?, ?> map, @Nullable MaskRule maskRule, StringBuilder out) {
             if (map.isEmpty()) {
-                return "{}";
+                out.append("{}");
+                return;
             }
             if (isOverPrintSize(map.size())) {
-                return toOverMaxSizeString(map.getClass());
+                toOverMaxSizeString(map.getClass(), out);
+                return;
             }
             MaskRuleGroup group = maskRule == null ? rueRegistry.computeIfAbsent(Map.class) : convertMapRules(maskRule);
-            StringBuilder result = new StringBuilder();
-            result.append('{');
+            out.append('{');
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 Object key = entry.getKey();
-                result.append(key).append("=");
+                out.append(key).append('=');
                 if (key instanceof String k) {
                     MaskRule rule = group.matchesWithKey(k);
-                    result.append(printWithMaskRule(entry.getValue(), rule == null ? maskRule : rule));
+                    printWithMaskRule(entry.getValue(), rule == null ? maskRule : rule, out);
                 } else {
-                    result.append(mask(entry.getValue()));
+                    checkCycleRefAndSanitize(entry.getValue(), null, true, out);
                 }
-                result.append(", ");
+                out.append(FIELD_CONNECTOR);
             }
-            deleteLastBlank(result);
-            result.append('}');
-            return result.toString();
+            deleteLastBlank(out);
+            out.append('}');
         }
 
-        private String printObject(Object obj) {
-            if (isIgnoreMask(obj)) {
-                return String.valueOf(obj);
-            }
-            Class<?> clazz = obj.getClass();
-            StringBuilder result = new StringBuilder(obj.getClass().getSimpleName()).append("(");
-            for (Field field : WindReflectUtils.getFields(clazz)) {
-                Object value = WindConstants.UNKNOWN;
-                if (!isIgnoreMask(field.getDeclaringClass())  ) {
+        private void printObject(Object obj, ClassPrintPlan plan, StringBuilder out) {
+            if (plan.ignoreMask && !rueRegistry.hasRule(plan.type)) {
+                out.append(obj);
+                return;
+            }
+            FieldPrintPlan[] fields = plan.getFields();
+            if (fields == null) {
+                // 字段不可访问
+                out.append(obj);
+                return;
+            }
+            int start = out.length();
+            out.append(plan.simpleName).append('(');
+            for (FieldPrintPlan field : fields) {
+                out.append(field.name()).append('=');
+                if (field.getter() == null) {
+                    out.append(WindConstants.UNKNOWN);
+                } else {
+                    Object value;
                     try {
-                        value = WindReflectUtils.getFieldValue(field, obj);
+                        value = (Object) field.getter().invokeExact(obj);
                     } catch (Throwable throwable) {
                         log.error("print object field value exception, message = {}", throwable.getMessage(), throwable);
                         // 加入到忽略列表中
-                        IGNORE_CLASSES.add(clazz);
-                        return String.valueOf(obj);
+                        addIgnoreClass(plan.type);
+                        out.setLength(start);
+                        out.append(obj);
+                        return;
                     }
+                    printWithMaskRule(value, rueRegistry.getRuleByField(field.field()), out);
                 }
-                MaskRule rule = value == WindConstants.UNKNOWN ? null : rueRegistry.getRuleByField(field);
-                result.append(field.getName()).append("=").append(printWithMaskRule(value, rule)).append(", ");
-            }
-            deleteLastBlank(result);
-            result.append(')');
-            return result.toString();
-        }
-
-        private String printPrimitiveArray(Object o) {
-            if (o.getClass().getComponentType() == byte.class) {
-                return Arrays.toString((byte[]) o);
-            }
-            if (o.getClass().getComponentType() == short.class) {
-                return Arrays.toString((short[]) o);
-            }
-            if (o.getClass().getComponentType() == int.class) {
-                return Arrays.toString((int[]) o);
-            }
-            if (o.getClass().getComponentType() == long.class) {
-                return Arrays.toString((long[]) o);
+                out.append(FIELD_CONNECTOR);
             }
-            if (o.getClass().getComponentType() == double.class) {
-                return Arrays.toString((double[]) o);
+            if (fields.length > 0) {
+                deleteLastBlank(out);
             }
-            if (o.getClass().getComponentType() == float.class) {
-                return Arrays.toString((float[]) o);
-            }
-            if (o.getClass().getComponentType() == boolean.class) {
-                return Arrays.toString((boolean[]) o);
-            }
-            if (o.getClass().getComponentType() == char.class) {
-                return Arrays.toString((char[]) o);
-            }
-            return null;
+            out.append(')');
         }
 
-        @SuppressWarnings("unchecked")
-        private WindMasker<Object, Object> getMasker(MaskRule rule) {
-            if (rule == null) {
-                return null;
+        private void printPrimitiveArray(Object o, StringBuilder out) {
+            switch (o) {
+                case byte[] array -> out.append(Arrays.toString(array));
+                case short[] array -> out.append(Arrays.toString(array));
+                case int[] array -> out.append(Arrays.toString(array));
+                case long[] array -> out.append(Arrays.toString(array));
+                case double[] array -> out.append(Arrays.toString(array));
+                case float[] array -> out.append(Arrays.toString(array));
+                case boolean[] array -> out.append(Arrays.toString(array));
+                case char[] array -> out.append(Arrays.toString(array));
+                default -> out.append(WindConstants.NULL);
             }
-            return rule.masker();
         }
 
         private void deleteLastBlank(StringBuilder builder) {
             // 非常规写法，只是为了减少重复的代码
-            if (builder.length() > MIN_LENGTH) {
-                builder.deleteCharAt(builder.length() - REMOVE_LENGTH);
-            }
-        }
-
-        private boolean isLambdaExpression(Class<?> clazz) {
-            return clazz.getName().contains("$Lambda$");
+            builder.deleteCharAt(builder.length() - REMOVE_LENGTH);
         }
 
         private boolean isOverPrintSize(int size) {
             return size > MAX_COLLECTION_SIZE;
         }
 
-        private String toOverMaxSizeString(Class<?> clazz) {
-            return String.format("%s 对象的大小超过：%d", clazz.getName(), MAX_COLLECTION_SIZE);
+        private void toOverMaxSizeString(Class<?> clazz, StringBuilder out) {
+            out.append(clazz.getName()).append(" 对象的大小超过：").append(MAX_COLLECTION_SIZE);
         }
+    }
 
-        private boolean isIgnoreMask(Object o) {
-            if (o instanceof Class<?>) {
-                // 忽略类类型
-                return true;
+    /**
+     * 值的打印方式
+     */
+    private enum PrintKind {
+
+        /**
+         * 直接使用 toString
+         */
+        TO_STRING,
+
+        PRIMITIVE_ARRAY,
+
+        OBJECT_ARRAY,
+
+        COLLECTION,
+
+        MAP,
+
+        /**
+         * 按字段打印
+         */
+        OBJECT
+    }
+
+    /**
+     * 类的打印计划，字段与访问句柄在第一次按字段打印时创建
+     */
+    private static final class ClassPrintPlan {
+
+        /**
+         * 字段不可访问的标记
+         */
+        private static final FieldPrintPlan[] INACCESSIBLE = new FieldPrintPlan[0];
+
+        private final Class<?> type;
+
+        private final String simpleName;
+
+        private final PrintKind kind;
+
+        private final boolean ignoreCycleRef;
+
+        /**
+         * 按类型或包名忽略脱敏，类型存在脱敏规则时仍需按字段打印
+         */
+        private final boolean ignoreMask;
+
+        @Nullable
+        private volatile FieldPrintPlan[] fields;
+
+        private ClassPrintPlan(Class<?> type) {
+            this.type = type;
+            this.simpleName = type.getSimpleName();
+            this.kind = resolveKind(type);
+            this.ignoreCycleRef = ClassUtils.isPrimitiveOrWrapper(type) || ClassUtils.isPrimitiveWrapperArray(type) || type.isEnum() ||
+                    IGNORE_CYCLE_REF_CLASSES.stream().anyMatch(c -> ClassUtils.isAssignable(c, type));
+            this.ignoreMask = kind == PrintKind.OBJECT && isIgnoreMask(type);
+        }
+
+        private static PrintKind resolveKind(Class<?> type) {
+            if (CharSequence.class.isAssignableFrom(type) || Throwable.class.isAssignableFrom(type) || type == Class.class ||
+                    type.getName().contains("$Lambda$") || ClassUtils.isPrimitiveOrWrapper(type) || type.isEnum() ||
+                    Date.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type)) {
+                // TODO 单纯的字符串先不支持脱敏
+                return PrintKind.TO_STRING;
+            }
+            if (ClassUtils.isPrimitiveArray(type)) {
+                // TODO 原始类型数组先不限制打印的长度
+                return PrintKind.PRIMITIVE_ARRAY;
+            }
+            if (type.isArray()) {
+                return PrintKind.OBJECT_ARRAY;
+            }
+            if (Collection.class.isAssignableFrom(type)) {
+                return PrintKind.COLLECTION;
             }
-            if (rueRegistry.hasRule(o.getClass())) {
-                // 存在脱敏规则
-                return false;
+            if (Map.class.isAssignableFrom(type)) {
+                return PrintKind.MAP;
             }
-            return isIgnoreMask(o.getClass());
+            return PrintKind.OBJECT;
         }
 
-        private static boolean isIgnoreMask(Class<?> clazz) {
-            return IGNORE_CLASSES.stream().anyMatch(c -> c.isAssignableFrom(clazz)) || IGNORE_PACKAGES.stream().anyMatch(clazz.getName()::startsWith);
+        /**
+         * @return 字段打印计划，字段不可访问时返回 null
+         */
+        @Nullable
+        private FieldPrintPlan[] getFields() {
+            FieldPrintPlan[] result = fields;
+            if (result == null) {
+                result = createFields();
+                fields = result;
+            }
+            return result == INACCESSIBLE ? null : result;
         }
+
+        private FieldPrintPlan[] createFields() {
+            MethodType getterType = MethodType.methodType(Object.class, Object.class);
+            Field[] declaredFields = WindReflectUtils.getFields(type);
+            FieldPrintPlan[] result = new FieldPrintPlan[declaredFields.length];
+            for (int i = 0; i < declaredFields.length; i++) {
+                Field field = declaredFields[i];
+                MethodHandle getter = null;
+                if (!isIgnoreMask(field.getDeclaringClass())) {
+                    try {
+                        getter = WindReflectUtils.exchangeGetterHandle(field).asType(getterType);
+                    } catch (Exception exception) {
+                        log.error("print object field value exception, message = {}", exception.getMessage(), exception);
+                        return INACCESSIBLE;
+                    }
+                }
+                result[i] = new FieldPrintPlan(field, field.getName(), getter);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @param field  字段
+     * @param name   字段名称
+     * @param getter 字段读取句柄，字段所在的类被忽略时为空
+     */
+    private record FieldPrintPlan(Field field, String name, @Nullable MethodHandle getter) {
     }
 }
@@ -0,0 +1,194 @@
+package com.wind.mask.masker.json;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式脱敏支持的 JsonPath 子集匹配器
+ * 支持：$.a.b、$['a']、$.a[0]、$.a[*]、$.a.*、$..a，不以 $ 开头的表达式等价于 $. 开头（与 Jayway JsonPath 一致）
+ * 不支持：过滤器、切片、多选、函数、负数下标等，这些表达式需要使用 DOM 模式
+ *
+ * @author wuxp
+ * @date 2026-10-17 20:05
+ **/
+final class JsonPathMatcher {
+
+    private static final String ROOT = "$";
+
+    private final Step[] steps;
+
+    /**
+     * 是否为确定路径（不包含通配符和递归查找），确定路径值为 null 时不脱敏
+     */
+    private final boolean definite;
+
+    private JsonPathMatcher(Step[] steps) {
+        this.steps = steps;
+        boolean result = true;
+        for (Step step : steps) {
+            if (step.deep() || step.wildcard()) {
+                result = false;
+                break;
+            }
+        }
+        this.definite = result;
+    }
+
+    /**
+     * 解析 JsonPath
+     *
+     * @param path JsonPath 或字段名称
+     * @return 不支持的表达式返回 null
+     */
+    @Nullable
+    static JsonPathMatcher parse(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        String text = path.trim();
+        if (!text.startsWith(ROOT)) {
+            if (text.startsWith("@")) {
+                return null;
+            }
+            text = ROOT + "." + text;
+        }
+        List<Step> result = new ArrayList<>();
+        int length = text.length();
+        int index = ROOT.length();
+        while (index < length) {
+            char c = text.charAt(index);
+            boolean deep = false;
+            if (c == '.') {
+                if (index + 1 < length && text.charAt(index + 1) == '.') {
+                    deep = true;
+                    index += 2;
+                } else {
+                    index++;
+                }
+                if (index >= length) {
+                    return null;
+                }
+                c = text.charAt(index);
+                if (c == '*') {
+                    if (deep) {
+                        return null;
+                    }
+                    result.add(new Step(false, null, -1, true));
+                    index++;
+                    continue;
+                }
+                if (c != '[') {
+                    int end = index;
+                    while (end < length && text.charAt(end) != '.' && text.charAt(end) != '[') {
+                        end++;
+                    }
+                    String name = text.substring(index, end);
+                    if (!isPlainName(name)) {
+                        return null;
+                    }
+                    result.add(new Step(deep, name, -1, false));
+                    index = end;
+                    continue;
+                }
+            }
+            if (c != '[') {
+                return null;
+            }
+            int end = text.indexOf(']', index);
+            if (end < 0) {
+                return null;
+            }
+            Step step = parseBracket(text.substring(index + 1, end).trim(), deep);
+            if (step == null) {
+                return null;
+            }
+            result.add(step);
+            index = end + 1;
+        }
+        return result.isEmpty() ? null : new JsonPathMatcher(result.toArray(new Step[0]));
+    }
+
+    @Nullable
+    private static Step parseBracket(String content, boolean deep) {
+        if (content.equals("*")) {
+            return deep ? null : new Step(false, null, -1, true);
+        }
+        if (content.length() >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"') && content.charAt(content.length() - 1) == content.charAt(0)) {
+            String name = content.substring(1, content.length() - 1);
+            if (name.indexOf('\'') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\\') >= 0) {
+                // 多选或转义
+                return null;
+            }
+            return new Step(deep, name, -1, false);
+        }
+        if (!deep && !content.isEmpty() && content.length() < 10 && content.chars().allMatch(Character::isDigit)) {
+            return new Step(false, null, Integer.parseInt(content), false);
+        }
+        return null;
+    }
+
+    private static boolean isPlainName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '(' || c == ')' || c == '?' || c == '@' || c == ',' || c == ':' || c == '\'' || c == '"' || c == ']' || c == '*' ||
+                    Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isDefinite() {
+        return definite;
+    }
+
+    /**
+     * @param names   当前路径的字段名称，数组元素为 null
+     * @param indexes 当前路径的数组下标
+     * @param depth   当前路径深度
+     * @return 当前路径是否匹配
+     */
+    boolean matches(String[] names, int[] indexes, int depth) {
+        return matches(0, 0, names, indexes, depth);
+    }
+
+    private boolean matches(int stepIndex, int pathIndex, String[] names, int[] indexes, int depth) {
+        if (stepIndex == steps.length) {
+            return pathIndex == depth;
+        }
+        Step step = steps[stepIndex];
+        if (step.deep()) {
+            for (int i = pathIndex; i < depth; i++) {
+                if (step.accept(names[i], indexes[i]) && matches(stepIndex + 1, i + 1, names, indexes, depth)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return pathIndex < depth && step.accept(names[pathIndex], indexes[pathIndex]) && matches(stepIndex + 1, pathIndex + 1, names, indexes, depth);
+    }
+
+    /**
+     * @param deep     是否递归查找（..）
+     * @param name     字段名称，为空表示数组下标或通配符
+     * @param index    数组下标
+     * @param wildcard 是否为通配符
+     */
+    private record Step(boolean deep, @Nullable String name, int index, boolean wildcard) {
+
+        boolean accept(@Nullable String fieldName, int elementIndex) {
+            if (wildcard) {
+                return true;
+            }
+            if (name != null) {
+                return name.equals(fieldName);
+            }
+            return fieldName == null && index == elementIndex;
+        }
+    }
+}
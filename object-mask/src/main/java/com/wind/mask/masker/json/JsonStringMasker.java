@@ -4,6 +4,8 @@ import com.wind.mask.ObjectMasker;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 
 /**
@@ -22,4 +24,21 @@ public final class JsonStringMasker implements ObjectMasker<String, String> {
         }
         return MaskJsonJsonUtils.mask(keys, json);
     }
+
+    /**
+     * 脱敏并直接写入输出，适用于较大的 json 文本，路径都为简单路径时不会构建 DOM
+     *
+     * @param json   json 文本
+     * @param keys   需要脱敏的 JsonPath 或字段名称
+     * @param output 输出
+     */
+    public void mask(String json, Collection<String> keys, Writer output) throws IOException {
+        if (!StringUtils.hasText(json) || CollectionUtils.isEmpty(keys)) {
+            if (json != null) {
+                output.write(json);
+            }
+            return;
+        }
+        MaskJsonJsonUtils.mask(keys, json, output);
+    }
 }
@@ -6,12 +6,18 @@ import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
+import com.wind.common.exception.BaseException;
 import com.wind.mask.WindMasker;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * @author wuxp
@@ -33,6 +39,15 @@ final class MaskJsonJsonUtils {
             .expireAfterWrite(Duration.ofHours(6))
             .build();
 
+    /**
+     * 流式脱敏路径匹配器缓存，不支持流式脱敏的路径为 {@link Optional#empty()}
+     */
+    private static final Cache<@NotNull String, Optional<JsonPathMatcher>> STREAMING_PATHS = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .initialCapacity(100)
+            .expireAfterWrite(Duration.ofHours(6))
+            .build();
+
     /**
      * Jayway JsonPath 配置，禁止异常抛出，可读取不存在的路径
      */
@@ -59,11 +74,60 @@ final class MaskJsonJsonUtils {
      * @return 脱敏后的 json
      */
     static String mask(Collection<String> keys, String json) {
+        List<JsonPathMatcher> matchers = getStreamingMatchers(keys);
+        if (matchers != null) {
+            try {
+                return StreamingJsonMasker.mask(json, matchers);
+            } catch (BaseException exception) {
+                log.debug("streaming mask failed, fallback to dom mode, message = {}", exception.getMessage());
+            }
+        }
+        return maskWithDocument(keys, json);
+    }
+
+    /**
+     * 脱敏并写入输出，所有路径都支持流式脱敏时不会构建 DOM
+     *
+     * @param keys   待脱敏的 key
+     * @param json   json
+     * @param output 输出
+     */
+    static void mask(Collection<String> keys, String json, Appendable output) throws IOException {
+        List<JsonPathMatcher> matchers = getStreamingMatchers(keys);
+        if (matchers != null) {
+            try {
+                StreamingJsonMasker.mask(json, matchers, output);
+                return;
+            } catch (BaseException exception) {
+                log.debug("streaming mask failed, fallback to dom mode, message = {}", exception.getMessage());
+            }
+        }
+        output.append(maskWithDocument(keys, json));
+    }
+
+    private static String maskWithDocument(Collection<String> keys, String json) {
         DocumentContext doc = JsonPath.using(JSON_PATH_CONFIG).parse(json);
         mask(keys, doc);
         return doc.jsonString();
     }
 
+    /**
+     * @param keys 待脱敏的 key
+     * @return 流式脱敏路径匹配器，存在不支持流式脱敏的路径时返回 null
+     */
+    @Nullable
+    private static List<JsonPathMatcher> getStreamingMatchers(Collection<String> keys) {
+        List<JsonPathMatcher> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Optional<JsonPathMatcher> matcher = STREAMING_PATHS.get(key, path -> Optional.ofNullable(JsonPathMatcher.parse(path)));
+            if (matcher.isEmpty()) {
+                return null;
+            }
+            result.add(matcher.get());
+        }
+        return result;
+    }
+
     /**
      * 脱敏
      *
@@ -0,0 +1,354 @@
+package com.wind.mask.masker.json;
+
+import com.wind.common.exception.BaseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 流式 json 脱敏，只扫描一遍 json 文本并记录当前路径，匹配的值替换为脱敏值，其它内容原样输出（保留原有格式）
+ * 扫描完成后才写入输出，json 格式错误时不会产生部分输出
+ *
+ * @author wuxp
+ * @date 2026-10-17 20:20
+ **/
+final class StreamingJsonMasker {
+
+    /**
+     * 脱敏后的 json 值，与 DOM 模式一致
+     */
+    private static final String MASKED_VALUE = "\"******\"";
+
+    private static final String NULL_LITERAL = "null";
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private final CharSequence json;
+
+    private final List<JsonPathMatcher> matchers;
+
+    private final int length;
+
+    private int position;
+
+    private String[] names = new String[INITIAL_DEPTH];
+
+    private int[] indexes = new int[INITIAL_DEPTH];
+
+    private int depth;
+
+    /**
+     * 需要替换的区间，[start0, end0, start1, end1 ...]
+     */
+    private int[] replacements = new int[16];
+
+    private int replacementSize;
+
+    /**
+     * 正在跳过已匹配的值，其子节点不再匹配
+     */
+    private boolean skipping;
+
+    private StreamingJsonMasker(CharSequence json, List<JsonPathMatcher> matchers) {
+        this.json = json;
+        this.matchers = matchers;
+        this.length = json.length();
+    }
+
+    /**
+     * 脱敏并写入输出
+     *
+     * @param json     json 文本
+     * @param matchers 路径匹配器
+     * @param output   输出
+     */
+    static void mask(CharSequence json, List<JsonPathMatcher> matchers, Appendable output) {
+        StreamingJsonMasker masker = new StreamingJsonMasker(json, matchers);
+        masker.scan();
+        masker.write(output);
+    }
+
+    /**
+     * 脱敏
+     *
+     * @param json     json 文本
+     * @param matchers 路径匹配器
+     * @return 脱敏后的 json
+     */
+    static String mask(String json, List<JsonPathMatcher> matchers) {
+        StreamingJsonMasker masker = new StreamingJsonMasker(json, matchers);
+        masker.scan();
+        if (masker.replacementSize == 0) {
+            return json;
+        }
+        StringBuilder result = new StringBuilder(json.length());
+        masker.write(result);
+        return result.toString();
+    }
+
+    private void scan() {
+        skipWhitespace();
+        readValue();
+        skipWhitespace();
+        if (position != length) {
+            throw syntaxError("unexpected content after json value");
+        }
+    }
+
+    private void write(Appendable output) {
+        try {
+            int from = 0;
+            for (int i = 0; i < replacementSize; i += 2) {
+                output.append(json, from, replacements[i]).append(MASKED_VALUE);
+                from = replacements[i + 1];
+            }
+            output.append(json, from, length);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void readValue() {
+        if (!skipping && depth > 0 && matchesCurrentPath()) {
+            int start = position;
+            skipping = true;
+            try {
+                skipValue();
+            } finally {
+                skipping = false;
+            }
+            replacements = ensureCapacity(replacements, replacementSize + 2);
+            replacements[replacementSize++] = start;
+            replacements[replacementSize++] = position;
+            return;
+        }
+        skipValue();
+    }
+
+    private boolean matchesCurrentPath() {
+        boolean nullValue = isNullLiteral();
+        for (JsonPathMatcher matcher : matchers) {
+            if (nullValue && matcher.isDefinite()) {
+                // 确定路径的值为 null 时不脱敏
+                continue;
+            }
+            if (matcher.matches(names, indexes, depth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 跳过当前值，容器类型会递归检查子节点
+     */
+    private void skipValue() {
+        if (position >= length) {
+            throw syntaxError("unexpected end of json");
+        }
+        char c = json.charAt(position);
+        switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> skipString();
+            default -> skipLiteral();
+        }
+    }
+
+    private void readObject() {
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+        push();
+        try {
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw syntaxError("expected field name");
+                }
+                names[depth - 1] = readString();
+                indexes[depth - 1] = -1;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                readValue();
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return;
+                }
+                if (c != ',') {
+                    throw syntaxError("expected ',' or '}'");
+                }
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    private void readArray() {
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return;
+        }
+        push();
+        try {
+            int index = 0;
+            while (true) {
+                skipWhitespace();
+                names[depth - 1] = null;
+                indexes[depth - 1] = index++;
+                readValue();
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return;
+                }
+                if (c != ',') {
+                    throw syntaxError("expected ',' or ']'");
+                }
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    private void push() {
+        if (depth == names.length) {
+            names = Arrays.copyOf(names, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+        depth++;
+    }
+
+    /**
+     * 读取字符串（用于字段名称），没有转义字符时直接截取
+     */
+    private String readString() {
+        int start = ++position;
+        boolean escaped = false;
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                String result = json.subSequence(start, position).toString();
+                position++;
+                return escaped ? unescape(result) : result;
+            }
+            if (c == '\\') {
+                escaped = true;
+                position++;
+            }
+            position++;
+        }
+        throw syntaxError("unterminated string");
+    }
+
+    private void skipString() {
+        position++;
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                position++;
+                return;
+            }
+            if (c == '\\') {
+                position++;
+            }
+            position++;
+        }
+        throw syntaxError("unterminated string");
+    }
+
+    private void skipLiteral() {
+        int start = position;
+        while (position < length) {
+            char c = json.charAt(position);
+            if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw syntaxError("unexpected character");
+        }
+    }
+
+    private boolean isNullLiteral() {
+        if (position + NULL_LITERAL.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < NULL_LITERAL.length(); i++) {
+            if (json.charAt(position + i) != NULL_LITERAL.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (position < length && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= length) {
+            throw syntaxError("unexpected end of json");
+        }
+        return json.charAt(position);
+    }
+
+    private char next() {
+        char result = peek();
+        position++;
+        return result;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw syntaxError("expected '" + expected + "'");
+        }
+    }
+
+    private BaseException syntaxError(String message) {
+        return BaseException.common(String.format("invalid json, %s at position = %d", message, position));
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static String unescape(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\\' || i + 1 >= text.length()) {
+                result.append(c);
+                continue;
+            }
+            char escape = text.charAt(++i);
+            switch (escape) {
+                case 'n' -> result.append('\n');
+                case 't' -> result.append('\t');
+                case 'r' -> result.append('\r');
+                case 'b' -> result.append('\b');
+                case 'f' -> result.append('\f');
+                case 'u' -> {
+                    if (i + 4 < text.length()) {
+                        result.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                }
+                default -> result.append(escape);
+            }
+        }
+        return result.toString();
+    }
+}
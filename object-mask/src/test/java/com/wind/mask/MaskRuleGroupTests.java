@@ -0,0 +1,122 @@
+package com.wind.mask;
+
+import com.wind.mask.annotation.Sensitive;
+import lombok.Data;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 19:40
+ **/
+class MaskRuleGroupTests {
+
+    @Test
+    void testMatchesWithKey() {
+        MaskRuleGroup group = MaskRuleGroup.builder()
+                .form(Map.class)
+                .of(ObjectMasker.ASTERISK, "password", "id_card", "^mobile.*")
+                .last();
+        Assertions.assertEquals("password", matchesName(group, "password"));
+        Assertions.assertEquals("password", matchesName(group, "userPassword"));
+        Assertions.assertEquals("password", matchesName(group, "USER_PASSWORD"));
+        Assertions.assertEquals("id_card", matchesName(group, "ownerId_Card"));
+        Assertions.assertEquals("^mobile.*", matchesName(group, "MobilePhone"));
+        Assertions.assertNull(group.matchesWithKey("passwordHint"));
+        Assertions.assertNull(group.matchesWithKey("用户password名"));
+        Assertions.assertNull(group.matchesWithKey(null));
+    }
+
+    @Test
+    void testMatchesWithManyKeys() {
+        MaskRuleGroup group = MaskRuleGroup.builder()
+                .form(Map.class)
+                .of(ObjectMasker.ASTERISK, "secret", "token")
+                .last();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            values.put("key" + i, i);
+        }
+        values.put("accessToken", "t");
+        values.put("appSecret", "s");
+        long matches = values.keySet().stream().filter(key -> group.matchesWithKey(key) != null).count();
+        Assertions.assertEquals(2, matches);
+    }
+
+    @Test
+    void testMatchesAfterAddRules() {
+        MaskRuleGroup group = MaskRuleGroup.builder()
+                .form(Map.class)
+                .of(ObjectMasker.ASTERISK, "password")
+                .last();
+        Assertions.assertNull(group.matchesWithKey("bankNo"));
+        group.addRules(MaskRule.mark("bankNo", ObjectMasker.ASTERISK));
+        Assertions.assertEquals("bankNo", matchesName(group, "bankNo"));
+    }
+
+    @Test
+    void testEmptyNameMatchesAll() {
+        MaskRuleGroup group = new MaskRuleGroup(Map.class, List.of(new MaskRule("", List.of("a"), ObjectMasker.ASTERISK)));
+        Assertions.assertNotNull(group.matchesWithKey("any"));
+    }
+
+    @Test
+    void testRequireMaskInvalidation() {
+        MaskRuleRegistry registry = new MaskRuleRegistry();
+        Assertions.assertFalse(registry.requireMask(MaskRuleGroupExample.class));
+        registry.registerRule(MaskRuleGroup.builder()
+                .form(MaskRuleGroupExample.class)
+                .of(ObjectMasker.ASTERISK, "name")
+                .last());
+        Assertions.assertTrue(registry.requireMask(MaskRuleGroupExample.class));
+        registry.clearRules(MaskRuleGroupExample.class);
+        Assertions.assertFalse(registry.requireMask(MaskRuleGroupExample.class));
+        Assertions.assertTrue(registry.requireMask(SensitiveExample.class));
+    }
+
+    @Test
+    void testRequireMaskInvalidationAfterAddRules() {
+        MaskRuleRegistry registry = new MaskRuleRegistry();
+        MaskRuleGroup group = registry.computeIfAbsent(MaskRuleGroupExample.class);
+        Assertions.assertFalse(registry.requireMask(MaskRuleGroupExample.class));
+        int version = registry.getVersion();
+        group.addRules(MaskRule.mark("name", ObjectMasker.ASTERISK));
+        Assertions.assertTrue(registry.requireMask(MaskRuleGroupExample.class));
+        Assertions.assertNotEquals(version, registry.getVersion());
+
+        // 清除后的规则组不再影响注册器
+        registry.clearRules(MaskRuleGroupExample.class);
+        version = registry.getVersion();
+        group.addRules(MaskRule.mark("other", ObjectMasker.ASTERISK));
+        Assertions.assertEquals(version, registry.getVersion());
+    }
+
+    @Test
+    void testEmptyGroupImmutable() {
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> MaskRuleGroup.EMPTY.addRules(MaskRule.mark("name", ObjectMasker.ASTERISK)));
+        Assertions.assertFalse(MaskRuleGroup.EMPTY.isNotEmpty());
+    }
+
+    private static String matchesName(MaskRuleGroup group, String key) {
+        MaskRule rule = group.matchesWithKey(key);
+        return rule == null ? null : rule.name();
+    }
+
+    @Data
+    static class MaskRuleGroupExample {
+
+        private String name;
+    }
+
+    @Data
+    @Sensitive
+    static class SensitiveExample {
+
+        @Sensitive
+        private String name;
+    }
+}
@@ -11,9 +11,14 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author wuxp
@@ -91,6 +96,54 @@ class ObjectDataMaskerTests {
         Assertions.assertFalse(result.toString().contains("***"));
     }
 
+    @Test
+    void testMaskHeterogeneousCollection() {
+        DefaultObjectSanitizerDemo2 target = mockDemo2();
+        DefaultObjectSanitizerDemo1 other = new DefaultObjectSanitizerDemo1();
+        List<Object> values = Arrays.asList(1L, "text", target, null, other);
+        List<Object> result = maker.maskAs(values);
+        Assertions.assertNotSame(values, result);
+        Assertions.assertEquals(values.size(), result.size());
+        Assertions.assertSame(values.get(1), result.get(1));
+        Assertions.assertNull(result.get(3));
+        Assertions.assertTrue(((DefaultObjectSanitizerDemo2) result.get(2)).getSensitiveText2().contains("***"));
+        Assertions.assertFalse(target.getSensitiveText2().contains("***"));
+    }
+
+    @Test
+    void testMaskCollectionKeepSourceType() {
+        LinkedList<DefaultObjectSanitizerDemo2> values = new LinkedList<>(List.of(mockDemo2(), mockDemo2()));
+        Collection<DefaultObjectSanitizerDemo2> result = maker.maskAs(values);
+        Assertions.assertInstanceOf(LinkedList.class, result);
+        Assertions.assertTrue(result.stream().allMatch(item -> item.getSensitiveText2().contains("***")));
+
+        CopyOnWriteArrayList<DefaultObjectSanitizerDemo2> concurrentValues = new CopyOnWriteArrayList<>(List.of(mockDemo2()));
+        Assertions.assertInstanceOf(CopyOnWriteArrayList.class, maker.maskAs(concurrentValues));
+
+        // 无法实例化源集合类型时退化为 ArrayList
+        Assertions.assertInstanceOf(ArrayList.class, maker.maskAs(Arrays.asList(mockDemo2())));
+    }
+
+    @Test
+    void testMaskCollectionWithoutSensitiveElements() {
+        List<String> values = List.of("a", "b");
+        Assertions.assertSame(values, maker.maskAs(values));
+    }
+
+    @Test
+    void testParallelMask() {
+        ObjectDataMasker parallelMasker = new ObjectDataMasker(registry, null, 16);
+        List<DefaultObjectSanitizerDemo2> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(mockDemo2());
+        }
+        DefaultObjectSanitizerDemo2[] result = parallelMasker.maskAs(values.toArray(new DefaultObjectSanitizerDemo2[0]));
+        Assertions.assertEquals(values.size(), result.length);
+        for (DefaultObjectSanitizerDemo2 item : result) {
+            Assertions.assertTrue(item.getSensitiveText2().contains("***"));
+        }
+    }
+
     private DefaultObjectSanitizerDemo2 mockDemo2() {
         DefaultObjectSanitizerDemo2 result = new DefaultObjectSanitizerDemo2();
         result.setSensitiveMaps2(ObjectMaskPrinterTests.buildSensitiveMaps());
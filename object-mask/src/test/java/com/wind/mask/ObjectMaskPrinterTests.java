@@ -179,6 +179,33 @@ class ObjectMaskPrinterTests {
         Assertions.assertEquals("[Ljava.lang.String; 对象的大小超过：128", printer.mask(array));
     }
 
+    @Test
+    void testPrintWideObjects() {
+        List<ObjectSanitizePrinterExample> examples = new ArrayList<>();
+        for (int i = 0; i < MAX_COLLECTION_SIZE; i++) {
+            ObjectSanitizePrinterExample item = new ObjectSanitizePrinterExample();
+            item.setAk("AK_" + i);
+            item.setAge(i);
+            examples.add(item);
+        }
+        String result = printer.mask(examples);
+        Assertions.assertEquals(MAX_COLLECTION_SIZE, result.split("ObjectSanitizePrinterExample\\(").length - 1);
+        Assertions.assertFalse(result.contains("AK_1"));
+        Assertions.assertFalse(result.contains("@ref["));
+    }
+
+    @Test
+    void testPrintSameReference() {
+        List<Object> values = new ArrayList<>();
+        values.add(example);
+        values.add(example);
+        values.add("text");
+        values.add("text");
+        String result = printer.mask(values);
+        Assertions.assertTrue(result.startsWith("[ObjectSanitizePrinterExample(name=******, "));
+        Assertions.assertTrue(result.endsWith("), @ref[" + Integer.toHexString(ObjectSanitizePrinterExample.class.hashCode()) + "], text, text]"));
+    }
+
     @Test
     void testJavaFunctions() {
         Assertions.assertNotNull(printer.mask((Supplier<String>) () -> ""));
@@ -0,0 +1,65 @@
+package com.wind.mask.masker;
+
+import com.alibaba.fastjson2.JSON;
+import com.wind.mask.masker.json.JsonStringMasker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 20:50
+ **/
+class JsonStringMaskerTests {
+
+    private static final String JSON_TEXT = """
+            {
+              "ak": "0001",
+              "name": null,
+              "data": {
+                "values": [{"ak": "0002", "sk": "s1"}, {"ak": "0003", "sk": {"v": 1}}],
+                "ak": 12,
+                "desc": "a \\"quoted\\" \\u0061k"
+              }
+            }""";
+
+    private final JsonStringMasker masker = new JsonStringMasker();
+
+    @Test
+    void testMaskDefinitePath() {
+        String result = masker.mask(JSON_TEXT, List.of("$.data.values[0].ak", "name", "$['data']['ak']"));
+        Assertions.assertEquals("******", JSON.parseObject(result).getJSONObject("data").getJSONArray("values").getJSONObject(0).getString("ak"));
+        Assertions.assertEquals("0003", JSON.parseObject(result).getJSONObject("data").getJSONArray("values").getJSONObject(1).getString("ak"));
+        Assertions.assertEquals("******", JSON.parseObject(result).getJSONObject("data").getString("ak"));
+        // 值为 null 的确定路径不脱敏
+        Assertions.assertTrue(result.contains("\"name\": null"));
+        // 保留原有格式
+        Assertions.assertTrue(result.contains("\"desc\": \"a \\\"quoted\\\" \\u0061k\""));
+    }
+
+    @Test
+    void testMaskIndefinitePath() {
+        String result = masker.mask(JSON_TEXT, List.of("$..ak", "$.data.values[*].sk"));
+        Assertions.assertEquals(6, result.split("\"\\*{6}\"", -1).length - 1);
+        Assertions.assertFalse(result.contains("0001"));
+        Assertions.assertFalse(result.contains("0002"));
+        Assertions.assertFalse(result.contains("\"v\""));
+    }
+
+    @Test
+    void testMaskWithWriter() throws Exception {
+        StringWriter writer = new StringWriter();
+        masker.mask(JSON_TEXT, List.of("$.data.values[1].sk"), writer);
+        Assertions.assertEquals("******", JSON.parseObject(writer.toString()).getJSONObject("data").getJSONArray("values").getJSONObject(1).getString("sk"));
+    }
+
+    @Test
+    void testFallbackDocumentMode() {
+        String result = masker.mask(JSON_TEXT, List.of("$.data.values[?(@.ak == '0002')].sk"));
+        Assertions.assertEquals("******", JSON.parseObject(result).getJSONObject("data").getJSONArray("values").getJSONObject(0).getString("sk"));
+        result = masker.mask("{'ak': '0001'}", List.of("ak"));
+        Assertions.assertEquals("******", JSON.parseObject(result).getString("ak"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.wind.middleware.idempotent;
+
+import com.wind.AbstractJdbcTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 02:40
+ **/
+class JdbcWindIdempotentKeyStorageTests extends AbstractJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcWindIdempotentKeyStorage storage;
+
+    @BeforeEach
+    void setup() {
+        storage = new JdbcWindIdempotentKeyStorage(jdbcTemplate, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testSaveAndGet() {
+        Map<String, Object> value = Map.of("name", "test", "values", List.of(1, 2, 3));
+        storage.save("test", value);
+        Assertions.assertTrue(storage.exists("test"));
+        Assertions.assertEquals(value, storage.checkExistsAndGetValue("test").getValue());
+        storage.save("test_null", null);
+        Assertions.assertTrue(storage.exists("test_null"));
+        Assertions.assertNull(storage.checkExistsAndGetValue("test_null").getValue());
+    }
+
+    @Test
+    void testReserveAndRelease() {
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofMinutes(1)).status());
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, storage.reserve("test", Duration.ofMinutes(1)).status());
+        Assertions.assertFalse(storage.exists("test"));
+        storage.release("test");
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofMinutes(1)).status());
+        storage.save("test", 1);
+        WindIdempotentReservation reservation = storage.reserve("test", Duration.ofMinutes(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.COMPLETED, reservation.status());
+        Assertions.assertEquals(1, (Integer) reservation.value().getValue());
+        storage.release("test");
+        Assertions.assertTrue(storage.exists("test"));
+    }
+
+    @Test
+    void testReserveExpiredLease() throws Exception {
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofMillis(1)).status());
+        Thread.sleep(10);
+        // 租约过期后允许接管
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofMinutes(1)).status());
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, storage.reserve("test", Duration.ofMinutes(1)).status());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testReserveConcurrent() throws Exception {
+        String idempotentKey = "test_concurrent_" + System.nanoTime();
+        int threads = 8;
+        CountDownLatch latch = new CountDownLatch(1);
+        int reserved = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<WindIdempotentReservation>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return storage.reserve(idempotentKey, Duration.ofMinutes(1));
+                }));
+            }
+            latch.countDown();
+            for (Future<WindIdempotentReservation> future : futures) {
+                if (future.get(10, TimeUnit.SECONDS).status() == WindIdempotentReservation.Status.RESERVED) {
+                    reserved++;
+                }
+            }
+        } finally {
+            storage.release(idempotentKey);
+        }
+        Assertions.assertEquals(1, reserved);
+    }
+}
@@ -13,6 +13,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author wuxp
@@ -25,6 +38,12 @@ class JdbcSequenceRepositoryTests extends AbstractJdbcTest {
     @Autowired
     private SequenceRepository jdbcSequenceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void testSequence() {
         SequenceGenerator sequenceGenerator = jdbcSequenceRepository.getSequence("test");
@@ -33,6 +52,50 @@ class JdbcSequenceRepositoryTests extends AbstractJdbcTest {
         }
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSegmentSequenceConcurrent() throws Exception {
+        SequenceSegmentOptions options = new SequenceSegmentOptions(10, 200, 0.5, Duration.ofSeconds(1), ForkJoinPool.commonPool());
+        // 模拟两个实例同时从数据库预留号段
+        List<SequenceGenerator> generators = List.of(
+                new JdbcSequenceRepository(jdbcTemplate, transactionManager, options).getSequence("test_segment"),
+                new JdbcSequenceRepository(jdbcTemplate, transactionManager, options).getSequence("test_segment")
+        );
+        int threads = 8;
+        int count = 2000;
+        Set<String> values = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                SequenceGenerator generator = generators.get(i % generators.size());
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < count; j++) {
+                        values.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        Assertions.assertEquals(threads * count, values.size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testSegmentSequenceIncrease() {
+        SegmentSequenceGenerator generator = (SegmentSequenceGenerator) new JdbcSequenceRepository(jdbcTemplate, transactionManager,
+                new SequenceSegmentOptions(4, 64)).getSequence("test_segment_increase");
+        long previous = generator.nextValue();
+        for (int i = 0; i < 200; i++) {
+            long value = generator.nextValue();
+            Assertions.assertEquals(previous + 1, value);
+            previous = value;
+        }
+        // 消耗速度快于期望的号段时长，号段大小增长到最大值
+        Assertions.assertEquals(64, generator.getSegmentSize());
+    }
+
     @Configuration
     static class TestConfig {
 
@@ -14,4 +14,20 @@ create table `t_wind_sequence`
     `version`      int(11)             NOT NULL DEFAULT 0 COMMENT '数据版本控制',
     primary key (`id`),
     unique `uk_wind_sequence_name` (`name`)
-) COMMENT = '全局序列号表' ENGINE = InnoDB default charset = utf8mb4;
\ No newline at end of file
+) COMMENT = '全局序列号表' ENGINE = InnoDB default charset = utf8mb4;
+
+-- ------------------------------------
+-- 幂等 key
+-- ------------------------------------
+drop table if exists `t_wind_idempotent_key`;
+create table `t_wind_idempotent_key`
+(
+    `id`             bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `idempotent_key` varchar(128)        NOT NULL COMMENT '幂等 key',
+    `state`          tinyint(2) unsigned NOT NULL DEFAULT 0 COMMENT '状态：0 执行中，1 已完成',
+    `result_value`   mediumblob COMMENT '执行结果（Kryo 序列化）',
+    `expire_time`    bigint(20)          NOT NULL COMMENT '过期时间（毫秒时间戳）',
+    primary key (`id`),
+    unique `uk_wind_idempotent_key` (`idempotent_key`),
+    index `idx_wind_idempotent_expire_time` (`expire_time`)
+) COMMENT = '幂等 key 表' ENGINE = InnoDB default charset = utf8mb4;
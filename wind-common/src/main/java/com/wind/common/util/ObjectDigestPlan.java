@@ -0,0 +1,122 @@
+package com.wind.common.util;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.common.message.MessagePlaceholder;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * 对象摘要字段计划，按类型缓存按字段名称字典序排列的字段访问器，避免每次生成摘要时反射查找字段
+ *
+ * @author wuxp
+ * @date 2026-10-18 14:10
+ **/
+final class ObjectDigestPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final Map<Class<?>, ObjectDigestPlan> PLANS = new ConcurrentReferenceHashMap<>();
+
+    private final DigestField[] fields;
+
+    private final Map<String, DigestField> fieldIndexes;
+
+    private ObjectDigestPlan(DigestField[] fields) {
+        this.fields = fields;
+        this.fieldIndexes = HashMap.newHashMap(fields.length);
+        for (DigestField field : fields) {
+            fieldIndexes.put(field.name(), field);
+        }
+    }
+
+    static ObjectDigestPlan of(Class<?> clazz) {
+        return PLANS.computeIfAbsent(clazz, ObjectDigestPlan::build);
+    }
+
+    /**
+     * @return 所有字段，按名称字典序排列
+     */
+    DigestField[] getFields() {
+        return fields;
+    }
+
+    /**
+     * 选择指定名称的字段，按名称字典序排列
+     *
+     * @param fieldNames 字段名称
+     * @return 字段列表
+     */
+    DigestField[] selectFields(Collection<String> fieldNames) {
+        return fieldNames.stream()
+                .sorted()
+                .map(name -> {
+                    DigestField result = fieldIndexes.get(name);
+                    AssertUtils.notNull(result, "field name = {} not found", name);
+                    return result;
+                })
+                .toArray(DigestField[]::new);
+    }
+
+    private static ObjectDigestPlan build(Class<?> clazz) {
+        // 同名字段优先子类
+        DigestField[] fields = new LinkedHashSet<>(WindReflectUtils.getFieldNames(clazz))
+                .stream()
+                .sorted()
+                .map(name -> new DigestField(clazz, name))
+                .toArray(DigestField[]::new);
+        return new ObjectDigestPlan(fields);
+    }
+
+    /**
+     * 摘要字段，字段读取句柄在首次读取时创建，未参与摘要的字段（例如继承自 JDK 类型的不可访问字段）不会创建句柄
+     */
+    static final class DigestField {
+
+        private final Class<?> owner;
+
+        private final String name;
+
+        /**
+         * 已适配为 (Object)Object 的字段读取句柄
+         */
+        private volatile MethodHandle getter;
+
+        private DigestField(Class<?> owner, String name) {
+            this.owner = owner;
+            this.name = name;
+        }
+
+        String name() {
+            return name;
+        }
+
+        Object getValue(Object target) {
+            MethodHandle handle = getGetter();
+            try {
+                return handle.invokeExact(target);
+            } catch (Throwable throwable) {
+                throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("get field value error, name = {}", name), throwable);
+            }
+        }
+
+        private MethodHandle getGetter() {
+            MethodHandle result = getter;
+            if (result == null) {
+                // 并发时可能重复创建，结果等价
+                Field field = WindReflectUtils.findField(owner, name);
+                result = WindReflectUtils.exchangeGetterHandle(field).asType(GETTER_TYPE);
+                getter = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,762 @@
+package com.wind.common.util;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.wind.common.WindConstants;
+import com.wind.common.exception.BaseException;
+import com.wind.common.message.MessagePlaceholder;
+import com.wind.common.util.ObjectDigestPlan.DigestField;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * 对象摘要写入器，一次遍历对象图，将内容直接写入摘要，不生成中间字符串
+ * - 对象字段使用 {@link ObjectDigestPlan} 缓存的字段访问器
+ * - Map 按 key 的自然顺序写入，自然排序的 {@link SortedMap} 直接遍历，其它 Map 只排序 entry 数组
+ * - 记录当前遍历路径上的对象，遇到循环引用时交给具体实现处理
+ *
+ * @author wuxp
+ * @date 2026-10-18 14:20
+ **/
+abstract class ObjectDigestWriter {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final Comparator<Map.Entry<?, ?>> KEY_ORDER = (o1, o2) -> ((Comparable) o1.getKey()).compareTo(o2.getKey());
+
+    /**
+     * 当前遍历路径上的对象 -> 深度
+     */
+    private final IdentityHashMap<Object, Integer> path = new IdentityHashMap<>();
+
+    private boolean active;
+
+    /**
+     * 开始写入，子类需要重置自身的状态
+     */
+    void begin() {
+        active = true;
+        path.clear();
+    }
+
+    final void end() {
+        active = false;
+        path.clear();
+    }
+
+    final boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return 是否为不需要反射字段的值类型
+     */
+    static boolean isValueType(Object value) {
+        return ClassUtils.isPrimitiveOrWrapper(value.getClass())
+                || value.getClass().isArray()
+                || value instanceof Number
+                || value instanceof CharSequence
+                || value instanceof TemporalAccessor
+                || value instanceof Collection<?>
+                || value instanceof Map<?, ?>
+                || value instanceof Date
+                || value instanceof Enum<?>;
+    }
+
+    final void writeValue(@Nullable Object value) {
+        if (value == null) {
+            writeNull();
+        } else if (ClassUtils.isPrimitiveOrWrapper(value.getClass()) || value instanceof Enum<?> || value instanceof CharSequence) {
+            // 基础数据类型，枚举，字符串
+            writeScalar(value);
+        } else if (value instanceof Date date) {
+            writeTimestamp(date.getTime());
+        } else if (value instanceof TemporalAccessor temporal) {
+            writeTimestamp(getTemporalAccessorTimestamp(temporal));
+        } else if (value instanceof Number) {
+            writeNumber(value);
+        } else if (enter(value)) {
+            try {
+                writeComposite(value);
+            } finally {
+                exit(value);
+            }
+        }
+    }
+
+    private void writeComposite(Object value) {
+        if (value.getClass().isArray()) {
+            if (ClassUtils.isPrimitiveArray(value.getClass())) {
+                writePrimitiveArray(value);
+            } else {
+                writeArray((Object[]) value);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            writeCollection(collection);
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(map.size(), sortedEntries(map));
+        } else {
+            writeObject(value, ObjectDigestPlan.of(value.getClass()).getFields());
+        }
+    }
+
+    /**
+     * 进入对象，对象已在遍历路径上时写入循环引用
+     *
+     * @return 是否需要继续写入对象内容
+     */
+    final boolean enter(Object value) {
+        Integer depth = path.putIfAbsent(value, path.size());
+        if (depth == null) {
+            return true;
+        }
+        writeCycle(value, depth);
+        return false;
+    }
+
+    final void exit(Object value) {
+        path.remove(value);
+    }
+
+    abstract void writeNull();
+
+    /**
+     * 写入基础数据类型、枚举、字符串
+     */
+    abstract void writeScalar(Object value);
+
+    abstract void writeTimestamp(long timestamp);
+
+    abstract void writeNumber(Object value);
+
+    abstract void writePrimitiveArray(Object array);
+
+    abstract void writeArray(Object[] array);
+
+    abstract void writeCollection(Collection<?> collection);
+
+    abstract void writeMap(int size, Iterable<? extends Map.Entry<?, ?>> sortedEntries);
+
+    abstract void writeObject(Object value, DigestField[] fields);
+
+    abstract void writeCycle(Object value, int depth);
+
+    private static Iterable<? extends Map.Entry<?, ?>> sortedEntries(Map<?, ?> map) {
+        if (map instanceof SortedMap<?, ?> sortedMap && sortedMap.comparator() == null) {
+            return sortedMap.entrySet();
+        }
+        Map.Entry<?, ?>[] entries = map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+        Arrays.sort(entries, KEY_ORDER);
+        return Arrays.asList(entries);
+    }
+
+    static long getTemporalAccessorTimestamp(TemporalAccessor accessor) {
+        // 1. 如果能直接获取到 Instant（包括 ZonedDateTime、OffsetDateTime、Instant）
+        if (accessor.isSupported(ChronoField.INSTANT_SECONDS)) {
+            Instant instant = Instant.from(accessor);
+            return instant.toEpochMilli();
+        }
+        // 2. 处理 LocalDateTime、LocalDate（没有时区信息，按 UTC 处理）
+        switch (accessor) {
+            case LocalDateTime localDateTime -> {
+                return localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+            case LocalDate localDate -> {
+                return localDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            }
+            // 3. 处理纯时间类型：LocalTime、OffsetTime
+            case LocalTime localTime -> {
+                // 返回当天从 UTC 午夜开始的毫秒数（不构成绝对时间戳，仅作为时间差值）
+                return localTime.toNanoOfDay() / 1_000_000L;
+            }
+            case OffsetTime offsetTime -> {
+                // OffsetTime 没有日期，无法获得绝对时间戳。这里返回从当天 UTC 午夜开始的毫秒数，
+                // 并应用偏移量调整（偏移量会影响实际的时间线上的时刻，但因为没有日期，只能相对处理）
+                long millisOfDay = offsetTime.get(ChronoField.MILLI_OF_DAY);
+                int offsetSeconds = offsetTime.getOffset().getTotalSeconds();
+                // 将偏移量转换为毫秒并调整（注意：偏移量可能为负）
+                return millisOfDay - offsetSeconds * 1000L;
+            }
+            default -> {
+                // 4. 回退：尝试获取毫秒精度的时间戳（仅限那些支持 EPOCH_DAY + MILLI_OF_DAY 的组合，如 JapaneseDate 等）
+                if (accessor.isSupported(ChronoField.EPOCH_DAY) && accessor.isSupported(ChronoField.MILLI_OF_DAY)) {
+                    long epochDay = accessor.getLong(ChronoField.EPOCH_DAY);
+                    long millisOfDay = accessor.getLong(ChronoField.MILLI_OF_DAY);
+                    return epochDay * 24 * 3600 * 1000L + millisOfDay;
+                }
+
+                // 5. 完全无法处理的情况
+                throw new IllegalArgumentException("Unsupported TemporalAccessor type: " + accessor.getClass());
+            }
+        }
+    }
+
+    /**
+     * 文本格式写入器，按 UTF-8 编码直接写入 SHA-256 摘要，与拼接摘要文本后再计算摘要的结果一致
+     * 文本格式：name=value，对象 {name=value&name=value}，Map {key=value&key=value}，集合、数组 a,b，基础数据类型数组 [a, b]
+     * 文本格式无法表达循环引用，遇到循环引用时抛出异常
+     */
+    static final class CanonicalTextWriter extends ObjectDigestWriter {
+
+        private static final ThreadLocal<CanonicalTextWriter> WRITERS = ThreadLocal.withInitial(() -> new CanonicalTextWriter(null));
+
+        private static final int BUFFER_SIZE = 4096;
+
+        private final MessageDigest digest = DigestUtils.getSha256Digest();
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        /**
+         * long 转换为文本的临时缓冲
+         */
+        private final byte[] digits = new byte[20];
+
+        private int position;
+
+        /**
+         * 不为空时输出文本，不计算摘要
+         */
+        @Nullable
+        private final ByteArrayOutputStream text;
+
+        private CanonicalTextWriter(@Nullable ByteArrayOutputStream text) {
+            this.text = text;
+        }
+
+        /**
+         * 计算值类型的摘要，内容为 prefix + value
+         */
+        static String sha256Hex(Object value, @Nullable String prefix) {
+            CanonicalTextWriter writer = acquire();
+            try {
+                if (prefix != null) {
+                    writer.writeChars(prefix);
+                }
+                writer.writeValue(value);
+                return writer.finishHex();
+            } finally {
+                writer.end();
+            }
+        }
+
+        /**
+         * 计算对象指定字段的摘要
+         */
+        static String sha256Hex(Object target, DigestField[] fields, @Nullable String prefix) {
+            CanonicalTextWriter writer = acquire();
+            try {
+                writer.writeRoot(target, fields, prefix, WindConstants.LF);
+                return writer.finishHex();
+            } finally {
+                writer.end();
+            }
+        }
+
+        /**
+         * 生成对象指定字段的摘要文本
+         */
+        static String text(Object target, DigestField[] fields, @Nullable String prefix, String joiner) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            CanonicalTextWriter writer = new CanonicalTextWriter(output);
+            writer.begin();
+            try {
+                writer.writeRoot(target, fields, prefix, joiner);
+                writer.flush();
+                return output.toString(StandardCharsets.UTF_8);
+            } finally {
+                writer.end();
+            }
+        }
+
+        private static CanonicalTextWriter acquire() {
+            CanonicalTextWriter result = WRITERS.get();
+            if (result.isActive()) {
+                // 重入时使用新的写入器
+                result = new CanonicalTextWriter(null);
+            }
+            result.begin();
+            return result;
+        }
+
+        @Override
+        void begin() {
+            super.begin();
+            position = 0;
+            digest.reset();
+        }
+
+        private void writeRoot(Object target, DigestField[] fields, @Nullable String prefix, String joiner) {
+            if (StringUtils.hasText(prefix)) {
+                writeByte(':');
+                writeChars(prefix);
+            }
+            if (enter(target)) {
+                try {
+                    writeFields(target, fields, joiner);
+                } finally {
+                    exit(target);
+                }
+            }
+        }
+
+        private void writeFields(Object target, DigestField[] fields, String joiner) {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writeChars(joiner);
+                }
+                DigestField field = fields[i];
+                writeChars(field.name());
+                writeByte('=');
+                writeValue(field.getValue(target));
+            }
+        }
+
+        @Override
+        void writeNull() {
+            // null 值写入空字符串
+        }
+
+        @Override
+        void writeScalar(Object value) {
+            switch (value) {
+                case Integer val -> writeLong(val);
+                case Long val -> writeLong(val);
+                case Short val -> writeLong(val);
+                case Byte val -> writeLong(val);
+                case Character val -> writeChar(val);
+                case String val -> writeChars(val);
+                default -> writeChars(value.toString());
+            }
+        }
+
+        @Override
+        void writeTimestamp(long timestamp) {
+            writeLong(timestamp);
+        }
+
+        @Override
+        void writeNumber(Object value) {
+            writeChars(value.toString());
+        }
+
+        @Override
+        void writePrimitiveArray(Object array) {
+            // 与 Arrays#toString 的格式一致
+            writeByte('[');
+            switch (array) {
+                case byte[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeLong(values[i]);
+                    }
+                }
+                case short[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeLong(values[i]);
+                    }
+                }
+                case int[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeLong(values[i]);
+                    }
+                }
+                case long[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeLong(values[i]);
+                    }
+                }
+                case float[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeChars(Float.toString(values[i]));
+                    }
+                }
+                case double[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeChars(Double.toString(values[i]));
+                    }
+                }
+                case boolean[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeChars(String.valueOf(values[i]));
+                    }
+                }
+                case char[] values -> {
+                    for (int i = 0; i < values.length; i++) {
+                        writeArraySeparator(i);
+                        writeChar(values[i]);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported array type: " + array.getClass());
+            }
+            writeByte(']');
+        }
+
+        private void writeArraySeparator(int index) {
+            if (index > 0) {
+                writeByte(',');
+                writeByte(' ');
+            }
+        }
+
+        @Override
+        void writeArray(Object[] array) {
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeValue(array[i]);
+            }
+        }
+
+        @Override
+        void writeCollection(Collection<?> collection) {
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    writeByte(',');
+                }
+                first = false;
+                writeValue(element);
+            }
+        }
+
+        @Override
+        void writeMap(int size, Iterable<? extends Map.Entry<?, ?>> sortedEntries) {
+            writeByte('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : sortedEntries) {
+                if (!first) {
+                    writeByte('&');
+                }
+                first = false;
+                writeChars(String.valueOf(entry.getKey()));
+                writeByte('=');
+                writeValue(entry.getValue());
+            }
+            writeByte('}');
+        }
+
+        @Override
+        void writeObject(Object value, DigestField[] fields) {
+            writeByte('{');
+            writeFields(value, fields, WindConstants.AND);
+            writeByte('}');
+        }
+
+        @Override
+        void writeCycle(Object value, int depth) {
+            throw BaseException.common(MessagePlaceholder.of("digest object has circular reference, type = {}", value.getClass().getName()));
+        }
+
+        private void writeLong(long value) {
+            if (value == Long.MIN_VALUE) {
+                writeChars(Long.toString(value));
+                return;
+            }
+            if (value < 0) {
+                writeByte('-');
+                value = -value;
+            }
+            int start = digits.length;
+            do {
+                digits[--start] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            for (int i = start; i < digits.length; i++) {
+                writeByte(digits[i]);
+            }
+        }
+
+        /**
+         * 按 UTF-8 编码写入，不成对的代理字符写入 '?'，与 {@link String#getBytes(java.nio.charset.Charset)} 一致
+         */
+        private void writeChars(String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char ch = value.charAt(i);
+                if (ch < 0x80) {
+                    writeByte(ch);
+                } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+                    writeByte(0xF0 | (codePoint >> 18));
+                    writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    writeByte(0x80 | (codePoint & 0x3F));
+                } else {
+                    writeChar(ch);
+                }
+            }
+        }
+
+        private void writeChar(char ch) {
+            if (ch < 0x80) {
+                writeByte(ch);
+            } else if (ch < 0x800) {
+                writeByte(0xC0 | (ch >> 6));
+                writeByte(0x80 | (ch & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | (ch >> 12));
+                writeByte(0x80 | ((ch >> 6) & 0x3F));
+                writeByte(0x80 | (ch & 0x3F));
+            }
+        }
+
+        private void writeByte(int value) {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void flush() {
+            if (text == null) {
+                digest.update(buffer, 0, position);
+            } else {
+                text.write(buffer, 0, position);
+            }
+            position = 0;
+        }
+
+        private String finishHex() {
+            flush();
+            return Hex.encodeHexString(digest.digest());
+        }
+    }
+
+    /**
+     * 类型标记的二进制写入器，使用 murmur3_128 计算非加密哈希，速度快于 SHA-256，不可用于安全相关的场景
+     * 每个值写入前先写入类型标记，字符串、集合、对象写入长度，避免不同结构产生相同的输入
+     * 遇到循环引用时写入引用对象在遍历路径上的深度
+     */
+    static final class TaggedHashWriter extends ObjectDigestWriter {
+
+        private static final ThreadLocal<TaggedHashWriter> WRITERS = ThreadLocal.withInitial(TaggedHashWriter::new);
+
+        private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+        private static final byte NULL = 0;
+
+        private static final byte BOOLEAN = 1;
+
+        private static final byte CHAR = 2;
+
+        private static final byte INTEGER = 3;
+
+        private static final byte DECIMAL = 4;
+
+        private static final byte STRING = 5;
+
+        private static final byte ENUM = 6;
+
+        private static final byte TIMESTAMP = 7;
+
+        private static final byte NUMBER = 8;
+
+        private static final byte PRIMITIVE_ARRAY = 9;
+
+        private static final byte ARRAY = 10;
+
+        private static final byte COLLECTION = 11;
+
+        private static final byte MAP = 12;
+
+        private static final byte OBJECT = 13;
+
+        private static final byte CYCLE = 14;
+
+        private static final byte PREFIX = 15;
+
+        private Hasher hasher = HASH_FUNCTION.newHasher();
+
+        /**
+         * 计算对象的 128 位哈希
+         *
+         * @param target 目标对象
+         * @param prefix 前缀，可为空
+         * @return 32 位小写十六进制字符串
+         */
+        static String hash128Hex(Object target, @Nullable String prefix) {
+            TaggedHashWriter writer = WRITERS.get();
+            if (writer.isActive()) {
+                // 重入时使用新的写入器
+                writer = new TaggedHashWriter();
+            }
+            writer.begin();
+            try {
+                if (prefix != null) {
+                    writer.hasher.putByte(PREFIX);
+                    writer.putString(prefix);
+                }
+                writer.writeValue(target);
+                return writer.hasher.hash().toString();
+            } finally {
+                writer.end();
+            }
+        }
+
+        @Override
+        void begin() {
+            super.begin();
+            hasher = HASH_FUNCTION.newHasher();
+        }
+
+        @Override
+        void writeNull() {
+            hasher.putByte(NULL);
+        }
+
+        @Override
+        void writeScalar(Object value) {
+            switch (value) {
+                case Boolean val -> hasher.putByte(BOOLEAN).putBoolean(val);
+                case Character val -> hasher.putByte(CHAR).putChar(val);
+                case Float val -> hasher.putByte(DECIMAL).putDouble(val);
+                case Double val -> hasher.putByte(DECIMAL).putDouble(val);
+                case Number val -> hasher.putByte(INTEGER).putLong(val.longValue());
+                case Enum<?> val -> {
+                    hasher.putByte(ENUM);
+                    putString(val.name());
+                }
+                default -> {
+                    hasher.putByte(STRING);
+                    putString(value.toString());
+                }
+            }
+        }
+
+        @Override
+        void writeTimestamp(long timestamp) {
+            hasher.putByte(TIMESTAMP).putLong(timestamp);
+        }
+
+        @Override
+        void writeNumber(Object value) {
+            hasher.putByte(NUMBER);
+            putString(value.toString());
+        }
+
+        @Override
+        void writePrimitiveArray(Object array) {
+            hasher.putByte(PRIMITIVE_ARRAY);
+            switch (array) {
+                case byte[] values -> hasher.putByte((byte) 'B').putInt(values.length).putBytes(values);
+                case short[] values -> {
+                    hasher.putByte((byte) 'S').putInt(values.length);
+                    for (short val : values) {
+                        hasher.putShort(val);
+                    }
+                }
+                case int[] values -> {
+                    hasher.putByte((byte) 'I').putInt(values.length);
+                    for (int val : values) {
+                        hasher.putInt(val);
+                    }
+                }
+                case long[] values -> {
+                    hasher.putByte((byte) 'J').putInt(values.length);
+                    for (long val : values) {
+                        hasher.putLong(val);
+                    }
+                }
+                case float[] values -> {
+                    hasher.putByte((byte) 'F').putInt(values.length);
+                    for (float val : values) {
+                        hasher.putFloat(val);
+                    }
+                }
+                case double[] values -> {
+                    hasher.putByte((byte) 'D').putInt(values.length);
+                    for (double val : values) {
+                        hasher.putDouble(val);
+                    }
+                }
+                case boolean[] values -> {
+                    hasher.putByte((byte) 'Z').putInt(values.length);
+                    for (boolean val : values) {
+                        hasher.putBoolean(val);
+                    }
+                }
+                case char[] values -> {
+                    hasher.putByte((byte) 'C').putInt(values.length);
+                    for (char val : values) {
+                        hasher.putChar(val);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported array type: " + array.getClass());
+            }
+        }
+
+        @Override
+        void writeArray(Object[] array) {
+            hasher.putByte(ARRAY).putInt(array.length);
+            for (Object element : array) {
+                writeValue(element);
+            }
+        }
+
+        @Override
+        void writeCollection(Collection<?> collection) {
+            hasher.putByte(COLLECTION).putInt(collection.size());
+            for (Object element : collection) {
+                writeValue(element);
+            }
+        }
+
+        @Override
+        void writeMap(int size, Iterable<? extends Map.Entry<?, ?>> sortedEntries) {
+            hasher.putByte(MAP).putInt(size);
+            for (Map.Entry<?, ?> entry : sortedEntries) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        @Override
+        void writeObject(Object value, DigestField[] fields) {
+            hasher.putByte(OBJECT).putInt(fields.length);
+            for (DigestField field : fields) {
+                putString(field.name());
+                writeValue(field.getValue(value));
+            }
+        }
+
+        @Override
+        void writeCycle(Object value, int depth) {
+            hasher.putByte(CYCLE).putInt(depth);
+        }
+
+        private void putString(String value) {
+            hasher.putInt(value.length()).putUnencodedChars(value);
+        }
+    }
+}
@@ -1,44 +1,25 @@
 package com.wind.common.util;
 
-import com.wind.common.WindConstants;
 import com.wind.common.annotations.VisibleForTesting;
 import com.wind.common.exception.AssertUtils;
+import com.wind.common.util.ObjectDigestPlan.DigestField;
+import com.wind.common.util.ObjectDigestWriter.CanonicalTextWriter;
+import com.wind.common.util.ObjectDigestWriter.TaggedHashWriter;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.jspecify.annotations.Nullable;
-import org.springframework.util.ClassUtils;
-import org.springframework.util.ConcurrentReferenceHashMap;
-import org.springframework.util.StringUtils;
 
-import java.lang.reflect.Field;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.OffsetTime;
-import java.time.ZoneOffset;
-import java.time.temporal.ChronoField;
-import java.time.temporal.TemporalAccessor;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 根据对象生成摘要签名，生成摘要时会根据字典序排序.
+ * 摘要内容在一次遍历中直接写入摘要算法，对象字段按类型缓存，不生成中间文本；对象图中存在循环引用时 sha256 会抛出异常
  *
  * @author wuxp
  * @date 2024-08-05 16:04
  **/
 public final class WindObjectDigestUtils {
 
-    private static final Map<Class<?>, List<String>> CLASS_FIELDS_NAMES = new ConcurrentReferenceHashMap<>();
-
     private WindObjectDigestUtils() {
         throw new AssertionError();
     }
@@ -61,7 +42,13 @@ public final class WindObjectDigestUtils {
      * @return 对象摘要
      */
     public static String sha256(@NotNull Object target, @Nullable String prefix) {
-        return sha256WithNames(target, getObjectFieldNames(target), prefix);
+        AssertUtils.notNull(target, "argument target must not null");
+        if (ObjectDigestWriter.isValueType(target)) {
+            return CanonicalTextWriter.sha256Hex(target, prefix);
+        }
+        DigestField[] fields = ObjectDigestPlan.of(target.getClass()).getFields();
+        AssertUtils.notEmpty(fields, "argument fieldNames must not empty");
+        return CanonicalTextWriter.sha256Hex(target, fields, prefix);
     }
 
     /**
@@ -85,170 +72,38 @@ public final class WindObjectDigestUtils {
      */
     public static String sha256WithNames(@NotNull Object target, @NotEmpty Collection<String> fieldNames, @Nullable String prefix) {
         AssertUtils.notNull(target, "argument target must not null");
-        String content = tryGenSha256Text(target);
-        if (content != null) {
-            return prefix == null ? DigestUtils.sha256Hex(content) : DigestUtils.sha256Hex(prefix + content);
+        if (ObjectDigestWriter.isValueType(target)) {
+            return CanonicalTextWriter.sha256Hex(target, prefix);
         }
         AssertUtils.notEmpty(fieldNames, "argument fieldNames must not empty");
-        return DigestUtils.sha256Hex(genSha256TextWithObject(target, fieldNames, prefix, WindConstants.LF));
+        return CanonicalTextWriter.sha256Hex(target, ObjectDigestPlan.of(target.getClass()).selectFields(fieldNames), prefix);
     }
 
-    private static String tryGenSha256Text(Object target) {
-        if (ClassUtils.isPrimitiveOrWrapper(target.getClass())
-                || target.getClass().isArray()
-                || target instanceof Number
-                || target instanceof CharSequence
-                || target instanceof TemporalAccessor
-                || target instanceof Collection<?>
-                || target instanceof Map<?, ?>) {
-            return getValueText(target);
-        }
-        return null;
+    /**
+     * 根据对象生成 128 位非加密哈希（murmur3_128），速度快于 sha256，适用于缓存 key 等非安全场景
+     * 内容按类型标记编码，与 sha256 的摘要内容不兼容；循环引用按引用位置参与计算
+     *
+     * @param target 需要生成哈希的对象
+     * @return 32 位小写十六进制字符串
+     */
+    public static String hash128(@NotNull Object target) {
+        return hash128(target, null);
     }
 
-    private static List<String> getObjectFieldNames(Object target) {
+    /**
+     * 根据对象生成 128 位非加密哈希（murmur3_128）
+     *
+     * @param target 需要生成哈希的对象
+     * @param prefix 哈希前缀，可为空
+     * @return 32 位小写十六进制字符串
+     */
+    public static String hash128(@NotNull Object target, @Nullable String prefix) {
         AssertUtils.notNull(target, "argument target must not null");
-        return CLASS_FIELDS_NAMES.computeIfAbsent(target.getClass(), WindReflectUtils::getFieldNames);
+        return TaggedHashWriter.hash128Hex(target, prefix);
     }
 
     @VisibleForTesting()
     static String genSha256TextWithObject(Object target, Collection<String> fieldNames, String prefix, String joiner) {
-        // TODO 性能优化
-        Field[] fields = WindReflectUtils.findFields(target.getClass(), fieldNames);
-        Map<String, Field> fieldMaps = Arrays.stream(fields).collect(Collectors.toMap(Field::getName, Function.identity()));
-        StringBuilder result = new StringBuilder();
-        if (StringUtils.hasText(prefix)) {
-            result.append(WindConstants.COLON).append(prefix);
-        }
-        List<String> sortedNames = fieldNames.stream().sorted().toList();
-        for (String name : sortedNames) {
-            Field field = fieldMaps.get(name);
-            AssertUtils.notNull(field, String.format("field name = %s not found", name));
-            Object val = WindReflectUtils.getFieldValue(field, target);
-            result.append(name).append(WindConstants.EQ).append(getValueText(val)).append(joiner);
-        }
-        result.deleteCharAt(result.length() - 1);
-        return result.toString();
-    }
-
-    private static String getValueText(Object val) {
-        if (val == null) {
-            return WindConstants.EMPTY;
-        }
-        if (ClassUtils.isPrimitiveOrWrapper(val.getClass()) || val.getClass().isEnum() || val instanceof CharSequence) {
-            // 基础数据类型，枚举，字符串
-            return String.valueOf(val);
-        } else if (val instanceof Date date) {
-            // 获取毫秒数
-            return String.valueOf(date.getTime());
-        } else if (val instanceof TemporalAccessor temporal) {
-            // 获取时间戳
-            return String.valueOf(getTemporalAccessorTimestamp(temporal));
-        } else if (val.getClass().isArray()) {
-            return joinArrayAsText(val);
-        } else if (val instanceof Collection<?> collection) {
-            return joinCollectionAsText(collection);
-        } else if (val instanceof Map<?, ?> map) {
-            return joinMapAsText(map);
-        } else if (val instanceof Number) {
-            // 数值类型
-            return String.valueOf(val);
-        } else {
-            // 对象类型
-            return String.format("%s%s%s", WindConstants.DELIM_START, genSha256TextWithObject(val, getObjectFieldNames(val), null, WindConstants.AND), WindConstants.DELIM_END);
-        }
-    }
-
-    private static String joinMapAsText(Map<?, ?> map) {
-        return String.format("%s%s%s", WindConstants.DELIM_START, getMapText(map), WindConstants.DELIM_END);
-    }
-
-    private static String joinCollectionAsText(Collection<?> collection) {
-        // 集合类型
-        return collection.stream()
-                .map(WindObjectDigestUtils::getValueText)
-                .collect(Collectors.joining(WindConstants.COMMA));
-    }
-
-    private static String joinArrayAsText(Object val) {
-        if (ClassUtils.isPrimitiveArray(val.getClass())) {
-            // 基础数据类型数组
-            if (val.getClass().getComponentType() == byte.class) {
-                return Arrays.toString((byte[]) val);
-            } else if (val.getClass().getComponentType() == short.class) {
-                return Arrays.toString((short[]) val);
-            } else if (val.getClass().getComponentType() == int.class) {
-                return Arrays.toString((int[]) val);
-            } else if (val.getClass().getComponentType() == long.class) {
-                return Arrays.toString((long[]) val);
-            } else if (val.getClass().getComponentType() == float.class) {
-                return Arrays.toString((float[]) val);
-            } else if (val.getClass().getComponentType() == double.class) {
-                return Arrays.toString((double[]) val);
-            } else if (val.getClass().getComponentType() == boolean.class) {
-                return Arrays.toString((boolean[]) val);
-            } else {
-                return Arrays.toString((char[]) val);
-            }
-        } else {
-            // 数组
-            return Arrays.stream((Object[]) val)
-                    .map(WindObjectDigestUtils::getValueText)
-                    .collect(Collectors.joining(WindConstants.COMMA));
-        }
-    }
-
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private static String getMapText(Map map) {
-        // 保证 key 的顺序
-        Map<Object, Object> sortedKeyParams = new TreeMap<>(map);
-        return sortedKeyParams.entrySet()
-                .stream()
-                .map(entry -> entry.getKey() + WindConstants.EQ + getValueText(entry.getValue()))
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(WindConstants.AND));
-    }
-
-    private static long getTemporalAccessorTimestamp(TemporalAccessor accessor) {
-        // 1. 如果能直接获取到 Instant（包括 ZonedDateTime、OffsetDateTime、Instant）
-        if (accessor.isSupported(ChronoField.INSTANT_SECONDS)) {
-            Instant instant = Instant.from(accessor);
-            return instant.toEpochMilli();
-        }
-        // 2. 处理 LocalDateTime、LocalDate（没有时区信息，按 UTC 处理）
-        switch (accessor) {
-            case LocalDateTime localDateTime -> {
-                return localDateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
-            }
-            case LocalDate localDate -> {
-                return localDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
-            }
-            // 3. 处理纯时间类型：LocalTime、OffsetTime
-            case LocalTime localTime -> {
-                // 返回当天从 UTC 午夜开始的毫秒数（不构成绝对时间戳，仅作为时间差值）
-                return localTime.toNanoOfDay() / 1_000_000L;
-                // 返回当天从 UTC 午夜开始的毫秒数（不构成绝对时间戳，仅作为时间差值）
-            }
-            case OffsetTime offsetTime -> {
-                // OffsetTime 没有日期，无法获得绝对时间戳。这里返回从当天 UTC 午夜开始的毫秒数，
-                // 并应用偏移量调整（偏移量会影响实际的时间线上的时刻，但因为没有日期，只能相对处理）
-                long millisOfDay = offsetTime.get(ChronoField.MILLI_OF_DAY);
-                int offsetSeconds = offsetTime.getOffset().getTotalSeconds();
-                // 将偏移量转换为毫秒并调整（注意：偏移量可能为负）
-                return millisOfDay - offsetSeconds * 1000L;
-                // 将偏移量转换为毫秒并调整（注意：偏移量可能为负）
-            }
-            default -> {
-                // 4. 回退：尝试获取毫秒精度的时间戳（仅限那些支持 EPOCH_DAY + MILLI_OF_DAY 的组合，如 JapaneseDate 等）
-                if (accessor.isSupported(ChronoField.EPOCH_DAY) && accessor.isSupported(ChronoField.MILLI_OF_DAY)) {
-                    long epochDay = accessor.getLong(ChronoField.EPOCH_DAY);
-                    long millisOfDay = accessor.getLong(ChronoField.MILLI_OF_DAY);
-                    return epochDay * 24 * 3600 * 1000L + millisOfDay;
-                }
-
-                // 5. 完全无法处理的情况
-                throw new IllegalArgumentException("Unsupported TemporalAccessor type: " + accessor.getClass());
-            }
-        }
+        return CanonicalTextWriter.text(target, ObjectDigestPlan.of(target.getClass()).selectFields(fieldNames), prefix, joiner);
     }
 }
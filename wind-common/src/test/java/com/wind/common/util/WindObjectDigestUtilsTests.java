@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.wind.common.WindConstants;
 import com.wind.common.WindDateFormatPatterns;
 import com.wind.common.WindDateFormater;
+import com.wind.common.exception.BaseException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -19,11 +20,15 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimerTask;
+import java.util.TreeMap;
 
 /**
  * @author wuxp
@@ -119,6 +124,65 @@ class WindObjectDigestUtilsTests {
         Assertions.assertNotEquals(expected, WindObjectDigestUtils.sha256WithNames(target, names));
     }
 
+    @Test
+    void testSha256GoldenValues() throws Exception {
+        WindObjectDigestWindObjectDigestExample target = mockExample();
+        Assertions.assertEquals("189ca2c631a5ea99d9472d46f89ccdb5fecb92d1932528f3ba151c74c7ceb3ce", WindObjectDigestUtils.sha256(target));
+        Assertions.assertEquals("df1032fe0cd5a4dfaca4d3743d8ab12a0759a9a60599fd36d3f02b7cfa37d250", WindObjectDigestUtils.sha256(target, "Example"));
+        Assertions.assertEquals("6cf637cf7d34f783c5f3f6d8a8ba5e7186cfe262cb2d89b17b812ac716f8767f",
+                WindObjectDigestUtils.sha256WithNames(target, Arrays.asList("name", "id", "sex", "myTags", "yes")));
+        Assertions.assertEquals("3b96f09ca6f812607869e2508f6b55bb5198c76fa6aef6d7a34f59cfa3bd567e", WindObjectDigestUtils.sha256(new long[]{Long.MIN_VALUE, -1, 0}));
+        // 不成对的代理字符按 '?' 编码
+        Assertions.assertEquals("dfe8b05a8858229b72b6b990bde032e3eeb760a98eb7b0389783ca42cd867ea6", WindObjectDigestUtils.sha256("a\uD83D\uDE00\uD800"));
+        TreeMap<String, Integer> reversed = new TreeMap<>(Comparator.reverseOrder());
+        reversed.put("a", 1);
+        reversed.put("b", 2);
+        Assertions.assertEquals("f5e35b6b1642e299fe4ebd97105d4a7c071c664edd6e5590554691c3c8e7adbf", WindObjectDigestUtils.sha256(reversed));
+    }
+
+    @Test
+    void testSha256WithNamesSkipInaccessibleFields() {
+        WindObjectDigestTask target = new WindObjectDigestTask();
+        target.setName("task");
+        String expected = WindObjectDigestUtils.sha256WithNames(target, List.of("name"));
+        Assertions.assertEquals(expected, WindObjectDigestUtils.sha256WithNames(target, List.of("name")));
+        target.setName("other");
+        Assertions.assertNotEquals(expected, WindObjectDigestUtils.sha256WithNames(target, List.of("name")));
+    }
+
+    @Test
+    void testSha256WithoutFields() {
+        Assertions.assertThrows(BaseException.class, () -> WindObjectDigestUtils.sha256(new Object()));
+    }
+
+    @Test
+    void testSha256WithCircularReference() {
+        List<Object> target = new ArrayList<>();
+        target.add(1);
+        target.add(target);
+        Assertions.assertThrows(BaseException.class, () -> WindObjectDigestUtils.sha256(target));
+        String expected = WindObjectDigestUtils.hash128(target);
+        Assertions.assertEquals(expected, WindObjectDigestUtils.hash128(target));
+    }
+
+    @Test
+    void testHash128() throws Exception {
+        WindObjectDigestWindObjectDigestExample target = mockExample();
+        String expected = WindObjectDigestUtils.hash128(target);
+        Assertions.assertEquals(32, expected.length());
+        Assertions.assertEquals(expected, WindObjectDigestUtils.hash128(mockExample()));
+        Assertions.assertNotEquals(expected, WindObjectDigestUtils.hash128(target, "Example"));
+        target.setId(2L);
+        Assertions.assertNotEquals(expected, WindObjectDigestUtils.hash128(target));
+        // 类型标记区分不同类型的相同文本
+        Assertions.assertNotEquals(WindObjectDigestUtils.hash128(1), WindObjectDigestUtils.hash128("1"));
+        Assertions.assertNotEquals(WindObjectDigestUtils.hash128(List.of("a,b")), WindObjectDigestUtils.hash128(List.of("a", "b")));
+        Map<String, Object> map = new HashMap<>();
+        map.put("b", 2);
+        map.put("a", 1);
+        Assertions.assertEquals(WindObjectDigestUtils.hash128(new TreeMap<>(map)), WindObjectDigestUtils.hash128(map));
+    }
+
     private WindObjectDigestWindObjectDigestExample mockExample() throws Exception {
         WindObjectDigestWindObjectDigestExample result = new WindObjectDigestWindObjectDigestExample();
         result.setId(1L);
@@ -152,6 +216,21 @@ class WindObjectDigestUtilsTests {
         private Map<String, Object> tags;
     }
 
+    /**
+     * 继承 JDK 类型，父类字段不可访问
+     */
+    @EqualsAndHashCode(callSuper = false)
+    @Data
+    public static class WindObjectDigestTask extends TimerTask {
+
+        private String name;
+
+        @Override
+        public void run() {
+            // ignore
+        }
+    }
+
     public enum WindObjectDigestSex {
         N,
         M
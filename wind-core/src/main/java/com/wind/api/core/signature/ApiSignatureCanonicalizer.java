@@ -0,0 +1,259 @@
+package com.wind.api.core.signature;
+
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * API 签名规范化，查询字符串排序、请求体摘要在单次遍历中完成，摘要计算使用线程复用的缓冲区，不会将请求体复制为新的字符串或字节数组
+ * 输出与 {@link ApiSignatureRequest#buildCanonicalizedQueryString(java.util.Map)}、{@link org.springframework.util.DigestUtils#md5DigestAsHex(byte[])} 保持一致
+ *
+ * @author wuxp
+ * @date 2026-10-18 11:10
+ **/
+final class ApiSignatureCanonicalizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 按 key 排序，Arrays.sort 对对象排序是稳定的，相同 key 的值保持原始顺序
+     */
+    private static final Comparator<QueryParam> KEY_COMPARATOR = Comparator.comparing(QueryParam::key);
+
+    private static final ThreadLocal<DigestBuffer> DIGEST_BUFFERS = ThreadLocal.withInitial(DigestBuffer::new);
+
+    private static final ThreadLocal<StringBuilder> TEXT_BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * 复用的签名字符串缓冲区最大保留容量，超过时丢弃，避免线程长期持有大对象
+     */
+    private static final int MAX_RETAINED_TEXT_CAPACITY = 16 * 1024;
+
+    private ApiSignatureCanonicalizer() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 将查询字符串解码后按照 key 的字典序排序，相同 key 的多个值保持原始顺序
+     *
+     * @param queryString 查询字符串
+     * @return 规范化的查询字符串，查询字符串为空时返回 null
+     */
+    @Nullable
+    static String canonicalizeQueryString(@Nullable String queryString) {
+        if (!StringUtils.hasText(queryString)) {
+            return null;
+        }
+        String decoded = URLDecoder.decode(queryString, StandardCharsets.UTF_8);
+        QueryParam[] params = new QueryParam[countParts(decoded)];
+        int size = 0;
+        int start = 0;
+        int length = decoded.length();
+        while (start <= length) {
+            int end = decoded.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            params[size++] = QueryParam.parse(decoded, start, end);
+            start = end + 1;
+        }
+        // 与 String#split 保持一致，丢弃末尾的空字符串
+        while (size > 0 && params[size - 1].isBlankPart()) {
+            size--;
+        }
+        if (size == 0) {
+            return null;
+        }
+        Arrays.sort(params, 0, size, KEY_COMPARATOR);
+        StringBuilder result = new StringBuilder(decoded.length() + 8);
+        int index = 0;
+        while (index < size) {
+            int groupEnd = index;
+            boolean hasValue = false;
+            while (groupEnd < size && params[groupEnd].key().equals(params[index].key())) {
+                hasValue |= params[groupEnd].value() != null;
+                groupEnd++;
+            }
+            if (!result.isEmpty()) {
+                result.append('&');
+            }
+            if (hasValue) {
+                boolean first = true;
+                for (int i = index; i < groupEnd; i++) {
+                    if (params[i].value() == null) {
+                        continue;
+                    }
+                    if (!first) {
+                        result.append('&');
+                    }
+                    result.append(params[i].key()).append('=').append(params[i].value());
+                    first = false;
+                }
+            } else {
+                // 没有值的 key
+                result.append(params[index].key()).append('=');
+            }
+            index = groupEnd;
+        }
+        return result.toString();
+    }
+
+    /**
+     * 计算字符串 UTF-8 编码的 md5，分段编码，不会复制为新的字节数组
+     *
+     * @param text 字符串
+     * @return 16 进制的 md5 值
+     */
+    static String md5Hex(CharSequence text) {
+        DigestBuffer buffer = DIGEST_BUFFERS.get();
+        buffer.reset();
+        CharBuffer in = CharBuffer.wrap(text);
+        ByteBuffer out = buffer.bytes;
+        // 缓冲区写满时（overflow）将已编码的内容更新到摘要后继续编码
+        while (buffer.encoder.encode(in, out, true).isOverflow()) {
+            buffer.update();
+        }
+        while (buffer.encoder.flush(out).isOverflow()) {
+            buffer.update();
+        }
+        buffer.update();
+        return buffer.hexDigest();
+    }
+
+    /**
+     * 计算输入流剩余内容的 md5，输入流不会被关闭
+     *
+     * @param input 输入流
+     * @return 16 进制的 md5 值，输入流没有内容时返回 null
+     */
+    @Nullable
+    static String md5Hex(InputStream input) {
+        DigestBuffer buffer = DIGEST_BUFFERS.get();
+        buffer.reset();
+        byte[] bytes = buffer.bytes.array();
+        long total = 0;
+        try {
+            int read;
+            while ((read = input.read(bytes)) != -1) {
+                buffer.digest.update(bytes, 0, read);
+                total += read;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return total == 0 ? null : buffer.hexDigest();
+    }
+
+    /**
+     * 计算 ByteBuffer 剩余内容的 md5，不会修改 ByteBuffer 的 position
+     *
+     * @param input ByteBuffer
+     * @return 16 进制的 md5 值，没有剩余内容时返回 null
+     */
+    @Nullable
+    static String md5Hex(ByteBuffer input) {
+        if (!input.hasRemaining()) {
+            return null;
+        }
+        DigestBuffer buffer = DIGEST_BUFFERS.get();
+        buffer.reset();
+        buffer.digest.update(input.duplicate());
+        return buffer.hexDigest();
+    }
+
+    /**
+     * @return 当前线程复用的签名字符串缓冲区
+     */
+    static StringBuilder borrowTextBuffer() {
+        StringBuilder result = TEXT_BUFFERS.get();
+        if (result.capacity() > MAX_RETAINED_TEXT_CAPACITY) {
+            result = new StringBuilder(256);
+            TEXT_BUFFERS.set(result);
+        }
+        result.setLength(0);
+        return result;
+    }
+
+    private static int countParts(String text) {
+        int result = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '&') {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param key   参数名称
+     * @param value 参数值，没有 '=' 时为 null
+     */
+    private record QueryParam(String key, @Nullable String value) {
+
+        static QueryParam parse(String text, int start, int end) {
+            int eq = text.indexOf('=', start, end);
+            if (eq < 0) {
+                return new QueryParam(text.substring(start, end), null);
+            }
+            return new QueryParam(text.substring(start, eq), text.substring(eq + 1, end));
+        }
+
+        boolean isBlankPart() {
+            return key.isEmpty() && value == null;
+        }
+    }
+
+    private static final class DigestBuffer {
+
+        private final MessageDigest digest;
+
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private DigestBuffer() {
+            try {
+                this.digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException exception) {
+                throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "md5 algorithm not found", exception);
+            }
+        }
+
+        private void reset() {
+            digest.reset();
+            encoder.reset();
+            bytes.clear();
+        }
+
+        /**
+         * 将编码后的内容更新到摘要中
+         */
+        private void update() {
+            bytes.flip();
+            digest.update(bytes);
+            bytes.clear();
+        }
+
+        private String hexDigest() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
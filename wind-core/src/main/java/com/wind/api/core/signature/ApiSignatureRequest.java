@@ -8,11 +8,12 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.experimental.FieldNameConstants;
 import org.jspecify.annotations.Nullable;
-import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.InputStream;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,19 +27,22 @@ import java.util.stream.Collectors;
 /**
  * API 签名加签对象
  *
- * @param method      http 请求方法
- * @param requestPath http 请求 path，不包含查询参数和域名
- * @param nonce       32 位字符串
- * @param timestamp   时间戳
- * @param queryString 请求查询字符串
- * @param requestBody 请求体
+ * @param method         http 请求方法
+ * @param requestPath    http 请求 path，不包含查询参数和域名
+ * @param nonce          32 位字符串
+ * @param timestamp      时间戳
+ * @param queryString    请求查询字符串
+ * @param requestBody    请求体
+ * @param requestBodyMd5 请求体的 md5 摘要，通过 {@link ApiSignatureRequestBuilder#requestBodyDigest(InputStream)} 流式计算，
+ *                       为空时使用 requestBody 计算，仅用于摘要签名
  * @author wuxp
  * @date 2023-10-18 22:08
  * @see <a href="https://juejin.cn/post/6844904034453864462#heading-2">http请求中加号被替换为空格？源码背后的秘密</a>
  */
 @Builder
 @FieldNameConstants
-public record ApiSignatureRequest(String method, String requestPath, String nonce, String timestamp, String queryString, String requestBody) {
+public record ApiSignatureRequest(String method, String requestPath, String nonce, String timestamp, String queryString, String requestBody,
+                                  @Nullable String requestBodyMd5) {
 
     /**
      * 需要 requestBody 参与签名的 Content-Type
@@ -47,7 +51,12 @@ public record ApiSignatureRequest(String method, String requestPath, String nonc
 
     private static final String MD5_TAG = "Md5";
 
-    public ApiSignatureRequest(String method, String requestPath, String nonce, String timestamp, String queryString, String requestBody) {
+    private static final String QUERY_STRING_MD5_NAME = Fields.queryString + MD5_TAG;
+
+    private static final String REQUEST_BODY_MD5_NAME = Fields.requestBody + MD5_TAG;
+
+    public ApiSignatureRequest(String method, String requestPath, String nonce, String timestamp, String queryString, String requestBody,
+                               @Nullable String requestBodyMd5) {
         AssertUtils.hasText(method, "method must not empty");
         AssertUtils.notNull(requestPath, "requestPath must not null");
         AssertUtils.hasText(nonce, "nonce must not empty");
@@ -57,8 +66,13 @@ public record ApiSignatureRequest(String method, String requestPath, String nonc
         this.nonce = nonce;
         this.timestamp = timestamp;
         // 将查询字符串 key 按照字典序排序
-        this.queryString = buildCanonicalizedQueryString(parseQueryParamsAsMap(queryString));
+        this.queryString = ApiSignatureCanonicalizer.canonicalizeQueryString(queryString);
         this.requestBody = requestBody;
+        this.requestBodyMd5 = requestBodyMd5;
+    }
+
+    public ApiSignatureRequest(String method, String requestPath, String nonce, String timestamp, String queryString, String requestBody) {
+        this(method, requestPath, nonce, timestamp, queryString, requestBody, null);
     }
 
     /**
@@ -76,22 +90,23 @@ public record ApiSignatureRequest(String method, String requestPath, String nonc
      */
     @VisibleForTesting
     String getSignTextForDigest() {
-        StringBuilder result = new StringBuilder()
+        StringBuilder result = ApiSignatureCanonicalizer.borrowTextBuffer()
                 .append(Fields.method).append(WindConstants.EQ).append(method).append(WindConstants.AND)
                 .append(Fields.requestPath).append(WindConstants.EQ).append(requestPath).append(WindConstants.AND)
                 .append(Fields.nonce).append(WindConstants.EQ).append(nonce).append(WindConstants.AND)
                 .append(Fields.timestamp).append(WindConstants.EQ).append(timestamp);
         if (StringUtils.hasLength(queryString)) {
             result.append(WindConstants.AND)
-                    .append(String.format("%s%s", Fields.queryString, MD5_TAG))
+                    .append(QUERY_STRING_MD5_NAME)
                     .append(WindConstants.EQ)
-                    .append(DigestUtils.md5DigestAsHex(queryString.getBytes(StandardCharsets.UTF_8)));
+                    .append(ApiSignatureCanonicalizer.md5Hex(queryString));
         }
-        if (StringUtils.hasLength(requestBody)) {
+        String bodyMd5 = getRequestBodyMd5();
+        if (bodyMd5 != null) {
             result.append(WindConstants.AND)
-                    .append(String.format("%s%s", Fields.requestBody, MD5_TAG))
+                    .append(REQUEST_BODY_MD5_NAME)
                     .append(WindConstants.EQ)
-                    .append(DigestUtils.md5DigestAsHex(requestBody.getBytes(StandardCharsets.UTF_8)));
+                    .append(bodyMd5);
         }
         return result.toString();
     }
@@ -101,11 +116,22 @@ public record ApiSignatureRequest(String method, String requestPath, String nonc
      */
     @VisibleForTesting
     String getSignTextForSha256WithRsa() {
-        return method + WindConstants.SPACE + requestPath + WindConstants.LF +
-                timestamp + WindConstants.LF +
-                nonce + WindConstants.LF +
-                (StringUtils.hasText(queryString) ? queryString : WindConstants.EMPTY) + WindConstants.LF +
-                (StringUtils.hasText(requestBody) ? requestBody : WindConstants.EMPTY) + WindConstants.LF;
+        AssertUtils.isTrue(requestBody != null || requestBodyMd5 == null, "Sha256WithRsa sign text require requestBody, requestBody digest is unsupported");
+        return ApiSignatureCanonicalizer.borrowTextBuffer()
+                .append(method).append(WindConstants.SPACE).append(requestPath).append(WindConstants.LF)
+                .append(timestamp).append(WindConstants.LF)
+                .append(nonce).append(WindConstants.LF)
+                .append(StringUtils.hasText(queryString) ? queryString : WindConstants.EMPTY).append(WindConstants.LF)
+                .append(StringUtils.hasText(requestBody) ? requestBody : WindConstants.EMPTY).append(WindConstants.LF)
+                .toString();
+    }
+
+    @Nullable
+    private String getRequestBodyMd5() {
+        if (requestBodyMd5 != null) {
+            return requestBodyMd5;
+        }
+        return StringUtils.hasLength(requestBody) ? ApiSignatureCanonicalizer.md5Hex(requestBody) : null;
     }
 
     /**
@@ -167,4 +193,29 @@ public record ApiSignatureRequest(String method, String requestPath, String nonc
         }
         return SIGNE_CONTENT_TYPES.stream().anyMatch(contentType::startsWith);
     }
+
+    public static class ApiSignatureRequestBuilder {
+
+        /**
+         * 流式计算请求体的 md5 摘要，请求体不会被读取为字符串，仅适用于摘要签名算法
+         *
+         * @param requestBody 请求体输入流，不会被关闭
+         * @return this
+         */
+        public ApiSignatureRequestBuilder requestBodyDigest(InputStream requestBody) {
+            this.requestBodyMd5 = ApiSignatureCanonicalizer.md5Hex(requestBody);
+            return this;
+        }
+
+        /**
+         * 计算请求体的 md5 摘要，仅适用于摘要签名算法
+         *
+         * @param requestBody 请求体，不会修改 position
+         * @return this
+         */
+        public ApiSignatureRequestBuilder requestBodyDigest(ByteBuffer requestBody) {
+            this.requestBodyMd5 = ApiSignatureCanonicalizer.md5Hex(requestBody);
+            return this;
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.wind.common.query.cursor;
+
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.common.message.MessagePlaceholder;
+import com.wind.common.util.WindReflectUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 游标查询签名计划，按查询类型缓存排序后的签名字段访问器，签名时按字段顺序直接将内容写入线程复用的 {@link MessageDigest}
+ * 签名内容为：{field=value&field=value...}#{cursorText}，值为 null 的字段保留分隔符，与签名串拼接后再摘要的结果一致
+ *
+ * @author wuxp
+ * @date 2026-10-18 12:10
+ **/
+final class CursorQuerySignPlan {
+
+    /**
+     * 忽略签名的字段名称
+     */
+    private static final Set<String> CURSOR_QUERY_IGNORE_SIGN_FILED_NAMES = Set.of("prevCursor", "nextCursor", "orderTypes", "queryType");
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final byte AND = '&';
+
+    private static final byte SHARP = '#';
+
+    private static final Map<Class<?>, CursorQuerySignPlan> PLANS = new ConcurrentReferenceHashMap<>();
+
+    /**
+     * 数据记录的游标字段访问器
+     */
+    private static final Map<Class<?>, MethodHandle> CURSOR_ID_GETTERS = new ConcurrentReferenceHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(CursorQuerySignPlan::newDigest);
+
+    private final SignField[] fields;
+
+    private CursorQuerySignPlan(SignField[] fields) {
+        this.fields = fields;
+    }
+
+    static CursorQuerySignPlan of(Class<?> queryClass) {
+        return PLANS.computeIfAbsent(queryClass, CursorQuerySignPlan::build);
+    }
+
+    /**
+     * 获取数据记录的游标字段值
+     *
+     * @param record 数据记录
+     * @return 游标字段值
+     */
+    static Object getCursorId(Object record) {
+        MethodHandle getter = CURSOR_ID_GETTERS.computeIfAbsent(record.getClass(),
+                clazz -> WindReflectUtils.exchangeGetterHandle(WindReflectUtils.findField(clazz, CursorQueryUtils.CURSOR_FILED_NAME)).asType(GETTER_TYPE));
+        try {
+            return getter.invokeExact(record);
+        } catch (Throwable throwable) {
+            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR,
+                    MessagePlaceholder.of("get field value error, name = {}", CursorQueryUtils.CURSOR_FILED_NAME), throwable);
+        }
+    }
+
+    /**
+     * 计算游标签名
+     *
+     * @param query      查询对象
+     * @param cursorText 游标内容
+     * @return sha256 签名的 base64（url safe）编码
+     */
+    String sign(Object query, String cursorText) {
+        MessageDigest digest = DIGESTS.get();
+        digest.reset();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                digest.update(AND);
+            }
+            fields[i].update(digest, query);
+        }
+        digest.update(SHARP);
+        digest.update(cursorText.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static CursorQuerySignPlan build(Class<?> queryClass) {
+        SignField[] fields = Arrays.stream(WindReflectUtils.getFields(queryClass))
+                .filter(field -> !CURSOR_QUERY_IGNORE_SIGN_FILED_NAMES.contains(field.getName()))
+                .sorted(Comparator.comparing(Field::getName))
+                .map(SignField::new)
+                .toArray(SignField[]::new);
+        return new CursorQuerySignPlan(fields);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, "SHA-256 加密失败", exception);
+        }
+    }
+
+    private static final class SignField {
+
+        private final String name;
+
+        /**
+         * 预编码的 name= 字节
+         */
+        private final byte[] prefix;
+
+        private final MethodHandle getter;
+
+        private SignField(Field field) {
+            this.name = field.getName();
+            this.prefix = (name + '=').getBytes(StandardCharsets.UTF_8);
+            this.getter = WindReflectUtils.exchangeGetterHandle(field).asType(GETTER_TYPE);
+        }
+
+        /**
+         * 将字段内容写入摘要，值为 null 时不写入
+         */
+        private void update(MessageDigest digest, Object query) {
+            Object value;
+            try {
+                value = getter.invokeExact(query);
+            } catch (Throwable throwable) {
+                throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("get field value error, name = {}", name), throwable);
+            }
+            if (value != null) {
+                digest.update(prefix);
+                digest.update(CursorQueryUtils.queryParamValueAsText(value).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
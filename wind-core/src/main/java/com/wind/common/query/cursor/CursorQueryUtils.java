@@ -6,26 +6,19 @@ import com.wind.common.exception.AssertUtils;
 import com.wind.common.exception.BaseException;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.common.query.supports.QueryOrderField;
-import com.wind.common.util.WindReflectUtils;
 import jakarta.validation.constraints.NotNull;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
-import java.lang.reflect.Field;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * 基于游标分页查询的工具类
@@ -35,11 +28,6 @@ import java.util.stream.Collectors;
  **/
 final class CursorQueryUtils {
 
-    /**
-     * 忽略签名的字段名称
-     */
-    private static final Set<String> CURSOR_QUERY_IGNORE_SIGN_FILED_NAMES = Set.of("prevCursor", "nextCursor", "orderTypes", "queryType");
-
     private static final int FIRST_PAGE_NUM = 1;
 
     static final String CURSOR_FILED_NAME = "id";
@@ -59,17 +47,17 @@ final class CursorQueryUtils {
         int currentPage = getQueryCurrentPageNum(query);
         if (query.isFirst()) {
             // 首页
-            nextCursor = reachedEnd ? null : CursorQueryUtils.generateCursor(query, WindReflectUtils.getFieldValue(CursorQueryUtils.CURSOR_FILED_NAME, last), currentPage + 1);
+            nextCursor = reachedEnd ? null : CursorQueryUtils.generateCursor(query, CursorQuerySignPlan.getCursorId(last), currentPage + 1);
         } else if (query.getNextCursor() != null) {
             // 向后翻页
-            prevCursor = CursorQueryUtils.generateCursor(query, WindReflectUtils.getFieldValue(CursorQueryUtils.CURSOR_FILED_NAME, first), currentPage);
-            nextCursor = reachedEnd ? null : CursorQueryUtils.generateCursor(query, WindReflectUtils.getFieldValue(CursorQueryUtils.CURSOR_FILED_NAME, last), currentPage + 1);
+            prevCursor = CursorQueryUtils.generateCursor(query, CursorQuerySignPlan.getCursorId(first), currentPage);
+            nextCursor = reachedEnd ? null : CursorQueryUtils.generateCursor(query, CursorQuerySignPlan.getCursorId(last), currentPage + 1);
         } else {
             // 向前翻页
             int prevNum = currentPage - 1;
             prevCursor = (reachedEnd || prevNum == FIRST_PAGE_NUM) ? null : CursorQueryUtils.generateCursor(query,
-                    WindReflectUtils.getFieldValue(CursorQueryUtils.CURSOR_FILED_NAME, first), prevNum);
-            nextCursor = CursorQueryUtils.generateCursor(query, WindReflectUtils.getFieldValue(CursorQueryUtils.CURSOR_FILED_NAME, last), currentPage);
+                    CursorQuerySignPlan.getCursorId(first), prevNum);
+            nextCursor = CursorQueryUtils.generateCursor(query, CursorQuerySignPlan.getCursorId(last), currentPage);
         }
         return new String[]{prevCursor, nextCursor};
     }
@@ -126,19 +114,7 @@ final class CursorQueryUtils {
     }
 
     private static String genCursorSha256(AbstractCursorQuery<?> query, String text) {
-        Field[] fields = WindReflectUtils.getFields(query.getClass());
-        String queryString = Arrays.stream(fields)
-                .filter(field -> !CURSOR_QUERY_IGNORE_SIGN_FILED_NAMES.contains(field.getName()))
-                .sorted(Comparator.comparing(Field::getName))
-                .map(field -> {
-                    Object value = WindReflectUtils.getFieldValue(field, query);
-                    if (value == null) {
-                        return WindConstants.EMPTY;
-                    }
-                    return field.getName() + WindConstants.EQ + queryParamValueAsText(value);
-                })
-                .collect(Collectors.joining(WindConstants.AND));
-        return sha256Base64(queryString + WindConstants.SHARP + text);
+        return CursorQuerySignPlan.of(query.getClass()).sign(query, text);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -154,14 +130,4 @@ final class CursorQueryUtils {
         }
         return value.toString();
     }
-
-    private static String sha256Base64(String text) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(text.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashBytes);
-        } catch (NoSuchAlgorithmException exception) {
-            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, "SHA-256 加密失败", exception);
-        }
-    }
 }
@@ -0,0 +1,325 @@
+package com.wind.common.util;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.ExecutionWrapperException;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bean 属性访问器，按类型缓存每个属性的 {@link WindPropertyAccessor}
+ * 有 getter/setter 方法的属性通过 {@link LambdaMetafactory} 生成 lambda 访问，调用开销与直接调用方法接近；
+ * 没有 getter/setter 方法的字段使用 {@link VarHandle} 读写；无法访问的字段（例如 JDK 模块中未开放的类）会被忽略
+ * 属性顺序与 {@link WindReflectUtils#getFieldNames(Class)} 一致，同名字段优先子类
+ *
+ * @author wuxp
+ * @date 2026-10-18 13:20
+ **/
+public final class WindBeanAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<Class<?>, WindBeanAccessor> ACCESSOR_CACHES = new ConcurrentReferenceHashMap<>();
+
+    /**
+     * 属性复制计划缓存
+     */
+    private static final Map<CopyKey, CopyPair[]> COPY_PLAN_CACHES = new ConcurrentReferenceHashMap<>();
+
+    private final Class<?> beanClass;
+
+    private final WindPropertyAccessor[] accessors;
+
+    private final Map<String, WindPropertyAccessor> accessorIndexes;
+
+    private final List<String> propertyNames;
+
+    private WindBeanAccessor(Class<?> beanClass, WindPropertyAccessor[] accessors) {
+        this.beanClass = beanClass;
+        this.accessors = accessors;
+        Map<String, WindPropertyAccessor> indexes = new LinkedHashMap<>(accessors.length * 2);
+        for (WindPropertyAccessor accessor : accessors) {
+            indexes.put(accessor.getName(), accessor);
+        }
+        this.accessorIndexes = Collections.unmodifiableMap(indexes);
+        this.propertyNames = List.copyOf(indexes.keySet());
+    }
+
+    /**
+     * 获取类型的属性访问器
+     *
+     * @param beanClass 类类型
+     * @return 属性访问器
+     */
+    public static WindBeanAccessor of(Class<?> beanClass) {
+        AssertUtils.notNull(beanClass, "argument beanClass must not null");
+        return ACCESSOR_CACHES.computeIfAbsent(beanClass, WindBeanAccessor::build);
+    }
+
+    /**
+     * 复制同名且类型兼容的属性，目标属性不可写时忽略
+     *
+     * @param source           源对象
+     * @param target           目标对象
+     * @param ignoreProperties 忽略的属性名称
+     */
+    public static void copyProperties(Object source, Object target, String... ignoreProperties) {
+        AssertUtils.notNull(source, "argument source must not null");
+        AssertUtils.notNull(target, "argument target must not null");
+        CopyPair[] pairs = COPY_PLAN_CACHES.computeIfAbsent(new CopyKey(source.getClass(), target.getClass()), WindBeanAccessor::buildCopyPlan);
+        Set<String> ignores = ignoreProperties == null || ignoreProperties.length == 0 ? Collections.emptySet() : new HashSet<>(Arrays.asList(ignoreProperties));
+        for (CopyPair pair : pairs) {
+            if (!ignores.contains(pair.source().getName())) {
+                pair.target().setValue(target, pair.source().getValue(source));
+            }
+        }
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @return 属性名称列表
+     */
+    public List<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    /**
+     * @return 所有属性的访问器
+     */
+    public List<WindPropertyAccessor> getAccessors() {
+        return Arrays.asList(accessors.clone());
+    }
+
+    /**
+     * @param name 属性名称
+     * @return 属性访问器，不存在时返回 null
+     */
+    @Nullable
+    public WindPropertyAccessor getAccessor(String name) {
+        return accessorIndexes.get(name);
+    }
+
+    /**
+     * @param name 属性名称
+     * @return 属性访问器
+     */
+    public WindPropertyAccessor requireAccessor(String name) {
+        WindPropertyAccessor result = accessorIndexes.get(name);
+        AssertUtils.notNull(result, "not found name = {} property in {}", name, beanClass.getName());
+        return result;
+    }
+
+    public <T> T getValue(Object target, String name) {
+        return requireAccessor(name).getValue(target);
+    }
+
+    public void setValue(Object target, String name, @Nullable Object value) {
+        requireAccessor(name).setValue(target, value);
+    }
+
+    /**
+     * 将对象转换为 Map，按属性顺序排列，包含值为 null 的属性
+     *
+     * @param target 目标对象
+     * @return 属性名称 -> 属性值
+     */
+    public Map<String, Object> toMap(Object target) {
+        AssertUtils.isTrue(beanClass.isInstance(target), "argument target must instance of {}", beanClass.getName());
+        Map<String, Object> result = new LinkedHashMap<>(accessors.length * 2);
+        for (WindPropertyAccessor accessor : accessors) {
+            result.put(accessor.getName(), accessor.getValue(target));
+        }
+        return result;
+    }
+
+    private static WindBeanAccessor build(Class<?> beanClass) {
+        List<WindPropertyAccessor> result = new ArrayList<>();
+        for (String name : WindReflectUtils.getFieldNames(beanClass)) {
+            if (result.stream().anyMatch(accessor -> accessor.getName().equals(name))) {
+                // 同名字段优先子类
+                continue;
+            }
+            WindPropertyAccessor accessor = createAccessor(beanClass, WindReflectUtils.findField(beanClass, name));
+            if (accessor != null) {
+                result.add(accessor);
+            }
+        }
+        return new WindBeanAccessor(beanClass, result.toArray(new WindPropertyAccessor[0]));
+    }
+
+    private static CopyPair[] buildCopyPlan(CopyKey key) {
+        WindBeanAccessor target = of(key.target());
+        return Arrays.stream(of(key.source()).accessors)
+                .map(accessor -> {
+                    WindPropertyAccessor targetAccessor = target.getAccessor(accessor.getName());
+                    if (targetAccessor == null || !targetAccessor.isWritable() || !ClassUtils.isAssignable(targetAccessor.getType(), accessor.getType())) {
+                        return null;
+                    }
+                    return new CopyPair(accessor, targetAccessor);
+                })
+                .filter(Objects::nonNull)
+                .toArray(CopyPair[]::new);
+    }
+
+    @Nullable
+    private static WindPropertyAccessor createAccessor(Class<?> beanClass, Field field) {
+        VarHandle varHandle = findVarHandle(field);
+        Method getMethod = findGetMethod(beanClass, field);
+        Function<Object, Object> getter = getMethod == null ? null : createGetter(getMethod);
+        if (getter == null) {
+            if (varHandle == null) {
+                // 字段不可访问
+                return null;
+            }
+            getter = varHandle::get;
+        }
+        Method setMethod = findSetMethod(beanClass, field);
+        BiConsumer<Object, Object> setter = setMethod == null ? null : createSetter(setMethod);
+        if (setter == null && varHandle != null && !Modifier.isFinal(field.getModifiers())) {
+            setter = varHandle::set;
+        }
+        return new WindPropertyAccessor(field.getName(), field.getType(), getter, setter);
+    }
+
+    @Nullable
+    private static Method findGetMethod(Class<?> beanClass, Field field) {
+        if (beanClass.isRecord()) {
+            return findPublicMethod(beanClass, field.getName());
+        }
+        String capitalized = StringUtils.capitalize(field.getName());
+        Method result = findPublicMethod(beanClass, "get" + capitalized);
+        if (result == null && (field.getType() == boolean.class || field.getType() == Boolean.class)) {
+            result = findPublicMethod(beanClass, "is" + capitalized);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static Method findSetMethod(Class<?> beanClass, Field field) {
+        if (beanClass.isRecord()) {
+            return null;
+        }
+        return findPublicMethod(beanClass, "set" + StringUtils.capitalize(field.getName()), field.getType());
+    }
+
+    @Nullable
+    private static Method findPublicMethod(Class<?> beanClass, String name, Class<?>... parameterTypes) {
+        try {
+            Method result = beanClass.getMethod(name, parameterTypes);
+            return Modifier.isStatic(result.getModifiers()) ? null : result;
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static VarHandle findVarHandle(Field field) {
+        try {
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+        } catch (IllegalAccessException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * 使用 LambdaMetafactory 生成 getter，无法生成时（例如调用方没有目标类的完全访问权限）退化为 MethodHandle
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class), GETTER_TYPE.erase(), handle,
+                    MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            MethodHandle handle = unreflectPublic(method);
+            if (handle == null) {
+                return null;
+            }
+            MethodHandle getter = handle.asType(GETTER_TYPE);
+            return target -> {
+                try {
+                    return getter.invokeExact(target);
+                } catch (RuntimeException | Error exception) {
+                    throw exception;
+                } catch (Throwable exception) {
+                    throw ExecutionWrapperException.withThrows(exception);
+                }
+            };
+        }
+    }
+
+    /**
+     * 使用 LambdaMetafactory 生成 setter，无法生成时退化为 MethodHandle
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), SETTER_TYPE, handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable throwable) {
+            MethodHandle handle = unreflectPublic(method);
+            if (handle == null) {
+                return null;
+            }
+            MethodHandle setter = handle.asType(handle.type().changeReturnType(void.class)).asType(SETTER_TYPE);
+            return (target, value) -> {
+                try {
+                    setter.invokeExact(target, value);
+                } catch (RuntimeException | Error exception) {
+                    throw exception;
+                } catch (Throwable exception) {
+                    throw ExecutionWrapperException.withThrows(exception);
+                }
+            };
+        }
+    }
+
+    @Nullable
+    private static MethodHandle unreflectPublic(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private record CopyKey(Class<?> source, Class<?> target) {
+    }
+
+    private record CopyPair(WindPropertyAccessor source, WindPropertyAccessor target) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.wind.common.util;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import com.wind.common.message.MessagePlaceholder;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 属性访问器，由 {@link WindBeanAccessor} 创建
+ * 优先使用 getter/setter 方法生成的 lambda 访问属性，没有 getter/setter 方法时使用 {@link java.lang.invoke.VarHandle} 直接读写字段
+ *
+ * @author wuxp
+ * @date 2026-10-18 13:10
+ **/
+public final class WindPropertyAccessor {
+
+    private final String name;
+
+    private final Class<?> type;
+
+    private final Function<Object, Object> getter;
+
+    @Nullable
+    private final BiConsumer<Object, Object> setter;
+
+    WindPropertyAccessor(String name, Class<?> type, Function<Object, Object> getter, @Nullable BiConsumer<Object, Object> setter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * @return 属性名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 属性类型
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return 是否可写，final 字段且没有 setter 方法时不可写
+     */
+    public boolean isWritable() {
+        return setter != null;
+    }
+
+    /**
+     * 获取属性值
+     *
+     * @param target 目标对象
+     * @return 属性值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(Object target) {
+        try {
+            return (T) getter.apply(target);
+        } catch (BaseException exception) {
+            throw exception;
+        } catch (RuntimeException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("get property value error, name = {}", name), exception);
+        }
+    }
+
+    /**
+     * 设置属性值
+     *
+     * @param target 目标对象
+     * @param value  属性值
+     */
+    public void setValue(Object target, @Nullable Object value) {
+        AssertUtils.notNull(setter, "property = {} is not writable", name);
+        try {
+            setter.accept(target, value);
+        } catch (BaseException exception) {
+            throw exception;
+        } catch (RuntimeException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("set property value error, name = {}", name), exception);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WindPropertyAccessor{name=" + name + ", type=" + type.getName() + ", writable=" + isWritable() + "}";
+    }
+}
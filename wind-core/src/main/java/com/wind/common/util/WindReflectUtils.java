@@ -12,6 +12,7 @@ import org.springframework.util.ConcurrentReferenceHashMap;
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -19,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -40,14 +42,33 @@ public final class WindReflectUtils {
 
     private static final Field[] EMPTY = new Field[0];
 
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     /**
-     * 字段缓存
+     * 成员变量缓存
      *
      * @key 类类型
-     * @value 字段列表
+     * @value 字段列表（递归父类，排除静态字段）
      */
     private static final Map<Class<?>, List<Field>> CLASS_FIELDS_CACHES = new ConcurrentReferenceHashMap<>();
 
+    /**
+     * 按名称索引的成员变量缓存，同名字段优先子类
+     *
+     * @key 类类型
+     * @value 字段名称 -> 字段
+     */
+    private static final Map<Class<?>, Map<String, Field>> CLASS_FIELD_INDEX_CACHES = new ConcurrentReferenceHashMap<>();
+
+    /**
+     * 字段读写句柄缓存，句柄已适配为 (Object)Object、(Object,Object)void 用于 invokeExact
+     */
+    private static final Map<Field, MethodHandle> FIELD_GETTER_CACHES = new ConcurrentReferenceHashMap<>();
+
+    private static final Map<Field, MethodHandle> FIELD_SETTER_CACHES = new ConcurrentReferenceHashMap<>();
+
     private WindReflectUtils() {
         throw new AssertionError();
     }
@@ -164,8 +185,8 @@ public final class WindReflectUtils {
      */
     @Null
     public static Field findFieldNullable(@NotNull Class<?> clazz, String fieldName) {
-        Field[] fields = findFields(clazz, Collections.singleton(fieldName));
-        return fields.length == 0 ? null : fields[0];
+        AssertUtils.notNull(clazz, ERROR_MESSAGE);
+        return CLASS_FIELD_INDEX_CACHES.computeIfAbsent(clazz, WindReflectUtils::indexMemberFields).get(fieldName);
     }
 
     /**
@@ -267,9 +288,17 @@ public final class WindReflectUtils {
      * @return 字段列表
      */
     private static List<Field> getMemberFields(Class<?> clazz) {
-        return CLASS_FIELDS_CACHES.computeIfAbsent(clazz, WindReflectUtils::getClazzFields).stream()
+        return CLASS_FIELDS_CACHES.computeIfAbsent(clazz, key -> getClazzFields(key).stream()
                 .filter(field -> !Modifier.isStatic(field.getModifiers()))
-                .toList();
+                .toList());
+    }
+
+    private static Map<String, Field> indexMemberFields(Class<?> clazz) {
+        Map<String, Field> result = new HashMap<>();
+        for (Field field : getMemberFields(clazz)) {
+            result.putIfAbsent(field.getName(), field);
+        }
+        return result;
     }
 
     /**
@@ -305,7 +334,8 @@ public final class WindReflectUtils {
     @SuppressWarnings("unchecked")
     public static <T> T getFieldValue(Field field, Object target) {
         try {
-            return (T) exchangeGetterHandle(field).invoke(target);
+            MethodHandle getter = FIELD_GETTER_CACHES.computeIfAbsent(field, key -> exchangeGetterHandle(key).asType(GETTER_TYPE));
+            return (T) getter.invokeExact(target);
         } catch (Throwable e) {
             throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("get field value error, name = {}", field.getName()), e);
         }
@@ -324,7 +354,8 @@ public final class WindReflectUtils {
 
     public static void setFieldValue(@NotNull Field field, @NotNull Object target, Object val) {
         try {
-            exchangeSetterHandle(field).invoke(target, val);
+            MethodHandle setter = FIELD_SETTER_CACHES.computeIfAbsent(field, key -> exchangeSetterHandle(key).asType(SETTER_TYPE));
+            setter.invokeExact(target, val);
         } catch (Throwable e) {
             throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, MessagePlaceholder.of("set field value error, name = {}", field.getName()), e);
         }
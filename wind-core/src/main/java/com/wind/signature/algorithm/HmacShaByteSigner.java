@@ -6,13 +6,13 @@ import com.wind.signature.SignatureAlgorithm;
 import com.wind.signature.SimpleTextSignerWrapper;
 import com.wind.signature.WindByteSigner;
 import com.wind.signature.WindTextSigner;
-import lombok.AllArgsConstructor;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 
 /**
  * HmacSHA 签名
@@ -20,11 +20,30 @@ import java.util.Arrays;
  * @author wuxp
  * @date 2026-02-09 16:11
  **/
-@AllArgsConstructor
 public final class HmacShaByteSigner implements WindByteSigner {
 
+    private static final WindByteSigner HMAC_SHA256 = new HmacShaByteSigner(SignatureAlgorithm.HMAC_SHA256);
+
+    private static final WindByteSigner HMAC_SHA512 = new HmacShaByteSigner(SignatureAlgorithm.HMAC_SHA512);
+
     private final SignatureAlgorithm algorithm;
 
+    /**
+     * 解析后的秘钥缓存
+     */
+    private final SignerKeyCache<SecretKeySpec> keyCache;
+
+    /**
+     * 线程复用的 Mac 实例，避免每次签名都查找算法提供者
+     */
+    private final ThreadLocal<MacHolder> macs;
+
+    public HmacShaByteSigner(SignatureAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.keyCache = new SignerKeyCache<>(algorithm.getAlgorithm(), secretBytes -> new SecretKeySpec(secretBytes, algorithm.getAlgorithm()));
+        this.macs = ThreadLocal.withInitial(() -> new MacHolder(newMac()));
+    }
+
     /**
      * 生成签名
      *
@@ -34,26 +53,41 @@ public final class HmacShaByteSigner implements WindByteSigner {
      */
     @Override
     public byte[] sign(byte[] signBytes, byte[] secretBytes) {
+        SecretKeySpec key = keyCache.get(secretBytes);
+        MacHolder holder = macs.get();
         try {
-            Mac mac = Mac.getInstance(algorithm.getAlgorithm());
-            mac.init(new SecretKeySpec(secretBytes, algorithm.getAlgorithm()));
-            return mac.doFinal(signBytes);
-        } catch (NoSuchAlgorithmException | InvalidKeyException exception) {
+            if (holder.key != key) {
+                // 秘钥变化时才需要重新初始化，doFinal 后 Mac 会重置为初始化后的状态
+                holder.key = null;
+                holder.mac.init(key);
+                holder.key = key;
+            }
+            return holder.mac.doFinal(signBytes);
+        } catch (InvalidKeyException exception) {
             throw new BaseException(DefaultExceptionCode.BAD_REQUEST, "签名验失败", exception);
         }
     }
 
     @Override
     public boolean verify(byte[] signBytes, byte[] secretBytes, byte[] sign) {
-        return Arrays.equals(sign(signBytes, secretBytes), sign);
+        // 使用固定时间的比较，避免通过比较耗时推测签名
+        return MessageDigest.isEqual(sign(signBytes, secretBytes), sign);
+    }
+
+    private Mac newMac() {
+        try {
+            return Mac.getInstance(algorithm.getAlgorithm());
+        } catch (NoSuchAlgorithmException exception) {
+            throw new BaseException(DefaultExceptionCode.BAD_REQUEST, "签名验失败", exception);
+        }
     }
 
     public static WindByteSigner hmacSha256() {
-        return new HmacShaByteSigner(SignatureAlgorithm.HMAC_SHA256);
+        return HMAC_SHA256;
     }
 
     public static WindByteSigner hmacSha512() {
-        return new HmacShaByteSigner(SignatureAlgorithm.HMAC_SHA512);
+        return HMAC_SHA512;
     }
 
     public static WindTextSigner hmacSha256Base64() {
@@ -64,4 +98,17 @@ public final class HmacShaByteSigner implements WindByteSigner {
         return SimpleTextSignerWrapper.base64(hmacSha512());
     }
 
+    private static final class MacHolder {
+
+        private final Mac mac;
+
+        /**
+         * Mac 当前初始化使用的秘钥
+         */
+        private Key key;
+
+        private MacHolder(Mac mac) {
+            this.mac = mac;
+        }
+    }
 }
\ No newline at end of file
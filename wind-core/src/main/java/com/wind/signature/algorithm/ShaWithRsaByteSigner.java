@@ -5,12 +5,14 @@ import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.signature.SignatureAlgorithm;
 import com.wind.signature.WindByteSigner;
 import com.wind.signature.WindTextSigner;
-import lombok.AllArgsConstructor;
 import org.jspecify.annotations.NonNull;
 
 import java.security.InvalidKeyException;
+import java.security.Key;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
@@ -24,51 +26,100 @@ import java.util.Base64;
  * @author wuxp
  * @date 2026-02-09 16:47
  **/
-@AllArgsConstructor
 public class ShaWithRsaByteSigner implements WindByteSigner {
 
     private static final String RSA_ALGORITHM_NAME = "RSA";
 
+    private static final WindByteSigner SHA256_WITH_RSA = new ShaWithRsaByteSigner(SignatureAlgorithm.SHA256_WITH_RSA);
+
     private final SignatureAlgorithm algorithm;
 
+    /**
+     * 私钥缓存，秘钥内容为 PKCS8 编码
+     */
+    private final SignerKeyCache<PrivateKey> privateKeys = new SignerKeyCache<>(RSA_ALGORITHM_NAME, ShaWithRsaByteSigner::parsePrivateKey);
+
+    /**
+     * 公钥缓存，秘钥内容为 X509 编码
+     */
+    private final SignerKeyCache<PublicKey> publicKeys = new SignerKeyCache<>(RSA_ALGORITHM_NAME, ShaWithRsaByteSigner::parsePublicKey);
+
+    /**
+     * 线程复用的 Signature 实例，签名或验签完成后 Signature 会重置为初始化后的状态
+     */
+    private final ThreadLocal<SignatureHolder> signatures;
+
+    public ShaWithRsaByteSigner(SignatureAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.signatures = ThreadLocal.withInitial(() -> new SignatureHolder(newSignature()));
+    }
+
     @Override
     public byte[] sign(byte[] signBytes, byte[] secretBytes) {
-        // 构造PKCS8EncodedKeySpec对象
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(secretBytes);
+        PrivateKey privateKey = privateKeys.get(secretBytes);
+        SignatureHolder holder = signatures.get();
         try {
-            // 指定加密算法
-            KeyFactory keyFactory = KeyFactory.getInstance(RSA_ALGORITHM_NAME);
-            // 用私钥对信息生成数字签名
-            Signature signature = Signature.getInstance(algorithm.getAlgorithm());
-            signature.initSign(keyFactory.generatePrivate(keySpec));
-            signature.update(signBytes);
-            return signature.sign();
-        } catch (NoSuchAlgorithmException | InvalidKeyException | InvalidKeySpecException |
-                 SignatureException exception) {
+            if (holder.key != privateKey) {
+                holder.key = null;
+                // 用私钥对信息生成数字签名
+                holder.signature.initSign(privateKey);
+                holder.key = privateKey;
+            }
+            holder.signature.update(signBytes);
+            return holder.signature.sign();
+        } catch (InvalidKeyException | SignatureException exception) {
+            signatures.remove();
             throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "sign error", exception);
         }
     }
 
     @Override
     public boolean verify(byte[] signBytes, byte[] secretBytes, byte[] sign) {
-        // 构造X509EncodedKeySpec对象
-        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(secretBytes);
+        PublicKey publicKey = publicKeys.get(secretBytes);
+        byte[] signature = Base64.getDecoder().decode(sign);
+        SignatureHolder holder = signatures.get();
         try {
-            // 指定加密算法
-            KeyFactory keyFactory = KeyFactory.getInstance(RSA_ALGORITHM_NAME);
-            Signature signature = Signature.getInstance(algorithm.getAlgorithm());
-            signature.initVerify(keyFactory.generatePublic(keySpec));
-            signature.update(signBytes);
+            if (holder.key != publicKey) {
+                holder.key = null;
+                holder.signature.initVerify(publicKey);
+                holder.key = publicKey;
+            }
+            holder.signature.update(signBytes);
             // 验证签名是否正常
-            return signature.verify(Base64.getDecoder().decode(sign));
-        } catch (NoSuchAlgorithmException | InvalidKeyException | InvalidKeySpecException |
-                 SignatureException exception) {
+            return holder.signature.verify(signature);
+        } catch (InvalidKeyException | SignatureException exception) {
+            // 签名内容异常时 Signature 的状态不确定，丢弃当前线程的实例
+            signatures.remove();
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "verify sign error", exception);
+        }
+    }
+
+    private Signature newSignature() {
+        try {
+            return Signature.getInstance(algorithm.getAlgorithm());
+        } catch (NoSuchAlgorithmException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "sign error", exception);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(byte[] secretBytes) {
+        try {
+            return KeyFactory.getInstance(RSA_ALGORITHM_NAME).generatePrivate(new PKCS8EncodedKeySpec(secretBytes));
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "sign error", exception);
+        }
+    }
+
+    private static PublicKey parsePublicKey(byte[] secretBytes) {
+        try {
+            return KeyFactory.getInstance(RSA_ALGORITHM_NAME).generatePublic(new X509EncodedKeySpec(secretBytes));
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException exception) {
             throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "verify sign error", exception);
         }
     }
 
     public static WindByteSigner sha256WithRsa() {
-        return new ShaWithRsaByteSigner(SignatureAlgorithm.SHA256_WITH_RSA);
+        return SHA256_WITH_RSA;
     }
 
     public static WindTextSigner sha256WithRsaBas4() {
@@ -87,4 +138,17 @@ public class ShaWithRsaByteSigner implements WindByteSigner {
         };
     }
 
-}
+    private static final class SignatureHolder {
+
+        private final Signature signature;
+
+        /**
+         * Signature 当前初始化使用的秘钥
+         */
+        private Key key;
+
+        private SignatureHolder(Signature signature) {
+            this.signature = signature;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.wind.signature.algorithm;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 签名秘钥缓存，按 算法 + 秘钥内容 的 SHA-256 指纹缓存解析后的 {@link java.security.Key}，避免每次签名都解析秘钥
+ * 缓存中不保存原始秘钥内容
+ * 缓存数量有上限，超过上限时先淘汰过期的秘钥，仍然超过时随机淘汰
+ *
+ * @author wuxp
+ * @date 2026-10-18 10:05
+ **/
+final class SignerKeyCache<K> {
+
+    private static final int DEFAULT_MAX_SIZE = 512;
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(SignerKeyCache::newDigest);
+
+    private final Map<Fingerprint, Entry<K>> entries = new ConcurrentHashMap<>();
+
+    private final byte[] algorithmBytes;
+
+    private final Function<byte[], K> loader;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    SignerKeyCache(String algorithm, Function<byte[], K> loader) {
+        this(algorithm, loader, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param algorithm 秘钥算法，参与指纹计算
+     * @param loader    秘钥解析器
+     * @param maxSize   最大缓存数量
+     * @param ttl       缓存有效期
+     */
+    SignerKeyCache(String algorithm, Function<byte[], K> loader, int maxSize, Duration ttl) {
+        AssertUtils.hasText(algorithm, "argument algorithm must not empty");
+        AssertUtils.isTrue(maxSize > 0, "argument maxSize must greater than 0");
+        AssertUtils.isTrue(ttl != null && ttl.toNanos() > 0, "argument ttl must greater than 0");
+        this.algorithmBytes = algorithm.getBytes(StandardCharsets.UTF_8);
+        this.loader = loader;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * 获取秘钥，不存在或已过期时解析秘钥
+     *
+     * @param secretBytes 秘钥内容
+     * @return 解析后的秘钥
+     */
+    K get(byte[] secretBytes) {
+        long now = System.nanoTime();
+        Fingerprint fingerprint = fingerprint(secretBytes);
+        Entry<K> entry = entries.get(fingerprint);
+        if (entry != null && entry.expireAt - now > 0) {
+            return entry.key;
+        }
+        K result = loader.apply(secretBytes);
+        if (entry == null && entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(fingerprint, new Entry<>(result, now + ttlNanos));
+        return result;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Fingerprint fingerprint(byte[] secretBytes) {
+        MessageDigest digest = DIGESTS.get();
+        digest.reset();
+        digest.update(algorithmBytes);
+        // 分隔算法与秘钥内容
+        digest.update((byte) 0);
+        digest.update(secretBytes);
+        return new Fingerprint(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_FRIENDLY_ERROR, "SHA-256 加密失败", exception);
+        }
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expireAt - now <= 0);
+        Iterator<Fingerprint> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 秘钥指纹（算法 + 秘钥内容的 SHA-256 摘要），比较时使用固定时间的比较
+     */
+    private record Fingerprint(byte[] digest, int hash) {
+
+        Fingerprint(byte[] digest) {
+            // 摘要本身均匀分布，直接取前 4 个字节作为 hash
+            this(digest, (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Fingerprint fingerprint && hash == fingerprint.hash && MessageDigest.isEqual(digest, fingerprint.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Fingerprint{hash=" + hash + "}";
+        }
+    }
+
+    private record Entry<K>(K key, long expireAt) {
+    }
+}
@@ -1,8 +1,15 @@
 package com.wind.api.core.signature;
 
+import com.wind.signature.SignatureAlgorithm;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -104,6 +111,58 @@ class ApiSignatureRequestTests {
         Assertions.assertEquals("a=1+2&b=1 2&h=1=1", queryString);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"a=1&b=2&c=b,cd", "age=36&name=zhans&tags=tag0&tags=tag1&empty=", "c=3&a=1&c=1&b&a", "a=1%2B2&b=1 2&h=1=1",
+            "a=1&&b=2", "&a=1", "a=1&", "&&", "=1&a", "k&k=1&k=", "z=%E4%B8%AD%E6%96%87&y=%F0%9F%98%80&x=a%2526,cd", "  "})
+    void testCanonicalizeQueryStringEquivalent(String queryString) {
+        String expected = ApiSignatureRequest.buildCanonicalizedQueryString(ApiSignatureRequest.parseQueryParamsAsMap(queryString));
+        Assertions.assertEquals(expected, ApiSignatureCanonicalizer.canonicalizeQueryString(queryString));
+    }
+
+    @Test
+    void testMd5HexEquivalent() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            // 包含多字节字符和代理对，跨越编码缓冲区边界
+            text.append("{\"id\":").append(i).append(",\"name\":\"中文\uD83D\uDE00\"}");
+        }
+        // 不成对的代理字符
+        text.append('\uD83D');
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        String expected = DigestUtils.md5DigestAsHex(bytes);
+        Assertions.assertEquals(expected, ApiSignatureCanonicalizer.md5Hex(text.toString()));
+        Assertions.assertEquals(expected, ApiSignatureCanonicalizer.md5Hex(new ByteArrayInputStream(bytes)));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assertions.assertEquals(expected, ApiSignatureCanonicalizer.md5Hex(buffer));
+        Assertions.assertEquals(0, buffer.position());
+        Assertions.assertNull(ApiSignatureCanonicalizer.md5Hex(new ByteArrayInputStream(new byte[0])));
+        Assertions.assertNull(ApiSignatureCanonicalizer.md5Hex(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    void testSignTextWithRequestBodyDigest() {
+        String requestBody = "{\"name\":\"中文\",\"values\":[1,2,3]}";
+        ApiSignatureRequest expected = buildRequest("a=1&b=2&c=b,cd", requestBody);
+        ApiSignatureRequest request = ApiSignatureRequest.builder()
+                .method("POST")
+                .requestPath("/api/v1/example/users")
+                .queryString("a=1&b=2&c=b,cd")
+                .requestBodyDigest(new ByteArrayInputStream(requestBody.getBytes(StandardCharsets.UTF_8)))
+                .timestamp("123456789")
+                .nonce("jlj3rn2930d-123210dq")
+                .build();
+        Assertions.assertEquals(expected.getSignTextForDigest(), request.getSignTextForDigest());
+        Assertions.assertEquals(expected.getSignText(SignatureAlgorithm.HMAC_SHA256), request.getSignText(SignatureAlgorithm.HMAC_SHA256));
+        Assertions.assertThrows(RuntimeException.class, request::getSignTextForSha256WithRsa);
+    }
+
+    @Test
+    void testConstructorWithoutRequestBodyMd5() {
+        ApiSignatureRequest request = new ApiSignatureRequest("post", "/api/v1/example/users", "jlj3rn2930d-123210dq", "123456789", "a=1&b=2&c=b,cd", "{}");
+        Assertions.assertNull(request.requestBodyMd5());
+        Assertions.assertEquals(buildRequest("a=1&b=2&c=b,cd", "{}"), request);
+    }
+
     private static ApiSignatureRequest buildRequest(String queryString, String requestBody) {
         return ApiSignatureRequest.builder()
                 .method(requestBody == null ? "GET" : "POST")
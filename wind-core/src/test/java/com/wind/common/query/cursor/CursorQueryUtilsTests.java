@@ -1,9 +1,21 @@
 package com.wind.common.query.cursor;
 
+import com.wind.common.WindConstants;
+import com.wind.common.query.supports.DefaultOrderField;
+import com.wind.common.util.WindReflectUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author wuxp
@@ -21,6 +33,55 @@ class CursorQueryUtilsTests {
         Assertions.assertEquals("1,2,3", CursorQueryUtils.queryParamValueAsText(Arrays.asList("1", 2, "3")));
     }
 
+    @Test
+    void testCursorSignEquivalent() throws Exception {
+        AbstractCursorQueryTests.ExampleQuery query = new AbstractCursorQueryTests.ExampleQuery();
+        Assertions.assertEquals(legacySign(query, "1@2"), CursorQuerySignPlan.of(query.getClass()).sign(query, "1@2"));
+        query.setName("中文");
+        query.setTags(List.of("a", "b"));
+        query.setOrderFields(new DefaultOrderField[]{DefaultOrderField.ID});
+        query.setMaxGmtCreate(LocalDateTime.of(2026, 10, 18, 12, 0));
+        query.setNextCursor("ignore");
+        Assertions.assertEquals(legacySign(query, "10@3"), CursorQuerySignPlan.of(query.getClass()).sign(query, "10@3"));
+    }
+
+    @Test
+    void testCheckCursor() {
+        AbstractCursorQueryTests.ExampleQuery query = new AbstractCursorQueryTests.ExampleQuery();
+        query.setName("zhans");
+        String cursor = CursorQueryUtils.generateCursor(query, 10L, 2);
+        Assertions.assertEquals("10", CursorQueryUtils.checkCursorAndGetLastRecordId(query, cursor));
+        query.setName("lisi");
+        Assertions.assertThrows(RuntimeException.class, () -> CursorQueryUtils.checkCursorAndGetLastRecordId(query, cursor));
+    }
+
+    @Test
+    void testGetCursorId() {
+        Assertions.assertEquals(10L, CursorQuerySignPlan.getCursorId(new AbstractCursorQueryTests.ExampleEntity(10L)));
+        Assertions.assertEquals(20L, CursorQuerySignPlan.getCursorId(new AbstractCursorQueryTests.ExampleEntity(20L)));
+        Assertions.assertThrows(RuntimeException.class, () -> CursorQuerySignPlan.getCursorId("id"));
+    }
+
+    /**
+     * 签名串拼接后再摘要的实现，用于验证签名结果一致
+     */
+    private static String legacySign(AbstractCursorQuery<?> query, String text) throws Exception {
+        Set<String> ignoreNames = Set.of("prevCursor", "nextCursor", "orderTypes", "queryType");
+        String queryString = Arrays.stream(WindReflectUtils.getFields(query.getClass()))
+                .filter(field -> !ignoreNames.contains(field.getName()))
+                .sorted(Comparator.comparing(Field::getName))
+                .map(field -> {
+                    Object value = WindReflectUtils.getFieldValue(field, query);
+                    if (value == null) {
+                        return WindConstants.EMPTY;
+                    }
+                    return field.getName() + WindConstants.EQ + CursorQueryUtils.queryParamValueAsText(value);
+                })
+                .collect(Collectors.joining(WindConstants.AND));
+        byte[] hashBytes = MessageDigest.getInstance("SHA-256").digest((queryString + WindConstants.SHARP + text).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hashBytes);
+    }
+
     enum Example {
         A,
         B
@@ -0,0 +1,107 @@
+package com.wind.common.util;
+
+import com.wind.common.exception.BaseException;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 13:40
+ **/
+class WindBeanAccessorTests {
+
+    @Test
+    void testGetAndSetValue() {
+        WindBeanAccessor accessor = WindBeanAccessor.of(ExampleBean.class);
+        Assertions.assertSame(accessor, WindBeanAccessor.of(ExampleBean.class));
+        Assertions.assertEquals(List.of("name", "age", "enabled", "remark"), accessor.getPropertyNames());
+        ExampleBean bean = new ExampleBean();
+        accessor.setValue(bean, "name", "zhans");
+        accessor.setValue(bean, "age", 18);
+        accessor.setValue(bean, "enabled", true);
+        accessor.setValue(bean, "remark", "no accessor");
+        Assertions.assertEquals("zhans", bean.getName());
+        Assertions.assertEquals(18, bean.getAge());
+        Assertions.assertTrue(bean.isEnabled());
+        Assertions.assertEquals("zhans", accessor.getValue(bean, "name"));
+        Assertions.assertEquals(18, (int) accessor.getValue(bean, "age"));
+        Assertions.assertEquals("no accessor", accessor.getValue(bean, "remark"));
+        Assertions.assertThrows(BaseException.class, () -> accessor.getValue(bean, "unknown"));
+        Assertions.assertThrows(BaseException.class, () -> accessor.setValue(bean, "age", null));
+    }
+
+    @Test
+    void testRecordAccessor() {
+        WindBeanAccessor accessor = WindBeanAccessor.of(ExampleRecord.class);
+        ExampleRecord record = new ExampleRecord("lisi", 20);
+        Assertions.assertEquals("lisi", accessor.getValue(record, "name"));
+        Assertions.assertEquals(20, (int) accessor.getValue(record, "age"));
+        WindPropertyAccessor name = accessor.requireAccessor("name");
+        Assertions.assertFalse(name.isWritable());
+        Assertions.assertThrows(BaseException.class, () -> name.setValue(record, "wangw"));
+    }
+
+    @Test
+    void testToMap() {
+        ExampleBean bean = new ExampleBean();
+        bean.setName("zhans");
+        bean.setAge(18);
+        Map<String, Object> result = WindBeanAccessor.of(ExampleBean.class).toMap(bean);
+        Assertions.assertEquals(List.of("name", "age", "enabled", "remark"), List.copyOf(result.keySet()));
+        Assertions.assertEquals("zhans", result.get("name"));
+        Assertions.assertEquals(18, result.get("age"));
+        Assertions.assertNull(result.get("remark"));
+    }
+
+    @Test
+    void testCopyProperties() {
+        ExampleRecord source = new ExampleRecord("lisi", 20);
+        ExampleBean target = new ExampleBean();
+        WindBeanAccessor.copyProperties(source, target);
+        Assertions.assertEquals("lisi", target.getName());
+        Assertions.assertEquals(20, target.getAge());
+
+        ExampleBean other = new ExampleBean();
+        WindBeanAccessor.copyProperties(source, other, "age");
+        Assertions.assertEquals("lisi", other.getName());
+        Assertions.assertEquals(0, other.getAge());
+
+        // 忽略的属性名称允许重复与空值
+        ExampleBean duplicate = new ExampleBean();
+        WindBeanAccessor.copyProperties(source, duplicate, "age", "age", null);
+        Assertions.assertEquals("lisi", duplicate.getName());
+        Assertions.assertEquals(0, duplicate.getAge());
+    }
+
+    @Test
+    void testIgnoreInaccessibleField() {
+        WindBeanAccessor accessor = WindBeanAccessor.of(BigDecimal.class);
+        Assertions.assertNotNull(accessor);
+        accessor.getAccessors().forEach(property -> Assertions.assertDoesNotThrow(() -> property.getValue(BigDecimal.ONE)));
+    }
+
+    @Data
+    public static class ExampleBean {
+
+        private String name;
+
+        private int age;
+
+        private boolean enabled;
+
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        private String remark;
+    }
+
+    public record ExampleRecord(String name, Integer age) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.wind.signature.algorithm;
+
+import com.wind.signature.WindByteSigner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 10:30
+ **/
+class WindByteSignerTests {
+
+    @Test
+    void testHmacSha256Concurrent() throws Exception {
+        WindByteSigner signer = HmacShaByteSigner.hmacSha256();
+        int threads = 8;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        // 多个秘钥交替签名
+                        byte[] secretBytes = ("secret_" + (j + index) % 5).getBytes(StandardCharsets.UTF_8);
+                        byte[] signBytes = ("content_" + j).getBytes(StandardCharsets.UTF_8);
+                        byte[] sign = signer.sign(signBytes, secretBytes);
+                        Assertions.assertArrayEquals(hmacSha256(signBytes, secretBytes), sign);
+                        Assertions.assertTrue(signer.verify(signBytes, secretBytes, sign));
+                        Assertions.assertFalse(signer.verify(signBytes, "other".getBytes(StandardCharsets.UTF_8), sign));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    @Test
+    void testSha256WithRsaKeySwitch() throws Exception {
+        WindByteSigner signer = ShaWithRsaByteSigner.sha256WithRsa();
+        KeyPair first = genKeyPair();
+        KeyPair second = genKeyPair();
+        byte[] signBytes = "content".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            byte[] firstSign = Base64.getEncoder().encode(signer.sign(signBytes, first.getPrivate().getEncoded()));
+            byte[] secondSign = Base64.getEncoder().encode(signer.sign(signBytes, second.getPrivate().getEncoded()));
+            Assertions.assertTrue(signer.verify(signBytes, first.getPublic().getEncoded(), firstSign));
+            Assertions.assertTrue(signer.verify(signBytes, second.getPublic().getEncoded(), secondSign));
+            Assertions.assertFalse(signer.verify(signBytes, second.getPublic().getEncoded(), firstSign));
+        }
+    }
+
+    @Test
+    void testKeyCacheEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        SignerKeyCache<String> cache = new SignerKeyCache<>("test", bytes -> {
+            loads.incrementAndGet();
+            return new String(bytes, StandardCharsets.UTF_8);
+        }, 4, Duration.ofMinutes(1));
+        byte[] secretBytes = "secret".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("secret", cache.get(secretBytes));
+        // 修改调用方的数组不影响缓存
+        secretBytes[0] = 'S';
+        Assertions.assertEquals("Secret", cache.get(secretBytes));
+        Assertions.assertEquals("secret", cache.get("secret".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(2, loads.get());
+        for (int i = 0; i < 10; i++) {
+            cache.get(("secret_" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertTrue(cache.size() <= 4);
+    }
+
+    @Test
+    void testKeyCacheFingerprintWithAlgorithm() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<byte[], String> loader = bytes -> {
+            loads.incrementAndGet();
+            return new String(bytes, StandardCharsets.UTF_8);
+        };
+        SignerKeyCache<String> first = new SignerKeyCache<>("HmacSHA256", loader, 4, Duration.ofMinutes(1));
+        SignerKeyCache<String> second = new SignerKeyCache<>("HmacSHA512", loader, 4, Duration.ofMinutes(1));
+        byte[] secretBytes = "secret".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("secret", first.get(secretBytes));
+        Assertions.assertEquals("secret", first.get("secret".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals("secret", second.get(secretBytes));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testKeyCacheExpired() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        SignerKeyCache<String> cache = new SignerKeyCache<>("test", bytes -> {
+            loads.incrementAndGet();
+            return new String(bytes, StandardCharsets.UTF_8);
+        }, 4, Duration.ofMillis(1));
+        cache.get("secret".getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(5);
+        cache.get("secret".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private static byte[] hmacSha256(byte[] signBytes, byte[] secretBytes) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secretBytes, "HmacSHA256"));
+        return mac.doFinal(signBytes);
+    }
+
+    private static KeyPair genKeyPair() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.genKeyPair();
+    }
+}
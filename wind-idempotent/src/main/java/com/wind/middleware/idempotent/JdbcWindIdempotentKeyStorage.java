@@ -0,0 +1,200 @@
+package com.wind.middleware.idempotent;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.util.KryoSerializationUtils;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于数据库的幂等 key 存储，执行结果使用 Kryo 序列化后保存在二进制字段中
+ * 通过唯一键完成预占，租约过期的执行中记录使用乐观更新接管；过期的记录需要定期调用 {@link #purgeExpired()} 清理
+ * 预占写入的租约到期时间作为预占凭证，保存结果与释放预占时校验凭证，避免租约过期被接管后覆盖或删除新的预占
+ * 表结构参见：{@link #DEFAULT_TABLE_NAME}（idempotent_key 唯一键、state、result_value 二进制、expire_time 毫秒时间戳）
+ *
+ * @author wuxp
+ * @date 2026-10-18 02:10
+ **/
+public class JdbcWindIdempotentKeyStorage implements WindIdempotentKeyStorage {
+
+    public static final String DEFAULT_TABLE_NAME = "t_wind_idempotent_key";
+
+    private static final int STATE_PENDING = 0;
+
+    private static final int STATE_COMPLETED = 1;
+
+    /**
+     * 预占的最大尝试次数，记录在插入与查询之间被并发释放时重新预占
+     */
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final String insertSql;
+
+    private final String querySql;
+
+    private final String takeoverSql;
+
+    private final String completeSql;
+
+    private final String fencedCompleteSql;
+
+    private final String releaseSql;
+
+    private final String fencedReleaseSql;
+
+    private final String purgeSql;
+
+    public JdbcWindIdempotentKeyStorage(JdbcTemplate jdbcTemplate, Duration ttl) {
+        this(jdbcTemplate, ttl, DEFAULT_TABLE_NAME);
+    }
+
+    /**
+     * @param jdbcTemplate jdbc template
+     * @param ttl          执行结果保存时长
+     * @param tableName    表名
+     */
+    public JdbcWindIdempotentKeyStorage(JdbcTemplate jdbcTemplate, Duration ttl, String tableName) {
+        this(jdbcTemplate, ttl, tableName, System::currentTimeMillis);
+    }
+
+    JdbcWindIdempotentKeyStorage(JdbcTemplate jdbcTemplate, Duration ttl, String tableName, LongSupplier clock) {
+        AssertUtils.notNull(jdbcTemplate, "argument jdbcTemplate must not null");
+        AssertUtils.isTrue(ttl != null && ttl.toMillis() > 0, "argument ttl must greater than 0");
+        AssertUtils.hasText(tableName, "argument tableName must not empty");
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.insertSql = String.format("insert into `%s`(`idempotent_key`,`state`,`result_value`,`expire_time`) values (?, ?, ?, ?)", tableName);
+        this.querySql = String.format("select `state`, `result_value`, `expire_time` from `%s` where `idempotent_key` = ?", tableName);
+        this.takeoverSql = String.format("update `%s` set `state` = ?, `result_value` = null, `expire_time` = ? where `idempotent_key` = ? and `expire_time` = ?", tableName);
+        this.completeSql = String.format("update `%s` set `state` = ?, `result_value` = ?, `expire_time` = ? where `idempotent_key` = ?", tableName);
+        this.fencedCompleteSql = String.format("update `%s` set `state` = ?, `result_value` = ?, `expire_time` = ? where `idempotent_key` = ? and `state` = ? and `expire_time` = ?",
+                tableName);
+        this.releaseSql = String.format("delete from `%s` where `idempotent_key` = ? and `state` = ?", tableName);
+        this.fencedReleaseSql = String.format("delete from `%s` where `idempotent_key` = ? and `state` = ? and `expire_time` = ?", tableName);
+        this.purgeSql = String.format("delete from `%s` where `expire_time` < ?", tableName);
+    }
+
+    @Override
+    public void save(@NonNull String idempotentKey, Object value) {
+        byte[] bytes = value == null ? null : KryoSerializationUtils.getInstance().encode(value);
+        long expireTime = clock.getAsLong() + ttlMillis;
+        if (jdbcTemplate.update(completeSql, STATE_COMPLETED, bytes, expireTime, idempotentKey) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insertSql, idempotentKey, STATE_COMPLETED, bytes, expireTime);
+        } catch (DuplicateKeyException exception) {
+            // 并发插入，以最后一次保存为准
+            jdbcTemplate.update(completeSql, STATE_COMPLETED, bytes, expireTime, idempotentKey);
+        }
+    }
+
+    @Override
+    public @Nullable WindIdempotentValueWrapper checkExistsAndGetValue(@NonNull String idempotentKey) {
+        IdempotentRow row = findRow(idempotentKey);
+        return row != null && row.isCompleted() && !row.isExpired(clock.getAsLong()) ? row.asValueWrapper() : null;
+    }
+
+    @Override
+    public boolean exists(@NonNull String idempotentKey) {
+        IdempotentRow row = findRow(idempotentKey);
+        return row != null && row.isCompleted() && !row.isExpired(clock.getAsLong());
+    }
+
+    @Override
+    public WindIdempotentReservation reserve(@NonNull String idempotentKey, @NonNull Duration lease) {
+        for (int i = 0; i < MAX_RESERVE_ATTEMPTS; i++) {
+            long now = clock.getAsLong();
+            long leaseExpireTime = now + lease.toMillis();
+            try {
+                jdbcTemplate.update(insertSql, idempotentKey, STATE_PENDING, null, leaseExpireTime);
+                return WindIdempotentReservation.reserved(leaseExpireTime);
+            } catch (DuplicateKeyException ignore) {
+                // 记录已存在，检查记录状态
+            }
+            IdempotentRow row = findRow(idempotentKey);
+            if (row == null) {
+                // 记录已被释放，重新预占
+                continue;
+            }
+            if (!row.isExpired(now)) {
+                return row.isCompleted() ? WindIdempotentReservation.completed(row.asValueWrapper()) : WindIdempotentReservation.pending();
+            }
+            // 记录已过期，基于过期时间乐观更新接管
+            int rows = jdbcTemplate.update(takeoverSql, STATE_PENDING, leaseExpireTime, idempotentKey, row.expireTime());
+            return rows > 0 ? WindIdempotentReservation.reserved(leaseExpireTime) : WindIdempotentReservation.pending();
+        }
+        // 竞争激烈，视为其他调用方正在执行
+        return WindIdempotentReservation.pending();
+    }
+
+    @Override
+    public void release(@NonNull String idempotentKey) {
+        jdbcTemplate.update(releaseSql, idempotentKey, STATE_PENDING);
+    }
+
+    @Override
+    public boolean complete(@NonNull String idempotentKey, Object value, @NonNull WindIdempotentReservation reservation) {
+        if (reservation.token() == 0) {
+            save(idempotentKey, value);
+            return true;
+        }
+        byte[] bytes = value == null ? null : KryoSerializationUtils.getInstance().encode(value);
+        // 记录的租约到期时间变化说明预占已被接管
+        return jdbcTemplate.update(fencedCompleteSql, STATE_COMPLETED, bytes, clock.getAsLong() + ttlMillis, idempotentKey, STATE_PENDING, reservation.token()) > 0;
+    }
+
+    @Override
+    public boolean release(@NonNull String idempotentKey, @NonNull WindIdempotentReservation reservation) {
+        if (reservation.token() == 0) {
+            release(idempotentKey);
+            return true;
+        }
+        return jdbcTemplate.update(fencedReleaseSql, idempotentKey, STATE_PENDING, reservation.token()) > 0;
+    }
+
+    /**
+     * 清理已过期的记录
+     *
+     * @return 清理的记录数
+     */
+    public int purgeExpired() {
+        return jdbcTemplate.update(purgeSql, clock.getAsLong());
+    }
+
+    @Nullable
+    private IdempotentRow findRow(String idempotentKey) {
+        List<IdempotentRow> rows = jdbcTemplate.query(querySql, ROW_MAPPER, idempotentKey);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private static final RowMapper<IdempotentRow> ROW_MAPPER = (rs, rowNum) -> new IdempotentRow(rs.getInt(1), rs.getBytes(2), rs.getLong(3));
+
+    private record IdempotentRow(int state, byte @Nullable [] value, long expireTime) {
+
+        boolean isCompleted() {
+            return state == STATE_COMPLETED;
+        }
+
+        boolean isExpired(long now) {
+            return expireTime <= now;
+        }
+
+        WindIdempotentValueWrapper asValueWrapper() {
+            return value == null ? new KryoWindIdempotentValueWrapper(null) : KryoWindIdempotentValueWrapper.of(value);
+        }
+    }
+}
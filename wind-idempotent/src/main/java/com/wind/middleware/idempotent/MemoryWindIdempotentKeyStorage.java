@@ -0,0 +1,236 @@
+package com.wind.middleware.idempotent;
+
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.util.KryoSerializationUtils;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于内存的幂等 key 存储，按 key 的 hash 分片加锁，适用于单实例部署或测试
+ * 执行结果在 ttl 后过期，每个分片按写入顺序淘汰超过容量的记录
+ * 执行结果使用 Kryo 序列化后保存，每次读取都反序列化出新的对象，与其他基于 Kryo 序列化的存储行为一致，调用方修改返回值不会影响已保存的结果
+ *
+ * @author wuxp
+ * @date 2026-10-18 01:50
+ **/
+public class MemoryWindIdempotentKeyStorage implements WindIdempotentKeyStorage {
+
+    private static final int DEFAULT_SHARDS = 16;
+
+    private final Shard[] shards;
+
+    private final long ttlMillis;
+
+    private final int maxShardSize;
+
+    private final LongSupplier clock;
+
+    /**
+     * @param ttl     执行结果保存时长
+     * @param maxSize 最大保存的 key 数量
+     */
+    public MemoryWindIdempotentKeyStorage(Duration ttl, int maxSize) {
+        this(ttl, maxSize, DEFAULT_SHARDS, System::currentTimeMillis);
+    }
+
+    MemoryWindIdempotentKeyStorage(Duration ttl, int maxSize, int shardCount, LongSupplier clock) {
+        AssertUtils.isTrue(ttl != null && ttl.toMillis() > 0, "argument ttl must greater than 0");
+        AssertUtils.isTrue(maxSize >= shardCount && shardCount > 0, "argument maxSize must greater than or equal shard count = {}", shardCount);
+        this.ttlMillis = ttl.toMillis();
+        this.maxShardSize = maxSize / shardCount;
+        this.clock = clock;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public void save(@NonNull String idempotentKey, Object value) {
+        // 在锁外序列化
+        byte[] bytes = value == null ? null : KryoSerializationUtils.getInstance().encode(value);
+        Shard shard = getShard(idempotentKey);
+        long now = clock.getAsLong();
+        shard.lock.lock();
+        try {
+            shard.put(idempotentKey, new Entry(true, bytes, now + ttlMillis), now);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public @Nullable WindIdempotentValueWrapper checkExistsAndGetValue(@NonNull String idempotentKey) {
+        Entry entry = getEntry(idempotentKey);
+        return entry != null && entry.completed ? entry.asValueWrapper() : null;
+    }
+
+    @Override
+    public boolean exists(@NonNull String idempotentKey) {
+        Entry entry = getEntry(idempotentKey);
+        return entry != null && entry.completed;
+    }
+
+    @Override
+    public WindIdempotentReservation reserve(@NonNull String idempotentKey, @NonNull Duration lease) {
+        Shard shard = getShard(idempotentKey);
+        long now = clock.getAsLong();
+        shard.lock.lock();
+        try {
+            Entry entry = shard.entries.get(idempotentKey);
+            if (entry != null && entry.expireAt > now) {
+                return entry.completed ? WindIdempotentReservation.completed(entry.asValueWrapper()) : WindIdempotentReservation.pending();
+            }
+            long leaseExpireAt = now + lease.toMillis();
+            shard.put(idempotentKey, new Entry(false, null, leaseExpireAt), now);
+            return WindIdempotentReservation.reserved(leaseExpireAt);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(@NonNull String idempotentKey) {
+        Shard shard = getShard(idempotentKey);
+        shard.lock.lock();
+        try {
+            Entry entry = shard.entries.get(idempotentKey);
+            if (entry != null && !entry.completed) {
+                shard.entries.remove(idempotentKey);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean complete(@NonNull String idempotentKey, Object value, @NonNull WindIdempotentReservation reservation) {
+        if (reservation.token() == 0) {
+            save(idempotentKey, value);
+            return true;
+        }
+        byte[] bytes = value == null ? null : KryoSerializationUtils.getInstance().encode(value);
+        Shard shard = getShard(idempotentKey);
+        long now = clock.getAsLong();
+        shard.lock.lock();
+        try {
+            if (!shard.isReservedBy(idempotentKey, reservation.token())) {
+                return false;
+            }
+            shard.put(idempotentKey, new Entry(true, bytes, now + ttlMillis), now);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean release(@NonNull String idempotentKey, @NonNull WindIdempotentReservation reservation) {
+        if (reservation.token() == 0) {
+            release(idempotentKey);
+            return true;
+        }
+        Shard shard = getShard(idempotentKey);
+        shard.lock.lock();
+        try {
+            if (!shard.isReservedBy(idempotentKey, reservation.token())) {
+                return false;
+            }
+            shard.entries.remove(idempotentKey);
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return 保存的 key 数量，包含已过期但还未淘汰的记录
+     */
+    public int size() {
+        int result = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                result += shard.entries.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private Entry getEntry(String idempotentKey) {
+        Shard shard = getShard(idempotentKey);
+        shard.lock.lock();
+        try {
+            Entry result = shard.entries.get(idempotentKey);
+            return result == null || result.expireAt <= clock.getAsLong() ? null : result;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private Shard getShard(String idempotentKey) {
+        int hash = idempotentKey.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private final class Shard {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * 按写入顺序排列的记录
+         */
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        /**
+         * 是否仍是凭证对应的执行中预占（预占的租约到期时间未变化），需要持有锁
+         */
+        private boolean isReservedBy(String idempotentKey, long token) {
+            Entry entry = entries.get(idempotentKey);
+            return entry != null && !entry.completed && entry.expireAt == token;
+        }
+
+        /**
+         * 写入记录并淘汰过期与超过容量的记录，需要持有锁
+         */
+        private void put(String idempotentKey, Entry entry, long now) {
+            // 先移除保证按写入顺序排列
+            entries.remove(idempotentKey);
+            entries.put(idempotentKey, entry);
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                if (entries.size() > maxShardSize || eldest.getValue().expireAt <= now) {
+                    iterator.remove();
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param completed 是否已执行完成，false 表示执行中
+     * @param value     Kryo 序列化后的执行结果
+     * @param expireAt  过期时间（执行中时为租约到期时间）
+     */
+    private record Entry(boolean completed, byte @Nullable [] value, long expireAt) {
+
+        /**
+         * @return 反序列化出的新对象
+         */
+        WindIdempotentValueWrapper asValueWrapper() {
+            return value == null ? new KryoWindIdempotentValueWrapper(null) : KryoWindIdempotentValueWrapper.of(value);
+        }
+    }
+}
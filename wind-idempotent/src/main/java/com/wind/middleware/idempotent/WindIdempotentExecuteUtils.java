@@ -1,16 +1,33 @@
 package com.wind.middleware.idempotent;
 
 import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.common.exception.ExecutionWrapperException;
 import com.wind.common.function.WindFunctions;
+import com.wind.common.util.KryoSerializationUtils;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * 幂等服务执行包装工具
+ * 执行前先通过 {@link WindIdempotentKeyStorage#reserve(String, Duration)} 预占幂等 key，其它实例上的重复请求在租约内会被拒绝；
+ * 开启 single-flight 时，同一实例内并发的重复请求等待第一个请求的执行结果，不会重复执行；
+ * 等待的请求得到的是执行结果的 Kryo 拷贝，与从存储中返回的结果一样不与执行方共享对象
  *
  * @author wuxp
  * @date 2025-10-13 10:30
@@ -20,6 +37,32 @@ public final class WindIdempotentExecuteUtils {
 
     private static final AtomicReference<WindIdempotentKeyStorage> STORAGE = new AtomicReference<>();
 
+    /**
+     * 预占租约时长，需要大于任务的最大执行时长
+     */
+    private static final AtomicReference<Duration> LEASE = new AtomicReference<>(Duration.ofMinutes(1));
+
+    /**
+     * 同一实例内正在执行的幂等任务
+     *
+     * @key 幂等 key
+     * @value 执行结果
+     */
+    private static final Map<String, CompletableFuture<Object>> IN_FLIGHTS = new ConcurrentHashMap<>();
+
+    private static final Map<Outcome, Timer> TIMERS = new EnumMap<>(Outcome.class);
+
+    static {
+        for (Outcome outcome : Outcome.values()) {
+            TIMERS.put(outcome, Timer.builder("wind.idempotent.execute")
+                    .description("idempotent execute latency")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(Metrics.globalRegistry));
+        }
+    }
+
+    private static volatile boolean singleFlight = true;
+
     private WindIdempotentExecuteUtils() {
         throw new AssertionError();
     }
@@ -60,22 +103,12 @@ public final class WindIdempotentExecuteUtils {
      * @param onIdempotentedCallback 幂等任务处于幂等状态的的回调
      */
     public static <T> T executeWithThrows(String idempotentKey, WindFunctions.ThrowsSupplier<T> supplier, Consumer<T> onIdempotentedCallback) {
-        WindIdempotentKeyStorage storage = requireStorage();
-        WindIdempotentValueWrapper wrapper = storage.checkExistsAndGetValue(idempotentKey);
-        if (wrapper == null) {
-            try {
-                T value = supplier.get();
-                // 保存幂等执行结果
-                storage.save(idempotentKey, value);
-                return value;
-            } catch (Throwable e) {
-                throw ExecutionWrapperException.withThrows(e);
-            }
+        Execution<T> execution = doExecute(idempotentKey, supplier);
+        if (execution.outcome() != Outcome.EXECUTED) {
+            onIdempotentedCallback.accept(execution.value());
+            log.info("idempotentKey = {} 服务已执行过, 从执行记录中返回结果", idempotentKey);
         }
-        T result = wrapper.getValue();
-        onIdempotentedCallback.accept(result);
-        log.info("idempotentKey = {} 服务已执行过, 从执行记录中返回结果", idempotentKey);
-        return result;
+        return execution.value();
     }
 
     public static void execute(String idempotentKey, Runnable runnable) {
@@ -94,22 +127,128 @@ public final class WindIdempotentExecuteUtils {
      * @param runWithIdempotented 幂等任务处于幂等状态的的回调
      */
     public static void executeWithThrows(String idempotentKey, WindFunctions.ThrowsRunnable runnable, Runnable runWithIdempotented) {
-        WindIdempotentKeyStorage storage = requireStorage();
-        if (storage.exists(idempotentKey)) {
+        Execution<Object> execution = doExecute(idempotentKey, () -> {
+            runnable.run();
+            return null;
+        });
+        if (execution.outcome() != Outcome.EXECUTED) {
             runWithIdempotented.run();
             log.info("idempotentKey = {} 服务已执行过", idempotentKey);
-            return;
         }
+    }
+
+    public static void configureStorage(WindIdempotentKeyStorage storage) {
+        STORAGE.set(storage);
+    }
+
+    /**
+     * @param lease 预占租约时长
+     */
+    public static void configureLease(Duration lease) {
+        AssertUtils.isTrue(lease != null && !lease.isNegative() && !lease.isZero(), "argument lease must greater than 0");
+        LEASE.set(lease);
+    }
+
+    /**
+     * @param enabled 是否开启 single-flight，开启后同一实例内并发的重复请求等待第一个请求的执行结果
+     */
+    public static void configureSingleFlight(boolean enabled) {
+        singleFlight = enabled;
+    }
+
+    private static <T> Execution<T> doExecute(String idempotentKey, WindFunctions.ThrowsSupplier<T> supplier) {
+        AssertUtils.hasText(idempotentKey, "argument idempotentKey must not empty");
+        long startNanos = System.nanoTime();
+        Outcome outcome = Outcome.FAILED;
         try {
-            runnable.run();
+            Execution<T> result = singleFlight ? executeSingleFlight(idempotentKey, supplier) : executeWithReservation(idempotentKey, supplier);
+            outcome = result.outcome();
+            return result;
+        } finally {
+            TIMERS.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Execution<T> executeSingleFlight(String idempotentKey, WindFunctions.ThrowsSupplier<T> supplier) {
+        while (true) {
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            CompletableFuture<Object> existing = IN_FLIGHTS.putIfAbsent(idempotentKey, flight);
+            if (existing == null) {
+                try {
+                    Execution<T> result = executeWithReservation(idempotentKey, supplier);
+                    flight.complete(result.value());
+                    return result;
+                } catch (Throwable throwable) {
+                    flight.completeExceptionally(throwable);
+                    throw throwable;
+                } finally {
+                    IN_FLIGHTS.remove(idempotentKey, flight);
+                }
+            }
+            try {
+                return new Execution<>((T) copyOf(existing.get(LEASE.get().toMillis(), TimeUnit.MILLISECONDS)), Outcome.JOINED);
+            } catch (ExecutionException exception) {
+                // 第一个请求执行失败，重新尝试执行
+                log.debug("idempotentKey = {} in flight execution failure, retry", idempotentKey);
+            } catch (TimeoutException exception) {
+                throw pendingException(idempotentKey);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw ExecutionWrapperException.withThrows(exception);
+            }
+        }
+    }
+
+    private static <T> Execution<T> executeWithReservation(String idempotentKey, WindFunctions.ThrowsSupplier<T> supplier) {
+        WindIdempotentKeyStorage storage = requireStorage();
+        WindIdempotentReservation reservation = storage.reserve(idempotentKey, LEASE.get());
+        switch (reservation.status()) {
+            case COMPLETED -> {
+                return new Execution<>(Objects.requireNonNull(reservation.value()).getValue(), Outcome.IDEMPOTENT);
+            }
+            case PENDING -> throw pendingException(idempotentKey);
+            default -> {
+                // 预占成功
+            }
+        }
+        T value;
+        try {
+            value = supplier.get();
         } catch (Throwable e) {
+            releaseQuietly(storage, idempotentKey, reservation);
             throw ExecutionWrapperException.withThrows(e);
         }
-        storage.save(idempotentKey, null);
+        // 保存幂等执行结果
+        if (!storage.complete(idempotentKey, value, reservation)) {
+            log.warn("idempotentKey = {} reservation lease expired and taken over by another caller, result not saved", idempotentKey);
+        }
+        return new Execution<>(value, Outcome.EXECUTED);
     }
 
-    public static void configureStorage(WindIdempotentKeyStorage storage) {
-        STORAGE.set(storage);
+    /**
+     * 拷贝执行结果，避免等待的请求与执行方共享可变对象
+     */
+    private static Object copyOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        KryoSerializationUtils serialization = KryoSerializationUtils.getInstance();
+        return serialization.decode(serialization.encode(value));
+    }
+
+    private static void releaseQuietly(WindIdempotentKeyStorage storage, String idempotentKey, WindIdempotentReservation reservation) {
+        try {
+            if (!storage.release(idempotentKey, reservation)) {
+                log.warn("idempotentKey = {} reservation lease expired and taken over by another caller, skip release", idempotentKey);
+            }
+        } catch (Exception exception) {
+            log.warn("release idempotentKey = {} failure, message = {}", idempotentKey, exception.getMessage(), exception);
+        }
+    }
+
+    private static BaseException pendingException(String idempotentKey) {
+        return new BaseException(DefaultExceptionCode.TO_MANY_REQUESTS, String.format("idempotentKey = %s 正在执行中，请稍后再试", idempotentKey));
     }
 
     private static WindIdempotentKeyStorage requireStorage() {
@@ -117,4 +256,27 @@ public final class WindIdempotentExecuteUtils {
         AssertUtils.notNull(result, "WindIdempotentKeyStorage uninitialized");
         return result;
     }
+
+    private enum Outcome {
+
+        /**
+         * 执行了任务
+         */
+        EXECUTED,
+
+        /**
+         * 从执行记录中返回结果
+         */
+        IDEMPOTENT,
+
+        /**
+         * 等待同一实例内并发的重复请求的执行结果
+         */
+        JOINED,
+
+        FAILED
+    }
+
+    private record Execution<T>(T value, Outcome outcome) {
+    }
 }
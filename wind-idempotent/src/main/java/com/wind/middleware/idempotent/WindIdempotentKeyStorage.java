@@ -3,6 +3,8 @@ package com.wind.middleware.idempotent;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Duration;
+
 /**
  * 幂等 key 存储
  *
@@ -37,5 +39,54 @@ public interface WindIdempotentKeyStorage {
      */
     boolean exists(@NonNull String idempotentKey);
 
+    /**
+     * 预占幂等 key，预占成功的调用方执行任务后通过 {@link #complete(String, Object, WindIdempotentReservation)} 保存结果，
+     * 执行失败时通过 {@link #release(String, WindIdempotentReservation)} 释放
+     * 预占的租约过期后允许其它调用方重新预占，避免执行方宕机后 key 永远处于执行中
+     * 默认实现不支持预占执行中状态，存储实现应当原子的完成检查与预占
+     *
+     * @param idempotentKey 幂等 key
+     * @param lease         预占租约时长
+     * @return 预占结果
+     */
+    default WindIdempotentReservation reserve(@NonNull String idempotentKey, @NonNull Duration lease) {
+        WindIdempotentValueWrapper value = checkExistsAndGetValue(idempotentKey);
+        return value == null ? WindIdempotentReservation.reserved() : WindIdempotentReservation.completed(value);
+    }
+
+    /**
+     * 释放执行中的预占，已执行完成的 key 不受影响
+     *
+     * @param idempotentKey 幂等 key
+     */
+    default void release(@NonNull String idempotentKey) {
+    }
+
+    /**
+     * 持有预占时保存执行结果，预占已被其它调用方接管（租约过期）时不保存
+     * 默认实现不校验预占凭证
+     *
+     * @param idempotentKey 幂等 key
+     * @param value         幂等执行结果
+     * @param reservation   {@link #reserve(String, Duration)} 返回的预占结果
+     * @return 是否仍持有预占并保存成功
+     */
+    default boolean complete(@NonNull String idempotentKey, Object value, @NonNull WindIdempotentReservation reservation) {
+        save(idempotentKey, value);
+        return true;
+    }
+
+    /**
+     * 持有预占时释放预占，预占已被其它调用方接管（租约过期）时不释放
+     * 默认实现不校验预占凭证
+     *
+     * @param idempotentKey 幂等 key
+     * @param reservation   {@link #reserve(String, Duration)} 返回的预占结果
+     * @return 是否仍持有预占并释放成功
+     */
+    default boolean release(@NonNull String idempotentKey, @NonNull WindIdempotentReservation reservation) {
+        release(idempotentKey);
+        return true;
+    }
 
 }
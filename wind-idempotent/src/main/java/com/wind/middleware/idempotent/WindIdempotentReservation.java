@@ -0,0 +1,72 @@
+package com.wind.middleware.idempotent;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 幂等 key 预占结果
+ *
+ * @param status 预占状态
+ * @param value  {@link Status#COMPLETED} 时的幂等执行结果
+ * @param token  {@link Status#RESERVED} 时的预占凭证（例如预占写入的租约到期时间），保存结果与释放预占时用于确认仍持有预占，0 表示存储不支持预占凭证
+ * @author wuxp
+ * @date 2026-10-18 01:40
+ * @see WindIdempotentKeyStorage#reserve(String, java.time.Duration)
+ **/
+public record WindIdempotentReservation(Status status, @Nullable WindIdempotentValueWrapper value, long token) {
+
+    private static final WindIdempotentReservation RESERVED = new WindIdempotentReservation(Status.RESERVED, null);
+
+    private static final WindIdempotentReservation PENDING = new WindIdempotentReservation(Status.PENDING, null);
+
+    public WindIdempotentReservation(Status status, @Nullable WindIdempotentValueWrapper value) {
+        this(status, value, 0);
+    }
+
+    /**
+     * @return 预占成功，由当前调用方执行
+     */
+    public static WindIdempotentReservation reserved() {
+        return RESERVED;
+    }
+
+    /**
+     * @param token 预占凭证
+     * @return 预占成功，由当前调用方执行
+     */
+    public static WindIdempotentReservation reserved(long token) {
+        return new WindIdempotentReservation(Status.RESERVED, null, token);
+    }
+
+    /**
+     * @return 其它调用方正在执行（预占的租约未过期）
+     */
+    public static WindIdempotentReservation pending() {
+        return PENDING;
+    }
+
+    /**
+     * @param value 幂等执行结果
+     * @return 已执行完成
+     */
+    public static WindIdempotentReservation completed(WindIdempotentValueWrapper value) {
+        return new WindIdempotentReservation(Status.COMPLETED, value);
+    }
+
+    public enum Status {
+
+        /**
+         * 预占成功
+         */
+        RESERVED,
+
+        /**
+         * 执行中
+         */
+        PENDING,
+
+        /**
+         * 已执行完成
+         */
+        COMPLETED
+    }
+}
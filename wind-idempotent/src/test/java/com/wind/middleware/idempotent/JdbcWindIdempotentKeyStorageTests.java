@@ -0,0 +1,68 @@
+package com.wind.middleware.idempotent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 16:20
+ **/
+class JdbcWindIdempotentKeyStorageTests {
+
+    @Test
+    void testReserveRetryBounded() {
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        // 插入总是冲突，查询总是查不到记录（记录被并发释放）
+        Mockito.when(jdbcTemplate.update(startsWith("insert"), any(), any(), any(), any())).thenThrow(new DuplicateKeyException("duplicate key"));
+        JdbcWindIdempotentKeyStorage storage = new JdbcWindIdempotentKeyStorage(jdbcTemplate, Duration.ofMinutes(1));
+        WindIdempotentReservation reservation = storage.reserve("test", Duration.ofSeconds(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, reservation.status());
+        Mockito.verify(jdbcTemplate, Mockito.times(3)).update(startsWith("insert"), any(), any(), any(), any());
+    }
+
+    @Test
+    void testStaleReservationFenced() {
+        JdbcTemplate jdbcTemplate = newH2JdbcTemplate();
+        AtomicLong clock = new AtomicLong(1000);
+        JdbcWindIdempotentKeyStorage storage = new JdbcWindIdempotentKeyStorage(jdbcTemplate, Duration.ofMinutes(1),
+                JdbcWindIdempotentKeyStorage.DEFAULT_TABLE_NAME, clock::get);
+        WindIdempotentReservation first = storage.reserve("test", Duration.ofSeconds(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, first.status());
+        // 租约过期后被接管
+        clock.addAndGet(2000);
+        WindIdempotentReservation second = storage.reserve("test", Duration.ofSeconds(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, second.status());
+        Assertions.assertNotEquals(first.token(), second.token());
+
+        // 过期的预占不能释放或覆盖新的预占
+        Assertions.assertFalse(storage.release("test", first));
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, storage.reserve("test", Duration.ofSeconds(1)).status());
+        Assertions.assertFalse(storage.complete("test", "first", first));
+        Assertions.assertFalse(storage.exists("test"));
+
+        Assertions.assertTrue(storage.complete("test", "second", second));
+        Assertions.assertEquals("second", storage.checkExistsAndGetValue("test").getValue());
+        // 已完成的记录不能被释放
+        Assertions.assertFalse(storage.release("test", second));
+        Assertions.assertTrue(storage.exists("test"));
+    }
+
+    private static JdbcTemplate newH2JdbcTemplate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate result = new JdbcTemplate(dataSource);
+        result.execute("create table `" + JdbcWindIdempotentKeyStorage.DEFAULT_TABLE_NAME + "` (`idempotent_key` varchar(128) primary key, `state` int not null, "
+                + "`result_value` blob, `expire_time` bigint not null)");
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.wind.middleware.idempotent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 02:30
+ **/
+class MemoryWindIdempotentKeyStorageTests {
+
+    private final AtomicLong clock = new AtomicLong(1000);
+
+    @Test
+    void testSaveExpired() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofSeconds(10), 16, 1, clock::get);
+        storage.save("test", 1);
+        Assertions.assertTrue(storage.exists("test"));
+        Assertions.assertEquals(1, (Integer) storage.checkExistsAndGetValue("test").getValue());
+        clock.addAndGet(10_000);
+        Assertions.assertFalse(storage.exists("test"));
+        Assertions.assertNull(storage.checkExistsAndGetValue("test"));
+        // 写入时淘汰过期的记录
+        storage.save("test2", 2);
+        Assertions.assertEquals(1, storage.size());
+    }
+
+    @Test
+    void testGetValueReturnCopy() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofSeconds(10), 16, 1, clock::get);
+        List<String> value = new ArrayList<>(List.of("a"));
+        storage.save("test", value);
+        // 保存后修改原对象不影响已保存的结果
+        value.add("b");
+        List<String> first = storage.checkExistsAndGetValue("test").getValue();
+        Assertions.assertEquals(List.of("a"), first);
+        first.add("c");
+        Assertions.assertEquals(List.of("a"), storage.checkExistsAndGetValue("test").getValue());
+        Assertions.assertEquals(List.of("a"), storage.reserve("test", Duration.ofSeconds(1)).value().getValue());
+    }
+
+    @Test
+    void testStaleReservationFenced() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofSeconds(10), 16, 1, clock::get);
+        WindIdempotentReservation first = storage.reserve("test", Duration.ofSeconds(1));
+        clock.addAndGet(1000);
+        WindIdempotentReservation second = storage.reserve("test", Duration.ofSeconds(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, second.status());
+        Assertions.assertFalse(storage.release("test", first));
+        Assertions.assertFalse(storage.complete("test", "first", first));
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, storage.reserve("test", Duration.ofSeconds(1)).status());
+        Assertions.assertTrue(storage.complete("test", "second", second));
+        Assertions.assertEquals("second", storage.checkExistsAndGetValue("test").getValue());
+    }
+
+    @Test
+    void testSizeEviction() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofSeconds(10), 4, 1, clock::get);
+        for (int i = 0; i < 10; i++) {
+            storage.save("test_" + i, i);
+        }
+        Assertions.assertEquals(4, storage.size());
+        Assertions.assertFalse(storage.exists("test_5"));
+        Assertions.assertTrue(storage.exists("test_6"));
+        Assertions.assertTrue(storage.exists("test_9"));
+    }
+
+    @Test
+    void testReserveLease() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofSeconds(10), 16, 1, clock::get);
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofSeconds(1)).status());
+        Assertions.assertEquals(WindIdempotentReservation.Status.PENDING, storage.reserve("test", Duration.ofSeconds(1)).status());
+        Assertions.assertFalse(storage.exists("test"));
+        // 租约过期后允许重新预占
+        clock.addAndGet(1000);
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve("test", Duration.ofSeconds(1)).status());
+        storage.save("test", "ok");
+        WindIdempotentReservation reservation = storage.reserve("test", Duration.ofSeconds(1));
+        Assertions.assertEquals(WindIdempotentReservation.Status.COMPLETED, reservation.status());
+        Assertions.assertEquals("ok", reservation.value().getValue());
+        // 已完成的记录不会被释放
+        storage.release("test");
+        Assertions.assertTrue(storage.exists("test"));
+    }
+
+    @Test
+    void testReserveConcurrent() throws Exception {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofMinutes(1), 1024);
+        int threads = 16;
+        CountDownLatch latch = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<WindIdempotentReservation>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return storage.reserve("test", Duration.ofMinutes(1));
+                }));
+            }
+            latch.countDown();
+            int reserved = 0;
+            for (Future<WindIdempotentReservation> future : futures) {
+                if (future.get().status() == WindIdempotentReservation.Status.RESERVED) {
+                    reserved++;
+                }
+            }
+            Assertions.assertEquals(1, reserved);
+        }
+    }
+}
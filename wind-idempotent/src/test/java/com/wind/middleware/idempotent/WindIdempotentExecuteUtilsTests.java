@@ -1,5 +1,7 @@
 package com.wind.middleware.idempotent;
 
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.ExecutionWrapperException;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
@@ -7,9 +9,17 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author wuxp
@@ -52,6 +62,98 @@ class WindIdempotentExecuteUtilsTests {
         Assertions.assertNull(STORAGE_CACHE.get(idempotentKey));
     }
 
+    @Test
+    void testExecuteSingleFlightConcurrent() throws Exception {
+        WindIdempotentExecuteUtils.configureStorage(new MemoryWindIdempotentKeyStorage(Duration.ofMinutes(1), 1024));
+        String idempotentKey = "test_concurrent";
+        int threads = 16;
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return WindIdempotentExecuteUtils.execute(idempotentKey, () -> {
+                        sleep(100);
+                        return counter.incrementAndGet();
+                    });
+                }));
+            }
+            latch.countDown();
+            for (Future<Integer> future : futures) {
+                Assertions.assertEquals(1, future.get());
+            }
+        }
+        Assertions.assertEquals(1, counter.get());
+    }
+
+    @Test
+    void testExecuteSingleFlightJoinedCopy() throws Exception {
+        WindIdempotentExecuteUtils.configureStorage(new MemoryWindIdempotentKeyStorage(Duration.ofMinutes(1), 1024));
+        String idempotentKey = "test_joined_copy";
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> leaderValue = new ArrayList<>(List.of("a"));
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<List<String>> leader = executor.submit(() -> WindIdempotentExecuteUtils.execute(idempotentKey, () -> {
+                started.countDown();
+                await(release);
+                return leaderValue;
+            }));
+            started.await();
+            Future<List<String>> joined = executor.submit(() -> WindIdempotentExecuteUtils.execute(idempotentKey, () -> List.of("b")));
+            // 等待第二个请求加入 single-flight
+            sleep(100);
+            release.countDown();
+            Assertions.assertSame(leaderValue, leader.get());
+            List<String> joinedValue = joined.get();
+            Assertions.assertEquals(List.of("a"), joinedValue);
+            Assertions.assertNotSame(leaderValue, joinedValue);
+        }
+    }
+
+    @Test
+    void testExecuteReservationPending() {
+        MemoryWindIdempotentKeyStorage storage = new MemoryWindIdempotentKeyStorage(Duration.ofMinutes(1), 1024);
+        WindIdempotentExecuteUtils.configureStorage(storage);
+        String idempotentKey = "test_pending";
+        // 模拟其它实例正在执行
+        Assertions.assertEquals(WindIdempotentReservation.Status.RESERVED, storage.reserve(idempotentKey, Duration.ofMinutes(1)).status());
+        Assertions.assertThrows(BaseException.class, () -> WindIdempotentExecuteUtils.execute(idempotentKey, () -> 1));
+        storage.release(idempotentKey);
+        Assertions.assertEquals(1, WindIdempotentExecuteUtils.execute(idempotentKey, () -> 1));
+    }
+
+    @Test
+    void testExecuteFailureRelease() {
+        WindIdempotentExecuteUtils.configureStorage(new MemoryWindIdempotentKeyStorage(Duration.ofMinutes(1), 1024));
+        String idempotentKey = "test_failure";
+        ExecutionWrapperException exception = Assertions.assertThrows(ExecutionWrapperException.class,
+                () -> WindIdempotentExecuteUtils.execute(idempotentKey, () -> {
+                    throw new IllegalStateException("failure");
+                }));
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        Assertions.assertEquals(2, WindIdempotentExecuteUtils.execute(idempotentKey, () -> 2));
+        Assertions.assertEquals(2, WindIdempotentExecuteUtils.execute(idempotentKey, () -> 3));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     static void init() {
         WindIdempotentExecuteUtils.configureStorage(new WindIdempotentKeyStorage() {
             @Override
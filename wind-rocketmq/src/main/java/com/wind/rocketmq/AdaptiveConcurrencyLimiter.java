@@ -0,0 +1,215 @@
+package com.wind.rocketmq;
+
+import com.wind.common.exception.AssertUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 根据处理耗时自适应调整的并发限制器（梯度算法）
+ * - 每 {@link #WINDOW_SAMPLES} 次采样为一个窗口，窗口结束时使用窗口平均耗时与长期基线耗时（窗口平均耗时的指数移动平均）比较
+ * - 窗口内出现拥塞（超时、拒绝执行）或 窗口平均耗时 > 长期基线 * {@link #latencyTolerance} 时按比例减小并发限制，每个窗口最多减小一次
+ * - 否则在窗口内的并发峰值接近限制时增加并发限制，避免空闲时限制无限增长
+ * - 业务异常不作为拥塞信号，也不参与耗时采样
+ *
+ * @author wuxp
+ * @date 2026-10-17 21:40
+ **/
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 每个采样窗口的采样次数
+     */
+    static final int WINDOW_SAMPLES = 32;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * 长期基线的平滑系数，越小基线变化越慢
+     */
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double latencyTolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    private volatile int limit;
+
+    private volatile int inFlight;
+
+    private volatile int waiting;
+
+    /**
+     * 长期基线耗时，没有采样时为 0
+     */
+    private volatile double baselineLatencyNanos;
+
+    private int windowSamples;
+
+    private long windowLatencyNanos;
+
+    private int windowLatencySamples;
+
+    private int windowDropped;
+
+    private int windowMaxInFlight;
+
+    /**
+     * @param initialLimit     初始并发限制
+     * @param minLimit         最小并发限制
+     * @param maxLimit         最大并发限制
+     * @param latencyTolerance 耗时容忍倍数，窗口平均耗时超过 长期基线 * latencyTolerance 时减小并发限制
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+        AssertUtils.isTrue(minLimit > 0, "argument minLimit must greater than 0");
+        AssertUtils.isTrue(maxLimit >= minLimit, "argument maxLimit must greater than or equal minLimit");
+        AssertUtils.isTrue(latencyTolerance >= 1, "argument latencyTolerance must greater than or equal 1");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * 获取执行许可，并发数达到限制时阻塞等待
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                waiting++;
+                try {
+                    available.await();
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 释放执行许可并根据本次执行结果调整并发限制
+     *
+     * @param startNanos 开始执行的时间 {@link System#nanoTime()}
+     * @param outcome    执行结果
+     */
+    public void release(long startNanos, Outcome outcome) {
+        release(outcome, System.nanoTime() - startNanos);
+    }
+
+    void release(Outcome outcome, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            onSample(outcome, latencyNanos);
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(Outcome outcome, long latencyNanos) {
+        switch (outcome) {
+            case SUCCESS -> {
+                windowLatencyNanos += latencyNanos;
+                windowLatencySamples++;
+            }
+            case DROPPED -> windowDropped++;
+            case IGNORED -> {
+                // 业务异常不作为拥塞信号
+            }
+        }
+        if (++windowSamples >= WINDOW_SAMPLES) {
+            adjustLimit();
+        }
+    }
+
+    private void adjustLimit() {
+        boolean congested = windowDropped > 0;
+        if (windowLatencySamples > 0) {
+            double windowLatency = (double) windowLatencyNanos / windowLatencySamples;
+            double baseline = baselineLatencyNanos;
+            if (baseline == 0) {
+                baseline = windowLatency;
+            } else {
+                congested = congested || windowLatency > baseline * latencyTolerance;
+                baseline = baseline * (1 - BASELINE_SMOOTHING) + windowLatency * BASELINE_SMOOTHING;
+            }
+            baselineLatencyNanos = baseline;
+        }
+        if (congested) {
+            // 乘法减小
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        } else if (windowMaxInFlight * 2 >= limit) {
+            // 并发峰值接近限制时才增加
+            limit = Math.min(maxLimit, limit + Math.max(1, (int) Math.sqrt(limit)));
+        }
+        windowSamples = 0;
+        windowLatencyNanos = 0;
+        windowLatencySamples = 0;
+        windowDropped = 0;
+        windowMaxInFlight = inFlight;
+    }
+
+    /**
+     * @return 当前并发限制
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return 正在执行的数量
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return 等待执行许可的数量
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * @return 长期基线耗时（毫秒），没有采样时返回 0
+     */
+    public double getBaselineLatencyMillis() {
+        return baselineLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 执行结果
+     */
+    public enum Outcome {
+
+        /**
+         * 执行完成，耗时参与采样
+         */
+        SUCCESS,
+
+        /**
+         * 业务异常，不参与采样也不作为拥塞信号
+         */
+        IGNORED,
+
+        /**
+         * 超时或被拒绝执行，作为拥塞信号
+         */
+        DROPPED
+    }
+}
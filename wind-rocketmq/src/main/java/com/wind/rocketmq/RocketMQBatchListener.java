@@ -0,0 +1,38 @@
+package com.wind.rocketmq;
+
+import java.util.List;
+
+/**
+ * 批量消费消息监听器，与 {@link org.apache.rocketmq.spring.core.RocketMQListener} 二选一
+ * 同一批次的消息一次性转换后交给监听器，流控按批次获取一次（权重为消息数量）
+ * 同一批次的消息可能来自不同的调用链，容器不会为整个批次绑定 trace，处理单条消息时使用 {@link RocketMQBatchMessage#run(Runnable)}
+ * 或 {@link RocketMQBatchMessage#call(java.util.concurrent.Callable)} 在消息自身的 trace 中执行
+ *
+ * @param <T> 消息类型
+ * @author wuxp
+ * @date 2026-10-17 21:10
+ **/
+public interface RocketMQBatchListener<T> {
+
+    /**
+     * 默认每批次最大消费的消息数量
+     */
+    int DEFAULT_CONSUME_MESSAGE_BATCH_MAX_SIZE = 32;
+
+    /**
+     * 批量消费消息
+     * 返回值小于消息数量时，只确认前 n 条消息，之后的消息稍后重新消费（并发消费模式），
+     * 用于避免单条无法消费的消息导致整批消息重复消费；抛出异常时整批消息稍后重新消费
+     *
+     * @param messages 消息列表，按投递顺序排列
+     * @return 按顺序成功消费的消息数量
+     */
+    int onMessages(List<RocketMQBatchMessage<T>> messages);
+
+    /**
+     * @return 每批次最大消费的消息数量
+     */
+    default int getConsumeMessageBatchMaxSize() {
+        return DEFAULT_CONSUME_MESSAGE_BATCH_MAX_SIZE;
+    }
+}
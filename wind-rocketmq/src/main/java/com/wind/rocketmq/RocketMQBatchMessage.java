@@ -0,0 +1,41 @@
+package com.wind.rocketmq;
+
+import com.wind.trace.WindTraceContext;
+import com.wind.trace.WindTracer;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 批量消费中的单条消息，保留消息自身携带的 traceId
+ * 同一批次的消息可能来自不同的调用链，监听器需要通过 {@link #run(Runnable)} 或 {@link #call(Callable)} 在消息自身的 trace 中处理消息
+ *
+ * @param payload   转换后的消息内容
+ * @param messageId 消息 id
+ * @param traceId   消息携带的 traceId，没有时为 null
+ * @param <T>       消息类型
+ * @author wuxp
+ * @date 2026-10-18 15:20
+ **/
+public record RocketMQBatchMessage<T>(T payload, String messageId, @Nullable String traceId) {
+
+    /**
+     * 在消息携带的 trace 中执行，消息没有携带 traceId 时在新的 trace 中执行
+     *
+     * @param runnable 执行的函数
+     */
+    public void run(Runnable runnable) {
+        WindTracer.TRACER.runWithContext(WindTraceContext.withTrace(traceId), runnable);
+    }
+
+    /**
+     * 在消息携带的 trace 中执行，消息没有携带 traceId 时在新的 trace 中执行
+     *
+     * @param callable 执行的函数
+     * @param <R>      返回值类型
+     * @return 返回值
+     */
+    public <R> R call(Callable<R> callable) {
+        return WindTracer.TRACER.callWithContext(WindTraceContext.withTrace(traceId), callable);
+    }
+}
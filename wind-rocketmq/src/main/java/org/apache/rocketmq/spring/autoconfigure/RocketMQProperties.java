@@ -21,6 +21,7 @@ import lombok.Data;
 import org.apache.rocketmq.common.topic.TopicValidator;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -64,6 +65,11 @@ public class RocketMQProperties {
      */
     private boolean enabledFlowControl;
 
+    /**
+     * 使用虚拟线程消费消息的配置
+     */
+    private VirtualThreadConsumer virtualThreadConsumer = new VirtualThreadConsumer();
+
     @Data
     public static class Producer {
 
@@ -209,6 +215,49 @@ public class RocketMQProperties {
 
     }
 
+    /**
+     * 使用虚拟线程消费消息，仅并发消费模式生效，顺序消费仍在消费线程中按顺序执行
+     * 同一批次的消息在虚拟线程中并行消费，并发数由根据消费耗时自适应调整的限制器控制
+     */
+    @Data
+    public static class VirtualThreadConsumer {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每批次交给消费线程的最大消息数量
+         */
+        private int consumeMessageBatchMaxSize = 32;
+
+        /**
+         * 初始并发限制
+         */
+        private int initialLimit = 64;
+
+        /**
+         * 最小并发限制
+         */
+        private int minLimit = 8;
+
+        /**
+         * 最大并发限制
+         */
+        private int maxLimit = 1024;
+
+        /**
+         * 耗时容忍倍数，采样窗口的平均消费耗时超过 长期基线耗时 * latencyTolerance 时减小并发限制
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * 单条消息消费耗时超过该值时作为拥塞信号减小并发限制，为 null 或 0 时不启用
+         */
+        private Duration congestionTimeout = Duration.ofSeconds(5);
+    }
+
     public static class PushConsumer extends PullConsumer {
         /**
          * listener configuration container
@@ -19,11 +19,23 @@ package org.apache.rocketmq.spring.support;
 
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.wind.common.WindConstants;
+import com.wind.common.util.ExecutorServiceUtils;
+import com.wind.rocketmq.AdaptiveConcurrencyLimiter;
+import com.wind.rocketmq.RocketMQBatchListener;
+import com.wind.rocketmq.RocketMQBatchMessage;
 import com.wind.sentinel.SentinelResource;
 import com.wind.sentinel.SentinelResourceBuilder;
 import com.wind.sentinel.util.SentinelFlowLimitUtils;
+import com.wind.trace.WindTraceContext;
 import com.wind.trace.WindTracer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.apache.rocketmq.client.AccessChannel;
 import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
 import org.apache.rocketmq.client.consumer.MessageSelector;
@@ -64,6 +76,7 @@ import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.MessageConversionException;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.converter.SmartMessageConverter;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeTypeUtils;
@@ -73,15 +86,31 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Data
 public class DefaultRocketMQListenerContainer implements InitializingBean,
         RocketMQListenerContainer, SmartLifecycle, ApplicationContextAware {
     private final static Logger log = LoggerFactory.getLogger(DefaultRocketMQListenerContainer.class);
 
+    /**
+     * 转换消息时使用的空消息头，不生成 id 和 timestamp
+     */
+    private static final MessageHeaders EMPTY_HEADERS = new MessageHeaders(null, MessageHeaders.ID_VALUE_NONE, -1L) {
+    };
+
     private ApplicationContext applicationContext;
 
     /**
@@ -127,6 +156,9 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
     @SuppressWarnings("rawtypes")
     private RocketMQReplyListener rocketMQReplyListener;
 
+    @SuppressWarnings("rawtypes")
+    private RocketMQBatchListener rocketMQBatchListener;
+
     private RocketMQMessageListener rocketMQMessageListener;
 
     private DefaultMQPushConsumer consumer;
@@ -153,6 +185,52 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
 
     private boolean enableFlowControl = false;
 
+    /**
+     * 流控资源缓存
+     *
+     * @key 消息 tag，没有 tag 时为空字符串
+     * @value 流控资源
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, SentinelResource> flowResources = new ConcurrentHashMap<>();
+
+    /**
+     * 消息转换计划，在 {@link #afterPropertiesSet()} 时根据消息类型确定
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Function<MessageExt, Object> messageConversionPlan;
+
+    /**
+     * 虚拟线程消费执行器，未启用虚拟线程消费时为空
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ExecutorService virtualThreadExecutor;
+
+    /**
+     * 虚拟线程消费的并发限制器，未启用虚拟线程消费时为空
+     */
+    @Setter(AccessLevel.NONE)
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Setter(AccessLevel.NONE)
+    private int virtualThreadConsumeBatchMaxSize;
+
+    /**
+     * 单条消息消费耗时超过该值（纳秒）时作为拥塞信号，小于等于 0 时不启用
+     */
+    @Setter(AccessLevel.NONE)
+    private long congestionTimeoutNanos;
+
+    /**
+     * 注册到 {@link Metrics#globalRegistry} 的并发限制指标，容器停止时移除
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<Meter> concurrencyGauges = new CopyOnWriteArrayList<>();
+
 
     public void setRocketMQMessageListener(RocketMQMessageListener annotation) {
         this.rocketMQMessageListener = annotation;
@@ -185,6 +263,10 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         if (Objects.nonNull(consumer)) {
             consumer.shutdown();
         }
+        if (Objects.nonNull(virtualThreadExecutor)) {
+            ExecutorServiceUtils.gracefulShutdown(virtualThreadExecutor);
+        }
+        removeConcurrencyGauges();
         log.info("container destroyed, {}", this.toString());
     }
 
@@ -206,6 +288,7 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
             throw new IllegalStateException("Failed to start RocketMQ push consumer", e);
         }
         this.setRunning(true);
+        registerConcurrencyGauges();
 
         log.info("running container: {}", this.toString());
     }
@@ -216,6 +299,7 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
             if (Objects.nonNull(consumer)) {
                 consumer.shutdown();
             }
+            removeConcurrencyGauges();
             setRunning(false);
         }
     }
@@ -243,28 +327,117 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        this.enableFlowControl = applicationContext.getBean(RocketMQProperties.class).isEnabledFlowControl();
+        RocketMQProperties properties = applicationContext.getBean(RocketMQProperties.class);
+        this.enableFlowControl = properties.isEnabledFlowControl();
+        initVirtualThreadConsumer(properties.getVirtualThreadConsumer());
         initRocketMQPushConsumer();
+        initMessageConversion();
+    }
 
+    /**
+     * 根据监听器的消息类型初始化消息转换计划
+     */
+    void initMessageConversion() {
         this.messageType = getMessageType();
         this.methodParameter = getMethodParameter();
+        this.messageConversionPlan = buildMessageConversionPlan();
         log.debug("RocketMQ messageType: {}", messageType);
     }
 
     public class DefaultMessageListenerConcurrently implements MessageListenerConcurrently {
         @Override
         public ConsumeConcurrentlyStatus consumeMessage(List<MessageExt> msgs, ConsumeConcurrentlyContext context) {
-            for (MessageExt message : msgs) {
+            int consumed;
+            if (rocketMQBatchListener != null) {
+                consumed = consumeBatch(msgs);
+            } else if (virtualThreadExecutor != null) {
+                consumed = consumeOnVirtualThreads(msgs);
+            } else {
+                consumed = consumeOneByOne(msgs);
+            }
+            if (consumed >= msgs.size()) {
+                return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+            }
+            context.setDelayLevelWhenNextConsume(delayLevelWhenNextConsume);
+            if (consumed == 0) {
+                return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+            }
+            // 部分确认，只有 ackIndex 之后的消息会重新消费
+            context.setAckIndex(consumed - 1);
+            return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+        }
+
+        private int consumeOneByOne(List<MessageExt> msgs) {
+            for (int i = 0; i < msgs.size(); i++) {
+                MessageExt message = msgs.get(i);
                 try {
                     handleMessage(message);
                 } catch (Exception e) {
                     log.warn("consume message failed. messageId:{}, topic:{}, reconsumeTimes:{}", message.getMsgId(), message.getTopic(),
                             message.getReconsumeTimes(), e);
-                    context.setDelayLevelWhenNextConsume(delayLevelWhenNextConsume);
-                    return ConsumeConcurrentlyStatus.RECONSUME_LATER;
+                    return i;
                 }
             }
-            return ConsumeConcurrentlyStatus.CONSUME_SUCCESS;
+            return msgs.size();
+        }
+
+        /**
+         * 同一批次的消息在虚拟线程中并行消费，返回第一条消费失败消息之前的消息数量
+         */
+        private int consumeOnVirtualThreads(List<MessageExt> msgs) {
+            List<Future<?>> futures = new ArrayList<>(msgs.size());
+            int result = msgs.size();
+            try {
+                for (MessageExt message : msgs) {
+                    concurrencyLimiter.acquire();
+                    futures.add(submitMessage(message));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = futures.size();
+            } catch (RejectedExecutionException e) {
+                log.warn("submit consume message task rejected, consumerGroup:{}, topic:{}", consumerGroup, topic, e);
+                result = futures.size();
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    MessageExt message = msgs.get(i);
+                    log.warn("consume message failed. messageId:{}, topic:{}, reconsumeTimes:{}", message.getMsgId(), message.getTopic(),
+                            message.getReconsumeTimes(), e.getCause());
+                    result = Math.min(result, i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Math.min(result, i);
+                }
+            }
+            return result;
+        }
+
+        private Future<?> submitMessage(MessageExt message) {
+            long submitNanos = System.nanoTime();
+            try {
+                return virtualThreadExecutor.submit(() -> {
+                    long startNanos = System.nanoTime();
+                    // 业务异常不作为拥塞信号
+                    AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+                    try {
+                        handleMessage(message);
+                        outcome = isCongestionTimeout(startNanos) ? AdaptiveConcurrencyLimiter.Outcome.DROPPED : AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+                        return null;
+                    } finally {
+                        concurrencyLimiter.release(startNanos, outcome);
+                    }
+                });
+            } catch (RuntimeException e) {
+                concurrencyLimiter.release(submitNanos, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+                throw e;
+            }
+        }
+
+        private boolean isCongestionTimeout(long startNanos) {
+            return congestionTimeoutNanos > 0 && System.nanoTime() - startNanos > congestionTimeoutNanos;
         }
     }
 
@@ -272,6 +445,14 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
 
         @Override
         public ConsumeOrderlyStatus consumeMessage(List<MessageExt> msgs, ConsumeOrderlyContext context) {
+            if (rocketMQBatchListener != null) {
+                // 顺序消费不支持部分确认
+                if (consumeBatch(msgs) < msgs.size()) {
+                    context.setSuspendCurrentQueueTimeMillis(suspendCurrentQueueTimeMillis);
+                    return ConsumeOrderlyStatus.SUSPEND_CURRENT_QUEUE_A_MOMENT;
+                }
+                return ConsumeOrderlyStatus.SUCCESS;
+            }
             for (MessageExt messageExt : msgs) {
                 try {
                     handleMessage(messageExt);
@@ -286,6 +467,103 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         }
     }
 
+    /**
+     * 批量消费消息，失败时不抛出异常
+     *
+     * @param msgs 消息列表
+     * @return 按顺序成功消费的消息数量
+     */
+    private int consumeBatch(List<MessageExt> msgs) {
+        MessageExt first = msgs.getFirst();
+        try {
+            return handleMessages(msgs);
+        } catch (Exception e) {
+            log.warn("batch consume message failed. firstMessageId:{}, topic:{}, size:{}", first.getMsgId(), first.getTopic(), msgs.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 批量处理消息：批量转换、按批次流控一次，每条消息保留自身携带的 traceId
+     *
+     * @param msgs 消息列表
+     * @return 按顺序成功消费的消息数量
+     */
+    @SuppressWarnings("unchecked")
+    public int handleMessages(List<MessageExt> msgs) throws BlockException {
+        boolean debugEnabled = log.isDebugEnabled();
+        long now = debugEnabled ? System.currentTimeMillis() : -1;
+        List<RocketMQBatchMessage<Object>> messages = convertMessages(msgs);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        Consumer<Throwable> throwableConsumer = enableFlowControl ? SentinelFlowLimitUtils.limit(buildBatchFlowResource(msgs, messages.size()),
+                messages.size()) : null;
+        Throwable throwable = null;
+        int result;
+        try {
+            result = rocketMQBatchListener.onMessages(messages);
+        } catch (RuntimeException | Error e) {
+            throwable = e;
+            throw e;
+        } finally {
+            if (throwableConsumer != null) {
+                throwableConsumer.accept(throwable);
+            }
+        }
+        if (debugEnabled) {
+            long costTime = System.currentTimeMillis() - now;
+            log.debug("consume batch size:{}, consumed:{}, cost: {} ms", msgs.size(), result, costTime);
+        }
+        return Math.max(0, Math.min(result, messages.size()));
+    }
+
+    /**
+     * 批量转换消息，遇到无法转换的消息时停止，只返回之前已转换的消息
+     */
+    private List<RocketMQBatchMessage<Object>> convertMessages(List<MessageExt> msgs) {
+        List<RocketMQBatchMessage<Object>> result = new ArrayList<>(msgs.size());
+        for (MessageExt messageExt : msgs) {
+            try {
+                result.add(new RocketMQBatchMessage<>(doConvertMessage(messageExt), messageExt.getMsgId(),
+                        messageExt.getUserProperty(WindConstants.TRACE_ID_NAME)));
+            } catch (RuntimeException e) {
+                log.warn("convert message failed. messageId:{}, topic:{}, reconsumeTimes:{}", messageExt.getMsgId(), messageExt.getTopic(),
+                        messageExt.getReconsumeTimes(), e);
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同一批次的消息 tag 相同时按 tag 流控，否则按 topic 流控
+     */
+    private SentinelResource buildBatchFlowResource(List<MessageExt> msgs, int size) {
+        String tag = msgs.getFirst().getTags();
+        for (int i = 1; i < size; i++) {
+            if (!Objects.equals(tag, msgs.get(i).getTags())) {
+                tag = null;
+                break;
+            }
+        }
+        return getFlowResource(tag);
+    }
+
+    /**
+     * 获取流控资源，同一个容器的 group 和 topic 固定，按 tag 缓存
+     *
+     * @param tag 消息 tag
+     * @return 流控资源
+     */
+    private SentinelResource getFlowResource(String tag) {
+        return flowResources.computeIfAbsent(tag == null ? "" : tag, key -> SentinelResourceBuilder.rocketConsumer()
+                .groupName(consumerGroup)
+                .topic(topic)
+                .tag(key)
+                .build());
+    }
+
     public void handleMessage(MessageExt messageExt) throws MQClientException, RemotingException, InterruptedException, BlockException {
         log.debug("received msg: {}", messageExt);
         boolean debugEnabled = log.isDebugEnabled();
@@ -294,7 +572,8 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         String traceId = messageExt.getUserProperty(WindConstants.TRACE_ID_NAME);
         boolean traceMessage = StringUtils.hasText(traceId);
         if (traceMessage) {
-            WindTracer.TRACER.call(() -> {
+            // 延续消息携带的 traceId
+            WindTracer.TRACER.callWithContext(WindTraceContext.withTrace(traceId), () -> {
                 tryFlowControl(messageExt);
                 return null;
             });
@@ -309,12 +588,7 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
 
     private void tryFlowControl(MessageExt messageExt) throws BlockException, MQClientException, RemotingException, InterruptedException {
         if (enableFlowControl) {
-            SentinelResource resource = SentinelResourceBuilder.rocketConsumer()
-                    .groupName(consumerGroup)
-                    .topic(topic)
-                    .tag(messageExt.getTags())
-                    .build();
-            Consumer<Throwable> throwableConsumer = SentinelFlowLimitUtils.limit(resource);
+            Consumer<Throwable> throwableConsumer = SentinelFlowLimitUtils.limit(getFlowResource(messageExt.getTags()));
             Exception exception = null;
             try {
                 dispatchMessage(messageExt);
@@ -401,40 +675,51 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
     }
 
     private Object doConvertMessage(MessageExt messageExt) {
+        return messageConversionPlan.apply(messageExt);
+    }
+
+    /**
+     * 根据消息类型预先确定转换方式，避免每条消息重复判断
+     * UTF-8 编码时直接将消息体字节交给转换器（Jackson 可直接读取 byte[]），避免创建整个消息体的中间字符串
+     *
+     * @return 消息转换计划
+     */
+    private Function<MessageExt, Object> buildMessageConversionPlan() {
         if (Objects.equals(messageType, MessageExt.class) || Objects.equals(messageType, org.apache.rocketmq.common.message.Message.class)) {
-            return messageExt;
-        } else {
-            String str = new String(messageExt.getBody(), Charset.forName(charset));
-            if (Objects.equals(messageType, String.class)) {
-                return str;
-            } else {
-                // If msgType not string, use objectMapper change it.
-                try {
-                    if (messageType instanceof Class) {
-                        //if the messageType has not Generic Parameter
-                        return this.getMessageConverter().fromMessage(MessageBuilder.withPayload(str).build(), (Class<?>) messageType);
-                    } else {
-                        //if the messageType has Generic Parameter, then use SmartMessageConverter#fromMessage with third parameter "conversionHint".
-                        //we have validate the MessageConverter is SmartMessageConverter in this#getMethodParameter.
-                        return ((SmartMessageConverter) this.getMessageConverter()).fromMessage(MessageBuilder.withPayload(str).build(),
-                                (Class<?>) ((ParameterizedType) messageType).getRawType(), methodParameter);
-                    }
-                } catch (Exception e) {
-                    log.info("convert failed. str:{}, msgType:{}", str, messageType);
-                    throw new RuntimeException("cannot convert message to " + messageType, e);
-                }
-            }
+            return messageExt -> messageExt;
+        }
+        Charset messageCharset = Charset.forName(charset);
+        if (Objects.equals(messageType, String.class)) {
+            return messageExt -> new String(messageExt.getBody(), messageCharset);
+        }
+        boolean bytesPayload = StandardCharsets.UTF_8.equals(messageCharset);
+        if (messageType instanceof Class<?> targetClass) {
+            //if the messageType has not Generic Parameter
+            MessageConverter converter = getMessageConverter();
+            return messageExt -> convertMessage(messageExt, messageCharset, bytesPayload, payload -> converter.fromMessage(payload, targetClass));
+        }
+        //if the messageType has Generic Parameter, then use SmartMessageConverter#fromMessage with third parameter "conversionHint".
+        //we have validate the MessageConverter is SmartMessageConverter in this#getMethodParameter.
+        SmartMessageConverter converter = (SmartMessageConverter) getMessageConverter();
+        Class<?> rawType = (Class<?>) ((ParameterizedType) messageType).getRawType();
+        MethodParameter conversionHint = methodParameter;
+        return messageExt -> convertMessage(messageExt, messageCharset, bytesPayload, payload -> converter.fromMessage(payload, rawType, conversionHint));
+    }
+
+    private Object convertMessage(MessageExt messageExt, Charset messageCharset, boolean bytesPayload, Function<Message<?>, Object> converter) {
+        byte[] body = messageExt.getBody();
+        Object payload = bytesPayload ? body : new String(body, messageCharset);
+        try {
+            return converter.apply(new GenericMessage<>(payload, EMPTY_HEADERS));
+        } catch (Exception e) {
+            log.info("convert failed. str:{}, msgType:{}", new String(body, messageCharset), messageType);
+            throw new RuntimeException("cannot convert message to " + messageType, e);
         }
     }
 
     @SuppressWarnings("rawtypes")
     private MethodParameter getMethodParameter() {
-        Class<?> targetClass;
-        if (rocketMQListener != null) {
-            targetClass = AopProxyUtils.ultimateTargetClass(rocketMQListener);
-        } else {
-            targetClass = AopProxyUtils.ultimateTargetClass(rocketMQReplyListener);
-        }
+        Class<?> targetClass = getListenerTargetClass();
         Type messageType = this.getMessageType();
         Class clazz = null;
         if (messageType instanceof ParameterizedType && messageConverter instanceof SmartMessageConverter) {
@@ -445,6 +730,11 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
             throw new RuntimeException("parameterType:" + messageType + " of onMessage method is not supported");
         }
         try {
+            if (rocketMQBatchListener != null) {
+                // 批量消费时使用 List<RocketMQBatchMessage<T>> 中 T 的类型作为转换提示
+                final Method method = targetClass.getMethod("onMessages", List.class);
+                return new MethodParameter(method, 0).nested().nested();
+            }
             final Method method = targetClass.getMethod("onMessage", clazz);
             return new MethodParameter(method, 0);
         } catch (NoSuchMethodException e) {
@@ -453,13 +743,18 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         }
     }
 
-    private Type getMessageType() {
-        Class<?> targetClass;
+    private Class<?> getListenerTargetClass() {
         if (rocketMQListener != null) {
-            targetClass = AopProxyUtils.ultimateTargetClass(rocketMQListener);
-        } else {
-            targetClass = AopProxyUtils.ultimateTargetClass(rocketMQReplyListener);
+            return AopProxyUtils.ultimateTargetClass(rocketMQListener);
         }
+        if (rocketMQBatchListener != null) {
+            return AopProxyUtils.ultimateTargetClass(rocketMQBatchListener);
+        }
+        return AopProxyUtils.ultimateTargetClass(rocketMQReplyListener);
+    }
+
+    private Type getMessageType() {
+        Class<?> targetClass = getListenerTargetClass();
         Type matchedGenericInterface = null;
         while (Objects.nonNull(targetClass)) {
             Type[] interfaces = targetClass.getGenericInterfaces();
@@ -467,7 +762,7 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
                 for (Type type : interfaces) {
                     if (type instanceof ParameterizedType &&
                             (Objects.equals(((ParameterizedType) type).getRawType(), RocketMQListener.class) || Objects.equals(((ParameterizedType) type).getRawType(),
-                                    RocketMQReplyListener.class))) {
+                                    RocketMQReplyListener.class) || Objects.equals(((ParameterizedType) type).getRawType(), RocketMQBatchListener.class))) {
                         matchedGenericInterface = type;
                         break;
                     }
@@ -486,9 +781,55 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         return Object.class;
     }
 
+    /**
+     * 初始化虚拟线程消费，仅并发消费模式且非批量监听器时生效
+     *
+     * @param properties 虚拟线程消费配置
+     */
+    void initVirtualThreadConsumer(RocketMQProperties.VirtualThreadConsumer properties) {
+        if (properties == null || !properties.isEnabled() || consumeMode != ConsumeMode.CONCURRENTLY || rocketMQBatchListener != null) {
+            return;
+        }
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+                properties.getLatencyTolerance());
+        this.virtualThreadConsumeBatchMaxSize = Math.max(1, properties.getConsumeMessageBatchMaxSize());
+        this.congestionTimeoutNanos = properties.getCongestionTimeout() == null ? 0 : properties.getCongestionTimeout().toNanos();
+        this.virtualThreadExecutor = ExecutorServiceUtils.virtual(String.format("rocketmq-consumer-%s-", consumerGroup));
+    }
+
+    /**
+     * 注册并发限制指标，容器每次启动时注册，停止时移除
+     */
+    private void registerConcurrencyGauges() {
+        if (concurrencyLimiter == null || !concurrencyGauges.isEmpty()) {
+            return;
+        }
+        Tags tags = Tags.of("consumerGroup", consumerGroup, "topic", topic);
+        concurrencyGauges.add(Gauge.builder("wind.rocketmq.consumer.concurrency.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("rocketmq consumer in flight messages")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        concurrencyGauges.add(Gauge.builder("wind.rocketmq.consumer.concurrency.waiting", concurrencyLimiter, AdaptiveConcurrencyLimiter::getWaiting)
+                .description("rocketmq consumer messages waiting for concurrency limit")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+        concurrencyGauges.add(Gauge.builder("wind.rocketmq.consumer.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("rocketmq consumer adaptive concurrency limit")
+                .tags(tags)
+                .register(Metrics.globalRegistry));
+    }
+
+    /**
+     * 移除并发限制指标，容器停止后不再上报
+     */
+    private void removeConcurrencyGauges() {
+        concurrencyGauges.forEach(Metrics.globalRegistry::remove);
+        concurrencyGauges.clear();
+    }
+
     private void initRocketMQPushConsumer() throws MQClientException {
-        if (rocketMQListener == null && rocketMQReplyListener == null) {
-            throw new IllegalArgumentException("Property 'rocketMQListener' or 'rocketMQReplyListener' is required");
+        if (rocketMQListener == null && rocketMQReplyListener == null && rocketMQBatchListener == null) {
+            throw new IllegalArgumentException("Property 'rocketMQListener' or 'rocketMQReplyListener' or 'rocketMQBatchListener' is required");
         }
         Assert.notNull(consumerGroup, "Property 'consumerGroup' is required");
         Assert.notNull(nameServer, "Property 'nameServer' is required");
@@ -526,6 +867,11 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
         consumer.setMaxReconsumeTimes(maxReconsumeTimes);
         consumer.setAwaitTerminationMillisWhenShutdown(awaitTerminationMillisWhenShutdown);
         consumer.setInstanceName(instanceName);
+        if (rocketMQBatchListener != null) {
+            consumer.setConsumeMessageBatchMaxSize(Math.max(1, rocketMQBatchListener.getConsumeMessageBatchMaxSize()));
+        } else if (virtualThreadExecutor != null) {
+            consumer.setConsumeMessageBatchMaxSize(virtualThreadConsumeBatchMaxSize);
+        }
         switch (messageModel) {
             case BROADCASTING:
                 consumer.setMessageModel(org.apache.rocketmq.remoting.protocol.heartbeat.MessageModel.BROADCASTING);
@@ -566,6 +912,8 @@ public class DefaultRocketMQListenerContainer implements InitializingBean,
             ((RocketMQPushConsumerLifecycleListener) rocketMQListener).prepareStart(consumer);
         } else if (rocketMQReplyListener instanceof RocketMQPushConsumerLifecycleListener) {
             ((RocketMQPushConsumerLifecycleListener) rocketMQReplyListener).prepareStart(consumer);
+        } else if (rocketMQBatchListener instanceof RocketMQPushConsumerLifecycleListener) {
+            ((RocketMQPushConsumerLifecycleListener) rocketMQBatchListener).prepareStart(consumer);
         }
 
     }
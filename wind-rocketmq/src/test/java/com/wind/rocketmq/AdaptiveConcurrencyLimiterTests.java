@@ -0,0 +1,107 @@
+package com.wind.rocketmq;
+
+import com.wind.rocketmq.AdaptiveConcurrencyLimiter.Outcome;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 15:10
+ **/
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void testInitialLimitClamp() {
+        Assertions.assertEquals(8, new AdaptiveConcurrencyLimiter(1, 8, 16, 2.0).getLimit());
+        Assertions.assertEquals(16, new AdaptiveConcurrencyLimiter(100, 8, 16, 2.0).getLimit());
+    }
+
+    @Test
+    void testIncreaseUnderLoad() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 64, 2.0);
+        runWindow(limiter, 16, Outcome.SUCCESS, index -> 10);
+        Assertions.assertEquals(20, limiter.getLimit());
+        Assertions.assertEquals(10, limiter.getBaselineLatencyMillis(), 0.001);
+    }
+
+    @Test
+    void testNoIncreaseWhenIdle() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 64, 2.0);
+        for (int i = 0; i < 10; i++) {
+            runWindow(limiter, 1, Outcome.SUCCESS, index -> 10);
+        }
+        Assertions.assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    void testLatencySpreadDoesNotBackOff() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 1024, 2.0);
+        for (int i = 0; i < 50; i++) {
+            int previous = limiter.getLimit();
+            // 单次耗时在 1 ~ 30 毫秒之间波动，窗口平均耗时稳定
+            runWindow(limiter, 16, Outcome.SUCCESS, index -> 1 + (index * 7L) % 30);
+            Assertions.assertTrue(limiter.getLimit() >= previous);
+        }
+    }
+
+    @Test
+    void testBackOffOncePerWindow() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 64, 2.0);
+        runWindow(limiter, 1, Outcome.SUCCESS, index -> 10);
+        Assertions.assertEquals(20, limiter.getLimit());
+        runWindow(limiter, 1, Outcome.SUCCESS, index -> 50);
+        Assertions.assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void testDroppedBackOff() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 64, 2.0);
+        runWindow(limiter, 1, Outcome.DROPPED, index -> 10);
+        Assertions.assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void testIgnoredNotBackOff() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 64, 2.0);
+        runWindow(limiter, 1, Outcome.SUCCESS, index -> 10);
+        for (int i = 0; i < 10; i++) {
+            runWindow(limiter, 1, Outcome.IGNORED, index -> 1000);
+        }
+        Assertions.assertEquals(20, limiter.getLimit());
+        Assertions.assertEquals(10, limiter.getBaselineLatencyMillis(), 0.001);
+    }
+
+    @Test
+    void testFloorAndCeiling() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 4, 32, 2.0);
+        for (int i = 0; i < 50; i++) {
+            runWindow(limiter, 32, Outcome.DROPPED, index -> 10);
+        }
+        Assertions.assertEquals(4, limiter.getLimit());
+        for (int i = 0; i < 50; i++) {
+            runWindow(limiter, 32, Outcome.SUCCESS, index -> 10);
+        }
+        Assertions.assertEquals(32, limiter.getLimit());
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * 执行一个采样窗口，每轮并发获取 concurrency（不超过当前限制）个许可后全部释放
+     */
+    private static void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, Outcome outcome, IntToLongFunction latencyMillis) throws InterruptedException {
+        int samples = 0;
+        while (samples < AdaptiveConcurrencyLimiter.WINDOW_SAMPLES) {
+            int batch = Math.min(Math.min(concurrency, limiter.getLimit()), AdaptiveConcurrencyLimiter.WINDOW_SAMPLES - samples);
+            for (int i = 0; i < batch; i++) {
+                limiter.acquire();
+            }
+            for (int i = 0; i < batch; i++) {
+                limiter.release(outcome, TimeUnit.MILLISECONDS.toNanos(latencyMillis.applyAsLong(samples + i)));
+            }
+            samples += batch;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.apache.rocketmq.spring.support;
+
+import com.wind.common.WindConstants;
+import com.wind.rocketmq.RocketMQBatchListener;
+import com.wind.rocketmq.RocketMQBatchMessage;
+import com.wind.trace.WindTracer;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyContext;
+import org.apache.rocketmq.client.consumer.listener.ConsumeConcurrentlyStatus;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.autoconfigure.RocketMQProperties;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.function.ToIntFunction;
+
+/**
+ * @author wuxp
+ * @date 2026-10-18 15:40
+ **/
+class DefaultRocketMQListenerContainerTests {
+
+    private final ExampleBatchListener listener = new ExampleBatchListener();
+
+    private DefaultRocketMQListenerContainer.DefaultMessageListenerConcurrently messageListener;
+
+    @BeforeEach
+    void setup() {
+        DefaultRocketMQListenerContainer container = new DefaultRocketMQListenerContainer();
+        container.setTopic("example");
+        container.setConsumerGroup("example-group");
+        container.setRocketMQBatchListener(listener);
+        container.initMessageConversion();
+        messageListener = container.new DefaultMessageListenerConcurrently();
+    }
+
+    @Test
+    void testBatchMessagesKeepOwnTraceId() {
+        listener.consumer = messages -> messages.size();
+        List<MessageExt> msgs = List.of(newMessage("m1", "trace-1"), newMessage("m2", null), newMessage("m3", "trace-3"));
+        ConsumeConcurrentlyContext context = newContext();
+        Assertions.assertEquals(ConsumeConcurrentlyStatus.CONSUME_SUCCESS, messageListener.consumeMessage(msgs, context));
+        Assertions.assertEquals(List.of("m1", "m2", "m3"), listener.payloads);
+        Assertions.assertEquals("trace-1", listener.traceIds.get(0));
+        Assertions.assertNotNull(listener.traceIds.get(1));
+        Assertions.assertNotEquals("trace-1", listener.traceIds.get(1));
+        Assertions.assertEquals("trace-3", listener.traceIds.get(2));
+        // 全部确认时不设置 ackIndex
+        Assertions.assertEquals(Integer.MAX_VALUE, context.getAckIndex());
+    }
+
+    @Test
+    void testPartialAck() {
+        listener.consumer = messages -> 2;
+        List<MessageExt> msgs = List.of(newMessage("m1", null), newMessage("m2", null), newMessage("m3", null));
+        ConsumeConcurrentlyContext context = newContext();
+        Assertions.assertEquals(ConsumeConcurrentlyStatus.CONSUME_SUCCESS, messageListener.consumeMessage(msgs, context));
+        Assertions.assertEquals(1, context.getAckIndex());
+    }
+
+    @Test
+    void testReconsumeWhenNothingConsumed() {
+        List<MessageExt> msgs = List.of(newMessage("m1", null), newMessage("m2", null));
+        listener.consumer = messages -> 0;
+        Assertions.assertEquals(ConsumeConcurrentlyStatus.RECONSUME_LATER, messageListener.consumeMessage(msgs, newContext()));
+        listener.consumer = messages -> {
+            throw new IllegalStateException("consume error");
+        };
+        Assertions.assertEquals(ConsumeConcurrentlyStatus.RECONSUME_LATER, messageListener.consumeMessage(msgs, newContext()));
+    }
+
+    @Test
+    void testConsumedCountClamp() {
+        listener.consumer = messages -> messages.size() + 10;
+        ConsumeConcurrentlyContext context = newContext();
+        Assertions.assertEquals(ConsumeConcurrentlyStatus.CONSUME_SUCCESS, messageListener.consumeMessage(List.of(newMessage("m1", null)), context));
+        Assertions.assertEquals(Integer.MAX_VALUE, context.getAckIndex());
+    }
+
+    @Test
+    void testCongestionTimeoutShrinkLimit() {
+        DefaultRocketMQListenerContainer container = new DefaultRocketMQListenerContainer();
+        container.setTopic("example");
+        container.setConsumerGroup("example-group");
+        container.setConsumeMode(ConsumeMode.CONCURRENTLY);
+        container.setRocketMQListener(new SlowListener());
+        container.initMessageConversion();
+        RocketMQProperties.VirtualThreadConsumer properties = new RocketMQProperties.VirtualThreadConsumer();
+        properties.setEnabled(true);
+        properties.setInitialLimit(20);
+        properties.setMinLimit(1);
+        properties.setCongestionTimeout(Duration.ofMillis(1));
+        container.initVirtualThreadConsumer(properties);
+        try {
+            List<MessageExt> msgs = IntStream.range(0, 32).mapToObj(i -> newMessage("m" + i, null)).toList();
+            Assertions.assertEquals(ConsumeConcurrentlyStatus.CONSUME_SUCCESS, container.new DefaultMessageListenerConcurrently().consumeMessage(msgs, newContext()));
+            // 一个采样窗口的消息消费均超时，并发限制减小
+            Assertions.assertEquals(18, container.getConcurrencyLimiter().getLimit());
+        } finally {
+            container.destroy();
+        }
+    }
+
+    private static ConsumeConcurrentlyContext newContext() {
+        return new ConsumeConcurrentlyContext(new MessageQueue("example", "broker-a", 0));
+    }
+
+    private static MessageExt newMessage(String body, String traceId) {
+        MessageExt result = new MessageExt();
+        result.setTopic("example");
+        result.setMsgId(body);
+        result.setBody(body.getBytes(StandardCharsets.UTF_8));
+        if (traceId != null) {
+            result.putUserProperty(WindConstants.TRACE_ID_NAME, traceId);
+        }
+        return result;
+    }
+
+    static class SlowListener implements RocketMQListener<String> {
+
+        @Override
+        public void onMessage(String message) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class ExampleBatchListener implements RocketMQBatchListener<String> {
+
+        private final List<String> payloads = new ArrayList<>();
+
+        private final List<String> traceIds = new ArrayList<>();
+
+        private ToIntFunction<List<RocketMQBatchMessage<String>>> consumer;
+
+        @Override
+        public int onMessages(List<RocketMQBatchMessage<String>> messages) {
+            for (RocketMQBatchMessage<String> message : messages) {
+                payloads.add(message.payload());
+                traceIds.add(message.call(WindTracer.TRACER::requireTraceId));
+            }
+            return consumer.applyAsInt(messages);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.wind.script.auditlog;
+
+import com.wind.common.util.ExecutorServiceUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 异步审计日志分发，调用线程只负责将日志快照放入有界环形队列，表达式求值和日志写入在工作线程中批量执行
+ *
+ * @author wuxp
+ * @date 2026-10-17 15:20
+ **/
+@Slf4j
+final class AsyncAuditLogDispatcher implements AutoCloseable {
+
+    private static final String METRIC_NAME_PREFIX = "wind.audit.log.async";
+
+    private final AuditLogAsyncOptions options;
+
+    private final BlockingQueue<AuditLogEvent> queue;
+
+    /**
+     * 批量处理日志快照
+     */
+    private final Consumer<List<AuditLogEvent>> handler;
+
+    private final ExecutorService workers;
+
+    private final Counter droppedCounter;
+
+    private final Counter callerRunsCounter;
+
+    /**
+     * 从入队到写入完成的延迟
+     */
+    private final Timer latencyTimer;
+
+    private volatile boolean running = true;
+
+    AsyncAuditLogDispatcher(String name, AuditLogAsyncOptions options, Consumer<List<AuditLogEvent>> handler) {
+        this.options = options;
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        this.handler = handler;
+        Tags tags = Tags.of("recorder", name);
+        this.droppedCounter = Counter.builder(METRIC_NAME_PREFIX + ".dropped").tags(tags).register(Metrics.globalRegistry);
+        this.callerRunsCounter = Counter.builder(METRIC_NAME_PREFIX + ".caller.runs").tags(tags).register(Metrics.globalRegistry);
+        this.latencyTimer = Timer.builder(METRIC_NAME_PREFIX + ".latency").tags(tags).register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_NAME_PREFIX + ".queue.depth", queue, BlockingQueue::size).tags(tags).register(Metrics.globalRegistry);
+        int threads = options.getWorkerThreads();
+        this.workers = ExecutorServiceUtils.named("audit-log-worker-")
+                .corePoolSize(threads)
+                .maximumPoolSize(threads)
+                .workQueueSize(threads)
+                .nativeBuild();
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    /**
+     * 分发日志快照
+     *
+     * @param event 日志快照
+     */
+    void dispatch(AuditLogEvent event) {
+        if (!running) {
+            // 已关闭，在调用线程中执行
+            deliver(Collections.singletonList(event));
+            return;
+        }
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (options.getOverflowPolicy()) {
+            case BLOCK -> offerWithTimeout(event);
+            case CALLER_RUNS -> {
+                callerRunsCounter.increment();
+                deliver(Collections.singletonList(event));
+            }
+            default -> drop(event);
+        }
+    }
+
+    private void offerWithTimeout(AuditLogEvent event) {
+        try {
+            if (!queue.offer(event, options.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                drop(event);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            drop(event);
+        }
+    }
+
+    private void drop(AuditLogEvent event) {
+        droppedCounter.increment();
+        log.warn("audit log queue is full, drop audit log, method = {}", event.method());
+    }
+
+    private void runWorker() {
+        int batchSize = options.getBatchSize();
+        List<AuditLogEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLogEvent first = queue.poll(options.getFlushInterval().toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch, batchSize);
+                deliver(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 在 flushInterval 内尽量凑满一个批次
+     */
+    private void fillBatch(List<AuditLogEvent> batch, int batchSize) throws InterruptedException {
+        long deadline = System.nanoTime() + options.getFlushInterval().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditLogEvent event = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (event == null) {
+                return;
+            }
+            batch.add(event);
+        }
+    }
+
+    private void deliver(List<AuditLogEvent> events) {
+        try {
+            handler.accept(events);
+        } catch (Exception exception) {
+            log.error("write audit logs error, size = {}", events.size(), exception);
+        }
+        long now = System.nanoTime();
+        for (AuditLogEvent event : events) {
+            latencyTimer.record(now - event.createdNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return 队列中等待处理的日志数量
+     */
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        // 工作线程会在处理完队列中剩余的日志后退出
+        running = false;
+        ExecutorServiceUtils.gracefulShutdown(workers);
+    }
+
+    /**
+     * 审计日志快照，在调用线程中创建
+     *
+     * @param arguments         方法参数（浅拷贝）
+     * @param methodReturnValue 方法返回值
+     * @param method            方法对象
+     * @param throwable         执行抛出的异常
+     * @param contextVariables  调用线程中的上下文变量
+     * @param createdNanos      创建时间
+     */
+    record AuditLogEvent(Object[] arguments, @Nullable Object methodReturnValue, Method method, @Nullable Throwable throwable,
+                         Map<String, Object> contextVariables, long createdNanos) {
+    }
+}
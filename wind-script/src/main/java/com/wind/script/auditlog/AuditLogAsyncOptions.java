@@ -0,0 +1,57 @@
+package com.wind.script.auditlog;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 异步审计日志配置
+ *
+ * @author wuxp
+ * @date 2026-10-17 15:08
+ **/
+@Getter
+@Builder
+public class AuditLogAsyncOptions {
+
+    /**
+     * 队列容量
+     */
+    @Builder.Default
+    private final int queueCapacity = 4096;
+
+    /**
+     * 单批次最大日志条数
+     */
+    @Builder.Default
+    private final int batchSize = 64;
+
+    /**
+     * 执行表达式求值、写入日志的线程数
+     */
+    @Builder.Default
+    private final int workerThreads = 1;
+
+    /**
+     * 批次未满时最长等待时间
+     */
+    @Builder.Default
+    private final Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * 队列已满时的处理策略
+     */
+    @Builder.Default
+    private final AuditLogOverflowPolicy overflowPolicy = AuditLogOverflowPolicy.DROP;
+
+    /**
+     * {@link AuditLogOverflowPolicy#BLOCK} 策略的最长阻塞时间
+     */
+    @Builder.Default
+    private final Duration blockTimeout = Duration.ofMillis(50);
+
+    public static AuditLogAsyncOptions defaults() {
+        return AuditLogAsyncOptions.builder().build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.wind.script.auditlog;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 审计日志表达式变量的只读视图，按需从方法参数、执行结果和上下文变量中查找，避免每次请求复制上下文变量
+ * 查找优先级：方法参数 > args > result、resolveResult > 上下文变量
+ *
+ * @author wuxp
+ * @date 2026-10-17 16:25
+ **/
+final class AuditLogEvaluationVariables extends AbstractMap<String, Object> {
+
+    /**
+     * 方法参数列表变量
+     */
+    static final String ARGS_VARIABLE_NAME = "args";
+
+    /**
+     * 方法执行结果响应变量（原始值）
+     */
+    static final String RESULT_VARIABLE_NAME = "result";
+
+    /**
+     * 方法执行结果响应变量（解析值）
+     */
+    static final String RESULT_RESOLVE_VARIABLE_NAME = "resolveResult";
+
+    private final AuditLogMethodPlan plan;
+
+    private final Object[] arguments;
+
+    /**
+     * 方法参数为空时不提供参数与执行结果变量
+     */
+    private final boolean hasArguments;
+
+    @Nullable
+    private final Object methodReturnValue;
+
+    @Nullable
+    private final Object resolvedReturnValue;
+
+    private final Map<String, Object> contextVariables;
+
+    @Nullable
+    private Set<Entry<String, Object>> entrySet;
+
+    AuditLogEvaluationVariables(AuditLogMethodPlan plan, Object[] arguments, @Nullable Object methodReturnValue,
+                                @Nullable Object resolvedReturnValue, Map<String, Object> contextVariables) {
+        this.plan = plan;
+        this.arguments = arguments;
+        this.hasArguments = !ObjectUtils.isEmpty(arguments);
+        this.methodReturnValue = methodReturnValue;
+        this.resolvedReturnValue = resolvedReturnValue;
+        this.contextVariables = contextVariables;
+    }
+
+    @Override
+    @Nullable
+    public Object get(Object key) {
+        if (hasArguments) {
+            int index = plan.indexOfParameter(key);
+            if (index >= 0 && index < arguments.length) {
+                return arguments[index];
+            }
+            if (ARGS_VARIABLE_NAME.equals(key)) {
+                return arguments;
+            }
+            if (methodReturnValue != null) {
+                if (RESULT_VARIABLE_NAME.equals(key)) {
+                    return methodReturnValue;
+                }
+                if (RESULT_RESOLVE_VARIABLE_NAME.equals(key)) {
+                    return resolvedReturnValue;
+                }
+            }
+        }
+        return contextVariables.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (hasArguments) {
+            int index = plan.indexOfParameter(key);
+            if ((index >= 0 && index < arguments.length) || ARGS_VARIABLE_NAME.equals(key)) {
+                return true;
+            }
+            if (methodReturnValue != null && (RESULT_VARIABLE_NAME.equals(key) || RESULT_RESOLVE_VARIABLE_NAME.equals(key))) {
+                return true;
+            }
+        }
+        return contextVariables.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            // 只在需要遍历时合并
+            Map<String, Object> result = new HashMap<>(contextVariables);
+            if (hasArguments) {
+                String[] names = plan.getParameterNames();
+                for (int i = 0; i < names.length && i < arguments.length; i++) {
+                    result.put(names[i], arguments[i]);
+                }
+                result.put(ARGS_VARIABLE_NAME, arguments);
+                if (methodReturnValue != null) {
+                    result.put(RESULT_VARIABLE_NAME, methodReturnValue);
+                    result.put(RESULT_RESOLVE_VARIABLE_NAME, resolvedReturnValue);
+                }
+            }
+            entrySet = Collections.unmodifiableMap(result).entrySet();
+        }
+        return entrySet;
+    }
+}
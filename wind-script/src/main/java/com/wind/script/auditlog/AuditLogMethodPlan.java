@@ -0,0 +1,155 @@
+package com.wind.script.auditlog;
+
+import com.wind.script.spring.SpringExpressionEvaluator;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.Expression;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按方法预先解析的审计日志执行计划，包含注解、参数名称及预解析的表达式
+ *
+ * @author wuxp
+ * @date 2026-10-17 16:10
+ **/
+@Slf4j
+final class AuditLogMethodPlan {
+
+    /**
+     * 没有 {@link AuditLog} 注解的方法
+     */
+    static final AuditLogMethodPlan NONE = new AuditLogMethodPlan(null, new String[0], Collections.emptyMap(), null, null, null);
+
+    /**
+     * spring 的方法参数发现者
+     * 编译时需要开启保留方法参数名称
+     */
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    @Nullable
+    private final AuditLog auditLog;
+
+    private final String[] parameterNames;
+
+    /**
+     * @key 参数名称
+     * @value 参数下标
+     */
+    private final Map<String, Integer> parameterIndexes;
+
+    /**
+     * 表达式解析失败时为空
+     */
+    @Nullable
+    private final Expression logExpression;
+
+    @Nullable
+    private final Expression remarkExpression;
+
+    @Nullable
+    private final Expression resourceIdExpression;
+
+    private AuditLogMethodPlan(@Nullable AuditLog auditLog, String[] parameterNames, Map<String, Integer> parameterIndexes,
+                               @Nullable Expression logExpression, @Nullable Expression remarkExpression,
+                               @Nullable Expression resourceIdExpression) {
+        this.auditLog = auditLog;
+        this.parameterNames = parameterNames;
+        this.parameterIndexes = parameterIndexes;
+        this.logExpression = logExpression;
+        this.remarkExpression = remarkExpression;
+        this.resourceIdExpression = resourceIdExpression;
+    }
+
+    static AuditLogMethodPlan of(Method method) {
+        AuditLog auditLog = AnnotationUtils.getAnnotation(method, AuditLog.class);
+        if (auditLog == null) {
+            return NONE;
+        }
+        Assert.hasLength(auditLog.value(), "AuditLog#value must not empty");
+        String[] parameterNames = getParameterNames(method);
+        Map<String, Integer> parameterIndexes = new HashMap<>(parameterNames.length * 2);
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameterIndexes.put(parameterNames[i], i);
+        }
+        return new AuditLogMethodPlan(auditLog, parameterNames, parameterIndexes,
+                parse(SpringExpressionEvaluator.TEMPLATE, auditLog.value()),
+                parse(SpringExpressionEvaluator.TEMPLATE, auditLog.remark()),
+                parse(SpringExpressionEvaluator.DEFAULT, auditLog.resourceId()));
+    }
+
+    @Nullable
+    private static Expression parse(SpringExpressionEvaluator evaluator, String expression) {
+        if (!StringUtils.hasLength(expression)) {
+            return null;
+        }
+        try {
+            return evaluator.parse(expression);
+        } catch (Exception exception) {
+            log.error("parse audit log expression error, expression = {}", expression, exception);
+            return null;
+        }
+    }
+
+    private static String[] getParameterNames(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] result = null;
+        try {
+            result = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+        } catch (Exception e) {
+            log.warn("获取方法{}的参数名称列表失败：{}", method, e.getMessage(), e);
+        }
+        if (result == null || result.length != parameters.length) {
+            result = new String[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                result[i] = parameters[i].getName();
+            }
+        }
+        return result;
+    }
+
+    boolean isNone() {
+        return auditLog == null;
+    }
+
+    AuditLog getAuditLog() {
+        return auditLog;
+    }
+
+    String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * @param name 参数名称
+     * @return 参数下标，不存在返回 -1
+     */
+    int indexOfParameter(Object name) {
+        Integer result = parameterIndexes.get(name);
+        return result == null ? -1 : result;
+    }
+
+    @Nullable
+    Expression getLogExpression() {
+        return logExpression;
+    }
+
+    @Nullable
+    Expression getRemarkExpression() {
+        return remarkExpression;
+    }
+
+    @Nullable
+    Expression getResourceIdExpression() {
+        return resourceIdExpression;
+    }
+}
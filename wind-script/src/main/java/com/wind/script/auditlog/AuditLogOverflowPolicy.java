@@ -0,0 +1,25 @@
+package com.wind.script.auditlog;
+
+/**
+ * 异步审计日志队列已满时的处理策略
+ *
+ * @author wuxp
+ * @date 2026-10-17 15:02
+ **/
+public enum AuditLogOverflowPolicy {
+
+    /**
+     * 丢弃当前日志
+     */
+    DROP,
+
+    /**
+     * 阻塞调用线程直到队列有空位或等待超时，超时后丢弃
+     */
+    BLOCK,
+
+    /**
+     * 在调用线程中同步构建并写入日志
+     */
+    CALLER_RUNS
+}
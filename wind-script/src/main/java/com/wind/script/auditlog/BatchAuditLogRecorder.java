@@ -0,0 +1,27 @@
+package com.wind.script.auditlog;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量写入的操作日志记录者，异步模式下会将日志按批次交付
+ *
+ * @author wuxp
+ * @date 2026-10-17 15:05
+ **/
+public interface BatchAuditLogRecorder extends AuditLogRecorder {
+
+    /**
+     * 批量记录日志，请求异常通过 {@link AuditLogContent#getThrowable()} 获取
+     *
+     * @param contents 日志内容列表
+     */
+    void writeBatch(List<AuditLogContent> contents);
+
+    @Override
+    default void write(AuditLogContent content, @Nullable Throwable throwable) {
+        writeBatch(Collections.singletonList(content));
+    }
+}
@@ -4,23 +4,19 @@ import com.wind.common.WindConstants;
 import com.wind.common.annotations.VisibleForTesting;
 import com.wind.script.spring.SpringExpressionEvaluator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.DefaultParameterNameDiscoverer;
-import org.springframework.core.ParameterNameDiscoverer;
-import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.jspecify.annotations.Nullable;
-import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -30,7 +26,7 @@ import java.util.function.Supplier;
  * @date 2023-09-23 06:26
  **/
 @Slf4j
-public class ScriptAuditLogRecorder {
+public class ScriptAuditLogRecorder implements AutoCloseable {
 
     /**
      * 日志备注属性名称
@@ -38,37 +34,47 @@ public class ScriptAuditLogRecorder {
     public static final String AUDIT_LOG_REMARK_ATTRIBUTE_NAME = "AUDIT_LOG_REMARK";
 
     /**
-     * 方法参数列表变量
+     * 方法审计日志执行计划缓存
+     *
+     * @key 方法对象
+     * @value 执行计划，没有 {@link AuditLog} 注解的方法为 {@link AuditLogMethodPlan#NONE}
      */
-    private static final String ARGS_VARIABLE_NAME = "args";
+    private static final Map<Method, AuditLogMethodPlan> METHOD_PLANS = new ConcurrentReferenceHashMap<>(256);
 
-    /**
-     * 方法执行结果响应变量（原始值）
-     */
-    private static final String RESULT_VARIABLE_NAME = "result";
+    private final AuditLogRecorder auditLogRecorder;
+
+    private final Supplier<Map<String, Object>> contextVariablesSupplier;
 
     /**
-     * 方法执行结果响应变量（解析值）
+     * 异步模式下的日志分发者，为空表示同步记录
      */
-    private static final String RESULT_RESOLVE_VARIABLE_NAME = "resolveResult";
+    @Nullable
+    private final AsyncAuditLogDispatcher asyncDispatcher;
 
     /**
-     * spring 的方法参数发现者
-     * 编译时需要开启保留方法参数名称
+     * 子类是否重写了 {@link #evalLog(String, EvaluationContext, Throwable)}，重写时日志求值交给该方法，不使用预解析的表达式
      */
-    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
-
-    private final AuditLogRecorder auditLogRecorder;
-
-    private final Supplier<Map<String, Object>> contextVariablesSupplier;
+    private final boolean evalLogOverridden;
 
     protected ScriptAuditLogRecorder(AuditLogRecorder auditLogRecorder) {
         this(auditLogRecorder, Collections::emptyMap);
     }
 
     protected ScriptAuditLogRecorder(AuditLogRecorder auditLogRecorder, Supplier<Map<String, Object>> contextVariablesSupplier) {
+        this(auditLogRecorder, contextVariablesSupplier, null);
+    }
+
+    /**
+     * @param auditLogRecorder         日志记录者，如果是 {@link BatchAuditLogRecorder} 异步模式下会批量写入
+     * @param contextVariablesSupplier 上下文变量提供者，在调用线程中执行
+     * @param asyncOptions             异步配置，为空则同步记录
+     */
+    protected ScriptAuditLogRecorder(AuditLogRecorder auditLogRecorder, Supplier<Map<String, Object>> contextVariablesSupplier,
+                                     @Nullable AuditLogAsyncOptions asyncOptions) {
         this.auditLogRecorder = auditLogRecorder;
         this.contextVariablesSupplier = contextVariablesSupplier;
+        this.asyncDispatcher = asyncOptions == null ? null : new AsyncAuditLogDispatcher(getClass().getSimpleName(), asyncOptions, this::writeEvents);
+        this.evalLogOverridden = isEvalLogOverridden(getClass());
     }
 
 
@@ -81,6 +87,15 @@ public class ScriptAuditLogRecorder {
      * @param throwable         执行抛出的异常，没有则为空
      */
     public void recordLog(Object[] arguments, @Nullable Object methodReturnValue, Method method, @Nullable Throwable throwable) {
+        if (asyncDispatcher != null) {
+            if (method != null && !getMethodPlan(method).isNone()) {
+                // 只在调用线程中做浅拷贝快照，表达式求值交给工作线程
+                Object[] args = arguments == null ? null : arguments.clone();
+                asyncDispatcher.dispatch(new AsyncAuditLogDispatcher.AuditLogEvent(args, methodReturnValue, method, throwable,
+                        contextVariablesSupplier.get(), System.nanoTime()));
+            }
+            return;
+        }
         AuditLogContent content = buildLogContent(arguments, methodReturnValue, method, throwable);
         if (content == null) {
             return;
@@ -88,37 +103,91 @@ public class ScriptAuditLogRecorder {
         auditLogRecorder.write(content, throwable);
     }
 
+    private void writeEvents(List<AsyncAuditLogDispatcher.AuditLogEvent> events) {
+        List<AuditLogContent> contents = new ArrayList<>(events.size());
+        for (AsyncAuditLogDispatcher.AuditLogEvent event : events) {
+            AuditLogContent content = buildLogContent(event.arguments(), event.methodReturnValue(), event.method(), event.throwable(),
+                    event.contextVariables());
+            if (content != null) {
+                contents.add(content);
+            }
+        }
+        if (contents.isEmpty()) {
+            return;
+        }
+        if (auditLogRecorder instanceof BatchAuditLogRecorder recorder) {
+            recorder.writeBatch(contents);
+        } else {
+            for (AuditLogContent content : contents) {
+                auditLogRecorder.write(content, content.getThrowable());
+            }
+        }
+    }
+
     @VisibleForTesting
     @Nullable
     AuditLogContent buildLogContent(Object[] arguments, @Nullable Object methodReturnValue, Method method, Throwable throwable) {
-        AuditLog auditLog = method == null ? null : AnnotationUtils.getAnnotation(method, AuditLog.class);
-        if (auditLog == null) {
+        return buildLogContent(arguments, methodReturnValue, method, throwable, contextVariablesSupplier.get());
+    }
+
+    @Nullable
+    private AuditLogContent buildLogContent(Object[] arguments, @Nullable Object methodReturnValue, Method method, @Nullable Throwable throwable,
+                                            Map<String, Object> contextVariables) {
+        AuditLogMethodPlan plan = method == null ? AuditLogMethodPlan.NONE : getMethodPlan(method);
+        if (plan.isNone()) {
             return null;
         }
-        Assert.hasLength(auditLog.value(), "AuditLog#value must not empty");
-        Map<String, Object> variables = buildEvaluationVariables(arguments, methodReturnValue, method.getParameters());
-        EvaluationContext evaluationContext = new StandardEvaluationContext();
-        variables.forEach(evaluationContext::setVariable);
-        String remark = auditLog.remark();
+        Object resolvedReturnValue = methodReturnValue == null ? null : resolveMethodReturnValue(methodReturnValue);
+        AuditLogEvaluationVariables variables = new AuditLogEvaluationVariables(plan, arguments, methodReturnValue, resolvedReturnValue,
+                contextVariables);
+        EvaluationContext evaluationContext = new AuditLogEvaluationContext(variables);
+        AuditLog auditLog = plan.getAuditLog();
         return AuditLogContent.builder()
                 .args(arguments)
                 .resultValue(methodReturnValue)
-                .log(evalLog(auditLog.value(), evaluationContext, throwable))
-                .remark(StringUtils.hasLength(remark) ? evalLog(remark, evaluationContext, throwable) :
+                .log(doEvalLog(auditLog.value(), plan.getLogExpression(), evaluationContext, throwable))
+                .remark(StringUtils.hasLength(auditLog.remark()) ? doEvalLog(auditLog.remark(), plan.getRemarkExpression(), evaluationContext, throwable) :
                         (String) variables.get(AUDIT_LOG_REMARK_ATTRIBUTE_NAME))
                 .group(auditLog.group())
                 .type(auditLog.resourceType())
                 .operation(auditLog.operation())
-                .resourceId(evalResourceId(auditLog.resourceId(), evaluationContext))
-                .contextVariables(Collections.unmodifiableMap(variables))
+                .resourceId(evalResourceId(auditLog.resourceId(), plan.getResourceIdExpression(), evaluationContext))
+                .contextVariables(variables)
                 .throwable(throwable)
                 .build();
     }
 
+    private static AuditLogMethodPlan getMethodPlan(Method method) {
+        return METHOD_PLANS.computeIfAbsent(method, AuditLogMethodPlan::of);
+    }
+
+    private static boolean isEvalLogOverridden(Class<?> clazz) {
+        Method method = ReflectionUtils.findMethod(clazz, "evalLog", String.class, EvaluationContext.class, Throwable.class);
+        return method != null && method.getDeclaringClass() != ScriptAuditLogRecorder.class;
+    }
+
+    private String doEvalLog(String expression, @Nullable Expression parsedExpression, EvaluationContext context, @Nullable Throwable throwable) {
+        return evalLogOverridden ? evalLog(expression, context, throwable) : evalLog(expression, parsedExpression, context, throwable);
+    }
+
     protected String evalLog(String expression, EvaluationContext context, Throwable throwable) {
+        return evalLog(expression, null, context, throwable);
+    }
+
+    /**
+     * 计算日志内容
+     *
+     * @param expression       日志模板表达式
+     * @param parsedExpression 预解析的表达式，为空时使用 expression 求值
+     * @param context          求值上下文
+     * @param throwable        执行抛出的异常，没有则为空
+     * @return 日志内容
+     */
+    protected String evalLog(String expression, @Nullable Expression parsedExpression, EvaluationContext context, @Nullable Throwable throwable) {
         if (throwable == null) {
             try {
-                return SpringExpressionEvaluator.TEMPLATE.eval(expression, context);
+                return parsedExpression == null ? SpringExpressionEvaluator.TEMPLATE.eval(expression, context) :
+                        SpringExpressionEvaluator.TEMPLATE.eval(parsedExpression, context);
             } catch (Exception exception) {
                 log.error("eval audit log error, expression = {}", expression, exception);
                 return WindConstants.EMPTY;
@@ -129,10 +198,11 @@ public class ScriptAuditLogRecorder {
     }
 
     @Nullable
-    private Object evalResourceId(String expression, EvaluationContext evaluationContext) {
+    private Object evalResourceId(String expression, @Nullable Expression parsedExpression, EvaluationContext evaluationContext) {
         if (StringUtils.hasLength(expression)) {
             try {
-                return SpringExpressionEvaluator.DEFAULT.eval(expression, evaluationContext);
+                return parsedExpression == null ? SpringExpressionEvaluator.DEFAULT.eval(expression, evaluationContext) :
+                        SpringExpressionEvaluator.DEFAULT.eval(parsedExpression, evaluationContext);
             } catch (Exception exception) {
                 log.error("eval resource id error, expression = {}", expression, exception);
             }
@@ -140,34 +210,6 @@ public class ScriptAuditLogRecorder {
         return null;
     }
 
-    /**
-     * @param arguments         请求参数
-     * @param methodReturnValue 方法执行结果
-     * @param parameters        执行方法的参数类型列表
-     * @return spring expression 执行上下文
-     */
-    private Map<String, Object> buildEvaluationVariables(Object[] arguments, Object methodReturnValue, Parameter[] parameters) {
-        Map<String, Object> result = new HashMap<>(contextVariablesSupplier.get());
-        if (ObjectUtils.isEmpty(arguments)) {
-            return result;
-        }
-        // 填充请求参数
-        int length = parameters.length;
-        for (int i = 0; i < length; i++) {
-            Parameter parameter = parameters[i];
-            String name = getParameterName(parameter);
-            result.put(name, arguments[i]);
-        }
-        result.put(ARGS_VARIABLE_NAME, arguments);
-
-        // 填充方法执行结果
-        if (methodReturnValue != null) {
-            result.put(RESULT_VARIABLE_NAME, methodReturnValue);
-            result.put(RESULT_RESOLVE_VARIABLE_NAME, resolveMethodReturnValue(methodReturnValue));
-        }
-        return result;
-    }
-
     /**
      * 在控制层有统一响应对象时，可以重载改方法返回真正需要的返回值
      *
@@ -179,21 +221,38 @@ public class ScriptAuditLogRecorder {
     }
 
     /**
-     * 获取参数的真实名称
-     *
-     * @param parameter 方法参数对象
-     * @return 参数的名称
+     * @return 异步模式下队列中等待处理的日志数量
+     */
+    public int getPendingCount() {
+        return asyncDispatcher == null ? 0 : asyncDispatcher.getQueueDepth();
+    }
+
+    /**
+     * 关闭异步日志分发，队列中剩余的日志会在关闭前写入
      */
-    private String getParameterName(Parameter parameter) {
-        Method method = (Method) parameter.getDeclaringExecutable();
-        int index = Arrays.asList(method.getParameters()).indexOf(parameter);
-        try {
-            return Objects.requireNonNull(PARAMETER_NAME_DISCOVERER.getParameterNames(method))[index];
-        } catch (Exception e) {
-            log.warn("获取方法{}的参数名称列表失败：{}", method, e.getMessage(), e);
+    @Override
+    public void close() {
+        if (asyncDispatcher != null) {
+            asyncDispatcher.close();
         }
-        return parameter.getName();
     }
 
+    /**
+     * 从 {@link AuditLogEvaluationVariables} 中查找变量的执行上下文，表达式中主动设置的变量优先
+     */
+    private static final class AuditLogEvaluationContext extends StandardEvaluationContext {
 
+        private final Map<String, Object> variables;
+
+        private AuditLogEvaluationContext(Map<String, Object> variables) {
+            this.variables = variables;
+        }
+
+        @Override
+        @Nullable
+        public Object lookupVariable(String name) {
+            Object result = super.lookupVariable(name);
+            return result == null ? variables.get(name) : result;
+        }
+    }
 }
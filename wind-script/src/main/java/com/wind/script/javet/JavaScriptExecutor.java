@@ -6,6 +6,9 @@ import com.caoccao.javet.exceptions.JavetException;
 import com.caoccao.javet.interop.V8Host;
 import com.caoccao.javet.interop.V8Runtime;
 import com.caoccao.javet.interop.callback.JavetCallbackContext;
+import com.caoccao.javet.utils.JavetResourceUtils;
+import com.caoccao.javet.values.V8Value;
+import com.caoccao.javet.values.reference.V8ValueFunction;
 import com.caoccao.javet.values.reference.V8ValueObject;
 import com.wind.common.annotations.VisibleForTesting;
 import com.wind.common.exception.AssertUtils;
@@ -17,6 +20,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.jspecify.annotations.Nullable;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
@@ -55,6 +59,11 @@ public final class JavaScriptExecutor {
     @VisibleForTesting
     static final AtomicReference<String> POLYFILL_JS = new AtomicReference<>();
 
+    /**
+     * 预热的 V8 Runtime 池，未配置时每次执行都创建一次性的 Runtime
+     */
+    private static final AtomicReference<JavaScriptRuntimePool> RUNTIME_POOL = new AtomicReference<>();
+
     private JavaScriptExecutor() {
         throw new AssertionError();
     }
@@ -77,21 +86,110 @@ public final class JavaScriptExecutor {
      * @return js 方法执行结果 Map、List 、字符串、数字、布尔值
      */
     public static <T> T executeFunctionSupportJavaUseClosure(String functionCode, JsExecJavaMethodInvoker invoker, Object... args) {
+        return executeFunction(functionCode, invoker, RUNTIME_POOL.get(), args);
+    }
+
+    /**
+     * 使用一次性 V8 Runtime 执行 js 函数，不受 {@link #configureRuntimePool(JavaScriptRuntimePool)} 影响
+     * 适用于对全局状态隔离敏感的脚本
+     *
+     * @param functionCode js 函数代码
+     * @param invoker      JsExecJavaInvoker 对象
+     * @param args         js 函数参数
+     * @return js 方法执行结果 Map、List 、字符串、数字、布尔值
+     */
+    public static <T> T executeFunctionIsolatedUseClosure(String functionCode, @Nullable JsExecJavaMethodInvoker invoker, Object... args) {
+        return executeFunction(functionCode, invoker, null, args);
+    }
+
+    private static <T> T executeFunction(String functionCode, @Nullable JsExecJavaMethodInvoker invoker, @Nullable JavaScriptRuntimePool pool,
+                                         Object[] args) {
         try {
-            return executJavaScript(functionCode, invoker, args);
+            String code = buildClosureCode(functionCode, args);
+            if (pool == null) {
+                return executJavaScript(code, invoker);
+            }
+            return pool.execute(v8 -> executeInRuntime(v8, code, invoker));
         } catch (Exception e) {
-            if (e instanceof JavetException exception) {
-                // 转换 js 脚本执行异常的 message
-                String message = e.getMessage();
-                // 剪切掉错误消息的前缀
-                message = message != null && message.startsWith(JS_ERROR_PREFIX) ? message.substring(JS_ERROR_PREFIX.length()) : message;
-                throw new BaseException(DefaultExceptionCode.COMMON_ERROR, message, exception);
+            throw translateException(e);
+        }
+    }
+
+    /**
+     * 执行预编译的 js 函数，参数直接转换为 V8 值传递
+     *
+     * @param function 函数句柄
+     * @param invoker  JsExecJavaInvoker 对象
+     * @param args     js 函数参数
+     * @return js 方法执行结果 Map、List 、字符串、数字、布尔值
+     */
+    static <T> T executeCompiledFunction(JavaScriptFunction function, @Nullable JsExecJavaMethodInvoker invoker, Object[] args) {
+        JavaScriptRuntimePool pool = RUNTIME_POOL.get();
+        try {
+            Object[] values = toJsValues(args);
+            if (pool == null) {
+                try (V8Runtime v8 = createPreparedRuntime(); V8ValueFunction v8Function = compileFunction(v8, function.getCode())) {
+                    registerJsExecJavaInvoker(v8, invoker);
+                    return v8Function.callObject(null, values);
+                }
+            }
+            return pool.executePooled(runtime -> {
+                registerJsExecJavaInvoker(runtime.getV8(), invoker);
+                return runtime.getFunction(function).callObject(null, values);
+            });
+        } catch (Exception e) {
+            throw translateException(e);
+        }
+    }
+
+    /**
+     * 编译 js 函数
+     *
+     * @param v8           V8 Runtime
+     * @param functionCode js 函数代码
+     * @return V8 函数引用，由调用者负责关闭
+     */
+    static V8ValueFunction compileFunction(V8Runtime v8, String functionCode) throws JavetException {
+        V8Value result = v8.getExecutor("(" + functionCode + ")").execute();
+        if (result instanceof V8ValueFunction function) {
+            return function;
+        }
+        JavetResourceUtils.safeClose(result);
+        throw BaseException.common("javascript code is not a function: " + functionCode);
+    }
+
+    /**
+     * 将 java 参数转换为可以被 Javet 直接转换为 V8 值的对象（基本类型、字符串、Map、List）
+     */
+    private static Object[] toJsValues(Object[] args) {
+        Object[] result = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null || arg instanceof CharSequence || ClassUtils.isPrimitiveOrWrapper(arg.getClass())) {
+                result[i] = arg instanceof CharSequence text ? text.toString() : arg;
+            } else {
+                // 转换为 JSONObject、JSONArray 结构，不经过字符串序列化
+                result[i] = JSON.toJSON(arg);
             }
-            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "execute js error", e);
         }
+        return result;
     }
 
-    private static <T> T executJavaScript(String functionCode, JsExecJavaMethodInvoker invoker, Object[] args) throws JavetException {
+    private static BaseException translateException(Exception e) {
+        if (e instanceof BaseException exception) {
+            return exception;
+        }
+        if (e instanceof JavetException exception) {
+            // 转换 js 脚本执行异常的 message
+            String message = e.getMessage();
+            // 剪切掉错误消息的前缀
+            message = message != null && message.startsWith(JS_ERROR_PREFIX) ? message.substring(JS_ERROR_PREFIX.length()) : message;
+            return new BaseException(DefaultExceptionCode.COMMON_ERROR, message, exception);
+        }
+        return new BaseException(DefaultExceptionCode.COMMON_ERROR, "execute js error", e);
+    }
+
+    private static String buildClosureCode(String functionCode, Object[] args) {
         StringBuilder code = new StringBuilder();
         code.append('(').append(functionCode).append(')').append('(');
         for (Object o : args) {
@@ -106,15 +204,42 @@ public final class JavaScriptExecutor {
             code.deleteCharAt(code.length() - 1);
         }
         code.append(')');
+        return code.toString();
+    }
+
+    private static <T> T executJavaScript(String code, @Nullable JsExecJavaMethodInvoker invoker) throws JavetException {
         // 避免多线程执行出错，@see ：https://github.com/eclipsesource/J2V8/issues/330
-        try (V8Runtime v8 = V8Host.getV8Instance().createV8Runtime()) {
-            executeScript(v8, POLYFILL_JS.get());
-            // 加载 js lib
-            for (String js : JS_LIB_SCRIPTS) {
-                executeScript(v8, js);
+        try (V8Runtime v8 = createPreparedRuntime()) {
+            return executeInRuntime(v8, code, invoker);
+        }
+    }
+
+    private static <T> T executeInRuntime(V8Runtime v8, String code, @Nullable JsExecJavaMethodInvoker invoker) throws JavetException {
+        registerJsExecJavaInvoker(v8, invoker);
+        return v8.getExecutor(code).executeObject();
+    }
+
+    /**
+     * 创建已加载 polyfill 和 js lib 的 V8 Runtime
+     *
+     * @return V8 Runtime，由调用者负责关闭
+     */
+    static V8Runtime createPreparedRuntime() {
+        try {
+            V8Runtime result = V8Host.getV8Instance().createV8Runtime();
+            try {
+                executeScript(result, POLYFILL_JS.get());
+                // 加载 js lib
+                for (String js : JS_LIB_SCRIPTS) {
+                    executeScript(result, js);
+                }
+                return result;
+            } catch (JavetException exception) {
+                result.close();
+                throw exception;
             }
-            registerJsExecJavaInvoker(v8, invoker);
-            return v8.getExecutor(code.toString()).executeObject();
+        } catch (JavetException exception) {
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "create v8 runtime failure", exception);
         }
     }
 
@@ -149,10 +274,32 @@ public final class JavaScriptExecutor {
     @Nullable
     private static <T> T executeFunctionAndParseResult(String functionCode, Type type, Object... args) {
         Object result = executeFunctionUseClosure(functionCode, args);
+        return convertResult(result, type);
+    }
+
+    /**
+     * 转换 js 执行结果，类型匹配或数值类型时直接转换，其它情况（例如：java bean）使用 {@link TypeUtils#cast(Object, Type)}
+     *
+     * @param result js 执行结果
+     * @param type   目标类型
+     * @return 转换后的结果
+     */
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> T convertResult(@Nullable Object result, Type type) {
         if (result == null) {
             // TypeUtils#cast 对于基本数据类型在 result 为 null 时会返回默认值，所以这里提前返回
             return null;
         }
+        if (type instanceof Class<?> clazz) {
+            Class<?> targetClass = ClassUtils.resolvePrimitiveIfNecessary(clazz);
+            if (targetClass.isInstance(result)) {
+                return (T) result;
+            }
+            if (result instanceof Number number && Number.class.isAssignableFrom(targetClass)) {
+                return (T) NumberUtils.convertNumberToTargetClass(number, (Class) targetClass);
+            }
+        }
         return TypeUtils.cast(result, type);
     }
 
@@ -191,4 +338,18 @@ public final class JavaScriptExecutor {
     public static void configure(String polyfillJs) {
         POLYFILL_JS.set(polyfillJs);
     }
+
+    /**
+     * 配置预热的 V8 Runtime 池，配置后 {@link #executeFunctionSupportJavaUseClosure(String, JsExecJavaMethodInvoker, Object...)}
+     * 等方法将从池中借用 Runtime 执行，传入 null 则恢复为每次执行创建一次性 Runtime
+     * 注意：需要在 {@link #configure(String)} 之后配置，已创建的 Runtime 不会重新加载 polyfill
+     *
+     * @param pool Runtime 池
+     */
+    public static void configureRuntimePool(@Nullable JavaScriptRuntimePool pool) {
+        JavaScriptRuntimePool previous = RUNTIME_POOL.getAndSet(pool);
+        if (previous != null && previous != pool) {
+            previous.close();
+        }
+    }
 }
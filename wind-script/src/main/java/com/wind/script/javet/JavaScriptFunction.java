@@ -0,0 +1,88 @@
+package com.wind.script.javet;
+
+import com.wind.common.exception.AssertUtils;
+import jakarta.validation.constraints.NotBlank;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预编译的 js 函数句柄，同一个函数代码在每个池化的 V8 Runtime 中只会编译一次
+ * 参数以 V8 原生值传递，不会再拼接成 js 源码，需要配合 {@link JavaScriptExecutor#configureRuntimePool(JavaScriptRuntimePool)} 使用，
+ * 未配置 Runtime 池时每次调用都会在一次性 Runtime 中编译执行
+ * example:
+ * <code>
+ * JavaScriptFunction function = JavaScriptFunction.compile("function(a,b){return a + b}");
+ * int result = function.call(Integer.class, 1, 2);
+ * </code>
+ *
+ * @author wuxp
+ * @date 2026-10-17 14:20
+ **/
+public final class JavaScriptFunction {
+
+    /**
+     * js 函数代码
+     */
+    private final String code;
+
+    /**
+     * 函数代码摘要，用于缓存已编译的函数
+     */
+    private final String key;
+
+    private JavaScriptFunction(String code) {
+        this.code = code;
+        this.key = DigestUtils.md5DigestAsHex(code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 创建 js 函数句柄，建议调用方持有该对象重复使用
+     *
+     * @param functionCode js 函数代码
+     * @return 函数句柄
+     */
+    public static JavaScriptFunction compile(@NotBlank String functionCode) {
+        AssertUtils.hasText(functionCode, "argument functionCode must not empty");
+        return new JavaScriptFunction(functionCode);
+    }
+
+    /**
+     * @param args js 函数参数
+     * @return js 方法执行结果 Map、List 、字符串、数字、布尔值
+     */
+    @Nullable
+    public <T> T call(Object... args) {
+        return JavaScriptExecutor.executeCompiledFunction(this, null, args);
+    }
+
+    /**
+     * @param invoker JsExecJavaInvoker 对象
+     * @param args    js 函数参数
+     * @return js 方法执行结果 Map、List 、字符串、数字、布尔值
+     */
+    @Nullable
+    public <T> T callSupportJava(@Nullable JsExecJavaMethodInvoker invoker, Object... args) {
+        return JavaScriptExecutor.executeCompiledFunction(this, invoker, args);
+    }
+
+    @Nullable
+    public <T> T call(Class<T> clazz, Object... args) {
+        return JavaScriptExecutor.convertResult(call(args), clazz);
+    }
+
+    @Nullable
+    public <T> T call(ParameterizedTypeReference<T> type, Object... args) {
+        return JavaScriptExecutor.convertResult(call(args), type.getType());
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,419 @@
+package com.wind.script.javet;
+
+import com.caoccao.javet.exceptions.JavetCompilationException;
+import com.caoccao.javet.exceptions.JavetException;
+import com.caoccao.javet.exceptions.JavetExecutionException;
+import com.caoccao.javet.interop.V8Runtime;
+import com.caoccao.javet.utils.JavetResourceUtils;
+import com.caoccao.javet.values.reference.V8ValueFunction;
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.common.exception.DefaultExceptionCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.constraints.NotBlank;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预热的 V8 Runtime 池，polyfill 与 js lib 只在 Runtime 创建时加载一次
+ * 每次归还时会清理执行期间新增的全局变量，Runtime 使用次数超过 {@link #maxUses} 后会被销毁重建
+ * 注意：js 内置对象原型（例如：Array.prototype）上的修改无法被清理，对隔离性敏感的场景请使用一次性 Runtime 执行
+ *
+ * @author wuxp
+ * @date 2026-10-17 10:12
+ **/
+@Slf4j
+public final class JavaScriptRuntimePool implements AutoCloseable {
+
+    private static final String METRIC_NAME_PREFIX = "wind.script.javet.pool";
+
+    /**
+     * 记录预热完成时的全局变量，并注册一个不可删除的全局清理函数
+     */
+    private static final String SNAPSHOT_GLOBALS_SCRIPT = """
+            (() => {
+              const name = '__windResetGlobals';
+              const baseline = new Set(Object.getOwnPropertyNames(globalThis));
+              baseline.add(name);
+              Object.defineProperty(globalThis, name, {
+                value: () => {
+                  for (const key of Object.getOwnPropertyNames(globalThis)) {
+                    if (!baseline.has(key)) {
+                      try { delete globalThis[key]; } catch (e) {}
+                    }
+                  }
+                },
+                writable: false, configurable: false, enumerable: false
+              });
+            })();
+            """;
+
+    private static final String RESET_GLOBALS_SCRIPT = "__windResetGlobals()";
+
+    private final String name;
+
+    private final int maxSize;
+
+    /**
+     * 单个 Runtime 最大使用次数，超过后销毁重建
+     */
+    private final int maxUses;
+
+    /**
+     * 借用 Runtime 的最大等待时间
+     */
+    private final Duration borrowTimeout;
+
+    /**
+     * 单个 Runtime 缓存的已编译函数数量上限
+     */
+    private final int maxCachedFunctions;
+
+    private final LinkedBlockingDeque<PooledRuntime> idleRuntimes;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger activeCount = new AtomicInteger(0);
+
+    private final AtomicInteger totalCount = new AtomicInteger(0);
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final Counter createdCounter;
+
+    private final Counter recycledCounter;
+
+    private final Counter timeoutCounter;
+
+    private final Timer borrowTimer;
+
+    /**
+     * 注册到 {@link Metrics#globalRegistry} 的指标，关闭时移除
+     */
+    private final List<Meter> meters = new ArrayList<>();
+
+    private JavaScriptRuntimePool(PoolBuilder builder) {
+        this.name = builder.name;
+        this.maxSize = builder.maxSize;
+        this.maxUses = builder.maxUses;
+        this.borrowTimeout = builder.borrowTimeout;
+        this.maxCachedFunctions = builder.maxCachedFunctions;
+        this.idleRuntimes = new LinkedBlockingDeque<>(maxSize);
+        this.permits = new Semaphore(maxSize, true);
+        Tags tags = Tags.of("pool", name);
+        this.createdCounter = addMeter(Counter.builder(METRIC_NAME_PREFIX + ".created").tags(tags).register(Metrics.globalRegistry));
+        this.recycledCounter = addMeter(Counter.builder(METRIC_NAME_PREFIX + ".recycled").tags(tags).register(Metrics.globalRegistry));
+        this.timeoutCounter = addMeter(Counter.builder(METRIC_NAME_PREFIX + ".borrow.timeout").tags(tags).register(Metrics.globalRegistry));
+        this.borrowTimer = addMeter(Timer.builder(METRIC_NAME_PREFIX + ".borrow.wait").tags(tags).register(Metrics.globalRegistry));
+        addMeter(Gauge.builder(METRIC_NAME_PREFIX + ".active", activeCount, AtomicInteger::get).tags(tags).register(Metrics.globalRegistry));
+        addMeter(Gauge.builder(METRIC_NAME_PREFIX + ".idle", idleRuntimes, LinkedBlockingDeque::size).tags(tags).register(Metrics.globalRegistry));
+        addMeter(Gauge.builder(METRIC_NAME_PREFIX + ".total", totalCount, AtomicInteger::get).tags(tags).register(Metrics.globalRegistry));
+        for (int i = 0; i < builder.minIdle; i++) {
+            idleRuntimes.offer(createRuntime());
+        }
+    }
+
+    private <M extends Meter> M addMeter(M meter) {
+        meters.add(meter);
+        return meter;
+    }
+
+    /**
+     * 借用一个 Runtime 执行回调，执行完成后自动归还
+     *
+     * @param callback 执行回调
+     * @return 执行结果
+     */
+    public <T> T execute(RuntimeCallback<T> callback) throws JavetException {
+        return executePooled(runtime -> callback.doInRuntime(runtime.v8));
+    }
+
+    <T> T executePooled(PooledRuntimeCallback<T> callback) throws JavetException {
+        PooledRuntime runtime = borrow();
+        boolean broken = true;
+        try {
+            T result = callback.doInRuntime(runtime);
+            broken = false;
+            return result;
+        } catch (JavetCompilationException | JavetExecutionException exception) {
+            // js 脚本编译或执行异常不影响 Runtime 本身，可以继续复用
+            broken = false;
+            throw exception;
+        } finally {
+            release(runtime, broken);
+        }
+    }
+
+    private PooledRuntime borrow() {
+        AssertUtils.state(!closed.get(), () -> BaseException.common("javascript runtime pool: " + name + " is closed"));
+        long begin = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                timeoutCounter.increment();
+                throw new BaseException(DefaultExceptionCode.TO_MANY_REQUESTS, "borrow javascript runtime timeout, pool = " + name);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "borrow javascript runtime interrupted", exception);
+        }
+        borrowTimer.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+        try {
+            PooledRuntime result = idleRuntimes.pollFirst();
+            if (result == null) {
+                result = createRuntime();
+            }
+            activeCount.incrementAndGet();
+            return result;
+        } catch (RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+    }
+
+    private void release(PooledRuntime runtime, boolean broken) {
+        activeCount.decrementAndGet();
+        try {
+            if (broken || ++runtime.uses >= maxUses || closed.get() || !resetGlobals(runtime)) {
+                destroy(runtime);
+            } else {
+                // 后进先出，尽量复用热的 Runtime
+                idleRuntimes.offerFirst(runtime);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetGlobals(PooledRuntime runtime) {
+        try {
+            runtime.v8.getExecutor(RESET_GLOBALS_SCRIPT).executeVoid();
+            return true;
+        } catch (JavetException exception) {
+            log.warn("reset javascript runtime globals failure, pool = {}", name, exception);
+            return false;
+        }
+    }
+
+    private PooledRuntime createRuntime() {
+        V8Runtime v8 = JavaScriptExecutor.createPreparedRuntime();
+        try {
+            v8.getExecutor(SNAPSHOT_GLOBALS_SCRIPT).executeVoid();
+        } catch (JavetException exception) {
+            closeQuietly(v8);
+            throw new BaseException(DefaultExceptionCode.COMMON_ERROR, "create javascript runtime failure", exception);
+        }
+        totalCount.incrementAndGet();
+        createdCounter.increment();
+        return new PooledRuntime(v8, maxCachedFunctions);
+    }
+
+    private void destroy(PooledRuntime runtime) {
+        totalCount.decrementAndGet();
+        recycledCounter.increment();
+        runtime.clearFunctions();
+        closeQuietly(runtime.v8);
+    }
+
+    private void closeQuietly(V8Runtime v8) {
+        try {
+            v8.close();
+        } catch (JavetException exception) {
+            log.warn("close javascript runtime failure, pool = {}", name, exception);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 正在使用中的 Runtime 数量
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * @return 空闲的 Runtime 数量
+     */
+    public int getIdleCount() {
+        return idleRuntimes.size();
+    }
+
+    /**
+     * @return 已创建且未销毁的 Runtime 数量
+     */
+    public int getTotalCount() {
+        return totalCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            PooledRuntime runtime;
+            while ((runtime = idleRuntimes.pollFirst()) != null) {
+                destroy(runtime);
+            }
+            meters.forEach(Metrics.globalRegistry::remove);
+            meters.clear();
+        }
+    }
+
+    /**
+     * 创建 Runtime 池构建器
+     *
+     * @param name 池名称，用于 metrics 标签
+     * @return 构建器
+     */
+    public static PoolBuilder named(@NotBlank String name) {
+        AssertUtils.hasText(name, "argument name must not empty");
+        PoolBuilder result = new PoolBuilder();
+        result.name = name;
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface RuntimeCallback<T> {
+
+        T doInRuntime(V8Runtime v8) throws JavetException;
+    }
+
+    @FunctionalInterface
+    interface PooledRuntimeCallback<T> {
+
+        T doInRuntime(PooledRuntime runtime) throws JavetException;
+    }
+
+    /**
+     * 池化的 Runtime，同一时刻只会被一个线程持有，内部状态无需同步
+     */
+    static final class PooledRuntime {
+
+        private final V8Runtime v8;
+
+        /**
+         * 已编译的函数引用，按最近使用淘汰
+         */
+        private final Map<String, V8ValueFunction> functions;
+
+        private int uses;
+
+        private PooledRuntime(V8Runtime v8, int maxCachedFunctions) {
+            this.v8 = v8;
+            this.functions = new LinkedHashMap<>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, V8ValueFunction> eldest) {
+                    if (size() > maxCachedFunctions) {
+                        JavetResourceUtils.safeClose(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        V8Runtime getV8() {
+            return v8;
+        }
+
+        /**
+         * 获取当前 Runtime 中已编译的函数，不存在则编译并缓存
+         *
+         * @param function 函数句柄
+         * @return V8 函数引用，由 Runtime 负责关闭
+         */
+        V8ValueFunction getFunction(JavaScriptFunction function) throws JavetException {
+            V8ValueFunction result = functions.get(function.getKey());
+            if (result == null) {
+                result = JavaScriptExecutor.compileFunction(v8, function.getCode());
+                functions.put(function.getKey(), result);
+            }
+            return result;
+        }
+
+        private void clearFunctions() {
+            for (V8ValueFunction function : functions.values()) {
+                JavetResourceUtils.safeClose(function);
+            }
+            functions.clear();
+        }
+    }
+
+    /**
+     * Runtime 池构建器
+     */
+    public static class PoolBuilder {
+
+        private String name;
+
+        private int maxSize = Runtime.getRuntime().availableProcessors();
+
+        private int minIdle = 0;
+
+        private int maxUses = 10000;
+
+        private Duration borrowTimeout = Duration.ofSeconds(3);
+
+        private int maxCachedFunctions = 256;
+
+        private PoolBuilder() {
+        }
+
+        public PoolBuilder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param minIdle 创建时预热的 Runtime 数量
+         */
+        public PoolBuilder minIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public PoolBuilder maxUses(int maxUses) {
+            this.maxUses = maxUses;
+            return this;
+        }
+
+        public PoolBuilder borrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+            return this;
+        }
+
+        public PoolBuilder maxCachedFunctions(int maxCachedFunctions) {
+            this.maxCachedFunctions = maxCachedFunctions;
+            return this;
+        }
+
+        public JavaScriptRuntimePool build() {
+            AssertUtils.isTrue(maxSize > 0, "argument maxSize must greater than 0");
+            AssertUtils.isTrue(minIdle >= 0 && minIdle <= maxSize, "argument minIdle must between 0 and maxSize");
+            AssertUtils.isTrue(maxUses > 0, "argument maxUses must greater than 0");
+            AssertUtils.notNull(borrowTimeout, "argument borrowTimeout must not null");
+            AssertUtils.isTrue(maxCachedFunctions > 0, "argument maxCachedFunctions must greater than 0");
+            return new JavaScriptRuntimePool(this);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.wind.script.spring;
+
+import com.wind.common.WindConstants;
+import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
+import com.wind.script.expression.ExpressionDescriptor;
+import com.wind.script.expression.LogicalOp;
+import com.wind.script.expression.Op;
+import com.wind.script.expression.Operand;
+import com.wind.script.expression.OperandType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 将 {@link ExpressionDescriptor} 直接编译为 java 谓词，对多行数据批量求值
+ * 与 {@link SpringExpressionGenerator} 生成的表达式语义一致，但不经过 spring expression 字符串的生成与解析，
+ * 只有 {@link OperandType#EXPRESSION} 类型中引用了变量的操作数和 {@link Op#GLOBAL_METHOD} 操作会回退到 spring expression 执行
+ * 每一行数据可以是变量 Map，也可以是 java bean（变量名对应 bean 的属性）
+ *
+ * @author wuxp
+ * @date 2026-10-17 18:02
+ **/
+public final class ExpressionDescriptorBatchEvaluator {
+
+    private static final String METRIC_NAME_PREFIX = "wind.script.expression.batch";
+
+    /**
+     * 默认超过该行数时并行求值
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * 并行求值时单个任务处理的行数
+     */
+    private static final int SEQUENTIAL_CHUNK_SIZE = 1024;
+
+    private static final Timer SEQUENTIAL_TIMER = Timer.builder(METRIC_NAME_PREFIX + ".duration").tag("parallel", "false").register(Metrics.globalRegistry);
+
+    private static final Timer PARALLEL_TIMER = Timer.builder(METRIC_NAME_PREFIX + ".duration").tag("parallel", "true").register(Metrics.globalRegistry);
+
+    private static final DistributionSummary ROWS_SUMMARY = DistributionSummary.builder(METRIC_NAME_PREFIX + ".rows").register(Metrics.globalRegistry);
+
+    private final Predicate<Object> predicate;
+
+    private final int parallelThreshold;
+
+    private ExpressionDescriptorBatchEvaluator(Predicate<Object> predicate, int parallelThreshold) {
+        this.predicate = predicate;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * 编译条件表达式描述
+     *
+     * @param descriptor 条件表达式描述
+     * @return 批量求值器
+     */
+    public static ExpressionDescriptorBatchEvaluator compile(ExpressionDescriptor descriptor) {
+        return compile(descriptor, null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 编译条件表达式描述
+     *
+     * @param descriptor        条件表达式描述
+     * @param rootObject        回退到 spring expression 执行时的 root 对象，用于 {@link Op#GLOBAL_METHOD}
+     * @param parallelThreshold 超过该行数时使用 fork-join 并行求值，小于等于 0 表示不并行
+     * @return 批量求值器
+     */
+    public static ExpressionDescriptorBatchEvaluator compile(ExpressionDescriptor descriptor, @Nullable Object rootObject, int parallelThreshold) {
+        AssertUtils.notNull(descriptor, "argument descriptor must not null");
+        return new ExpressionDescriptorBatchEvaluator(new DescriptorCompiler(rootObject).compile(descriptor), parallelThreshold);
+    }
+
+    /**
+     * 对单行数据求值
+     *
+     * @param row 变量 Map 或 java bean
+     * @return 表达式结果
+     */
+    public boolean test(Object row) {
+        return predicate.test(row);
+    }
+
+    /**
+     * 对多行数据批量求值
+     *
+     * @param rows 变量 Map 或 java bean 列表
+     * @return 每一行的求值结果，与 rows 下标对应
+     */
+    public boolean[] evaluate(List<?> rows) {
+        AssertUtils.notNull(rows, "argument rows must not null");
+        boolean[] result = new boolean[rows.size()];
+        boolean parallel = parallelThreshold > 0 && rows.size() >= parallelThreshold;
+        long begin = System.nanoTime();
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new EvaluateTask(rows, result, 0, rows.size()));
+        } else {
+            evaluateRange(rows, result, 0, rows.size());
+        }
+        (parallel ? PARALLEL_TIMER : SEQUENTIAL_TIMER).record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+        ROWS_SUMMARY.record(rows.size());
+        return result;
+    }
+
+    /**
+     * @param rows 变量 Map 或 java bean 流
+     * @return 每一行的求值结果
+     */
+    public boolean[] evaluate(Stream<?> rows) {
+        return evaluate(rows.toList());
+    }
+
+    /**
+     * 过滤出满足条件的数据
+     *
+     * @param rows 变量 Map 或 java bean 列表
+     * @return 满足条件的行
+     */
+    public <T> List<T> filter(List<T> rows) {
+        boolean[] matches = evaluate(rows);
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i]) {
+                result.add(rows.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void evaluateRange(List<?> rows, boolean[] result, int from, int to) {
+        for (int i = from; i < to; i++) {
+            result[i] = predicate.test(rows.get(i));
+        }
+    }
+
+    private final class EvaluateTask extends RecursiveAction {
+
+        private final transient List<?> rows;
+
+        private final boolean[] result;
+
+        private final int from;
+
+        private final int to;
+
+        private EvaluateTask(List<?> rows, boolean[] result, int from, int to) {
+            this.rows = rows;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_CHUNK_SIZE) {
+                evaluateRange(rows, result, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(rows, result, from, middle), new EvaluateTask(rows, result, middle, to));
+        }
+    }
+
+    /**
+     * 将描述树编译为谓词，父节点条件与子节点使用父节点的逻辑运算符连接
+     */
+    private record DescriptorCompiler(@Nullable Object rootObject) {
+
+        private Predicate<Object> compile(ExpressionDescriptor descriptor) {
+            List<Predicate<Object>> predicates = new ArrayList<>();
+            if (descriptor.getLeft() != null || descriptor.getRight() != null) {
+                predicates.add(compileCondition(descriptor));
+            }
+            if (!ObjectUtils.isEmpty(descriptor.getChildren())) {
+                for (ExpressionDescriptor child : descriptor.getChildren()) {
+                    predicates.add(compile(child));
+                }
+            }
+            AssertUtils.notEmpty(predicates, "expression descriptor must not empty");
+            if (predicates.size() == 1) {
+                return predicates.getFirst();
+            }
+            @SuppressWarnings("unchecked")
+            Predicate<Object>[] array = predicates.toArray(new Predicate[0]);
+            if (descriptor.getConjunctions() == LogicalOp.OR) {
+                return row -> {
+                    for (Predicate<Object> item : array) {
+                        if (item.test(row)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            }
+            return row -> {
+                for (Predicate<Object> item : array) {
+                    if (!item.test(row)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        private Predicate<Object> compileCondition(ExpressionDescriptor descriptor) {
+            Op op = descriptor.getOp();
+            AssertUtils.notNull(op, "操作运算符不能为 null");
+            AssertUtils.notNull(descriptor.getLeft(), "左操作数不能为 null");
+            if (op == Op.GLOBAL_METHOD) {
+                ExpressionDescriptor condition = new ExpressionDescriptor();
+                condition.setOp(op);
+                condition.setLeft(descriptor.getLeft());
+                condition.setRight(descriptor.getRight());
+                Function<Object, Object> expression = compileExpression(SpringExpressionGenerator.generate(condition));
+                return row -> Boolean.TRUE.equals(expression.apply(row));
+            }
+            Function<Object, Object> left = compileOperand(descriptor.getLeft());
+            if (op == Op.IS_NULL) {
+                return row -> left.apply(row) == null;
+            }
+            if (op == Op.NOT_NULL) {
+                return row -> left.apply(row) != null;
+            }
+            AssertUtils.notNull(descriptor.getRight(), "右操作数不能为 null");
+            Function<Object, Object> right = compileOperand(descriptor.getRight());
+            return switch (op) {
+                case EQ -> row -> valueEquals(left.apply(row), right.apply(row));
+                case NOT_EQ -> row -> !valueEquals(left.apply(row), right.apply(row));
+                case GT -> row -> compareValues(left.apply(row), right.apply(row)) > 0;
+                case LT -> row -> compareValues(left.apply(row), right.apply(row)) < 0;
+                case GE -> row -> compareValues(left.apply(row), right.apply(row)) >= 0;
+                case LE -> row -> compareValues(left.apply(row), right.apply(row)) <= 0;
+                case CONTAINS -> row -> SpringExpressionOperators.contains(left.apply(row), right.apply(row));
+                case NOT_CONTAINS -> row -> !SpringExpressionOperators.contains(left.apply(row), right.apply(row));
+                case IN_RANG -> row -> SpringExpressionOperators.inRange(left.apply(row), right.apply(row));
+                case NOT_IN_RANG -> row -> !SpringExpressionOperators.inRange(left.apply(row), right.apply(row));
+                default -> throw BaseException.common("unsupported op: " + op);
+            };
+        }
+
+        private Function<Object, Object> compileOperand(Operand operand) {
+            Object value = operand.getValue();
+            AssertUtils.notNull(value, "操作数的值不能为 null");
+            if (operand.getType() == OperandType.VARIABLE) {
+                return compileVariable(String.valueOf(value));
+            }
+            if (operand.getType() == OperandType.EXPRESSION && value instanceof String text) {
+                AssertUtils.isTrue(!text.startsWith(WindConstants.AT), "不允许使用 @ 开头，访问 spring context bean 对象");
+                if (text.contains(WindConstants.SHARP)) {
+                    // 引用了变量的表达式，逐行执行
+                    return compileExpression(text);
+                }
+                // 不引用变量的表达式（例如字面量）只执行一次
+                Object constant = SpringExpressionEvaluator.DEFAULT.eval(text);
+                return row -> constant;
+            }
+            Object constant = value.getClass().isArray() && !value.getClass().getComponentType().isPrimitive() ? Arrays.asList((Object[]) value) : value;
+            return row -> constant;
+        }
+
+        /**
+         * 编译变量访问路径，支持 name、a.b、tags['key']、list[0] 格式，其它格式回退到 spring expression
+         */
+        private Function<Object, Object> compileVariable(String path) {
+            List<Object> segments = parseVariablePath(path);
+            if (segments == null) {
+                return compileExpression(WindConstants.SHARP + path);
+            }
+            Object[] array = segments.toArray();
+            return row -> {
+                Object result = row;
+                for (Object segment : array) {
+                    if (result == null) {
+                        return null;
+                    }
+                    result = readSegment(result, segment);
+                }
+                return result;
+            };
+        }
+
+        private Function<Object, Object> compileExpression(String expression) {
+            Expression parsed = SpringExpressionEvaluator.DEFAULT.parse(expression);
+            return row -> SpringExpressionEvaluator.DEFAULT.eval(parsed, new RowEvaluationContext(rootObject, row));
+        }
+    }
+
+    /**
+     * 解析变量访问路径
+     *
+     * @param path 变量路径
+     * @return 路径片段，字符串表示属性或 Map key，整数表示下标，无法解析时返回 null
+     */
+    @Nullable
+    static List<Object> parseVariablePath(String path) {
+        List<Object> result = new ArrayList<>();
+        int length = path.length();
+        int index = 0;
+        while (index < length) {
+            char c = path.charAt(index);
+            if (c == '[') {
+                int end = path.indexOf(']', index);
+                if (end < 0) {
+                    return null;
+                }
+                String key = path.substring(index + 1, end).trim();
+                if (key.length() >= 2 && (key.charAt(0) == '\'' || key.charAt(0) == '"') && key.charAt(key.length() - 1) == key.charAt(0)) {
+                    result.add(key.substring(1, key.length() - 1));
+                } else if (!key.isEmpty() && key.chars().allMatch(Character::isDigit)) {
+                    result.add(Integer.parseInt(key));
+                } else {
+                    return null;
+                }
+                index = end + 1;
+            } else if (c == '.') {
+                index++;
+            } else {
+                int end = index;
+                while (end < length && Character.isJavaIdentifierPart(path.charAt(end))) {
+                    end++;
+                }
+                if (end == index) {
+                    return null;
+                }
+                result.add(path.substring(index, end));
+                index = end;
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    @Nullable
+    private static Object readSegment(Object target, Object segment) {
+        if (target instanceof Map<?, ?> map) {
+            return map.get(segment);
+        }
+        if (segment instanceof Integer index) {
+            if (target instanceof List<?> list) {
+                return index < list.size() ? list.get(index) : null;
+            }
+            if (target.getClass().isArray()) {
+                return index < Array.getLength(target) ? Array.get(target, index) : null;
+            }
+            if (target instanceof Collection<?> collection) {
+                return collection.stream().skip(index).findFirst().orElse(null);
+            }
+        }
+        return readProperty(target, String.valueOf(segment));
+    }
+
+    @Nullable
+    private static Object readProperty(Object target, String name) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(target.getClass(), name);
+        Method method = descriptor == null ? null : descriptor.getReadMethod();
+        AssertUtils.notNull(method, () -> "not found property: " + name + " in class: " + target.getClass().getName());
+        ReflectionUtils.makeAccessible(method);
+        return ReflectionUtils.invokeMethod(method, target);
+    }
+
+    /**
+     * 与 spring expression == 运算符一致：数值按值比较，同类型 Comparable 使用 compareTo
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean valueEquals(@Nullable Object left, @Nullable Object right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        if (left instanceof Number l && right instanceof Number r) {
+            return compareNumbers(l, r) == 0;
+        }
+        if (left instanceof Comparable comparable && left.getClass() == right.getClass()) {
+            return comparable.compareTo(right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    /**
+     * 与 spring expression 的 StandardTypeComparator 一致：null 小于任何值
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(@Nullable Object left, @Nullable Object right) {
+        if (left == null) {
+            return right == null ? 0 : -1;
+        }
+        if (right == null) {
+            return 1;
+        }
+        if (left instanceof Number l && right instanceof Number r) {
+            return compareNumbers(l, r);
+        }
+        if (left instanceof Comparable comparable && left.getClass().isInstance(right)) {
+            return comparable.compareTo(right);
+        }
+        throw BaseException.common("cannot compare type: " + left.getClass().getName() + " and " + right.getClass().getName());
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (left instanceof BigDecimal || right instanceof BigDecimal || left instanceof BigInteger || right instanceof BigInteger) {
+            return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * 从当前行数据中查找变量的执行上下文
+     */
+    private static final class RowEvaluationContext extends StandardEvaluationContext {
+
+        private final Object row;
+
+        private RowEvaluationContext(@Nullable Object rootObject, Object row) {
+            super(rootObject);
+            this.row = row;
+        }
+
+        @Override
+        @Nullable
+        public Object lookupVariable(String name) {
+            Object result = super.lookupVariable(name);
+            if (result != null) {
+                return result;
+            }
+            if (row instanceof Map<?, ?> map) {
+                return map.get(name);
+            }
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(row.getClass(), name);
+            return descriptor == null || descriptor.getReadMethod() == null ? null : readProperty(row, name);
+        }
+    }
+}
@@ -10,26 +10,35 @@ import org.jspecify.annotations.Nullable;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.MethodResolver;
 import org.springframework.expression.ParserContext;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 快捷执行 spring expression 支持
  * {@link #TEMPLATE} 模板字符串解析支持
+ * {@link #COMPILED} 编译模式，适用于高频执行的少量固定表达式
  *
+ * @param context      模板解析上下文，为空表示普通表达式
+ * @param compilerMode spring expression 编译模式，{@link SpelCompilerMode#OFF} 表示解释执行
  * @author wuxp
  * @docs https://docs.spring.io/spring-framework/reference/core/expressions.html
  * @date 2023-09-23 10:07
  **/
 @Slf4j
-public record SpringExpressionEvaluator(@Nullable ParserContext context) {
+public record SpringExpressionEvaluator(@Nullable ParserContext context, SpelCompilerMode compilerMode) {
 
     private static final AtomicBoolean SECURITY_MODE = new AtomicBoolean(true);
 
@@ -37,6 +46,35 @@ public record SpringExpressionEvaluator(@Nullable ParserContext context) {
 
     private static final ExpressionParser PARSER = new SpelExpressionParser();
 
+    /**
+     * 各编译模式的解析器
+     */
+    private static final Map<SpelCompilerMode, ExpressionParser> COMPILED_PARSERS = new EnumMap<>(SpelCompilerMode.class);
+
+    static {
+        ClassLoader classLoader = SpringExpressionEvaluator.class.getClassLoader();
+        for (SpelCompilerMode mode : SpelCompilerMode.values()) {
+            COMPILED_PARSERS.put(mode, new SpelExpressionParser(new SpelParserConfiguration(mode, classLoader)));
+        }
+    }
+
+    /**
+     * 编译模式下的 spring expression 缓存，与解释模式的缓存隔离
+     *
+     * @key 表达式内容、解析上下文、编译模式
+     * @value 解析后的表达执行对象及执行统计
+     */
+    private static final Cache<@NonNull CompiledExpressionKey, CompiledExpression> COMPILED_EXPRESSION_CACHES = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .initialCapacity(200)
+            .maximumSize(2000)
+            .build();
+
+    /**
+     * 安全模式下的执行上下文模板，创建执行上下文时复制其中的解析器配置
+     */
+    private static final AtomicReference<StandardEvaluationContext> SECURITY_CONTEXT_TEMPLATE = new AtomicReference<>();
+
     /**
      * spring expression 缓存
      *
@@ -61,6 +99,24 @@ public record SpringExpressionEvaluator(@Nullable ParserContext context) {
      */
     public static final SpringExpressionEvaluator TEMPLATE = new SpringExpressionEvaluator(TEMPLATE_PARSER_CONTEXT);
 
+    /**
+     * 编译模式（{@link SpelCompilerMode#MIXED}），表达式执行一定次数后编译为字节码，编译失败时回退到解释执行
+     */
+    public static final SpringExpressionEvaluator COMPILED = new SpringExpressionEvaluator(null, SpelCompilerMode.MIXED);
+
+    /**
+     * 编译模式（{@link SpelCompilerMode#MIXED}）的模板字符串解析
+     */
+    public static final SpringExpressionEvaluator COMPILED_TEMPLATE = new SpringExpressionEvaluator(TEMPLATE_PARSER_CONTEXT, SpelCompilerMode.MIXED);
+
+    public SpringExpressionEvaluator(@Nullable ParserContext context) {
+        this(context, SpelCompilerMode.OFF);
+    }
+
+    public SpringExpressionEvaluator {
+        AssertUtils.notNull(compilerMode, "argument compilerMode must not null");
+    }
+
     /**
      * @param expression spring 表达式
      * @return 执行结果
@@ -92,7 +148,10 @@ public record SpringExpressionEvaluator(@Nullable ParserContext context) {
      */
     @Nullable
     public <T> T eval(String expression, EvaluationContext evaluationContext, Class<T> desiredResultType) {
-        return parseExpression(expression).getValue(wrapperSecurityContext(evaluationContext), desiredResultType);
+        if (compilerMode == SpelCompilerMode.OFF) {
+            return parseExpression(expression).getValue(wrapperSecurityContext(evaluationContext), desiredResultType);
+        }
+        return evaluate(getCompiledExpression(expression), evaluationContext, desiredResultType);
     }
 
     /**
@@ -119,8 +178,52 @@ public record SpringExpressionEvaluator(@Nullable ParserContext context) {
         return eval(expression, createEvaluationContext(variables), desiredResultType);
     }
 
+    /**
+     * 解析 spring expression，解析结果会被缓存，适用于需要重复执行同一表达式的场景
+     *
+     * @param expression spring 表达式
+     * @return 解析后的表达式对象
+     */
+    public Expression parse(String expression) {
+        return parseExpression(expression);
+    }
+
+    /**
+     * 执行已解析的 spring expression 表达式
+     *
+     * @param expression        已解析的表达式
+     * @param evaluationContext 执行上下文
+     * @return 执行结果
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T eval(Expression expression, EvaluationContext evaluationContext) {
+        if (compilerMode != SpelCompilerMode.OFF) {
+            CompiledExpressionKey key = new CompiledExpressionKey(expression.getExpressionString(), context, compilerMode);
+            CompiledExpression compiled = COMPILED_EXPRESSION_CACHES.getIfPresent(key);
+            if (compiled != null && compiled.expression() == expression) {
+                return (T) evaluate(compiled, evaluationContext, Object.class);
+            }
+        }
+        // 非编译模式或非当前求值器解析（已被淘汰）的表达式，不记录执行统计
+        return (T) expression.getValue(wrapperSecurityContext(evaluationContext));
+    }
+
+    @Nullable
+    private static <T> T evaluate(CompiledExpression compiled, EvaluationContext evaluationContext, Class<T> desiredResultType) {
+        long begin = System.nanoTime();
+        try {
+            return compiled.expression().getValue(wrapperSecurityContext(evaluationContext), desiredResultType);
+        } finally {
+            compiled.metrics().recordEvaluation(System.nanoTime() - begin);
+        }
+    }
+
     private Expression parseExpression(String expression) {
         AssertUtils.hasText(expression, "argument expression must not empty");
+        if (compilerMode != SpelCompilerMode.OFF) {
+            return getCompiledExpression(expression).expression();
+        }
         if (context == null) {
             return EXPRESSION_CACHES.get(expression, PARSER::parseExpression);
         } else {
@@ -129,21 +232,84 @@ public record SpringExpressionEvaluator(@Nullable ParserContext context) {
         }
     }
 
+    private CompiledExpression getCompiledExpression(String expression) {
+        AssertUtils.hasText(expression, "argument expression must not empty");
+        CompiledExpressionKey key = new CompiledExpressionKey(expression, context, compilerMode);
+        CompiledExpression result = COMPILED_EXPRESSION_CACHES.getIfPresent(key);
+        if (result == null) {
+            return COMPILED_EXPRESSION_CACHES.get(key, CompiledExpressionKey::parse);
+        }
+        result.metrics().recordHit();
+        return result;
+    }
+
+    /**
+     * 获取编译模式下表达式的执行统计
+     *
+     * @param expression spring 表达式
+     * @return 执行统计，表达式未被执行过时返回 null
+     */
+    @Nullable
+    public SpringExpressionMetrics getMetrics(String expression) {
+        CompiledExpression result = COMPILED_EXPRESSION_CACHES.getIfPresent(new CompiledExpressionKey(expression, context, compilerMode));
+        return result == null ? null : result.metrics();
+    }
+
+    /**
+     * @return 编译模式下所有缓存表达式的执行统计
+     */
+    public static List<SpringExpressionMetrics> getAllMetrics() {
+        return COMPILED_EXPRESSION_CACHES.asMap().values().stream().map(CompiledExpression::metrics).toList();
+    }
+
     @NonNull
     private static EvaluationContext createEvaluationContext(Map<String, Object> variables) {
         StandardEvaluationContext result = new StandardEvaluationContext();
+        if (SECURITY_MODE.get()) {
+            // 从模板复制解析器配置，避免每次创建解析器
+            getSecurityContextTemplate().applyDelegatesTo(result);
+        }
         variables.forEach(result::setVariable);
-        return wrapperSecurityContext(result);
+        return result;
+    }
+
+    private static StandardEvaluationContext getSecurityContextTemplate() {
+        WindSecurityReflectiveMethodResolver resolver = WindSecurityReflectiveMethodResolver.shared();
+        StandardEvaluationContext result = SECURITY_CONTEXT_TEMPLATE.get();
+        if (result == null || result.getMethodResolvers().getFirst() != resolver) {
+            // 安全类名变更后重建模板
+            result = new StandardEvaluationContext();
+            result.setMethodResolvers(List.of(resolver));
+            SECURITY_CONTEXT_TEMPLATE.set(result);
+        }
+        return result;
     }
 
     private static EvaluationContext wrapperSecurityContext(EvaluationContext context) {
         if (SECURITY_MODE.get()) {
-            context.getMethodResolvers().clear();
-            context.getMethodResolvers().add(new WindSecurityReflectiveMethodResolver());
+            WindSecurityReflectiveMethodResolver resolver = WindSecurityReflectiveMethodResolver.shared();
+            List<MethodResolver> resolvers = context.getMethodResolvers();
+            if (resolvers.size() != 1 || resolvers.getFirst() != resolver) {
+                resolvers.clear();
+                resolvers.add(resolver);
+            }
         }
         return context;
     }
 
+    private record CompiledExpressionKey(String expression, @Nullable ParserContext context, SpelCompilerMode compilerMode) {
+
+        private CompiledExpression parse() {
+            long begin = System.nanoTime();
+            ExpressionParser parser = COMPILED_PARSERS.get(compilerMode);
+            Expression result = context == null ? parser.parseExpression(expression) : parser.parseExpression(expression, context);
+            return new CompiledExpression(result, new SpringExpressionMetrics(expression, compilerMode, System.nanoTime() - begin));
+        }
+    }
+
+    private record CompiledExpression(Expression expression, SpringExpressionMetrics metrics) {
+    }
+
     /**
      * 开启安全模式
      *
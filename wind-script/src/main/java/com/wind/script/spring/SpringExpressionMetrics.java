@@ -0,0 +1,94 @@
+package com.wind.script.spring;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 编译模式下单个 spring expression 的执行统计
+ *
+ * @author wuxp
+ * @date 2026-10-17 17:05
+ **/
+public final class SpringExpressionMetrics {
+
+    /**
+     * 表达式内容
+     */
+    private final String expression;
+
+    private final SpelCompilerMode compilerMode;
+
+    /**
+     * 解析表达式耗时，不包含编译为字节码的耗时（编译在执行达到阈值时发生，计入当次执行耗时）
+     */
+    private final long parseNanos;
+
+    /**
+     * 缓存命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * 执行次数
+     */
+    private final LongAdder evaluations = new LongAdder();
+
+    /**
+     * 累计执行耗时
+     */
+    private final LongAdder evaluationNanos = new LongAdder();
+
+    SpringExpressionMetrics(String expression, SpelCompilerMode compilerMode, long parseNanos) {
+        this.expression = expression;
+        this.compilerMode = compilerMode;
+        this.parseNanos = parseNanos;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordEvaluation(long nanos) {
+        evaluations.increment();
+        evaluationNanos.add(nanos);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public SpelCompilerMode getCompilerMode() {
+        return compilerMode;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getEvaluationNanos() {
+        return evaluationNanos.sum();
+    }
+
+    /**
+     * @return 平均执行耗时（纳秒）
+     */
+    public long getAverageEvaluationNanos() {
+        long count = evaluations.sum();
+        return count == 0 ? 0 : evaluationNanos.sum() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "SpringExpressionMetrics{expression='" + expression + "', compilerMode=" + compilerMode + ", parseNanos=" + parseNanos
+                + ", hits=" + getHits() + ", evaluations=" + getEvaluations() + ", averageEvaluationNanos=" + getAverageEvaluationNanos() + '}';
+    }
+}
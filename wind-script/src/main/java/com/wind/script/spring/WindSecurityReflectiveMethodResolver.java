@@ -8,6 +8,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 限制 spring 调用方法的范围
@@ -51,6 +52,11 @@ public final class WindSecurityReflectiveMethodResolver extends ReflectiveMethod
 
     private static final Set<String> SAFE_CLASSNAMES = new HashSet<>();
 
+    /**
+     * 共享的解析器实例，安全类名变更时重建
+     */
+    private static final AtomicReference<WindSecurityReflectiveMethodResolver> SHARED = new AtomicReference<>();
+
     private final Set<String> packages;
 
     public WindSecurityReflectiveMethodResolver() {
@@ -82,11 +88,29 @@ public final class WindSecurityReflectiveMethodResolver extends ReflectiveMethod
         return result;
     }
 
+    /**
+     * 获取共享的解析器实例，解析器本身无状态，可以在多个执行上下文中复用
+     *
+     * @return 方法解析器
+     */
+    public static WindSecurityReflectiveMethodResolver shared() {
+        WindSecurityReflectiveMethodResolver result = SHARED.get();
+        if (result == null) {
+            result = new WindSecurityReflectiveMethodResolver();
+            if (!SHARED.compareAndSet(null, result)) {
+                return shared();
+            }
+        }
+        return result;
+    }
+
     public static void addSafeClassNames(String... classNames) {
         SAFE_CLASSNAMES.addAll(Arrays.asList(classNames));
+        SHARED.set(null);
     }
 
     public static void removeSafeClassNames(String... classNames) {
         Arrays.asList(classNames).forEach(SAFE_CLASSNAMES::remove);
+        SHARED.set(null);
     }
 }
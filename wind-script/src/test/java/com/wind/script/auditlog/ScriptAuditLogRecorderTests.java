@@ -3,12 +3,19 @@ package com.wind.script.auditlog;
 import com.wind.common.exception.BaseException;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.jspecify.annotations.Nullable;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
@@ -32,6 +39,21 @@ class ScriptAuditLogRecorderTests {
         Assertions.assertEquals("用户", content.getGroup());
     }
 
+    @Test
+    void testEvalLogContentVariables() {
+        User user = exampleService.getUser("张三", "hhh", 22);
+        Object[] args = {"张三", "hhh", 22};
+        for (int i = 0; i < 2; i++) {
+            // 第二次执行使用缓存的执行计划
+            AuditLogContent content = logAspectRecorder.buildLogContent(args, user, getUserMethod, null);
+            Assertions.assertEquals("hhh", content.getRemark());
+            Assertions.assertEquals("张三", content.getContextVariable("name"));
+            Assertions.assertSame(args, content.getContextVariable("args"));
+            Assertions.assertSame(user, content.getContextVariable("result"));
+            Assertions.assertEquals(6, content.getContextVariables().size());
+        }
+    }
+
     @Test
     void testEvalLogContentWithNoneAnnotation() {
         AuditLogContent result = logAspectRecorder.buildLogContent(new Object[]{}, null, testMethod, null);
@@ -55,6 +77,52 @@ class ScriptAuditLogRecorderTests {
         Assertions.assertEquals(errorMessage, throwable.getMessage());
     }
 
+    @Test
+    void testAsyncBatchRecordLog() {
+        List<AuditLogContent> contents = new CopyOnWriteArrayList<>();
+        BatchAuditLogRecorder recorder = contents::addAll;
+        AuditLogAsyncOptions options = AuditLogAsyncOptions.builder()
+                .batchSize(8)
+                .flushInterval(Duration.ofMillis(20))
+                .overflowPolicy(AuditLogOverflowPolicy.CALLER_RUNS)
+                .build();
+        try (ScriptAuditLogRecorder asyncRecorder = new ScriptAuditLogRecorder(recorder, Collections::emptyMap, options)) {
+            for (int i = 0; i < 20; i++) {
+                asyncRecorder.recordLog(new Object[]{"张三", "hhh", i}, exampleService.getUser("张三", "hhh", i), getUserMethod, null);
+            }
+            asyncRecorder.recordLog(new Object[]{}, null, testMethod, null);
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> contents.size() == 20);
+            Assertions.assertEquals(0, asyncRecorder.getPendingCount());
+        }
+        Assertions.assertEquals("获取用户 张三，p1 = hhh , p2 = 0", contents.get(0).getLog());
+    }
+
+    @Test
+    void testEvalLogOverride() {
+        ScriptAuditLogRecorder legacyRecorder = new SimpleScriptAuditLogRecorder() {
+
+            @Override
+            protected String evalLog(String expression, EvaluationContext context, Throwable throwable) {
+                return "legacy:" + super.evalLog(expression, context, throwable);
+            }
+        };
+        User user = exampleService.getUser("张三", "hhh", 22);
+        AuditLogContent content = legacyRecorder.buildLogContent(new Object[]{"张三", "hhh", 22}, user, getUserMethod, null);
+        Assertions.assertEquals("legacy:获取用户 张三，p1 = hhh , p2 = 22", content.getLog());
+        Assertions.assertEquals("legacy:hhh", content.getRemark());
+
+        ScriptAuditLogRecorder parsedRecorder = new SimpleScriptAuditLogRecorder() {
+
+            @Override
+            protected String evalLog(String expression, @Nullable Expression parsedExpression, EvaluationContext context, @Nullable Throwable throwable) {
+                Assertions.assertNotNull(parsedExpression);
+                return "parsed:" + super.evalLog(expression, parsedExpression, context, throwable);
+            }
+        };
+        content = parsedRecorder.buildLogContent(new Object[]{"张三", "hhh", 22}, user, getUserMethod, null);
+        Assertions.assertEquals("parsed:获取用户 张三，p1 = hhh , p2 = 22", content.getLog());
+    }
+
     static class SimpleScriptAuditLogRecorder extends ScriptAuditLogRecorder {
 
         private static final AtomicReference<AuditLogContent> AUDIT_LOG_CONTENT = new AtomicReference<>();
@@ -2,6 +2,7 @@ package com.wind.script.javet;
 
 import com.alibaba.fastjson2.JSON;
 import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.Metrics;
 import lombok.Data;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -206,4 +207,62 @@ class JavaScriptExecutorTests {
         String result = JavaScriptExecutor.executeFunctionUseClosure(functionCode);
         Assertions.assertEquals("1,2", result);
     }
+
+    @Test
+    void testExecuteUseRuntimePool() {
+        JavaScriptRuntimePool pool = JavaScriptRuntimePool.named("test").maxSize(2).minIdle(1).maxUses(3).build();
+        JavaScriptExecutor.configureRuntimePool(pool);
+        try {
+            Assertions.assertEquals(1, pool.getTotalCount());
+            int result = JavaScriptExecutor.executeFunctionUseClosure("function test(){globalThis.leak = 1; return 1}");
+            Assertions.assertEquals(1, result);
+            // 全局变量在归还时被清理
+            Assertions.assertEquals("undefined", JavaScriptExecutor.executeFunctionUseClosure("function test(){return typeof leak}"));
+            Assertions.assertEquals("2022-04-15", JavaScriptExecutor.executeFunctionUseClosure("function test(){return moment('2022-04-15').format('YYYY-MM-DD')}"));
+            Assertions.assertThrows(Exception.class, () -> JavaScriptExecutor.executeFunctionUseClosure("function test(){throw new Error('test error')}"));
+            Assertions.assertEquals(0, pool.getActiveCount());
+            Assertions.assertTrue(pool.getTotalCount() <= pool.getMaxSize());
+        } finally {
+            JavaScriptExecutor.configureRuntimePool(null);
+        }
+        Assertions.assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testRuntimePoolRemoveMetersOnClose() {
+        JavaScriptRuntimePool pool = JavaScriptRuntimePool.named("test-meters").maxSize(1).build();
+        Assertions.assertNotNull(Metrics.globalRegistry.find("wind.script.javet.pool.active").tag("pool", "test-meters").gauge());
+        pool.close();
+        Assertions.assertTrue(Metrics.globalRegistry.find("wind.script.javet.pool.active").tag("pool", "test-meters").meters().isEmpty());
+        Assertions.assertTrue(Metrics.globalRegistry.find("wind.script.javet.pool.created").tag("pool", "test-meters").meters().isEmpty());
+    }
+
+    @Test
+    void testExecuteIsolatedUseClosure() {
+        int result = JavaScriptExecutor.executeFunctionIsolatedUseClosure("function test(a,b){return a + b}", null, 1, 2);
+        Assertions.assertEquals(3, result);
+    }
+
+    @Test
+    void testCompiledFunction() {
+        JavaScriptFunction function = JavaScriptFunction.compile("function test(user, num){return {name: user.name + '_' + num, age: user.age}}");
+        UserDemo user = new UserDemo();
+        user.setName("张三");
+        user.setAge("22");
+        UserDemo result = function.call(UserDemo.class, user, 1);
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals("张三_1", result.getName());
+        JavaScriptExecutor.configureRuntimePool(JavaScriptRuntimePool.named("test-compiled").maxSize(1).build());
+        try {
+            for (int i = 0; i < 3; i++) {
+                Map<String, Object> map = function.call(user, i);
+                Assertions.assertEquals("张三_" + i, map.get("name"));
+            }
+            JavaScriptFunction add = JavaScriptFunction.compile("function(a,b){return a + b}");
+            Assertions.assertEquals(3L, add.call(Long.class, 1, 2));
+            Assertions.assertEquals("ab", add.call(String.class, "a", "b"));
+        } finally {
+            JavaScriptExecutor.configureRuntimePool(null);
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.wind.script.spring;
+
+import com.alibaba.fastjson2.JSON;
+import com.wind.script.expression.ExpressionDescriptor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ResourceUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author wuxp
+ * @date 2026-10-17 18:30
+ **/
+class ExpressionDescriptorBatchEvaluatorTests {
+
+    private static final String[] NAMES = {"张三", "李四"};
+
+    private static final String[] ENVS = {"dev", "sit", "prod"};
+
+    private static final String[] CITIES = {"杭州", "上海", "北京"};
+
+    private ExpressionDescriptor descriptor;
+
+    @BeforeEach
+    void setup() throws Exception {
+        URI filepath = ResourceUtils.getURL("classpath:conditional-nodes.json").toURI();
+        String json = IOUtils.toString(Files.newInputStream(Paths.get(filepath)), StandardCharsets.UTF_8);
+        descriptor = JSON.parseObject(json, ExpressionDescriptor.class);
+    }
+
+    @Test
+    void testEvaluateSameAsSpringExpression() {
+        List<Map<String, Object>> rows = mockRows(2000);
+        Expression expression = new SpelExpressionParser().parseExpression(SpringExpressionGenerator.generate(descriptor));
+        boolean[] result = ExpressionDescriptorBatchEvaluator.compile(descriptor).evaluate(rows);
+        Assertions.assertEquals(rows.size(), result.length);
+        for (int i = 0; i < rows.size(); i++) {
+            StandardEvaluationContext context = new StandardEvaluationContext();
+            context.setVariables(rows.get(i));
+            Assertions.assertEquals(expression.getValue(context, Boolean.class), result[i], () -> JSON.toJSONString(context));
+        }
+    }
+
+    @Test
+    void testParallelEvaluate() {
+        List<Map<String, Object>> rows = mockRows(10000);
+        boolean[] expected = ExpressionDescriptorBatchEvaluator.compile(descriptor, null, 0).evaluate(rows);
+        boolean[] actual = ExpressionDescriptorBatchEvaluator.compile(descriptor, null, 1000).evaluate(rows.stream());
+        Assertions.assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testEvaluateBeans() {
+        ExpressionDescriptorBatchEvaluator evaluator = ExpressionDescriptorBatchEvaluator.compile(descriptor);
+        List<ExampleRow> rows = List.of(
+                new ExampleRow("张三", "dev", 26, "北京", Map.of("example", "demo")),
+                new ExampleRow("李四", "dev", 26, "北京", Map.of("example", "demo")),
+                new ExampleRow("张三", "prod", 26, "北京", Map.of("example", "demo"))
+        );
+        Assertions.assertEquals(List.of(rows.getFirst()), evaluator.filter(rows));
+    }
+
+    @Test
+    void testParseVariablePath() {
+        Assertions.assertEquals(List.of("tags", "example"), ExpressionDescriptorBatchEvaluator.parseVariablePath("tags['example']"));
+        Assertions.assertEquals(List.of("user", "roles", 0), ExpressionDescriptorBatchEvaluator.parseVariablePath("user.roles[0]"));
+        Assertions.assertNull(ExpressionDescriptorBatchEvaluator.parseVariablePath("name.length()"));
+    }
+
+    private static List<Map<String, Object>> mockRows(int size) {
+        Random random = new Random(17);
+        List<Map<String, Object>> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", NAMES[random.nextInt(NAMES.length)]);
+            row.put("env", ENVS[random.nextInt(ENVS.length)]);
+            row.put("age", random.nextInt(60));
+            row.put("city", CITIES[random.nextInt(CITIES.length)]);
+            row.put("tags", Map.of("example", random.nextBoolean() ? "demo" : "test"));
+            result.add(row);
+        }
+        return result;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class ExampleRow {
+
+        private String name;
+
+        private String env;
+
+        private Integer age;
+
+        private String city;
+
+        private Map<String, String> tags;
+    }
+}
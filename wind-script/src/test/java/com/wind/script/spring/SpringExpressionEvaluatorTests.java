@@ -5,6 +5,7 @@ import com.wind.common.exception.BaseException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.common.TemplateParserContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
@@ -80,6 +81,39 @@ class SpringExpressionEvaluatorTests {
         SpringExpressionEvaluator.setSecurityMode(true);
     }
 
+    @Test
+    void testCompiledMode() {
+        Map<String, Object> variables = ImmutableMap.of("id", 2, "name", "张三");
+        String expression = "#id * 10 + 1";
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(21, (Integer) SpringExpressionEvaluator.COMPILED.eval(expression, variables));
+        }
+        Assertions.assertEquals("name=张三", SpringExpressionEvaluator.COMPILED_TEMPLATE.eval("name={#name}", variables));
+        SpringExpressionMetrics metrics = SpringExpressionEvaluator.COMPILED.getMetrics(expression);
+        Assertions.assertNotNull(metrics);
+        Assertions.assertEquals(200, metrics.getEvaluations());
+        Assertions.assertEquals(199, metrics.getHits());
+        // 不同解析上下文的缓存互不影响
+        Assertions.assertNull(SpringExpressionEvaluator.COMPILED_TEMPLATE.getMetrics(expression));
+        String rce = "T(java.lang.Runtime).getRuntime().exec('ls')";
+        BaseException exception = Assertions.assertThrows(BaseException.class, () -> SpringExpressionEvaluator.COMPILED.eval(rce));
+        Assertions.assertEquals("不允许调用 class name = java.lang.Runtime 的方法", exception.getMessage());
+    }
+
+    @Test
+    void testCompiledModeParsedExpressionMetrics() {
+        String expression = "#id * 100 + 7";
+        Expression parsed = SpringExpressionEvaluator.COMPILED.parse(expression);
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("id", 3);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(307, (Integer) SpringExpressionEvaluator.COMPILED.eval(parsed, context));
+        }
+        SpringExpressionMetrics metrics = SpringExpressionEvaluator.COMPILED.getMetrics(expression);
+        Assertions.assertNotNull(metrics);
+        Assertions.assertEquals(3, metrics.getEvaluations());
+    }
+
     public static class ExampleObject {
 
         public String render(String text) {
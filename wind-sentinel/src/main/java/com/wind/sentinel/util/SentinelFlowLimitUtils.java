@@ -5,6 +5,7 @@ import com.alibaba.csp.sentinel.SphU;
 import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.wind.common.exception.AssertUtils;
 import com.wind.common.exception.BaseException;
 import com.wind.common.exception.DefaultExceptionCode;
 import com.wind.sentinel.SentinelResource;
@@ -52,8 +53,9 @@ public final class SentinelFlowLimitUtils {
         ContextUtil.enter(resource.getContextName(), resource.getOrigin());
         Entry entry = null;
         Throwable throwable = null;
+        Object[] args = getArgs(resource);
         try {
-            entry = SphU.entry(resource.getName(), resource.getResourceType(), resource.getEntryType(), getArgs(resource));
+            entry = SphU.entry(resource.getName(), resource.getResourceType(), resource.getEntryType(), args);
             return func.get();
         } catch (Throwable exception) {
             throwable = exception;
@@ -65,7 +67,7 @@ public final class SentinelFlowLimitUtils {
                 throw new BaseException(DefaultExceptionCode.COMMON_ERROR, exception.getMessage(), exception);
             }
         } finally {
-            exit(entry, throwable);
+            exit(entry, 1, args, throwable);
         }
     }
 
@@ -76,9 +78,28 @@ public final class SentinelFlowLimitUtils {
      * @return 流控后置处理函数
      */
     public static Consumer<Throwable> limit(SentinelResource resource) throws BlockException {
+        return limit(resource, 1);
+    }
+
+    /**
+     * 资源流控，一次获取 batchCount 个令牌，用于批量处理（例如批量消费消息）
+     *
+     * @param resource   限流资源
+     * @param batchCount 批量数量
+     * @return 流控后置处理函数
+     */
+    public static Consumer<Throwable> limit(SentinelResource resource, int batchCount) throws BlockException {
+        AssertUtils.isTrue(batchCount > 0, "argument batchCount must greater than 0");
         ContextUtil.enter(resource.getContextName(), resource.getOrigin());
-        Entry entry = SphU.entry(resource.getName(), resource.getResourceType(), resource.getEntryType(), getArgs(resource));
-        return throwable -> exit(entry, throwable);
+        Entry entry;
+        Object[] args = getArgs(resource);
+        try {
+            entry = SphU.entry(resource.getName(), resource.getResourceType(), resource.getEntryType(), batchCount, args);
+        } catch (BlockException exception) {
+            ContextUtil.exit();
+            throw exception;
+        }
+        return throwable -> exit(entry, batchCount, args, throwable);
     }
 
     private static Object[] getArgs(SentinelResource resource) {
@@ -89,12 +110,16 @@ public final class SentinelFlowLimitUtils {
         return args.toArray(new Object[0]);
     }
 
-    private static void exit(Entry entry, Throwable throwable) {
+    /**
+     * 退出资源，count 与 args 必须与获取 entry 时一致，否则 sentinel 的线程数、QPS 与热点参数统计会出现偏差
+     * 异常需要在 entry 退出之前记录
+     */
+    private static void exit(Entry entry, int count, Object[] args, Throwable throwable) {
         if (entry != null) {
-            entry.exit();
-        }
-        if (throwable != null) {
-            Tracer.traceEntry(throwable, entry);
+            if (throwable != null) {
+                Tracer.traceEntry(throwable, entry);
+            }
+            entry.exit(count, args);
         }
         ContextUtil.exit();
     }
@@ -2,6 +2,9 @@ package com.wind.sentinel.util;
 
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
@@ -14,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
+import java.util.List;
 
 /**
  * @author wuxp
@@ -24,7 +28,7 @@ class SentinelFlowLimitUtilsTests {
     @BeforeEach
     void setup() {
         ParamFlowRuleManager.loadRules(Collections.singletonList(paramLimitRule()));
-        FlowRuleManager.loadRules(Collections.singletonList(getLimitRule()));
+        FlowRuleManager.loadRules(List.of(getLimitRule("test"), getLimitRule("test_batch")));
     }
 
     @Test
@@ -83,6 +87,29 @@ class SentinelFlowLimitUtilsTests {
         Assertions.assertEquals("request to many", exception.getMessage());
     }
 
+    @Test
+    void testBatchLimit() throws Exception {
+        DefaultSentinelResource resource = buildResource("test_batch");
+        SentinelFlowLimitUtils.limit(resource, 2).accept(null);
+        Assertions.assertNull(ContextUtil.getContext());
+        Assertions.assertThrows(BlockException.class, () -> SentinelFlowLimitUtils.limit(resource, 1));
+        Assertions.assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    void testBatchLimitStatistics() throws Exception {
+        DefaultSentinelResource resource = buildResource("test_batch_statistics");
+        SentinelFlowLimitUtils.limit(resource, 5).accept(null);
+        SentinelFlowLimitUtils.limit(resource, 3).accept(new IllegalStateException("batch error"));
+        ClusterNode node = ClusterBuilderSlot.getClusterNode(resource.getName());
+        Assertions.assertNotNull(node);
+        Assertions.assertEquals(8, node.totalPass());
+        Assertions.assertEquals(8, node.totalSuccess());
+        Assertions.assertEquals(3, node.totalException());
+        Assertions.assertEquals(0, node.curThreadNum());
+        Assertions.assertNull(ContextUtil.getContext());
+    }
+
     private static DefaultSentinelResource buildResource(String name) {
         DefaultSentinelResource resource = new DefaultSentinelResource();
         resource.setName(name);
@@ -92,9 +119,9 @@ class SentinelFlowLimitUtilsTests {
         return resource;
     }
 
-    private FlowRule getLimitRule() {
+    private FlowRule getLimitRule(String name) {
         FlowRule result = new FlowRule();
-        result.setResource("test");
+        result.setResource(name);
         result.setCount(2);
         return result;
     }
@@ -30,9 +30,25 @@ public record NumericSequenceGenerator(Supplier<Long> counter, int length) imple
 
     @Override
     public String next() {
-        long seq = counter.get();
-        AssertUtils.isTrue(String.valueOf(seq).length() <= length, "sequence exceeds maximum length");
-        String format = "%0" + length + "d";
-        return String.format(format, seq);
+        return leftPad(counter.get(), length);
+    }
+
+    /**
+     * 序列号左侧补 0 到指定长度
+     *
+     * @param seq    序列号
+     * @param length 长度
+     * @return 序列号
+     */
+    public static String leftPad(long seq, int length) {
+        AssertUtils.isTrue(seq >= 0, "sequence must not be negative");
+        String text = Long.toString(seq);
+        AssertUtils.isTrue(text.length() <= length, "sequence exceeds maximum length");
+        if (text.length() == length) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(length);
+        result.repeat('0', length - text.length());
+        return result.append(text).toString();
     }
 }
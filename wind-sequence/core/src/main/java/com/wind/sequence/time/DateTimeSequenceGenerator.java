@@ -2,10 +2,8 @@ package com.wind.sequence.time;
 
 import com.wind.common.exception.AssertUtils;
 import com.wind.sequence.SequenceGenerator;
-import org.apache.commons.lang3.time.DateFormatUtils;
 
 import jakarta.validation.constraints.NotNull;
-import java.util.Date;
 
 /**
  * 按照时间隔离的序列号生成器
@@ -18,7 +16,7 @@ public record DateTimeSequenceGenerator(SequenceTimeScopeType timeScope, Sequenc
 
     @Override
     public String next() {
-        return String.format("%s%s", DateFormatUtils.format(new Date(), timeScope.getPattern()), generator.next());
+        return TemporalWindows.currentPrefix(timeScope) + generator.next();
     }
 
     /**
@@ -1,10 +1,12 @@
 package com.wind.sequence.time;
 
+import com.wind.common.exception.AssertUtils;
 import com.wind.sequence.NumericSequenceGenerator;
 import com.wind.sequence.SequenceGenerator;
 import com.wind.sequence.WindSequenceType;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -115,9 +117,14 @@ public final class TemporalSequenceFactory {
     }
 
     private static SequenceGenerator wrap(SequenceTimeScopeType scope, WindSequenceType sequenceType) {
-        NumericSequenceGenerator generator = new NumericSequenceGenerator(() -> COUNTER.get().apply(scope, sequenceType), sequenceType.length());
-        SequenceGenerator delegate = DateTimeSequenceGenerator.of(scope, generator);
-        return () -> sequenceType.getPrefix() + delegate.next();
+        return () -> {
+            BiFunction<SequenceTimeScopeType, WindSequenceType, Long> counter = COUNTER.get();
+            if (counter instanceof DefaultCounterSupplier supplier) {
+                return supplier.next(scope, sequenceType);
+            }
+            NumericSequenceGenerator generator = new NumericSequenceGenerator(() -> counter.apply(scope, sequenceType), sequenceType.length());
+            return sequenceType.getPrefix() + DateTimeSequenceGenerator.of(scope, generator).next();
+        };
     }
 
     /**
@@ -129,14 +136,129 @@ public final class TemporalSequenceFactory {
 
 
     // -------------------- 默认内存计数器 --------------------
+
+    /**
+     * 按时间窗口重置的内存计数器，时间前缀与计数来自同一个窗口
+     */
     private static class DefaultCounterSupplier implements BiFunction<SequenceTimeScopeType, WindSequenceType, Long> {
-        private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+        /**
+         * 按时间范围、序列号名称区分的计数器
+         */
+        private final Map<SequenceTimeScopeType, Map<String, WindowCounter>> counters = new EnumMap<>(SequenceTimeScopeType.class);
+
+        private DefaultCounterSupplier() {
+            for (SequenceTimeScopeType scope : SequenceTimeScopeType.values()) {
+                counters.put(scope, new ConcurrentHashMap<>());
+            }
+        }
 
         @Override
         public Long apply(SequenceTimeScopeType scopeType, WindSequenceType sequenceType) {
-            // 使用 scopeType + sequenceType 做唯一 key，避免冲突
-            String key = scopeType.name() + "@" + sequenceType.name();
-            return counters.computeIfAbsent(key, k -> new AtomicLong(0)).incrementAndGet();
+            return WindowCounter.count(increment(scopeType, sequenceType));
+        }
+
+        String next(SequenceTimeScopeType scopeType, WindSequenceType sequenceType) {
+            long state = increment(scopeType, sequenceType);
+            return sequenceType.getPrefix() + TemporalWindows.prefix(scopeType, WindowCounter.window(state)) +
+                    NumericSequenceGenerator.leftPad(WindowCounter.count(state), sequenceType.length());
+        }
+
+        private long increment(SequenceTimeScopeType scopeType, WindSequenceType sequenceType) {
+            Map<String, WindowCounter> scopeCounters = counters.get(scopeType);
+            long window = TemporalWindows.currentWindow(scopeType);
+            while (true) {
+                WindowCounter counter = scopeCounters.computeIfAbsent(sequenceType.name(), k -> new WindowCounter());
+                long result = counter.increment(window);
+                if (result == WindowCounter.SEALED) {
+                    // 计数器已被淘汰，重新获取
+                    continue;
+                }
+                if (WindowCounter.count(result) == 1) {
+                    // 进入新的窗口时淘汰整个窗口内都没有使用的计数器
+                    evictStaleCounters(scopeCounters, window);
+                }
+                return result;
+            }
+        }
+
+        private static void evictStaleCounters(Map<String, WindowCounter> scopeCounters, long window) {
+            scopeCounters.forEach((name, counter) -> {
+                if (counter.seal(window)) {
+                    scopeCounters.remove(name, counter);
+                }
+            });
+        }
+    }
+
+    /**
+     * 窗口计数器，窗口与计数打包在一个 long 中通过 CAS 更新，进入新的窗口时计数从 1 开始
+     * 高 {@link #WINDOW_BITS} 位为窗口，低 {@link #COUNTER_BITS} 位为计数
+     */
+    private static final class WindowCounter {
+
+        private static final int COUNTER_BITS = 30;
+
+        private static final int WINDOW_BITS = Long.SIZE - COUNTER_BITS;
+
+        private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+        /**
+         * 已淘汰的标记
+         */
+        private static final long SEALED = -1L;
+
+        /**
+         * 初始状态，窗口为 0 计数为 0，任何时间窗口都大于 0
+         */
+        private final AtomicLong state = new AtomicLong();
+
+        /**
+         * 计数，窗口落后时使用当前窗口，避免时钟回拨时重复
+         *
+         * @param window 当前时间所在的窗口
+         * @return 窗口与计数打包后的值，计数器已淘汰时返回 {@link #SEALED}
+         */
+        long increment(long window) {
+            AssertUtils.isTrue(window > 0 && window >>> WINDOW_BITS == 0, "invalid sequence window = {}", window);
+            while (true) {
+                long current = state.get();
+                if (current == SEALED) {
+                    return SEALED;
+                }
+                long currentWindow = window(current);
+                long next;
+                if (window > currentWindow) {
+                    next = pack(window, 1);
+                } else {
+                    long count = count(current);
+                    AssertUtils.isTrue(count < COUNTER_MASK, "sequence count exceeds maximum in window = {}", currentWindow);
+                    next = current + 1;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+
+        /**
+         * 计数器的窗口早于当前窗口时淘汰
+         */
+        boolean seal(long window) {
+            long current = state.get();
+            return current != SEALED && window(current) < window && state.compareAndSet(current, SEALED);
+        }
+
+        static long window(long state) {
+            return state >>> COUNTER_BITS;
+        }
+
+        static long count(long state) {
+            return state & COUNTER_MASK;
+        }
+
+        private static long pack(long window, long count) {
+            return (window << COUNTER_BITS) | count;
         }
     }
 }
@@ -0,0 +1,114 @@
+package com.wind.sequence.time;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 时间窗口计算，窗口按系统默认时区划分，与 {@link SequenceTimeScopeType#getPattern()} 格式化的时间前缀一一对应
+ * 时区偏移按秒缓存，时间前缀按窗口缓存，同一窗口内获取前缀不会产生新的对象
+ *
+ * @author wuxp
+ * @date 2026-10-18 01:10
+ **/
+final class TemporalWindows {
+
+    private static final SequenceTimeScopeType[] SCOPES = SequenceTimeScopeType.values();
+
+    private static final DateTimeFormatter[] FORMATTERS = new DateTimeFormatter[SCOPES.length];
+
+    static {
+        for (SequenceTimeScopeType scope : SCOPES) {
+            FORMATTERS[scope.ordinal()] = DateTimeFormatter.ofPattern(scope.getPattern());
+        }
+    }
+
+    /**
+     * 按时间范围缓存的最近一个窗口的时间前缀
+     */
+    private static final AtomicReferenceArray<WindowPrefix> PREFIXES = new AtomicReferenceArray<>(SCOPES.length);
+
+    private static volatile LocalSecond localSecond = new LocalSecond(Long.MIN_VALUE, 0);
+
+    private TemporalWindows() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @return 当前时间所在的窗口
+     */
+    static long currentWindow(SequenceTimeScopeType scope) {
+        return windowOf(scope, currentLocalSecond());
+    }
+
+    /**
+     * @param scope  时间范围
+     * @param window 窗口
+     * @return 窗口的时间前缀
+     */
+    static String prefix(SequenceTimeScopeType scope, long window) {
+        WindowPrefix result = PREFIXES.get(scope.ordinal());
+        if (result != null && result.window == window) {
+            return result.prefix;
+        }
+        result = new WindowPrefix(window, FORMATTERS[scope.ordinal()].format(startOf(scope, window)));
+        PREFIXES.set(scope.ordinal(), result);
+        return result.prefix;
+    }
+
+    /**
+     * @return 当前时间的时间前缀
+     */
+    static String currentPrefix(SequenceTimeScopeType scope) {
+        return prefix(scope, currentWindow(scope));
+    }
+
+    static long windowOf(SequenceTimeScopeType scope, long localSecond) {
+        return switch (scope) {
+            case SECONDS -> localSecond;
+            case MINUTE -> Math.floorDiv(localSecond, 60);
+            case HOUR -> Math.floorDiv(localSecond, 3600);
+            case DAY -> Math.floorDiv(localSecond, 86400);
+            case MONTH -> {
+                LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(localSecond, 86400));
+                yield date.getYear() * 12L + date.getMonthValue() - 1;
+            }
+            case YEAR -> LocalDate.ofEpochDay(Math.floorDiv(localSecond, 86400)).getYear();
+        };
+    }
+
+    private static LocalDateTime startOf(SequenceTimeScopeType scope, long window) {
+        return switch (scope) {
+            case SECONDS -> LocalDateTime.ofEpochSecond(window, 0, ZoneOffset.UTC);
+            case MINUTE -> LocalDateTime.ofEpochSecond(window * 60, 0, ZoneOffset.UTC);
+            case HOUR -> LocalDateTime.ofEpochSecond(window * 3600, 0, ZoneOffset.UTC);
+            case DAY -> LocalDateTime.ofEpochSecond(window * 86400, 0, ZoneOffset.UTC);
+            case MONTH -> LocalDateTime.of((int) Math.floorDiv(window, 12), (int) Math.floorMod(window, 12) + 1, 1, 0, 0);
+            case YEAR -> LocalDateTime.of((int) window, 1, 1, 0, 0);
+        };
+    }
+
+    /**
+     * @return 系统默认时区的本地时间秒数（相对 1970-01-01T00:00:00）
+     */
+    private static long currentLocalSecond() {
+        long epochSecond = Math.floorDiv(System.currentTimeMillis(), 1000);
+        LocalSecond result = localSecond;
+        if (result.epochSecond != epochSecond) {
+            int offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+            result = new LocalSecond(epochSecond, epochSecond + offset);
+            localSecond = result;
+        }
+        return result.localSecond;
+    }
+
+    private record LocalSecond(long epochSecond, long localSecond) {
+    }
+
+    private record WindowPrefix(long window, String prefix) {
+    }
+}
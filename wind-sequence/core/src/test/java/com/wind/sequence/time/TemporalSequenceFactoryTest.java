@@ -0,0 +1,74 @@
+package com.wind.sequence.time;
+
+import com.wind.sequence.WindSequenceType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class TemporalSequenceFactoryTest {
+
+    @Test
+    void testWindowPrefix() {
+        LocalDateTime time = LocalDateTime.of(2024, 2, 29, 23, 59, 58);
+        long localSecond = time.toEpochSecond(ZoneOffset.UTC);
+        for (SequenceTimeScopeType scope : SequenceTimeScopeType.values()) {
+            long window = TemporalWindows.windowOf(scope, localSecond);
+            Assertions.assertEquals(DateTimeFormatter.ofPattern(scope.getPattern()).format(time), TemporalWindows.prefix(scope, window));
+            // 下一秒进入新的窗口的只有秒
+            long nextWindow = TemporalWindows.windowOf(scope, localSecond + 1);
+            Assertions.assertEquals(scope == SequenceTimeScopeType.SECONDS, nextWindow != window, scope.name());
+        }
+        long nextYear = TemporalWindows.windowOf(SequenceTimeScopeType.YEAR, LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC));
+        Assertions.assertEquals("2025", TemporalWindows.prefix(SequenceTimeScopeType.YEAR, nextYear));
+    }
+
+    @Test
+    void testDayNextConcurrent() throws Exception {
+        WindSequenceType sequenceType = WindSequenceType.immutable("TEST_CONCURRENT", "T", 8);
+        int threads = 8;
+        int count = 5000;
+        Set<String> values = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < count; j++) {
+                        values.add(TemporalSequenceFactory.dayNext(sequenceType));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        Assertions.assertEquals(threads * count, values.size());
+        for (String value : values) {
+            Assertions.assertEquals(1 + 8 + 8, value.length());
+            Assertions.assertTrue(value.startsWith("T"));
+        }
+    }
+
+    @Test
+    void testSecondNextResetPerWindow() throws Exception {
+        WindSequenceType sequenceType = WindSequenceType.immutable("TEST_SECOND", "", 6);
+        String first = TemporalSequenceFactory.secondNext(sequenceType);
+        String prefix = first.substring(0, 14);
+        // 等待进入下一秒
+        String next;
+        do {
+            Thread.sleep(50);
+            next = TemporalSequenceFactory.secondNext(sequenceType);
+        } while (next.startsWith(prefix));
+        Assertions.assertTrue(next.endsWith("000001"));
+    }
+}
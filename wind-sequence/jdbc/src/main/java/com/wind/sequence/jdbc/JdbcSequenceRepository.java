@@ -1,10 +1,12 @@
 package com.wind.sequence.jdbc;
 
 import com.wind.common.exception.AssertUtils;
+import com.wind.common.exception.BaseException;
 import com.wind.sequence.SequenceGenerator;
 import com.wind.sequence.SequenceRepository;
 import lombok.Data;
 import lombok.Getter;
+import org.jspecify.annotations.Nullable;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -13,6 +15,7 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * 基于数据库的序列号存储
@@ -29,31 +32,72 @@ public class JdbcSequenceRepository implements SequenceRepository {
             "update `%s` set seq_value = seq_value + step where id = ? and seq_value = ?"
     );
 
+    /**
+     * 预留号段sql，参数为：预留的序列值大小、序列主键、当前序列值
+     */
+    private static final String DEFAULT_ALLOCATE_SQL = "update `%s` set seq_value = seq_value + ? where id = ? and seq_value = ?";
+
+    /**
+     * 预留号段时乐观更新冲突的最大重试次数
+     */
+    private static final int MAX_ALLOCATE_RETRIES = 16;
+
     private final SequenceSql sequenceSql;
 
     private final JdbcTemplate jdbcTemplate;
 
     private final TransactionTemplate transactionTemplate;
 
+    /**
+     * 号段分配配置，为空时每次获取序列号都更新数据库
+     */
+    @Nullable
+    private final SequenceSegmentOptions segmentOptions;
+
+    /**
+     * 号段分配使用独立的事务，避免在调用方的事务中长时间持有序列行锁
+     */
+    @Nullable
+    private final TransactionTemplate segmentTransactionTemplate;
+
     public JdbcSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
         this(DEFAULT_SQL, jdbcTemplate, transactionManager);
     }
 
+    public JdbcSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, SequenceSegmentOptions segmentOptions) {
+        this(DEFAULT_SQL, jdbcTemplate, transactionManager, TransactionDefinition.PROPAGATION_REQUIRED, segmentOptions);
+    }
+
     public JdbcSequenceRepository(SequenceSql sequenceSql, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
         this(sequenceSql, jdbcTemplate, transactionManager, TransactionDefinition.PROPAGATION_REQUIRED);
     }
 
     public JdbcSequenceRepository(SequenceSql sequenceSql, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
                                   int propagationBehavior) {
+        this(sequenceSql, jdbcTemplate, transactionManager, propagationBehavior, null);
+    }
+
+    /**
+     * @param segmentOptions 号段分配配置，不为空时按号段从数据库预留序列号，序列号在单个实例内递增，多个实例之间不保证连续
+     */
+    public JdbcSequenceRepository(SequenceSql sequenceSql, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  int propagationBehavior, @Nullable SequenceSegmentOptions segmentOptions) {
         this.sequenceSql = sequenceSql;
         this.jdbcTemplate = jdbcTemplate;
         this.transactionTemplate = new TransactionTemplate(transactionManager, new DefaultTransactionDefinition(propagationBehavior));
+        this.segmentOptions = segmentOptions;
+        this.segmentTransactionTemplate = segmentOptions == null ? null : new TransactionTemplate(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
     }
 
 
     @Override
     public SequenceGenerator getSequence(String sequenceName, String groupName) {
-        return new JdbcSequenceGenerator(sequenceName, groupName);
+        JdbcSequenceGenerator result = new JdbcSequenceGenerator(sequenceName, groupName);
+        if (segmentOptions == null) {
+            return result;
+        }
+        return new SegmentSequenceGenerator(sequenceName, result::allocate, segmentOptions);
     }
 
     @Getter
@@ -79,15 +123,25 @@ public class JdbcSequenceRepository implements SequenceRepository {
          */
         private final String next;
 
+        /**
+         * 预留号段sql
+         */
+        private final String allocate;
+
         public SequenceSql(String create, String findId, String querySeqValue, String next) {
             this("t_wind_sequence", create, findId, querySeqValue, next);
         }
 
         public SequenceSql(String tableName, String create, String findId, String querySeqValue, String next) {
+            this(tableName, create, findId, querySeqValue, next, DEFAULT_ALLOCATE_SQL);
+        }
+
+        public SequenceSql(String tableName, String create, String findId, String querySeqValue, String next, String allocate) {
             this.create = String.format(create, tableName);
             this.findId = String.format(findId, tableName);
             this.querySeqValue = String.format(querySeqValue, tableName);
             this.next = String.format(next, tableName);
+            this.allocate = String.format(allocate, tableName);
         }
 
     }
@@ -115,7 +169,7 @@ public class JdbcSequenceRepository implements SequenceRepository {
 
         @Override
         public String next() {
-            Integer next = transactionTemplate.execute(transactionStatus -> {
+            Long next = transactionTemplate.execute(transactionStatus -> {
                 SequenceValue current = jdbcTemplate.queryForObject(sequenceSql.querySeqValue,
                         new BeanPropertyRowMapper<>(SequenceValue.class), sequenceId);
                 AssertUtils.notNull(current, () -> "not found current sequence value");
@@ -126,13 +180,39 @@ public class JdbcSequenceRepository implements SequenceRepository {
             AssertUtils.notNull(next, () -> String.format("get sequence name = %s failure", sequenceName));
             return String.valueOf(next);
         }
+
+        /**
+         * 预留号段，乐观更新冲突时重试
+         *
+         * @param size 号段大小
+         * @return 预留的号段
+         */
+        SegmentSequenceGenerator.Segment allocate(long size) {
+            SequenceSegmentOptions options = Objects.requireNonNull(segmentOptions);
+            for (int i = 0; i < MAX_ALLOCATE_RETRIES; i++) {
+                SegmentSequenceGenerator.Segment result = Objects.requireNonNull(segmentTransactionTemplate).execute(status -> {
+                    SequenceValue current = jdbcTemplate.queryForObject(sequenceSql.querySeqValue,
+                            new BeanPropertyRowMapper<>(SequenceValue.class), sequenceId);
+                    AssertUtils.notNull(current, () -> "not found current sequence value");
+                    if (jdbcTemplate.update(sequenceSql.allocate, size * current.stepValue, sequenceId, current.seqValue) == 0) {
+                        return null;
+                    }
+                    long prefetchIndex = Math.min(size - 1, (long) (size * options.prefetchRatio()));
+                    return new SegmentSequenceGenerator.Segment(current.seqValue + current.stepValue, current.stepValue, size, prefetchIndex);
+                });
+                if (result != null) {
+                    return result;
+                }
+            }
+            throw BaseException.common(String.format("allocate sequence name = %s segment failure, size = %d", sequenceName, size));
+        }
     }
 
     @Data
     static class SequenceValue {
 
-        private Integer seqValue;
+        private Long seqValue;
 
-        private Integer stepValue;
+        private Long stepValue;
     }
 }
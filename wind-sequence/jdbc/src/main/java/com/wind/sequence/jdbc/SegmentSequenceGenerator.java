@@ -0,0 +1,195 @@
+package com.wind.sequence.jdbc;
+
+import com.wind.sequence.SequenceGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * 号段序列号生成器，每次从存储中预留一段序列号，在内存中通过无锁游标分配
+ * 当前号段消耗超过预取比例时异步预取下一个号段（双缓冲），号段用完时切换到预取的号段，号段大小根据消耗速度自适应调整
+ *
+ * @author wuxp
+ * @date 2026-10-18 00:45
+ **/
+@Slf4j
+final class SegmentSequenceGenerator implements SequenceGenerator {
+
+    private static final Segment EMPTY = new Segment(0, 1, 0, -1);
+
+    private final String sequenceName;
+
+    /**
+     * 号段分配器，参数为号段大小
+     */
+    private final LongFunction<Segment> allocator;
+
+    private final SequenceSegmentOptions options;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Timer waitTimer;
+
+    private final Counter prefetchCounter;
+
+    private final Counter allocateCounter;
+
+    private volatile Segment current = EMPTY;
+
+    /**
+     * 正在预取的号段，由 {@link #lock} 保护
+     */
+    private CompletableFuture<Segment> prefetching;
+
+    /**
+     * 号段大小与上次分配时间，由 {@code this} 保护
+     */
+    private long segmentSize;
+
+    private long lastAllocateNanos;
+
+    SegmentSequenceGenerator(String sequenceName, LongFunction<Segment> allocator, SequenceSegmentOptions options) {
+        this.sequenceName = sequenceName;
+        this.allocator = allocator;
+        this.options = options;
+        this.segmentSize = options.minSize();
+        this.waitTimer = Timer.builder("wind.sequence.segment.wait")
+                .description("wait time for switching to the next sequence segment")
+                .tag("sequence", sequenceName)
+                .register(Metrics.globalRegistry);
+        this.prefetchCounter = Counter.builder("wind.sequence.segment.allocations")
+                .tag("sequence", sequenceName)
+                .tag("mode", "prefetch")
+                .register(Metrics.globalRegistry);
+        this.allocateCounter = Counter.builder("wind.sequence.segment.allocations")
+                .tag("sequence", sequenceName)
+                .tag("mode", "sync")
+                .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public String next() {
+        return String.valueOf(nextValue());
+    }
+
+    long nextValue() {
+        while (true) {
+            Segment segment = current;
+            long index = segment.cursor.getAndIncrement();
+            if (index < segment.size) {
+                if (index == segment.prefetchIndex) {
+                    prefetch(segment);
+                }
+                return segment.valueAt(index);
+            }
+            switchSegment(segment);
+        }
+    }
+
+    private void prefetch(Segment segment) {
+        lock.lock();
+        try {
+            if (prefetching == null && current == segment) {
+                prefetching = CompletableFuture.supplyAsync(this::allocate, options.prefetchExecutor());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void switchSegment(Segment exhausted) {
+        lock.lock();
+        try {
+            if (current != exhausted) {
+                // 其它线程已切换
+                return;
+            }
+            long startNanos = System.nanoTime();
+            CompletableFuture<Segment> future = prefetching;
+            prefetching = null;
+            Segment next = null;
+            if (future != null) {
+                try {
+                    next = future.join();
+                    prefetchCounter.increment();
+                } catch (Exception exception) {
+                    log.warn("prefetch sequence segment failure, sequence name = {}", sequenceName, exception);
+                }
+            }
+            if (next == null) {
+                next = allocate();
+                allocateCounter.increment();
+            }
+            waitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            current = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Segment allocate() {
+        return allocator.apply(nextSegmentSize());
+    }
+
+    /**
+     * 按上一个号段的消耗时长调整号段大小
+     */
+    private synchronized long nextSegmentSize() {
+        long now = System.nanoTime();
+        if (lastAllocateNanos != 0) {
+            long elapsed = now - lastAllocateNanos;
+            long expected = options.segmentDuration().toNanos();
+            if (elapsed < expected) {
+                segmentSize = Math.min(options.maxSize(), segmentSize * 2);
+            } else if (elapsed >= expected * 2) {
+                segmentSize = Math.max(options.minSize(), segmentSize / 2);
+            }
+        }
+        lastAllocateNanos = now;
+        return segmentSize;
+    }
+
+    synchronized long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * 预留的号段
+     */
+    static final class Segment {
+
+        /**
+         * 号段的第一个序列号
+         */
+        private final long first;
+
+        private final long step;
+
+        private final long size;
+
+        /**
+         * 分配到该位置时触发预取
+         */
+        private final long prefetchIndex;
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        Segment(long first, long step, long size, long prefetchIndex) {
+            this.first = first;
+            this.step = step;
+            this.size = size;
+            this.prefetchIndex = prefetchIndex;
+        }
+
+        long valueAt(long index) {
+            return first + index * step;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.wind.sequence.jdbc;
+
+import com.wind.common.exception.AssertUtils;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * 序列号号段分配配置
+ *
+ * @param minSize          号段最小大小
+ * @param maxSize          号段最大大小
+ * @param prefetchRatio    当前号段消耗超过该比例时异步预取下一个号段
+ * @param segmentDuration  期望的号段消耗时长，号段消耗快于该时长时号段大小翻倍，慢于 2 倍该时长时号段大小减半
+ * @param prefetchExecutor 预取号段的执行器
+ * @author wuxp
+ * @date 2026-10-18 00:40
+ **/
+public record SequenceSegmentOptions(int minSize, int maxSize, double prefetchRatio, Duration segmentDuration, Executor prefetchExecutor) {
+
+    private static final Executor DEFAULT_PREFETCH_EXECUTOR = command -> Thread.ofVirtual().name("wind-sequence-segment-prefetch").start(command);
+
+    public SequenceSegmentOptions {
+        AssertUtils.isTrue(minSize > 0 && minSize <= maxSize, "invalid segment size range, min = {}, max = {}", minSize, maxSize);
+        AssertUtils.isTrue(prefetchRatio > 0 && prefetchRatio < 1, "argument prefetchRatio must in (0, 1)");
+        AssertUtils.notNull(segmentDuration, "argument segmentDuration must not null");
+        AssertUtils.notNull(prefetchExecutor, "argument prefetchExecutor must not null");
+    }
+
+    public SequenceSegmentOptions(int minSize, int maxSize) {
+        this(minSize, maxSize, 0.5, Duration.ofMinutes(15), DEFAULT_PREFETCH_EXECUTOR);
+    }
+
+    public static SequenceSegmentOptions defaults() {
+        return new SequenceSegmentOptions(100, 100000);
+    }
+}
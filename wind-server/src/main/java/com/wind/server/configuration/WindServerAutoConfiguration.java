@@ -79,8 +79,9 @@ public class WindServerAutoConfiguration {
     @Bean
     @ConditionalOnBean(AuditLogRecorder.class)
     @ConditionalOnMissingBean(ScriptAuditLogRecorder.class)
-    public WebAuditLogRecorder webAuditLogRecorder(AuditLogRecorder recorder) {
-        return new WebAuditLogRecorder(recorder);
+    public WebAuditLogRecorder webAuditLogRecorder(AuditLogRecorder recorder, WindServerProperties properties) {
+        WindServerProperties.AuditLogProperties auditLog = properties.getAuditLog();
+        return new WebAuditLogRecorder(recorder, auditLog.isAsync() ? auditLog.toAsyncOptions() : null);
     }
 
     @Bean
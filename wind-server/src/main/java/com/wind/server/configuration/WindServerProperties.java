@@ -3,9 +3,12 @@ package com.wind.server.configuration;
 import com.wind.api.core.signature.ApiSecretAccount;
 import com.wind.api.core.signature.ApiSignAlgorithm;
 import com.wind.common.WindConstants;
+import com.wind.script.auditlog.AuditLogAsyncOptions;
+import com.wind.script.auditlog.AuditLogOverflowPolicy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 
@@ -34,6 +37,11 @@ public class WindServerProperties {
      */
     private ApiSignatureProperties apiSignature;
 
+    /**
+     * 审计日志配置
+     */
+    private AuditLogProperties auditLog = new AuditLogProperties();
+
 
     @Data
     public static class ControllerMethodAspectProperties {
@@ -47,6 +55,59 @@ public class WindServerProperties {
 
     }
 
+    /**
+     * 审计日志配置
+     */
+    @Data
+    public static class AuditLogProperties {
+
+        /**
+         * 是否异步记录审计日志
+         */
+        private boolean async = false;
+
+        /**
+         * 异步队列容量
+         */
+        private int queueCapacity = 4096;
+
+        /**
+         * 单批次最大日志条数
+         */
+        private int batchSize = 64;
+
+        /**
+         * 异步工作线程数
+         */
+        private int workerThreads = 1;
+
+        /**
+         * 批次未满时最长等待时间
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * 队列已满时的处理策略
+         */
+        private AuditLogOverflowPolicy overflowPolicy = AuditLogOverflowPolicy.DROP;
+
+        /**
+         * BLOCK 策略的最长阻塞时间
+         */
+        private Duration blockTimeout = Duration.ofMillis(50);
+
+        public AuditLogAsyncOptions toAsyncOptions() {
+            return AuditLogAsyncOptions.builder()
+                    .queueCapacity(queueCapacity)
+                    .batchSize(batchSize)
+                    .workerThreads(workerThreads)
+                    .flushInterval(flushInterval)
+                    .overflowPolicy(overflowPolicy)
+                    .blockTimeout(blockTimeout)
+                    .build();
+        }
+    }
+
     /**
      * api 签名配置
      */
@@ -1,9 +1,11 @@
 package com.wind.server.logging;
 
+import com.wind.script.auditlog.AuditLogAsyncOptions;
 import com.wind.script.auditlog.AuditLogRecorder;
 import com.wind.script.auditlog.ScriptAuditLogRecorder;
 import com.wind.server.web.supports.ApiResp;
 import com.wind.web.util.HttpServletRequestUtils;
+import org.jspecify.annotations.Nullable;
 import org.springframework.http.HttpHeaders;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,10 @@ public class WebAuditLogRecorder extends ScriptAuditLogRecorder {
         super(recorder, WebAuditLogRecorder::getRequestVariables);
     }
 
+    public WebAuditLogRecorder(AuditLogRecorder recorder, @Nullable AuditLogAsyncOptions asyncOptions) {
+        super(recorder, WebAuditLogRecorder::getRequestVariables, asyncOptions);
+    }
+
     @Override
     @SuppressWarnings("rawtypes")
     protected Object resolveMethodReturnValue(Object methodReturnValue) {
@@ -10,6 +10,7 @@ import com.wind.common.util.ServiceInfoUtils;
 import com.wind.server.servlet.RepeatableReadRequestWrapper;
 import com.wind.server.web.filters.WindWebFilterOrdered;
 import com.wind.server.web.restful.RestfulApiRespFactory;
+import com.wind.signature.SignatureAlgorithm;
 import com.wind.web.util.HttpResponseMessageUtils;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -83,15 +84,14 @@ public record RequestSignFilter(SignatureHttpHeaderNames headerNames, ApiSecretA
             badRequest(response, SIGAN_VERIFY_ERROR_MESSAGE);
             return;
         }
-        ApiSignatureRequest signatureRequest = buildSignatureRequest(httpRequest, signRequireBody);
-        String requestSign = request.getHeader(headerNames.sign());
-
         // 使用访问标识和秘钥版本号加载秘钥账号
         ApiSecretAccount account = apiSecretAccountProvider.apply(accessId, request.getHeader(headerNames.secretVersion()));
         if (account == null) {
             badRequest(response, String.format("please check %s, %s request header", headerNames.accessId(), headerNames.secretVersion()));
             return;
         }
+        ApiSignatureRequest signatureRequest = buildSignatureRequest(httpRequest, signRequireBody, account.getSigner().getAlgorithm());
+        String requestSign = request.getHeader(headerNames.sign());
         if (account.getSigner().verify(signatureRequest, account.getSecretKey(), requestSign)) {
             // 设置到签名认证账号到上下文中
             request.setAttribute(WindHttpConstants.API_SECRET_ACCOUNT_ATTRIBUTE_NAME, account);
@@ -125,7 +125,7 @@ public record RequestSignFilter(SignatureHttpHeaderNames headerNames, ApiSecretA
         return ignoreRequestMatchers.stream().anyMatch(requestMatcher -> requestMatcher.matches(request));
     }
 
-    private ApiSignatureRequest buildSignatureRequest(HttpServletRequest request, boolean requiredBody) throws IOException {
+    private ApiSignatureRequest buildSignatureRequest(HttpServletRequest request, boolean requiredBody, SignatureAlgorithm algorithm) throws IOException {
         ApiSignatureRequest.ApiSignatureRequestBuilder result = ApiSignatureRequest.builder()
                 // http 请求 path，不包含查询参数和域名
                 .requestPath(request.getRequestURI())
@@ -136,7 +136,12 @@ public record RequestSignFilter(SignatureHttpHeaderNames headerNames, ApiSecretA
                 .nonce(request.getHeader(headerNames.nonce()))
                 .timestamp(request.getHeader(headerNames.timestamp()));
         if (requiredBody) {
-            result.requestBody(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+            if (algorithm == SignatureAlgorithm.SHA256_WITH_RSA) {
+                result.requestBody(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+            } else {
+                // 摘要签名只需要请求体的摘要，流式计算避免将请求体复制为字符串
+                result.requestBodyDigest(request.getInputStream());
+            }
         }
         return result.build();
     }